@@ -15,6 +15,7 @@
  */
 package com.dremio.common.concurrent;
 
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -29,6 +30,14 @@ public class CloseableThreadPool extends ThreadPoolExecutor implements Closeable
     super(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), new NamedThreadFactory(name));
   }
 
+  /**
+   * Thread pool running at most maxThreads tasks at once, and queuing the other tasks.
+   */
+  public CloseableThreadPool(String name, int maxThreads) {
+    super(maxThreads, maxThreads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory(name));
+    allowCoreThreadTimeOut(true);
+  }
+
   @Override
   protected void afterExecute(final Runnable r, final Throwable t) {
     if (t != null) {
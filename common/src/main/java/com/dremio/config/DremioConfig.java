@@ -57,6 +57,13 @@ public class DremioConfig extends NestedConfig {
   public static final String ENABLE_COORDINATOR_BOOL = "services.coordinator.enabled";
   public static final String ENABLE_MASTER_BOOL = "services.coordinator.master.enabled";
   public static final String ENABLE_EXECUTOR_BOOL = "services.executor.enabled";
+  public static final String EXECUTOR_CACHE_ENABLED_BOOL = "services.executor.cache.enabled";
+  public static final String EXECUTOR_CACHE_FS_PATHS = "services.executor.cache.path.fs";
+  public static final String EXECUTOR_CACHE_FS_PCT_QUOTA = "services.executor.cache.pctquota.fs";
+  public static final String EXECUTOR_CACHE_FS_ENSURE_FREE_SPACE = "services.executor.cache.ensurefreespace.fs";
+  public static final String EXECUTOR_CACHE_BLOCK_SIZE = "services.executor.cache.blocksize";
+  public static final String EXECUTOR_CACHE_FS_MAX_SIZE = "services.executor.cache.maxsize.fs";
+  public static final String EXECUTOR_CACHE_IO_THREADS = "services.executor.cache.iothreads";
   public static final String EMBEDDED_MASTER_ZK_ENABLED_BOOL = "services.coordinator.master.embedded-zookeeper.enabled";
   public static final String EMBEDDED_MASTER_ZK_ENABLED_PORT_INT = "services.coordinator.master.embedded-zookeeper.port";
   public static final String EMBEDDED_MASTER_ZK_ENABLED_PATH_STRING = "services.coordinator.master.embedded-zookeeper.path";
@@ -92,6 +99,9 @@ public class DremioConfig extends NestedConfig {
   public static final String CONDUIT_PORT_INT = "services.conduit.port";
   public static final String FLIGHT_SERVICE_ENABLED_BOOLEAN = "services.flight.enabled";
   public static final String FLIGHT_SERVICE_PORT_INT = "services.flight.port";
+  public static final String FLIGHT_EXECUTOR_ENABLED_BOOLEAN = "services.flight.executor.enabled";
+  public static final String FLIGHT_EXECUTOR_PORT_INT = "services.flight.executor.port";
+  public static final String FLIGHT_EXECUTOR_SECRET_STRING = "services.flight.executor.secret";
 
   public static final String AUTOUPGRADE = "services.coordinator.auto-upgrade";
 
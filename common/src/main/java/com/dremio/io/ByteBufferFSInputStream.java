@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import com.google.common.primitives.Ints;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * An implementation of {@code FSInputStream} using a {@code ByteBuffer},
+ * like a memory-mapped file, as its backend.
+ *
+ * The buffer is not modified by the stream. A stream created with
+ * {@link #map(FileChannel, long, long)} owns its mapping, and unmaps it when closed.
+ */
+@NotThreadSafe
+public class ByteBufferFSInputStream extends FSInputStream {
+  private final ByteBuffer buffer;
+  // mapping unmapped on close, null if the buffer isn't owned by the stream
+  private ByteBuffer mapping;
+  private boolean closed;
+
+  /**
+   * Creates a new stream
+   *
+   * The current position and limit of the buffer will be used as the start and
+   * end indices.
+   * @param buffer
+   */
+  public ByteBufferFSInputStream(ByteBuffer buffer) {
+    this(buffer, false);
+  }
+
+  private ByteBufferFSInputStream(ByteBuffer buffer, boolean owned) {
+    this.buffer = buffer.slice();
+    this.mapping = owned ? buffer : null;
+  }
+
+  /**
+   * Creates a stream over a read-only mapping of a region of a file. The mapping is released when the stream
+   * is closed, instead of when it is garbage collected, so that the address space and the file are released
+   * as soon as the stream isn't used anymore.
+   *
+   * @param channel channel of the file
+   * @param position start of the region
+   * @param size size of the region, at most {@code Integer.MAX_VALUE}
+   * @return the stream
+   */
+  public static ByteBufferFSInputStream map(FileChannel channel, long position, long size) throws IOException {
+    return new ByteBufferFSInputStream(channel.map(FileChannel.MapMode.READ_ONLY, position, size), true);
+  }
+
+  private void checkOpen() throws IOException {
+    // reading an unmapped buffer would crash the process
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+  }
+
+  @Override
+  public int read() throws IOException {
+    checkOpen();
+    if (!buffer.hasRemaining()) {
+      return -1;
+    }
+    return buffer.get() & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    checkOpen();
+    if (!buffer.hasRemaining()) {
+      return -1;
+    }
+    int toRead = Math.min(len, buffer.remaining());
+    buffer.get(b, off, toRead);
+    return toRead;
+  }
+
+  @Override
+  public int read(ByteBuffer dst) throws IOException {
+    checkOpen();
+    if (!buffer.hasRemaining()) {
+      return -1;
+    }
+    int toRead = Math.min(buffer.remaining(), dst.remaining());
+    ByteBuffer tmpBuf = (ByteBuffer) buffer.slice().limit(toRead);
+    dst.put(tmpBuf);
+    buffer.position(buffer.position() + toRead);
+    return toRead;
+  }
+
+  @Override
+  public int read(long position, ByteBuffer dst) throws IOException {
+    setPosition(position);
+    return read(dst);
+  }
+
+  @Override
+  public long getPosition() throws IOException {
+    return buffer.position();
+  }
+
+  @Override
+  public void setPosition(long position) throws IOException {
+    checkOpen();
+    if (position > buffer.limit()) {
+      throw new EOFException("Cannot move past end of buffer");
+    }
+    // Cast is safe as position less than limit
+    buffer.position((int) position);
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    checkOpen();
+    int toSkip = Ints.saturatedCast(Math.min(buffer.remaining(), n));
+    if (toSkip <= 0) {
+      return 0;
+    }
+
+    buffer.position(buffer.position() + toSkip);
+    return toSkip;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  @Override
+  public synchronized void mark(int readlimit) {
+    buffer.mark();
+  }
+
+  @Override
+  public synchronized void reset() throws IOException {
+    checkOpen();
+    buffer.reset();
+  }
+
+  @Override
+  public int available() throws IOException {
+    return closed ? 0 : buffer.remaining();
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    if (mapping != null) {
+      PlatformDependent.freeDirectBuffer(mapping);
+      mapping = null;
+    }
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link ByteBufferFSInputStream}
+ */
+public class TestByteBufferFSInputStream {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testRead() throws IOException {
+    final byte[] data = {0, 1, 2, 3, 4, 5, 6, 7};
+    try (ByteBufferFSInputStream stream = new ByteBufferFSInputStream(ByteBuffer.wrap(data, 2, 6))) {
+      assertEquals(2, stream.read());
+      stream.setPosition(4);
+      final byte[] bytes = new byte[4];
+      assertEquals(2, stream.read(bytes, 0, 4));
+      assertEquals(6, bytes[0]);
+      assertEquals(-1, stream.read());
+    }
+  }
+
+  @Test
+  public void testMappedStreamIsUnmappedOnClose() throws IOException {
+    final byte[] data = {0, 1, 2, 3, 4, 5, 6, 7};
+    final File file = folder.newFile();
+    Files.write(file.toPath(), data);
+
+    final ByteBufferFSInputStream stream;
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      stream = ByteBufferFSInputStream.map(channel, 0, data.length);
+    }
+    // the mapping outlives the channel
+    final ByteBuffer dst = ByteBuffer.allocate(data.length);
+    assertEquals(data.length, stream.read(0, dst));
+    assertArrayEquals(data, dst.array());
+
+    stream.close();
+    assertEquals(0, stream.available());
+    try {
+      stream.read();
+      fail("Reading a closed stream should fail");
+    } catch (IOException e) {
+      // expected
+    }
+    // closing again is a no-op
+    stream.close();
+  }
+}
@@ -174,6 +174,7 @@ import com.dremio.service.execselector.ExecutorSelectorFactoryImpl;
 import com.dremio.service.execselector.ExecutorSelectorProvider;
 import com.dremio.service.executor.ExecutorServiceClientFactory;
 import com.dremio.service.flight.DremioFlightService;
+import com.dremio.service.flight.ExecutorFlightService;
 import com.dremio.service.grpc.GrpcChannelBuilderFactory;
 import com.dremio.service.grpc.GrpcServerBuilderFactory;
 import com.dremio.service.grpc.MultiTenantGrpcServerBuilderFactory;
@@ -1064,6 +1065,13 @@ public class DACDaemonModule implements DACModule {
         registry.provider(OptionManager.class)));
     }
 
+    if (isExecutor && config.getBoolean(DremioConfig.FLIGHT_EXECUTOR_ENABLED_BOOLEAN)) {
+      registry.bindSelf(new ExecutorFlightService(
+        registry.provider(DremioConfig.class),
+        registry.provider(BufferAllocator.class),
+        registry.provider(SabotContext.class)));
+    }
+
     registerHeapMonitorManager(registry, isCoordinator);
   }
 
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.IntVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.sabot.op.aggregate.vectorized.Accumulator;
+import com.dremio.sabot.op.aggregate.vectorized.AccumulatorSet;
+import com.dremio.sabot.op.aggregate.vectorized.MaxAccumulators;
+import com.dremio.sabot.op.aggregate.vectorized.SumAccumulators;
+import com.dremio.sabot.op.aggregate.vectorized.VectorizedHashAggOperator;
+import com.dremio.sabot.op.common.ht2.LBlockHashTable;
+import com.koloboke.collect.hash.HashConfig;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Accumulation path of the vectorized hash agg: SUM and MAX of an int measure, grouped by synthetic keys whose
+ * ordinals are computed once during setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class AccumulateBenchmark {
+  private static final int NUM_BATCHES = 16;
+  private static final int BATCH_SIZE = 4096;
+
+  @Param({"INT", "MIXED"})
+  public PivotedKeys.KeyType keyType;
+
+  @Param({"100", "10000", "1000000"})
+  public int cardinality;
+
+  @Param({"0", "0.1"})
+  public double nullDensity;
+
+  private BufferAllocator allocator;
+  private PivotedKeys keys;
+  private final List<IntVector> measures = new ArrayList<>();
+  private final List<ArrowBuf> ordinals = new ArrayList<>();
+  private AccumulatorSet accumulators;
+  private LBlockHashTable table;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    keys = new PivotedKeys(allocator, keyType, NUM_BATCHES, BATCH_SIZE, cardinality, nullDensity, 4, 16);
+
+    final BatchGenerator generator = new BatchGenerator(allocator, BATCH_SIZE, cardinality, nullDensity);
+    for (int batch = 0; batch < NUM_BATCHES; batch++) {
+      measures.add(generator.intValues("m"));
+    }
+
+    final IntVector input = measures.get(0);
+    final BigIntVector sumOutput = new BigIntVector("sum", allocator);
+    final IntVector maxOutput = new IntVector("max", allocator);
+    accumulators = new AccumulatorSet(4 * 1024, 64 * 1024, allocator,
+      new SumAccumulators.IntSumAccumulator(input, sumOutput, sumOutput, BATCH_SIZE, allocator),
+      new MaxAccumulators.IntMaxAccumulator(input, maxOutput, maxOutput, BATCH_SIZE, allocator));
+    table = new LBlockHashTable(HashConfig.getDefault(), keys.getPivot(), allocator, BATCH_SIZE, 15, false,
+      accumulators, BATCH_SIZE);
+
+    // insert the keys once, and record the (ordinal, record index) pairs the accumulators consume
+    for (int batch = 0; batch < NUM_BATCHES; batch++) {
+      final ArrowBuf buf = allocator.buffer(BATCH_SIZE * VectorizedHashAggOperator.PARTITIONINDEX_HTORDINAL_WIDTH);
+      ordinals.add(buf);
+      final long fixedAddr = keys.getFixedAddress(batch);
+      final long varAddr = keys.getVariableAddress(batch);
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        final int ordinal = table.add(fixedAddr, varAddr, i, keys.getHash(batch, i));
+        final long addr = buf.memoryAddress() + i * VectorizedHashAggOperator.PARTITIONINDEX_HTORDINAL_WIDTH;
+        PlatformDependent.putInt(addr + VectorizedHashAggOperator.HTORDINAL_OFFSET, ordinal);
+        PlatformDependent.putInt(addr + VectorizedHashAggOperator.KEYINDEX_OFFSET, i);
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    AutoCloseables.close(ordinals, measures);
+    AutoCloseables.close(table, accumulators, keys, allocator);
+  }
+
+  @Benchmark
+  public void accumulate() {
+    for (int batch = 0; batch < NUM_BATCHES; batch++) {
+      for (Accumulator accumulator : accumulators.getChildren()) {
+        accumulator.setInput(measures.get(batch));
+      }
+      accumulators.accumulate(ordinals.get(batch).memoryAddress(), BATCH_SIZE, table.getBitsInChunk(),
+        table.getChunkOffsetMask());
+    }
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Generates synthetic arrow vectors for the benchmarks.<br>
+ * <br>
+ * Keys are drawn uniformly from a fixed number of distinct values (the cardinality), a given fraction of the
+ * values is null and variable width values have a random length within a range. The generator is seeded so
+ * that the same parameters always produce the same data, which keeps results comparable across commits.
+ */
+public final class BatchGenerator {
+  private static final long SEED = 0xD2E210L;
+  private static final char[] ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".toCharArray();
+
+  private final BufferAllocator allocator;
+  private final int numRecords;
+  private final int cardinality;
+  private final double nullDensity;
+  private final Random random = new Random(SEED);
+
+  /**
+   * @param allocator allocator for the generated vectors
+   * @param numRecords number of values in each generated vector
+   * @param cardinality number of distinct non null values in each generated key vector
+   * @param nullDensity fraction of null values, between 0 and 1
+   */
+  public BatchGenerator(BufferAllocator allocator, int numRecords, int cardinality, double nullDensity) {
+    Preconditions.checkArgument(numRecords > 0, "at least one record is required");
+    Preconditions.checkArgument(cardinality > 0, "cardinality must be positive");
+    Preconditions.checkArgument(nullDensity >= 0 && nullDensity <= 1, "null density must be between 0 and 1");
+    this.allocator = allocator;
+    this.numRecords = numRecords;
+    this.cardinality = cardinality;
+    this.nullDensity = nullDensity;
+  }
+
+  public int getNumRecords() {
+    return numRecords;
+  }
+
+  private boolean isNull() {
+    return nullDensity > 0 && random.nextDouble() < nullDensity;
+  }
+
+  /**
+   * Int key column with the configured cardinality
+   */
+  public IntVector intKeys(String name) {
+    final IntVector vector = new IntVector(name, allocator);
+    vector.allocateNew(numRecords);
+    for (int i = 0; i < numRecords; i++) {
+      if (!isNull()) {
+        vector.set(i, random.nextInt(cardinality));
+      }
+    }
+    vector.setValueCount(numRecords);
+    return vector;
+  }
+
+  /**
+   * Bigint key column with the configured cardinality. Keys are spread over the whole long range.
+   */
+  public BigIntVector bigIntKeys(String name) {
+    final BigIntVector vector = new BigIntVector(name, allocator);
+    vector.allocateNew(numRecords);
+    for (int i = 0; i < numRecords; i++) {
+      if (!isNull()) {
+        vector.set(i, random.nextInt(cardinality) * 0x9E3779B97F4A7C15L);
+      }
+    }
+    vector.setValueCount(numRecords);
+    return vector;
+  }
+
+  /**
+   * Int measure column with uniformly distributed values
+   */
+  public IntVector intValues(String name) {
+    final IntVector vector = new IntVector(name, allocator);
+    vector.allocateNew(numRecords);
+    for (int i = 0; i < numRecords; i++) {
+      if (!isNull()) {
+        vector.set(i, random.nextInt());
+      }
+    }
+    vector.setValueCount(numRecords);
+    return vector;
+  }
+
+  /**
+   * Varchar key column with the configured cardinality
+   *
+   * @param name vector name
+   * @param minLength minimum length of the values
+   * @param maxLength maximum length of the values
+   */
+  public VarCharVector varCharKeys(String name, int minLength, int maxLength) {
+    Preconditions.checkArgument(minLength >= 0 && maxLength >= minLength, "invalid length range");
+    // build the dictionary of distinct values first so that equal keys have equal lengths
+    final byte[][] dictionary = new byte[cardinality][];
+    for (int i = 0; i < cardinality; i++) {
+      final int length = minLength + random.nextInt(maxLength - minLength + 1);
+      final char[] chars = new char[length];
+      for (int j = 0; j < length; j++) {
+        chars[j] = ALPHABET[random.nextInt(ALPHABET.length)];
+      }
+      dictionary[i] = new String(chars).getBytes(StandardCharsets.UTF_8);
+    }
+
+    final VarCharVector vector = new VarCharVector(name, allocator);
+    vector.allocateNew((long) numRecords * (minLength + maxLength) / 2 + 1, numRecords);
+    for (int i = 0; i < numRecords; i++) {
+      if (!isNull()) {
+        vector.setSafe(i, dictionary[random.nextInt(cardinality)]);
+      }
+    }
+    vector.setValueCount(numRecords);
+    return vector;
+  }
+}
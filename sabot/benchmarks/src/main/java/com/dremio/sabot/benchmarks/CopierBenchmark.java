@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.sabot.op.copier.FieldBufferCopier;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Selection vector copy path of the {@link FieldBufferCopier} family, as used by the vectorized copier after a
+ * filter: int, bigint and varchar columns copied through a two byte selection vector.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class CopierBenchmark {
+  private static final int BATCH_SIZE = 4096;
+  private static final long SEED = 0xC0B1E5L;
+
+  @Param({"0.1", "0.5", "1"})
+  public double selectivity;
+
+  @Param({"0", "0.1"})
+  public double nullDensity;
+
+  @Param({"4-16", "32-128"})
+  public String varLength;
+
+  private BufferAllocator allocator;
+  private final List<FieldVector> inputs = new ArrayList<>();
+  private final List<FieldVector> outputs = new ArrayList<>();
+  private List<FieldBufferCopier> copiers;
+  private ArrowBuf sv2;
+  private int count;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    final String[] lengths = varLength.split("-");
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    final BatchGenerator generator = new BatchGenerator(allocator, BATCH_SIZE, BATCH_SIZE, nullDensity);
+    inputs.add(generator.intKeys("i"));
+    inputs.add(generator.bigIntKeys("b"));
+    inputs.add(generator.varCharKeys("v", Integer.parseInt(lengths[0]), Integer.parseInt(lengths[1])));
+    outputs.add(new IntVector("i", allocator));
+    outputs.add(new BigIntVector("b", allocator));
+    outputs.add(new VarCharVector("v", allocator));
+    copiers = FieldBufferCopier.getCopiers(inputs, outputs);
+
+    // selected records are spread randomly over the batch, in increasing order
+    final Random random = new Random(SEED);
+    sv2 = allocator.buffer(BATCH_SIZE * 2);
+    count = 0;
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      if (random.nextDouble() < selectivity) {
+        PlatformDependent.putShort(sv2.memoryAddress() + count * 2, (short) i);
+        count++;
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    AutoCloseables.close(outputs, inputs);
+    AutoCloseables.close(sv2, allocator);
+  }
+
+  @Benchmark
+  public void copy() {
+    final long addr = sv2.memoryAddress();
+    for (FieldBufferCopier copier : copiers) {
+      copier.copy(addr, count);
+    }
+  }
+}
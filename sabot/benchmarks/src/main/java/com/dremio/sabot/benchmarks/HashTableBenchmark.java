@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.sabot.op.common.ht2.LBlockHashTable;
+import com.dremio.sabot.op.common.ht2.ResizeListener;
+import com.koloboke.collect.hash.HashConfig;
+
+/**
+ * Pivot, hash, insert and probe paths of {@link LBlockHashTable}, as used by the vectorized hash agg (insert) and
+ * hash join (insert on build, find on probe) operators.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class HashTableBenchmark {
+  private static final int NUM_BATCHES = 16;
+  private static final int BATCH_SIZE = 4096;
+
+  @Param({"INT", "VARCHAR", "MIXED"})
+  public PivotedKeys.KeyType keyType;
+
+  @Param({"1000", "1000000"})
+  public int cardinality;
+
+  @Param({"0", "0.1"})
+  public double nullDensity;
+
+  @Param({"4-16"})
+  public String varLength;
+
+  private BufferAllocator allocator;
+  private PivotedKeys keys;
+  private LBlockHashTable table;
+  private ArrowBuf ordinals;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    final String[] lengths = varLength.split("-");
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    keys = new PivotedKeys(allocator, keyType, NUM_BATCHES, BATCH_SIZE, cardinality, nullDensity,
+      Integer.parseInt(lengths[0]), Integer.parseInt(lengths[1]));
+    table = newTable();
+    insertAll(table);
+    ordinals = allocator.buffer(BATCH_SIZE * LBlockHashTable.ORDINAL_SIZE);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    AutoCloseables.close(ordinals, table, keys, allocator);
+  }
+
+  private LBlockHashTable newTable() {
+    return new LBlockHashTable(HashConfig.getDefault(), keys.getPivot(), allocator, BATCH_SIZE, 15, false,
+      ResizeListener.NO_OP, BATCH_SIZE);
+  }
+
+  private int insertAll(LBlockHashTable table) {
+    int result = 0;
+    for (int batch = 0; batch < NUM_BATCHES; batch++) {
+      final long fixedAddr = keys.getFixedAddress(batch);
+      final long varAddr = keys.getVariableAddress(batch);
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        result ^= table.add(fixedAddr, varAddr, i, keys.getHash(batch, i));
+      }
+    }
+    return result;
+  }
+
+  private void insertAllBatched(LBlockHashTable table) {
+    for (int batch = 0; batch < NUM_BATCHES; batch++) {
+      table.addBatch(keys.getFixedAddress(batch), keys.getVariableAddress(batch), keys.getHashAddress(batch),
+        BATCH_SIZE, ordinals.memoryAddress());
+    }
+  }
+
+  @Benchmark
+  public void pivot() {
+    for (int batch = 0; batch < NUM_BATCHES; batch++) {
+      keys.pivot(batch);
+    }
+  }
+
+  @Benchmark
+  public void hash() {
+    for (int batch = 0; batch < NUM_BATCHES; batch++) {
+      keys.hash(batch);
+    }
+  }
+
+  /**
+   * Builds a new table from scratch, including the resizes
+   */
+  @Benchmark
+  public void insert(Blackhole blackhole) throws Exception {
+    try (LBlockHashTable newTable = newTable()) {
+      blackhole.consume(insertAll(newTable));
+    }
+  }
+
+  @Benchmark
+  public int probe() {
+    int result = 0;
+    for (int batch = 0; batch < NUM_BATCHES; batch++) {
+      final long fixedAddr = keys.getFixedAddress(batch);
+      final long varAddr = keys.getVariableAddress(batch);
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        result ^= table.find(fixedAddr, varAddr, i, keys.getHash(batch, i));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Same as {@link #insert(Blackhole)}, through the batched (windowed prefetch) method
+   */
+  @Benchmark
+  public void insertBatch() throws Exception {
+    try (LBlockHashTable newTable = newTable()) {
+      insertAllBatched(newTable);
+    }
+  }
+
+  @Benchmark
+  public void probeBatch() {
+    for (int batch = 0; batch < NUM_BATCHES; batch++) {
+      table.findBatch(keys.getFixedAddress(batch), keys.getVariableAddress(batch), keys.getHashAddress(batch),
+        BATCH_SIZE, ordinals.memoryAddress());
+    }
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.SimpleBigIntVector;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.sabot.op.common.ht2.BlockChunk;
+import com.dremio.sabot.op.common.ht2.FieldVectorPair;
+import com.dremio.sabot.op.common.ht2.FixedBlockVector;
+import com.dremio.sabot.op.common.ht2.HashComputation;
+import com.dremio.sabot.op.common.ht2.PivotBuilder;
+import com.dremio.sabot.op.common.ht2.PivotDef;
+import com.dremio.sabot.op.common.ht2.Pivots;
+import com.dremio.sabot.op.common.ht2.VariableBlockVector;
+
+/**
+ * Batches of synthetic group by/join keys, pivoted and hashed the same way the vectorized hash agg and hash join
+ * operators do it before inserting into or probing the hash table.
+ */
+public final class PivotedKeys implements AutoCloseable {
+
+  /**
+   * Key column layouts
+   */
+  public enum KeyType {
+    /** single int key */
+    INT,
+    /** single varchar key */
+    VARCHAR,
+    /** bigint, int and varchar keys */
+    MIXED
+  }
+
+  private final int batchSize;
+  private final List<List<FieldVector>> keyVectors = new ArrayList<>();
+  // the pivot definitions reference the vectors they were built from, so each batch needs its own
+  private final PivotDef[] pivots;
+  private final FixedBlockVector[] fixed;
+  private final VariableBlockVector[] variable;
+  private final SimpleBigIntVector[] hashes;
+
+  /**
+   * @param allocator allocator for all the vectors
+   * @param keyType key columns to generate
+   * @param numBatches number of batches to generate
+   * @param batchSize number of records per batch
+   * @param cardinality number of distinct values in each key column
+   * @param nullDensity fraction of null keys
+   * @param minVarLength minimum length of varchar keys
+   * @param maxVarLength maximum length of varchar keys
+   */
+  public PivotedKeys(BufferAllocator allocator, KeyType keyType, int numBatches, int batchSize, int cardinality,
+                     double nullDensity, int minVarLength, int maxVarLength) {
+    this.batchSize = batchSize;
+    this.pivots = new PivotDef[numBatches];
+    this.fixed = new FixedBlockVector[numBatches];
+    this.variable = new VariableBlockVector[numBatches];
+    this.hashes = new SimpleBigIntVector[numBatches];
+
+    final BatchGenerator generator = new BatchGenerator(allocator, batchSize, cardinality, nullDensity);
+    for (int i = 0; i < numBatches; i++) {
+      final List<FieldVector> vectors = new ArrayList<>();
+      switch (keyType) {
+        case INT:
+          vectors.add(generator.intKeys("k0"));
+          break;
+        case VARCHAR:
+          vectors.add(generator.varCharKeys("k0", minVarLength, maxVarLength));
+          break;
+        case MIXED:
+          vectors.add(generator.bigIntKeys("k0"));
+          vectors.add(generator.intKeys("k1"));
+          vectors.add(generator.varCharKeys("k2", minVarLength, maxVarLength));
+          break;
+        default:
+          throw new UnsupportedOperationException("Unknown key type " + keyType);
+      }
+      keyVectors.add(vectors);
+
+      final List<FieldVectorPair> pairs = new ArrayList<>();
+      for (FieldVector vector : vectors) {
+        pairs.add(new FieldVectorPair(vector, vector));
+      }
+      pivots[i] = PivotBuilder.getBlockDefinition(pairs);
+    }
+
+    for (int i = 0; i < numBatches; i++) {
+      fixed[i] = new FixedBlockVector(allocator, pivots[i].getBlockWidth());
+      variable[i] = new VariableBlockVector(allocator, pivots[i].getVariableCount());
+      hashes[i] = new SimpleBigIntVector("hashes", allocator);
+      hashes[i].allocateNew(batchSize);
+      pivot(i);
+      hash(i);
+    }
+  }
+
+  /**
+   * Pivots the key vectors of a batch into its fixed and variable blocks
+   */
+  public void pivot(int batch) {
+    Pivots.pivot(pivots[batch], batchSize, fixed[batch], variable[batch]);
+  }
+
+  /**
+   * Computes the hash values of the pivoted keys of a batch
+   */
+  public void hash(int batch) {
+    final BlockChunk chunk = new BlockChunk(getFixedAddress(batch), getVariableAddress(batch),
+      pivots[0].getVariableCount() == 0, pivots[0].getBlockWidth(), batchSize, hashes[batch].getBufferAddress(), 0);
+    HashComputation.computeHash(chunk);
+  }
+
+  public PivotDef getPivot() {
+    return pivots[0];
+  }
+
+  public int getNumBatches() {
+    return fixed.length;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public long getFixedAddress(int batch) {
+    return fixed[batch].getMemoryAddress();
+  }
+
+  public long getVariableAddress(int batch) {
+    return variable[batch].getMemoryAddress();
+  }
+
+  public long getHashAddress(int batch) {
+    return hashes[batch].getBufferAddress();
+  }
+
+  public int getHash(int batch, int index) {
+    return (int) hashes[batch].get(index);
+  }
+
+  @Override
+  public void close() throws Exception {
+    final List<AutoCloseable> closeables = new ArrayList<>();
+    for (List<FieldVector> vectors : keyVectors) {
+      closeables.addAll(vectors);
+    }
+    for (int i = 0; i < fixed.length; i++) {
+      closeables.add(fixed[i]);
+      closeables.add(variable[i]);
+      closeables.add(hashes[i]);
+    }
+    AutoCloseables.close(closeables);
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.SimpleIntVector;
+import org.apache.hadoop.util.IndexedSortable;
+import org.apache.hadoop.util.QuickSort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.sabot.op.sort.external.QuickSorterTemplate;
+import com.dremio.sabot.op.sort.external.SplaySorterTemplate;
+import com.dremio.sabot.op.sort.external.SplayTree;
+
+/**
+ * In memory sort paths of the external sort: the quick sort of {@link QuickSorterTemplate} and the splay tree
+ * insertion of {@link SplaySorterTemplate}.<br>
+ * <br>
+ * Both sorters order compound (batch, record) indices, comparing the values through generated code. Here the
+ * comparison is a hand written nullable bigint comparison over the same compound indices, so the benchmark
+ * measures the sort algorithms and their memory access patterns rather than the code generation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SortBenchmark {
+  private static final int BATCH_SIZE = 4096;
+
+  @Param({"16", "64"})
+  public int numBatches;
+
+  @Param({"100", "1000000"})
+  public int cardinality;
+
+  @Param({"0", "0.1"})
+  public double nullDensity;
+
+  private BufferAllocator allocator;
+  private final List<BigIntVector> batches = new ArrayList<>();
+  private BigIntVector[] batchArray;
+  private SimpleIntVector indices;
+  private ArrowBuf splayData;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    final BatchGenerator generator = new BatchGenerator(allocator, BATCH_SIZE, cardinality, nullDensity);
+    for (int i = 0; i < numBatches; i++) {
+      batches.add(generator.bigIntKeys("key"));
+    }
+    batchArray = batches.toArray(new BigIntVector[0]);
+    indices = new SimpleIntVector("indices", allocator);
+    indices.allocateNew(numBatches * BATCH_SIZE);
+    splayData = allocator.buffer((numBatches * BATCH_SIZE + 1) * SplayTree.NODE_SIZE);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    AutoCloseables.close(batches);
+    AutoCloseables.close(indices, splayData, allocator);
+  }
+
+  /**
+   * Compares the values at two compound indices, nulls first
+   */
+  private int compare(int leftIndex, int rightIndex) {
+    final BigIntVector left = batchArray[leftIndex >>> 16];
+    final BigIntVector right = batchArray[rightIndex >>> 16];
+    final int leftRecord = leftIndex & 65535;
+    final int rightRecord = rightIndex & 65535;
+    final boolean leftNull = left.isNull(leftRecord);
+    final boolean rightNull = right.isNull(rightRecord);
+    if (leftNull || rightNull) {
+      return leftNull == rightNull ? 0 : (leftNull ? -1 : 1);
+    }
+    return Long.compare(left.get(leftRecord), right.get(rightRecord));
+  }
+
+  @Benchmark
+  public int quickSort() {
+    final SimpleIntVector indices = this.indices;
+    int count = 0;
+    for (int batch = 0; batch < numBatches; batch++) {
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        indices.set(count++, (batch << 16) | i);
+      }
+    }
+    new QuickSort().sort(new IndexedSortable() {
+      @Override
+      public int compare(int i, int j) {
+        return SortBenchmark.this.compare(indices.get(i), indices.get(j));
+      }
+
+      @Override
+      public void swap(int i, int j) {
+        final int tmp = indices.get(i);
+        indices.set(i, indices.get(j));
+        indices.set(j, tmp);
+      }
+    }, 0, count);
+    return indices.get(0);
+  }
+
+  @Benchmark
+  public int splaySort() {
+    final SplayTree tree = new SplayTree() {
+      @Override
+      public int compareValues(int leftVal, int rightVal) {
+        return compare(leftVal, rightVal);
+      }
+    };
+    // the tree expects zeroed nodes, like the external sort does when allocating the buffer
+    splayData.setZero(0, splayData.capacity());
+    tree.setData(splayData);
+    for (int batch = 0; batch < numBatches; batch++) {
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        tree.put((batch << 16) | i);
+      }
+    }
+
+    int last = 0;
+    final SplayTree.SplayIterator iterator = tree.iterator();
+    while (iterator.hasNext()) {
+      last = iterator.next();
+    }
+    return last;
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.sender.partition.vectorized;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.sabot.benchmarks.BatchGenerator;
+import com.dremio.sabot.op.common.ht2.HashComputation;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Partition and copy path of {@link VectorizedPartitionSenderOperator}: hash the partition key, compute the
+ * (destination batch, row) of each incoming record and copy the int, bigint and varchar columns to the
+ * destinations with {@link MultiDestCopier}. Lives in the operator package to reach the package private copiers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PartitionCopyBenchmark {
+  private static final int BATCH_SIZE = 4096;
+
+  @Param({"4", "64", "256"})
+  public int numReceivers;
+
+  @Param({"0", "0.1"})
+  public double nullDensity;
+
+  @Param({"4-16"})
+  public String varLength;
+
+  private BufferAllocator allocator;
+  private final List<FieldVector> inputs = new ArrayList<>();
+  private final List<FieldVector> outputs = new ArrayList<>();
+  private List<MultiDestCopier> copiers;
+  private IntVector hashes;
+  private IntVector copyIndices;
+  private int[] rowCounts;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    final String[] lengths = varLength.split("-");
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    final BatchGenerator generator = new BatchGenerator(allocator, BATCH_SIZE, BATCH_SIZE, nullDensity);
+    final BigIntVector key = generator.bigIntKeys("b");
+    inputs.add(generator.intKeys("i"));
+    inputs.add(key);
+    inputs.add(generator.varCharKeys("v", Integer.parseInt(lengths[0]), Integer.parseInt(lengths[1])));
+
+    // one outgoing batch per receiver, large enough to never be flushed during a copy
+    final FieldVector[][] targets = new FieldVector[inputs.size()][numReceivers];
+    for (int r = 0; r < numReceivers; r++) {
+      final IntVector i = new IntVector("i", allocator);
+      i.allocateNew(BATCH_SIZE);
+      final BigIntVector b = new BigIntVector("b", allocator);
+      b.allocateNew(BATCH_SIZE);
+      final VarCharVector v = new VarCharVector("v", allocator);
+      v.allocateNew(BATCH_SIZE * 8L, BATCH_SIZE);
+      targets[0][r] = i;
+      targets[1][r] = b;
+      targets[2][r] = v;
+      outputs.add(i);
+      outputs.add(b);
+      outputs.add(v);
+    }
+    copiers = MultiDestCopier.getCopiers(inputs, targets, new MultiDestCopier.CopyWatches());
+
+    hashes = new IntVector("hashes", allocator);
+    hashes.allocateNew(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      hashes.set(i, key.isNull(i) ? 0 : (int) HashComputation.computeHash(key.get(i)));
+    }
+    copyIndices = new IntVector("copyIndices", allocator);
+    copyIndices.allocateNew(BATCH_SIZE);
+    rowCounts = new int[numReceivers];
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    AutoCloseables.close(outputs, inputs);
+    AutoCloseables.close(hashes, copyIndices, allocator);
+  }
+
+  @Benchmark
+  public void partitionAndCopy() {
+    // same mapping as the operator when the number of receivers is a power of two
+    final int mod = numReceivers - 1;
+    final int[] rowCounts = this.rowCounts;
+    for (int r = 0; r < numReceivers; r++) {
+      rowCounts[r] = 0;
+    }
+
+    long srcAddr = hashes.getDataBufferAddress();
+    long dstAddr = copyIndices.getDataBufferAddress();
+    final long max = srcAddr + BATCH_SIZE * 4;
+    for (; srcAddr < max; srcAddr += 4, dstAddr += 4) {
+      final int partition = (PlatformDependent.getInt(srcAddr) & 0x7FFFFFFF) & mod;
+      PlatformDependent.putInt(dstAddr, (partition << 16) | rowCounts[partition]++);
+    }
+
+    final long addr = copyIndices.getDataBufferAddress();
+    for (MultiDestCopier copier : copiers) {
+      copier.copy(addr, 0, BATCH_SIZE);
+    }
+  }
+}
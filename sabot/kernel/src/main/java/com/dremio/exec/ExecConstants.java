@@ -131,8 +131,14 @@ public interface ExecConstants {
   BooleanValidator ENABLE_VECTORIZED_HASHAGG = new BooleanValidator("exec.operator.aggregate.vectorize", true);
   BooleanValidator ENABLE_VECTORIZED_HASHJOIN = new BooleanValidator("exec.operator.join.vectorize", true);
   BooleanValidator ENABLE_VECTORIZED_HASHJOIN_SPECIFIC = new BooleanValidator("exec.operator.join.vectorize.specific", false);
+  BooleanValidator ENABLE_VECTORIZED_HASHJOIN_SPILL = new BooleanValidator("exec.operator.join.vectorize.spill", false);
+  BooleanValidator ENABLE_VECTORIZED_HASHJOIN_SHARED_BUILD = new BooleanValidator("exec.operator.join.vectorize.shared_build", false);
   BooleanValidator ENABLE_VECTORIZED_COPIER = new BooleanValidator("exec.operator.copier.vectorize", true);
   BooleanValidator ENABLE_VECTORIZED_PARTITIONER = new BooleanValidator("exec.operator.partitioner.vectorize", true);
+  // compress the buffers of the batches sent over the exchanges with LZ4
+  BooleanValidator EXCHANGE_COMPRESSION = new BooleanValidator("exec.operator.exchange.compression", false);
+  // buffers whose compressed size exceeds this ratio of their size are sent as is
+  DoubleValidator EXCHANGE_COMPRESSION_MAX_RATIO = new RangeDoubleValidator("exec.operator.exchange.compression.max_ratio", 0.0, 1.0, 0.9);
   BooleanValidator DEBUG_HASHJOIN_INSERTION = new BooleanValidator("exec.operator.join.debug-insertion", false);
 
   String OUTPUT_FORMAT_OPTION = "store.format";
@@ -157,6 +163,10 @@ public interface ExecConstants {
   String PARQUET_MAX_FOOTER_LEN = "store.parquet.max_footer_length";
   LongValidator PARQUET_MAX_FOOTER_LEN_VALIDATOR = new LongValidator(PARQUET_MAX_FOOTER_LEN, 16*1024*1024);
 
+  // node-wide cache of parquet footers shared across fragments and queries
+  BooleanValidator PARQUET_FOOTER_CACHE_ENABLED = new BooleanValidator("store.parquet.footer_cache.enabled", true);
+  PositiveLongValidator PARQUET_FOOTER_CACHE_MAX_SIZE_BYTES = new PositiveLongValidator("store.parquet.footer_cache.max_size_bytes", Long.MAX_VALUE, 256 * 1024 * 1024);
+
   String PARQUET_MEMORY_THRESHOLD = "store.parquet.memory_threshold";
   LongValidator PARQUET_MEMORY_THRESHOLD_VALIDATOR = new LongValidator(PARQUET_MEMORY_THRESHOLD, 512*1024*1024);
 
@@ -192,6 +202,17 @@ public interface ExecConstants {
   String PARQUET_READER_INT96_AS_TIMESTAMP = "store.parquet.reader.int96_as_timestamp";
   BooleanValidator PARQUET_READER_INT96_AS_TIMESTAMP_VALIDATOR = new BooleanValidator(PARQUET_READER_INT96_AS_TIMESTAMP, true);
 
+  // skip the pages that can't match the filter conditions of a scan, using the column indexes of the files
+  BooleanValidator PARQUET_READER_PAGE_PRUNING = new BooleanValidator("store.parquet.reader.page_pruning.enabled", true);
+  // decode the columns without filter conditions only for the rows passing the filter
+  BooleanValidator PARQUET_READER_LATE_MATERIALIZATION = new BooleanValidator("store.parquet.reader.late_materialization.enabled", true);
+  // skip the row groups whose bloom filters don't contain the values of the equality conditions of a scan
+  BooleanValidator PARQUET_READER_BLOOM_FILTER = new BooleanValidator("store.parquet.reader.bloom_filter.enabled", true);
+
+  // comma separated top level columns whose bloom filters are written in the footer of the parquet files
+  StringValidator PARQUET_WRITER_BLOOM_FILTER_COLUMNS = new StringValidator("store.parquet.writer.bloom_filter.columns", "");
+  LongValidator PARQUET_WRITER_BLOOM_FILTER_MAX_BYTES = new RangeLongValidator("store.parquet.writer.bloom_filter.max_bytes", 32, 16 * 1024 * 1024, 1024 * 1024);
+
   BooleanValidator USE_LEGACY_CATALOG_NAME = new BooleanValidator("client.use_legacy_catalog_name", false);
 
   String JSON_ALL_TEXT_MODE = "store.json.all_text_mode";
@@ -342,6 +363,10 @@ public interface ExecConstants {
 
   String BOOTSTRAP_STORAGE_PLUGINS_FILE = "bootstrap-storage-plugins.json";
   String MAX_LOADING_CACHE_SIZE_CONFIG = "dremio.exec.compile.cache_max_size";
+  String PERSISTENT_CLASS_CACHE_ENABLED_CONFIG = "dremio.exec.compile.persistent_cache.enabled";
+  String PERSISTENT_CLASS_CACHE_PATH_CONFIG = "dremio.exec.compile.persistent_cache.path";
+  String PERSISTENT_CLASS_CACHE_WARMUP_SIZE_CONFIG = "dremio.exec.compile.persistent_cache.warmup_size";
+  String PERSISTENT_CLASS_CACHE_MAX_SIZE_CONFIG = "dremio.exec.compile.persistent_cache.max_size";
 
   String ENABLE_WINDOW_FUNCTIONS = "window.enable";
   OptionValidator ENABLE_WINDOW_FUNCTIONS_VALIDATOR = new BooleanValidator(ENABLE_WINDOW_FUNCTIONS, true);
@@ -413,6 +438,8 @@ public interface ExecConstants {
   BooleanValidator EXTERNAL_SORT_DIRECT_WRITE = new BooleanValidator("exec.operator.sort.external.direct_write", true);
   BooleanValidator EXTERNAL_SORT_VECTOR_COPIER = new BooleanValidator("exec.operator.sort.external.vector_copier", true);
   DoubleValidator EXTERNAL_SORT_SPILL_ALLOCATION_DENSITY = new RangeDoubleValidator("exec.operator.sort.external.spill.allocation_density", 0.0, Double.MAX_VALUE, 0.01);
+  // write spilled batches and read the merged runs ahead on the executor pool, only with the arrow encoding
+  BooleanValidator EXTERNAL_SORT_ASYNC_IO = new BooleanValidator("exec.operator.sort.external.async_io", false);
 
   PositiveLongValidator EXTERNAL_SORT_BATCHSIZE_MULTIPLIER = new PositiveLongValidator("exec.operator.sort.external.batchsize_multiplier", Character.MAX_VALUE, 2);
 
@@ -458,6 +485,12 @@ public interface ExecConstants {
   // warning threshold for running time of a task
   PositiveLongValidator SLICING_WARN_MAX_RUNTIME_MS = new PositiveLongValidator("dremio.sliced.warn_max_runtime", Long.MAX_VALUE, 120000);
 
+  // number of threads of the slicing task pool, 0 means one thread per available core
+  RangeLongValidator SLICING_NUM_THREADS = new RangeLongValidator("dremio.sliced.num_threads", 0, 1024, 0);
+
+  // maximum time a task keeps a slicing thread before going back to the run queue
+  PositiveLongValidator SLICING_THREAD_QUANTUM_MS = new PositiveLongValidator("dremio.sliced.quantum_ms", 10000, 25);
+
   // warning threshold for spilling
   PositiveLongValidator SPILL_IO_WARN_MAX_RUNTIME_MS = new PositiveLongValidator("dremio.spill.warn_max_runtime", Long.MAX_VALUE, 3000);
 
@@ -467,6 +500,9 @@ public interface ExecConstants {
   // global hive-async option
   BooleanValidator ENABLE_HIVE_ASYNC = new TypeValidators.BooleanValidator("store.hive.async", true);
 
+  // executor local disk cache of the blocks read asynchronously from sources requesting caching
+  BooleanValidator BLOCK_CACHE_ENABLED = new BooleanValidator("exec.block_cache.enabled", false);
+
   BooleanValidator ENABLE_REMOTE_JOB_FETCH = new BooleanValidator("jobs.remote.fetch_enabled", true);
 
   DoubleValidator EXPR_COMPLEXITY_NO_OPTIMIZE_THRESHOLD = new DoubleValidator("exec.expression.complexity.no_optimize.threshold", 2000.00);
@@ -108,6 +108,7 @@ public class CatalogImpl implements Catalog {
   private final NamespaceService.Factory namespaceFactory;
   private final DatasetListingService datasetListingService;
   private final ViewCreatorFactory viewCreatorFactory;
+  private final DatasetMetadataCache metadataCache;
 
   private final NamespaceService userNamespaceService;
   private final DatasetManager datasets;
@@ -124,7 +125,8 @@ public class CatalogImpl implements Catalog {
       NamespaceService systemNamespaceService,
       NamespaceService.Factory namespaceFactory,
       DatasetListingService datasetListingService,
-      ViewCreatorFactory viewCreatorFactory
+      ViewCreatorFactory viewCreatorFactory,
+      DatasetMetadataCache metadataCache
       ) {
     this.options = options;
     this.pluginRetriever = pluginRetriever;
@@ -136,10 +138,11 @@ public class CatalogImpl implements Catalog {
     this.namespaceFactory = namespaceFactory;
     this.datasetListingService = datasetListingService;
     this.viewCreatorFactory = viewCreatorFactory;
+    this.metadataCache = metadataCache;
 
     this.userNamespaceService = namespaceFactory.get(username);
 
-    this.datasets = new DatasetManager(pluginRetriever, userNamespaceService, optionManager);
+    this.datasets = new DatasetManager(pluginRetriever, userNamespaceService, optionManager, metadataCache);
     this.iscDelegate = new InformationSchemaCatalogImpl(userNamespaceService);
 
     this.selectedSources = ConcurrentHashMap.newKeySet();
@@ -434,7 +437,8 @@ public class CatalogImpl implements Catalog {
       systemNamespaceService,
       namespaceFactory,
       datasetListingService,
-      viewCreatorFactory);
+      viewCreatorFactory,
+      metadataCache);
   }
 
   @Override
@@ -447,7 +451,8 @@ public class CatalogImpl implements Catalog {
       systemNamespaceService,
       namespaceFactory,
       datasetListingService,
-      viewCreatorFactory);
+      viewCreatorFactory,
+      metadataCache);
   }
 
   @Override
@@ -460,7 +465,8 @@ public class CatalogImpl implements Catalog {
       systemNamespaceService,
       namespaceFactory,
       datasetListingService,
-      viewCreatorFactory);
+      viewCreatorFactory,
+      metadataCache);
   }
 
   @Override
@@ -473,7 +479,8 @@ public class CatalogImpl implements Catalog {
       systemNamespaceService,
       namespaceFactory,
       datasetListingService,
-      viewCreatorFactory);
+      viewCreatorFactory,
+      metadataCache);
   }
 
   @Override
@@ -486,7 +493,8 @@ public class CatalogImpl implements Catalog {
       systemNamespaceService,
       namespaceFactory,
       datasetListingService,
-      viewCreatorFactory);
+      viewCreatorFactory,
+      metadataCache);
   }
 
   @Override
@@ -58,6 +58,12 @@ public final class CatalogOptions {
   // Disable cross source select
   public static final BooleanValidator DISABLE_CROSS_SOURCE_SELECT = new BooleanValidator("planner.cross_source_select.disable", false);
 
+  // Share the partition chunks of datasets between the queries of a coordinator
+  public static final BooleanValidator METADATA_CACHE_ENABLED = new BooleanValidator("store.metadata_cache.enabled", false);
+
+  // Maximum number of datasets of a source refreshed at once during a full metadata refresh
+  public static final LongValidator METADATA_REFRESH_PARALLELISM = new PositiveLongValidator("store.metadata_refresh.source_parallelism", 64, 4);
+
   // Do not instantiate
   private CatalogOptions() {
   }
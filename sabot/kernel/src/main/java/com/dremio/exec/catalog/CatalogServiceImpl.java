@@ -22,6 +22,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -79,6 +80,7 @@ import com.dremio.service.users.SystemUser;
 import com.dremio.services.fabric.ProxyConnection;
 import com.dremio.services.fabric.api.FabricRunnerFactory;
 import com.dremio.services.fabric.api.FabricService;
+import com.dremio.telemetry.api.metrics.Metrics;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
@@ -106,6 +108,9 @@ public class CatalogServiceImpl implements CatalogService {
 
   private static final String LOCAL_TASK_LEADER_NAME = "catalogservice";
 
+  // Not a system option, as the cache is created when the node starts.
+  private static final String METADATA_CACHE_MAX_PARTITION_CHUNKS = "dremio.catalog.metadata_cache.max_partition_chunks";
+
   public static final String CATALOG_SOURCE_DATA_NAMESPACE = "catalog-source-data";
 
   protected final Provider<SabotContext> context;
@@ -128,6 +133,9 @@ public class CatalogServiceImpl implements CatalogService {
   protected final DremioConfig config;
   protected final EnumSet<Role> roles;
   protected final CatalogServiceMonitor monitor;
+  private final List<MetadataUpdateListener> metadataUpdateListeners = new CopyOnWriteArrayList<>();
+  private final DatasetMetadataCache metadataCache =
+    new DatasetMetadataCache(Long.getLong(METADATA_CACHE_MAX_PARTITION_CHUNKS, 100_000L));
   private final Set<String> influxSources; //will contain any sources influx(i.e actively being modified). Otherwise empty.
   protected final Predicate<String> isInfluxSource;
 
@@ -177,7 +185,8 @@ public class CatalogServiceImpl implements CatalogService {
     this.broadcasterProvider = broadcasterProvider;
     this.config = config;
     this.roles = roles;
-    this.monitor = monitor;
+    this.monitor = new ListenersNotifyingMonitor(monitor, metadataUpdateListeners);
+    metadataUpdateListeners.add(metadataCache::invalidate);
     this.influxSources = ConcurrentHashMap.newKeySet();
     this.isInfluxSource = this::isInfluxSource;
   }
@@ -185,6 +194,9 @@ public class CatalogServiceImpl implements CatalogService {
   @Override
   public void start() throws Exception {
     SabotContext context = this.context.get();
+    Metrics.newGauge(Metrics.join("catalog", "metadata_cache", "hits"), () -> metadataCache.stats().hitCount());
+    Metrics.newGauge(Metrics.join("catalog", "metadata_cache", "misses"), () -> metadataCache.stats().missCount());
+    Metrics.newGauge(Metrics.join("catalog", "metadata_cache", "size"), metadataCache::size);
     this.allocator = bufferAllocator.get().newChildAllocator("catalog-protocol", 0, Long.MAX_VALUE);
     this.systemNamespace = context.getNamespaceService(SystemUser.SYSTEM_USERNAME);
     this.sourceDataStore = kvStoreProvider.get().getStore(CatalogSourceDataCreator.class);
@@ -529,6 +541,13 @@ public class CatalogServiceImpl implements CatalogService {
     return getPlugins().get(name);
   }
 
+  /**
+   * Evict the cached metadata of a source, after another coordinator refreshed it.
+   */
+  void onRemoteMetadataRefresh(String sourceName) {
+    metadataCache.invalidateSource(sourceName);
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public <T extends StoragePlugin> T getSource(StoragePluginId pluginId) {
@@ -594,7 +613,8 @@ public class CatalogServiceImpl implements CatalogService {
       context.get().getNamespaceService(SystemUser.SYSTEM_USERNAME),
       context.get().getNamespaceServiceFactory(),
       context.get().getDatasetListing(),
-      context.get().getViewCreatorFactoryProvider().get());
+      context.get().getViewCreatorFactoryProvider().get(),
+      metadataCache);
   }
 
   @Override
@@ -607,6 +627,76 @@ public class CatalogServiceImpl implements CatalogService {
     return optionManager.get().getOption(PlannerSettings.FULL_NESTED_SCHEMA_SUPPORT);
   }
 
+  @Override
+  public void addMetadataUpdateListener(MetadataUpdateListener listener) {
+    metadataUpdateListeners.add(listener);
+  }
+
+  /**
+   * Monitor which also informs the metadata update listeners.
+   */
+  private static final class ListenersNotifyingMonitor implements CatalogServiceMonitor {
+    private final CatalogServiceMonitor delegate;
+    private final List<MetadataUpdateListener> listeners;
+
+    private ListenersNotifyingMonitor(CatalogServiceMonitor delegate, List<MetadataUpdateListener> listeners) {
+      this.delegate = delegate;
+      this.listeners = listeners;
+    }
+
+    @Override
+    public CatalogServiceMonitor forPlugin(String name) {
+      return new ListenersNotifyingMonitor(delegate.forPlugin(name), listeners);
+    }
+
+    @Override
+    public void onWakeup() {
+      delegate.onWakeup();
+    }
+
+    @Override
+    public void startAdhocRefreshWithLock() {
+      delegate.startAdhocRefreshWithLock();
+    }
+
+    @Override
+    public void startAdhocRefresh() {
+      delegate.startAdhocRefresh();
+    }
+
+    @Override
+    public void finishAdhocRefresh() {
+      delegate.finishAdhocRefresh();
+    }
+
+    @Override
+    public void startBackgroundRefresh() {
+      delegate.startBackgroundRefresh();
+    }
+
+    @Override
+    public void startBackgroundRefreshWithLock() {
+      delegate.startBackgroundRefreshWithLock();
+    }
+
+    @Override
+    public void finishBackgroundRefresh() {
+      delegate.finishBackgroundRefresh();
+    }
+
+    @Override
+    public void onMetadataUpdated(NamespaceKey key) {
+      delegate.onMetadataUpdated(key);
+      for (MetadataUpdateListener listener : listeners) {
+        try {
+          listener.metadataUpdated(key);
+        } catch (RuntimeException e) {
+          logger.warn("Failure while informing a listener of the metadata update of {}.", key, e);
+        }
+      }
+    }
+  }
+
   private class Retriever implements PluginRetriever {
 
     @Override
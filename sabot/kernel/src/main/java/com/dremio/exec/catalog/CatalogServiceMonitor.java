@@ -15,6 +15,8 @@
  */
 package com.dremio.exec.catalog;
 
+import com.dremio.service.namespace.NamespaceKey;
+
 /**
  * System for monitoring the status of the catalog service. Also allows mocking testing. Can be expanded for monitoring
  * other operations of catalog service in the future.
@@ -43,5 +45,6 @@ interface CatalogServiceMonitor {
   default void startBackgroundRefresh() {}
   default void startBackgroundRefreshWithLock() {}
   default void finishBackgroundRefresh() {}
+  default void onMetadataUpdated(NamespaceKey key) {}
 }
 
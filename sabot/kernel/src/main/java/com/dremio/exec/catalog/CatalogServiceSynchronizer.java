@@ -41,9 +41,10 @@ public class CatalogServiceSynchronizer extends CatalogServiceSynchronizerGrpc.C
   public void updateRefreshDate(UpdateLastRefreshDateRequest request, StreamObserver<Empty> responseObserver) {
     logger.debug("Request received: {}", request);
     try {
-      final ManagedStoragePlugin plugin = ((CatalogServiceImpl) catalogServiceProvider.get())
-        .getManagedSource(request.getPluginName());
+      final CatalogServiceImpl catalogService = (CatalogServiceImpl) catalogServiceProvider.get();
+      final ManagedStoragePlugin plugin = catalogService.getManagedSource(request.getPluginName());
       plugin.setMetadataSyncInfo(request);
+      catalogService.onRemoteMetadataRefresh(request.getPluginName());
     } catch (Exception e) {
       responseObserver.onError(e);
       return;
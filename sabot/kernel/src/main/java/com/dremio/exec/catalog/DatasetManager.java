@@ -87,15 +87,30 @@ class DatasetManager {
   private final PluginRetriever plugins;
   private final NamespaceService userNamespaceService;
   private final OptionManager optionManager;
+  private final DatasetMetadataCache metadataCache;
 
   public DatasetManager(
       PluginRetriever plugins,
       NamespaceService userNamespaceService,
       OptionManager optionManager
       ) {
+    this(plugins, userNamespaceService, optionManager, null);
+  }
+
+  DatasetManager(
+      PluginRetriever plugins,
+      NamespaceService userNamespaceService,
+      OptionManager optionManager,
+      DatasetMetadataCache metadataCache
+      ) {
     this.userNamespaceService = userNamespaceService;
     this.plugins = plugins;
     this.optionManager = optionManager;
+    this.metadataCache = metadataCache;
+  }
+
+  private DatasetMetadataCache getMetadataCache() {
+    return optionManager.getOption(CatalogOptions.METADATA_CACHE_ENABLED) ? metadataCache : null;
   }
 
   /**
@@ -244,7 +259,7 @@ class DatasetManager {
     final TableMetadata tableMetadata = new TableMetadataImpl(plugin.getId(),
         datasetConfig,
         accessUserName,
-        DatasetSplitsPointer.of(userNamespaceService, datasetConfig));
+        DatasetSplitsPointer.of(userNamespaceService, datasetConfig, getMetadataCache()));
     return new NamespaceTable(tableMetadata, optionManager.getOption(FULL_NESTED_SCHEMA_SUPPORT));
   }
 
@@ -390,7 +405,7 @@ class DatasetManager {
 
     // TODO: use MaterializedSplitsPointer if metadata is not too big!
     final TableMetadata tableMetadata = new TableMetadataImpl(plugin.getId(), datasetConfig,
-        accessUserName, DatasetSplitsPointer.of(userNamespaceService, datasetConfig));
+        accessUserName, DatasetSplitsPointer.of(userNamespaceService, datasetConfig, getMetadataCache()));
     return new NamespaceTable(tableMetadata, optionManager.getOption(FULL_NESTED_SCHEMA_SUPPORT));
   }
 
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.catalog;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import com.dremio.service.namespace.NamespaceKey;
+import com.dremio.service.namespace.PartitionChunkMetadata;
+import com.dremio.service.namespace.proto.EntityId;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Thread-safe cache of the partition chunks of datasets, shared by the catalogs of a node, so that the queries
+ * reading a dataset don't each list its partition chunks from the namespace. Caches up to maximumPartitionChunks
+ * partition chunks.
+ *
+ * The partition chunks of a dataset are keyed by the dataset id and its split version, which changes each time
+ * the partition chunks are updated: entries are never stale, and the dataset config (which holds the version) is
+ * still read for each query, with the access checks of the user. Entries of the updated datasets are evicted
+ * as soon as the update is known, to release their memory.
+ *
+ * The datasets with too many splits to fit in a segment of the cache are never cached: their partition chunks are
+ * listed from the namespace for each query, without being held in memory at once.
+ */
+class DatasetMetadataCache {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(DatasetMetadataCache.class);
+
+  private static final int CONCURRENCY_LEVEL = 4;
+
+  private final Cache<Key, Value> partitionChunks;
+  // the weight of an entry is limited by the weight of a segment, heavier entries being evicted right away
+  private final long maximumDatasetSplits;
+
+  DatasetMetadataCache(long maximumPartitionChunks) {
+    maximumDatasetSplits = maximumPartitionChunks / CONCURRENCY_LEVEL - 1;
+    partitionChunks = CacheBuilder.newBuilder()
+        .concurrencyLevel(CONCURRENCY_LEVEL)
+        .maximumWeight(maximumPartitionChunks)
+        .<Key, Value>weigher((key, value) -> value.partitionChunks.size() + 1)
+        // partition chunks are memory intensive. If there is memory pressure, let GC release them.
+        .softValues()
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Get the partition chunks of a version of a dataset.
+   *
+   * @param path path of the dataset
+   * @param datasetId id of the dataset
+   * @param splitVersion split version of the dataset
+   * @param splitsCount number of splits of the dataset, an upper bound of its number of partition chunks
+   * @param loader lists the partition chunks if they are not cached
+   * @return the partition chunks
+   */
+  Iterable<PartitionChunkMetadata> getPartitionChunks(List<String> path, EntityId datasetId, long splitVersion,
+                                                      long splitsCount,
+                                                      Supplier<Iterable<PartitionChunkMetadata>> loader) {
+    if (splitsCount > maximumDatasetSplits) {
+      logger.debug("Not caching the partition chunks of dataset {} with {} splits.", path, splitsCount);
+      return loader.get();
+    }
+
+    try {
+      return partitionChunks.get(new Key(datasetId, splitVersion),
+          () -> new Value(new NamespaceKey(path).asLowerCase(), ImmutableList.copyOf(loader.get())))
+        .partitionChunks;
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      logger.debug("Failure while listing the partition chunks of dataset {}.", path, e);
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  /**
+   * Evict the partition chunks of a dataset.
+   */
+  void invalidate(NamespaceKey key) {
+    final NamespaceKey lowerCaseKey = key.asLowerCase();
+    partitionChunks.asMap().values().removeIf(value -> value.path.equals(lowerCaseKey));
+  }
+
+  /**
+   * Evict the partition chunks of the datasets of a source.
+   */
+  void invalidateSource(String sourceName) {
+    partitionChunks.asMap().values().removeIf(value -> value.path.getRoot().equalsIgnoreCase(sourceName));
+  }
+
+  long size() {
+    return partitionChunks.size();
+  }
+
+  CacheStats stats() {
+    return partitionChunks.stats();
+  }
+
+  private static final class Key {
+    private final EntityId datasetId;
+    private final long splitVersion;
+
+    private Key(EntityId datasetId, long splitVersion) {
+      this.datasetId = datasetId;
+      this.splitVersion = splitVersion;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Key key = (Key) o;
+      return splitVersion == key.splitVersion
+        && Objects.equals(datasetId, key.datasetId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(datasetId, splitVersion);
+    }
+  }
+
+  private static final class Value {
+    private final NamespaceKey path;
+    private final List<PartitionChunkMetadata> partitionChunks;
+
+    private Value(NamespaceKey path, List<PartitionChunkMetadata> partitionChunks) {
+      this.path = path;
+      this.partitionChunks = partitionChunks;
+    }
+  }
+}
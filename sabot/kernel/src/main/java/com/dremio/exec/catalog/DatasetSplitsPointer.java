@@ -15,6 +15,7 @@
  */
 package com.dremio.exec.catalog;
 
+import java.util.List;
 import java.util.Objects;
 
 import com.dremio.datastore.SearchQueryUtils;
@@ -37,13 +38,28 @@ import com.google.common.base.Preconditions;
  */
 public final class DatasetSplitsPointer extends LazySplitsPointer {
   private final EntityId datasetId;
+  private final List<String> datasetPath;
+  private final DatasetMetadataCache metadataCache;
 
-  private DatasetSplitsPointer(NamespaceService namespaceService, EntityId datasetId, long splitVersion, int splitsCount) {
+  private DatasetSplitsPointer(NamespaceService namespaceService, EntityId datasetId, List<String> datasetPath,
+                               long splitVersion, int splitsCount, DatasetMetadataCache metadataCache) {
     super(namespaceService, splitVersion, splitsCount);
     this.datasetId = datasetId;
+    this.datasetPath = datasetPath;
+    this.metadataCache = metadataCache;
   }
 
   public static SplitsPointer of(NamespaceService namespaceService, DatasetConfig datasetConfig) {
+    return of(namespaceService, datasetConfig, null);
+  }
+
+  /**
+   * Create a pointer to the splits of the given dataset config.
+   *
+   * @param metadataCache cache of the partition chunks, or null to always list them from the namespace
+   */
+  static SplitsPointer of(NamespaceService namespaceService, DatasetConfig datasetConfig,
+                          DatasetMetadataCache metadataCache) {
     final EntityId datasetId = Preconditions.checkNotNull(datasetConfig.getId());
     final ReadDefinition readDefinition = Preconditions.checkNotNull(datasetConfig.getReadDefinition(),
         "extended metadata (read definition) is not available");
@@ -57,7 +73,8 @@ public final class DatasetSplitsPointer extends LazySplitsPointer {
       // before the connector metadata API. At that time, each PartitionChunk represented a single split
       splitsCount = namespaceService.getPartitionChunkCount(new LegacyFindByCondition().setCondition(PartitionChunkId.getSplitsQuery(datasetConfig)));
     }
-    return new DatasetSplitsPointer(namespaceService, datasetId, splitVersion, splitsCount);
+    return new DatasetSplitsPointer(namespaceService, datasetId, datasetConfig.getFullPathList(), splitVersion,
+        splitsCount, metadataCache);
   }
 
   @Override
@@ -69,6 +86,14 @@ public final class DatasetSplitsPointer extends LazySplitsPointer {
 
   @Override
   protected Iterable<PartitionChunkMetadata> findSplits() {
+    if (metadataCache != null) {
+      return metadataCache.getPartitionChunks(datasetPath, datasetId, getSplitVersion(), getTotalSplitsCount(),
+        this::listSplits);
+    }
+    return listSplits();
+  }
+
+  private Iterable<PartitionChunkMetadata> listSplits() {
     LegacyFindByRange<PartitionChunkId> filter = PartitionChunkId.getSplitsRange(datasetId, getSplitVersion());
     return getNamespaceService().findSplits(filter);
   }
@@ -135,6 +135,7 @@ public class ManagedStoragePlugin implements AutoCloseable {
   public ManagedStoragePlugin(
       SabotContext context,
       Executor executor,
+      Executor metadataRefreshExecutor,
       boolean isMaster,
       SchedulerService scheduler,
       NamespaceService systemUserNamespaceService,
@@ -172,7 +173,8 @@ public class ManagedStoragePlugin implements AutoCloseable {
         new MetadataBridge(),
         options,
         monitor,
-        broadcasterProvider);
+        broadcasterProvider,
+        metadataRefreshExecutor);
   }
 
   protected PermissionCheckCache getPermissionsCache() {
@@ -16,12 +16,16 @@
 package com.dremio.exec.catalog;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -55,11 +59,15 @@ import io.protostuff.ByteString;
 
 /**
  * Synchronizes metadata from the connector to the namespace.
+ *
+ * Datasets are listed by the calling thread, and the metadata of existing datasets is refreshed by the given
+ * executor, with at most parallelism datasets of the source refreshed at once.
  */
 public class MetadataSynchronizer {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(MetadataSynchronizer.class);
 
   private static final int NUM_RETRIES = 1;
+  private static final int PROGRESS_LOG_INTERVAL = 1000;
   private final SyncStatus syncStatus = new SyncStatus(true);
 
   private final NamespaceService systemNamespace;
@@ -68,6 +76,9 @@ public class MetadataSynchronizer {
   private final ManagedStoragePlugin.MetadataBridge bridge;
   private final DatasetSaver saver;
   private final DatasetRetrievalOptions options;
+  private final Executor executor;
+  private final int parallelism;
+  private final Semaphore inFlight;
 
   private final UpdateMode updateMode;
   private final Set<NamespaceKey> ancestorsToKeep;
@@ -81,18 +92,24 @@ public class MetadataSynchronizer {
       ManagedStoragePlugin.MetadataBridge bridge,
       MetadataPolicy metadataPolicy,
       DatasetSaver saver,
-      DatasetRetrievalOptions options
+      DatasetRetrievalOptions options,
+      Executor executor,
+      int parallelism
   ) {
+    Preconditions.checkArgument(parallelism > 0, "parallelism must be positive");
     this.systemNamespace = Preconditions.checkNotNull(systemNamespace);
     this.sourceKey = Preconditions.checkNotNull(sourceKey);
     this.bridge = Preconditions.checkNotNull(bridge);
     this.sourceMetadata = Preconditions.checkNotNull(bridge.getMetadata());
     this.saver = saver;
     this.options = options;
+    this.executor = Preconditions.checkNotNull(executor);
+    this.parallelism = parallelism;
+    this.inFlight = new Semaphore(parallelism);
 
     this.updateMode = metadataPolicy.getDatasetUpdateMode();
     this.ancestorsToKeep = new HashSet<>();
-    this.failedDatasets = new ArrayList<>();
+    this.failedDatasets = Collections.synchronizedList(new ArrayList<>());
   }
 
   /**
@@ -173,32 +190,81 @@ public class MetadataSynchronizer {
   private void synchronizeDatasets() throws NamespaceException, ConnectorException {
     logger.trace("Source '{}' syncing datasets", sourceKey);
     try (DatasetHandleListing datasetListing = getDatasetHandleListing(options.asGetDatasetOptions(null))) {
-      final Iterator<? extends DatasetHandle> iterator = datasetListing.iterator();
-      do {
-        try {
-          if (!iterator.hasNext()) {
-            break;
-          }
-          final DatasetHandle handle = iterator.next();
-          final NamespaceKey datasetKey = MetadataObjectsUtils.toNamespaceKey(handle.getDatasetPath());
-          final boolean existing = existingDatasets.remove(datasetKey);
-          if (logger.isTraceEnabled()) {
-            logger.trace("Dataset '{}' sync started ({})", datasetKey, existing ? "existing" : "new");
-          }
-          if (existing) {
-            addAncestors(datasetKey, ancestorsToKeep);
-            handleExistingDataset(datasetKey, handle);
-          } else {
-            handleNewDataset(datasetKey, handle);
+      try {
+        final Iterator<? extends DatasetHandle> iterator = datasetListing.iterator();
+        long listed = 0;
+        do {
+          try {
+            if (syncStatus.isInterrupted() || !iterator.hasNext()) {
+              break;
+            }
+            final DatasetHandle handle = iterator.next();
+            final NamespaceKey datasetKey = MetadataObjectsUtils.toNamespaceKey(handle.getDatasetPath());
+            final boolean existing = existingDatasets.remove(datasetKey);
+            if (logger.isTraceEnabled()) {
+              logger.trace("Dataset '{}' sync started ({})", datasetKey, existing ? "existing" : "new");
+            }
+            if (existing) {
+              addAncestors(datasetKey, ancestorsToKeep);
+              submitExistingDataset(datasetKey, handle);
+            } else {
+              handleNewDataset(datasetKey, handle);
+            }
+            if (++listed % PROGRESS_LOG_INTERVAL == 0) {
+              logger.info("Source '{}' sync in progress: {} datasets listed, {} probed ({} datasets per second)",
+                  sourceKey, listed, syncStatus.getProbed(), String.format("%.1f", syncStatus.getThroughput()));
+            }
+          } catch (DatasetMetadataTooLargeException e) {
+            final boolean existing = existingDatasets.remove(new NamespaceKey(PathUtils.parseFullPath(e.getMessage())));
+            logger.warn("Dataset {} sync failed ({}) due to Metadata too large. Please check.", e.getMessage(), existing ? "existing" : "new");
           }
-        } catch (DatasetMetadataTooLargeException e) {
-          final boolean existing = existingDatasets.remove(new NamespaceKey(PathUtils.parseFullPath(e.getMessage())));
-          logger.warn("Dataset {} sync failed ({}) due to Metadata too large. Please check.", e.getMessage(), existing ? "existing" : "new");
+        } while (true);
+      } finally {
+        // the handles may need the listing to be open.
+        awaitExistingDatasets();
+      }
+    }
+  }
+
+  /**
+   * Handle metadata sync for the given existing dataset in the executor, once less than parallelism datasets are
+   * being synchronized.
+   *
+   * @param datasetKey dataset key
+   * @param handle     dataset handle
+   */
+  private void submitExistingDataset(NamespaceKey datasetKey, DatasetHandle handle) {
+    try {
+      inFlight.acquire();
+    } catch (InterruptedException e) {
+      logger.debug("Source '{}' sync interrupted", sourceKey);
+      Thread.currentThread().interrupt();
+      syncStatus.setInterrupted(true);
+      return;
+    }
+
+    try {
+      executor.execute(() -> {
+        try {
+          handleExistingDataset(datasetKey, handle);
+        } finally {
+          inFlight.release();
         }
-      } while (true);
+      });
+    } catch (RejectedExecutionException e) {
+      inFlight.release();
+      throw e;
     }
   }
 
+  /**
+   * Wait for the datasets being synchronized by the executor.
+   */
+  private void awaitExistingDatasets() {
+    inFlight.acquireUninterruptibly(parallelism);
+    inFlight.release(parallelism);
+  }
+
   /**
    * Handle metadata sync for the given existing dataset.
    *
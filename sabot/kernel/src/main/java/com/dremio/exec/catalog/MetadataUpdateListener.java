@@ -19,9 +19,9 @@ import com.dremio.service.namespace.NamespaceKey;
 
 /**
  * Interface that is informed when a dataset's metadata has been updated. Allows the DatasetSaver to
- * communicate with the SourceMetadataManager.
+ * communicate with the SourceMetadataManager, and other services to be informed through the CatalogService.
  */
-interface MetadataUpdateListener {
+public interface MetadataUpdateListener {
 
   /**
    * Notification that metadata has been updated.
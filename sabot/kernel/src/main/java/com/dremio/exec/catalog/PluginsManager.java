@@ -15,7 +15,6 @@
  */
 package com.dremio.exec.catalog;
 
-import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.EnumSet;
 import java.util.HashSet;
@@ -57,6 +56,7 @@ import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
 import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 
@@ -68,12 +68,17 @@ class PluginsManager implements AutoCloseable, Iterable<StoragePlugin> {
 
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(PluginsManager.class);
 
+  // number of threads refreshing the metadata of datasets, shared by all the sources
+  private static final int METADATA_REFRESH_THREADS = Integer.getInteger("dremio.catalog.metadata_refresh.threads", 16);
+
   protected final SabotContext context;
   protected final OptionManager optionManager;
   private final DremioConfig config;
   protected final ConnectionReader reader;
   protected final SchedulerService scheduler;
   protected final CloseableThreadPool executor = new CloseableThreadPool("source-management");
+  protected final CloseableThreadPool metadataRefreshExecutor =
+      new CloseableThreadPool("metadata-refresh", METADATA_REFRESH_THREADS);
   private final DatasetListingService datasetListing;
   private final ConcurrentHashMap<String, ManagedStoragePlugin> plugins = new ConcurrentHashMap<>();
   private final long startupWait;
@@ -258,6 +263,7 @@ class PluginsManager implements AutoCloseable, Iterable<StoragePlugin> {
     return new ManagedStoragePlugin(
       context,
       executor,
+      metadataRefreshExecutor,
       isVirtualMaster,
       scheduler,
       systemNamespace,
@@ -467,6 +473,6 @@ class PluginsManager implements AutoCloseable, Iterable<StoragePlugin> {
       refresher.cancel(false);
     }
 
-    AutoCloseables.close(Iterables.concat(Collections.singleton(executor), plugins.values()));
+    AutoCloseables.close(Iterables.concat(ImmutableList.of(executor, metadataRefreshExecutor), plugins.values()));
   }
 }
@@ -20,6 +20,7 @@ import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.Lock;
@@ -66,6 +67,7 @@ import com.google.common.base.Stopwatch;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.MoreExecutors;
 
 import io.protostuff.ByteString;
 
@@ -109,6 +111,7 @@ class SourceMetadataManager implements AutoCloseable {
   private final Lock runLock = new ReentrantLock();
   private volatile boolean initialized = false;
   private final Provider<MetadataRefreshInfoBroadcaster> broadcasterProvider;
+  private final Executor metadataRefreshExecutor;
 
   public SourceMetadataManager(
       NamespaceKey sourceName,
@@ -120,6 +123,21 @@ class SourceMetadataManager implements AutoCloseable {
       final CatalogServiceMonitor monitor,
       final Provider<MetadataRefreshInfoBroadcaster> broadcasterProvider
       ) {
+    this(sourceName, scheduler, isMaster, sourceDataStore, bridge, options, monitor, broadcasterProvider,
+        MoreExecutors.directExecutor());
+  }
+
+  public SourceMetadataManager(
+      NamespaceKey sourceName,
+      SchedulerService scheduler,
+      boolean isMaster,
+      LegacyKVStore<NamespaceKey, SourceInternalData> sourceDataStore,
+      final ManagedStoragePlugin.MetadataBridge bridge,
+      final OptionManager options,
+      final CatalogServiceMonitor monitor,
+      final Provider<MetadataRefreshInfoBroadcaster> broadcasterProvider,
+      final Executor metadataRefreshExecutor
+      ) {
     this.sourceKey = sourceName;
     this.sourceDataStore = sourceDataStore;
     this.bridge = bridge;
@@ -128,6 +146,7 @@ class SourceMetadataManager implements AutoCloseable {
     this.namesRefresh = new RefreshInfo(() -> bridge.getMetadataPolicy().getNamesRefreshMs());
     this.fullRefresh = new RefreshInfo(() -> bridge.getMetadataPolicy().getDatasetDefinitionRefreshAfterMs());
     this.broadcasterProvider = broadcasterProvider;
+    this.metadataRefreshExecutor = metadataRefreshExecutor;
 
     if(isMaster) {
       // we can schedule on all nodes since this is a clustered singleton and will only run on a single node.
@@ -143,7 +162,10 @@ class SourceMetadataManager implements AutoCloseable {
 
   DatasetSaver getSaver() {
     return new DatasetSaver(bridge.getNamespaceService(),
-        key -> localUpdateTime.put(key, System.currentTimeMillis()),
+        key -> {
+          localUpdateTime.put(key, System.currentTimeMillis());
+          monitor.onMetadataUpdated(key);
+        },
         optionManager);
   }
 
@@ -401,7 +423,8 @@ class SourceMetadataManager implements AutoCloseable {
 
       final Stopwatch stopwatch = Stopwatch.createStarted();
       final MetadataSynchronizer synchronizeRun = new MetadataSynchronizer(systemNamespace, sourceKey,
-          bridge, metadataPolicy, getSaver(), retrievalOptions);
+          bridge, metadataPolicy, getSaver(), retrievalOptions, metadataRefreshExecutor,
+          (int) optionManager.getOption(CatalogOptions.METADATA_REFRESH_PARALLELISM));
       synchronizeRun.setup();
       final SyncStatus syncStatus = synchronizeRun.go();
 
@@ -15,55 +15,61 @@
  */
 package com.dremio.exec.catalog;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.Stopwatch;
+
 /**
- * Metadata sync status.
+ * Metadata sync status. Thread safe, as the datasets of a source are synchronized concurrently.
  */
 class SyncStatus {
 
   private final boolean fullRefresh;
+  private final Stopwatch stopwatch = Stopwatch.createStarted();
 
-  private long shallowAdded;
-  private long shallowDeleted;
-  private long shallowUnchanged;
+  private final LongAdder shallowAdded = new LongAdder();
+  private final LongAdder shallowDeleted = new LongAdder();
+  private final LongAdder shallowUnchanged = new LongAdder();
 
-  private long extendedChanged;
-  private long extendedUnchanged;
-  private long extendedUnreadable;
-  private long extendedDeleted;
+  private final LongAdder extendedChanged = new LongAdder();
+  private final LongAdder extendedUnchanged = new LongAdder();
+  private final LongAdder extendedUnreadable = new LongAdder();
+  private final LongAdder extendedDeleted = new LongAdder();
 
-  private boolean refreshed;
-  private boolean interrupted;
+  private volatile boolean refreshed;
+  private volatile boolean interrupted;
 
   SyncStatus(boolean fullRefresh) {
     this.fullRefresh = fullRefresh;
   }
 
   void incrementShallowAdded() {
-    shallowAdded++;
+    shallowAdded.increment();
   }
 
   void incrementShallowDeleted() {
-    shallowDeleted++;
+    shallowDeleted.increment();
   }
 
   void incrementShallowUnchanged() {
-    shallowUnchanged++;
+    shallowUnchanged.increment();
   }
 
   void incrementExtendedChanged() {
-    extendedChanged++;
+    extendedChanged.increment();
   }
 
   void incrementExtendedUnchanged() {
-    extendedUnchanged++;
+    extendedUnchanged.increment();
   }
 
   void incrementExtendedUnreadable() {
-    extendedUnreadable++;
+    extendedUnreadable.increment();
   }
 
   void incrementExtendedDeleted() {
-    extendedDeleted++;
+    extendedDeleted.increment();
   }
 
   void setRefreshed() {
@@ -82,17 +88,41 @@ class SyncStatus {
     return interrupted;
   }
 
+  /**
+   * @return the number of datasets probed so far
+   */
+  long getProbed() {
+    return shallowAdded.sum() + shallowUnchanged.sum() + shallowDeleted.sum()
+        + extendedChanged.sum() + extendedUnchanged.sum() + extendedDeleted.sum() + extendedUnreadable.sum();
+  }
+
+  /**
+   * @return the number of datasets probed per second so far
+   */
+  double getThroughput() {
+    final long elapsedMillis = Math.max(1, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+    return getProbed() * 1000.0 / elapsedMillis;
+  }
+
   @Override
   public String toString() {
+    final long shallowAdded = this.shallowAdded.sum();
+    final long shallowUnchanged = this.shallowUnchanged.sum();
+    final long shallowDeleted = this.shallowDeleted.sum();
     final StringBuilder builder = new StringBuilder();
     builder.append(String.format("Shallow probed %d datasets: %d added, %d unchanged, %d deleted\n",
         shallowAdded + shallowUnchanged + shallowDeleted, shallowAdded, shallowUnchanged, shallowDeleted));
     if (fullRefresh) {
+      final long extendedChanged = this.extendedChanged.sum();
+      final long extendedUnchanged = this.extendedUnchanged.sum();
+      final long extendedDeleted = this.extendedDeleted.sum();
+      final long extendedUnreadable = this.extendedUnreadable.sum();
       builder.append(
           String.format("Deep probed %d queried datasets: %d changed, %d unchanged, %d deleted, %d unreadable\n",
               extendedChanged + extendedUnchanged + extendedDeleted + extendedUnreadable, extendedChanged,
               extendedUnchanged, extendedDeleted, extendedUnreadable));
     }
+    builder.append(String.format("Probed %.1f datasets per second\n", getThroughput()));
     return builder.toString();
   }
 }
@@ -21,6 +21,7 @@ import org.codehaus.commons.compiler.CompileException;
 
 import com.dremio.common.util.DremioStringUtils;
 import com.dremio.common.util.FileUtils;
+import com.dremio.exec.compile.PersistentClassCache.CompiledClasses;
 import com.dremio.exec.exception.ClassTransformationException;
 import com.dremio.options.OptionManager;
 import com.dremio.options.Options;
@@ -168,27 +169,41 @@ public class ClassTransformer {
       final TemplateClassDefinition<?> templateDefinition,
       final String entireClass,
       final String materializedClassName) throws ClassTransformationException {
-    return getExtendedImplementationClass(classLoader, templateDefinition, entireClass, materializedClassName);
+    return getExtendedImplementationClass(classLoader, templateDefinition, entireClass, materializedClassName, null);
+  }
+
+  /**
+   * Get the implementation class of a generated source, looking it up in the persistent cache of the class loader
+   * with the given key. A cached class keeps the name it was compiled with, rather than materializedClassName.
+   */
+  public Class<?> getImplementationClass(
+      final QueryClassLoader classLoader,
+      final TemplateClassDefinition<?> templateDefinition,
+      final String entireClass,
+      final String materializedClassName,
+      final String cacheKey) throws ClassTransformationException {
+    return getExtendedImplementationClass(classLoader, templateDefinition, entireClass, materializedClassName, cacheKey);
   }
 
   private Class<?> getExtendedImplementationClass(
       final QueryClassLoader classLoader,
       final TemplateClassDefinition<?> templateDefinition,
       final String entireClass,
-      final String materializedClassName) throws ClassTransformationException {
+      final String materializedClassName,
+      final String cacheKey) throws ClassTransformationException {
 
     try {
       final long t1 = System.nanoTime();
       final ClassSet set = new ClassSet(null, templateDefinition.getTemplateClassName(), materializedClassName);
-      final ClassBytes[] implementationClasses = classLoader.getClassByteCode(set.generated, entireClass);
+      final CompiledClasses implementationClasses = classLoader.getCompiledClasses(cacheKey, set.generated, entireClass);
 
       long totalBytecodeSize = 0;
-      for (ClassBytes clazz : implementationClasses) {
+      for (ClassBytes clazz : implementationClasses.getClasses()) {
         totalBytecodeSize += clazz.getBytes().length;
         classLoader.injectByteCode(clazz.getName(), clazz.getBytes());
       }
 
-      Class<?> c = classLoader.findClass(set.generated.dot);
+      Class<?> c = classLoader.findClass(implementationClasses.getClassName());
       if (templateDefinition.getExternalInterface().isAssignableFrom(c)) {
         logger.debug("Done compiling (bytecode size={}, time:{} millis).", DremioStringUtils.readable(totalBytecodeSize), (System.nanoTime() - t1) / 1000000);
         return c;
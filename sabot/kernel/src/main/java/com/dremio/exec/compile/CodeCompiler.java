@@ -16,6 +16,8 @@
 package com.dremio.exec.compile;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 
@@ -24,19 +26,29 @@ import com.dremio.exec.ExecConstants;
 import com.dremio.exec.exception.ClassTransformationException;
 import com.dremio.exec.expr.CodeGenerator;
 import com.dremio.options.OptionManager;
+import com.google.common.base.Strings;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Lists;
 
-public class CodeCompiler {
-//  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(CodeCompiler.class);
+public class CodeCompiler implements AutoCloseable {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(CodeCompiler.class);
 
   private final ClassTransformer transformer;
   private final ClassCompilerSelector selector;
   private final LoadingCache<CodeGenerator<?>, GeneratedClassEntry> cache;
+  private final PersistentClassCache persistentCache;
 
   public CodeCompiler(final SabotConfig config, final OptionManager optionManager) {
+    this(config, optionManager, null);
+  }
+
+  /**
+   * @param defaultPersistentCacheDirectory directory of the compiled classes cached on disk, if no path is configured
+   */
+  public CodeCompiler(final SabotConfig config, final OptionManager optionManager,
+                      final Path defaultPersistentCacheDirectory) {
     transformer = new ClassTransformer(optionManager);
     selector = new ClassCompilerSelector(config, optionManager);
     final int cacheMaxSize = config.getInt(ExecConstants.MAX_LOADING_CACHE_SIZE_CONFIG);
@@ -44,6 +56,29 @@ public class CodeCompiler {
         .softValues()
         .maximumSize(cacheMaxSize)
         .build(new Loader());
+    persistentCache = newPersistentCache(config, defaultPersistentCacheDirectory);
+  }
+
+  private static PersistentClassCache newPersistentCache(SabotConfig config, Path defaultDirectory) {
+    if (!config.hasPath(ExecConstants.PERSISTENT_CLASS_CACHE_ENABLED_CONFIG)
+        || !config.getBoolean(ExecConstants.PERSISTENT_CLASS_CACHE_ENABLED_CONFIG)) {
+      return null;
+    }
+
+    final String path = config.getString(ExecConstants.PERSISTENT_CLASS_CACHE_PATH_CONFIG);
+    final Path directory = Strings.isNullOrEmpty(path) ? defaultDirectory : Paths.get(path);
+    if (directory == null) {
+      logger.warn("No directory configured for the compiled classes cache, classes won't be cached on disk.");
+      return null;
+    }
+    try {
+      return new PersistentClassCache(directory,
+          config.getInt(ExecConstants.PERSISTENT_CLASS_CACHE_WARMUP_SIZE_CONFIG),
+          config.getBytes(ExecConstants.PERSISTENT_CLASS_CACHE_MAX_SIZE_CONFIG));
+    } catch (IOException e) {
+      logger.warn("Unable to create the compiled classes cache in {}, classes won't be cached on disk.", directory, e);
+      return null;
+    }
   }
 
   @SuppressWarnings("unchecked")
@@ -69,13 +104,22 @@ public class CodeCompiler {
   private class Loader extends CacheLoader<CodeGenerator<?>, GeneratedClassEntry> {
     @Override
     public GeneratedClassEntry load(final CodeGenerator<?> cg) throws Exception {
-      final QueryClassLoader loader = new QueryClassLoader(selector);
+      final QueryClassLoader loader = new QueryClassLoader(selector, persistentCache);
+      final String cacheKey = persistentCache == null
+          ? null : PersistentClassCache.newKey(cg.getDefinition(), cg.getGenerifiedCode());
       final Class<?> c = transformer.getImplementationClass(loader, cg.getDefinition(),
-          cg.getGeneratedCode(), cg.getMaterializedClassName());
+          cg.getGeneratedCode(), cg.getMaterializedClassName(), cacheKey);
       return new GeneratedClassEntry(c);
     }
   }
 
+  @Override
+  public void close() throws Exception {
+    if (persistentCache != null) {
+      persistentCache.close();
+    }
+  }
+
   private class GeneratedClassEntry {
     private final Class<?> clazz;
 
@@ -0,0 +1,351 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.compile;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import com.dremio.common.util.DremioVersionInfo;
+import com.google.common.hash.Hashing;
+
+/**
+ * Content addressed cache of compiled classes, on the local disk, so that the classes generated for queries are not
+ * compiled again after a restart.
+ *
+ * Classes are keyed by a hash of the generated source, of the bytecode of their template and of the Dremio version.
+ * The classes are cached with the name they were compiled with, and are loaded under that name by the
+ * {@link QueryClassLoader} of each generated class. When closed, the cache writes down the keys of the most used
+ * classes, which are read back in memory when it is next created.
+ *
+ * The directory is only accessible by the user running Dremio, as its classes are loaded without any check. When the
+ * cached classes exceed the maximum size, the least recently used ones are deleted.
+ *
+ * Failures to read or write the cache are logged, and the classes compiled again.
+ */
+public class PersistentClassCache implements AutoCloseable {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(PersistentClassCache.class);
+
+  static final String WARMUP_FILE = "warmup.list";
+  // the number of classes whose uses are counted
+  static final int MAX_TRACKED_USES = 10_000;
+  private static final String SUFFIX = ".classes";
+  private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+  private final Path directory;
+  private final int warmupSize;
+  private final long maxSize;
+  private final AtomicLong size = new AtomicLong();
+  private final Map<String, CompiledClasses> warm = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> uses = new ConcurrentHashMap<>();
+
+  /**
+   * @param directory directory of the cached classes, created if it doesn't exist
+   * @param warmupSize number of the most used classes read in memory when the cache is created
+   * @param maxSize maximum size in bytes of the cached classes
+   * @throws IOException if the directory cannot be created, or is accessible by other users
+   */
+  public PersistentClassCache(Path directory, int warmupSize, long maxSize) throws IOException {
+    this.directory = createPrivateDirectory(directory);
+    this.warmupSize = warmupSize;
+    this.maxSize = maxSize;
+    size.set(listClasses().stream().mapToLong(CachedFile::getSize).sum());
+    warmUp();
+  }
+
+  /**
+   * Create the key of a generated class.
+   *
+   * @param templateDefinition the template the class is generated from
+   * @param generifiedCode the generated source, before the class is given its name
+   */
+  public static String newKey(TemplateClassDefinition<?> templateDefinition, String generifiedCode) {
+    return Hashing.sha256().newHasher()
+        .putString(DremioVersionInfo.getVersion(), UTF_8)
+        .putString(templateDefinition.getTemplateClassName(), UTF_8)
+        .putString(templateDefinition.getTemplateHash(), UTF_8)
+        .putString(generifiedCode, UTF_8)
+        .hash()
+        .toString();
+  }
+
+  /**
+   * Get the classes of a key.
+   *
+   * @return the classes, or null if they are not cached
+   */
+  public CompiledClasses get(String key) {
+    CompiledClasses classes = warm.get(key);
+    if (classes == null) {
+      classes = read(key);
+    }
+    if (classes != null) {
+      recordUse(key);
+    }
+    return classes;
+  }
+
+  public void put(String key, CompiledClasses classes) {
+    final Path tmp = directory.resolve(key + SUFFIX + "." + Thread.currentThread().getId() + ".tmp");
+    try {
+      try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+        output.writeUTF(classes.getClassName());
+        output.writeInt(classes.getClasses().length);
+        for (ClassBytes clazz : classes.getClasses()) {
+          output.writeUTF(clazz.getName());
+          output.writeInt(clazz.getBytes().length);
+          output.write(clazz.getBytes());
+        }
+      }
+      // readers never see a partially written file.
+      final Path file = file(key);
+      Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+      recordUse(key);
+      if (size.addAndGet(Files.size(file)) > maxSize) {
+        evict();
+      }
+    } catch (IOException e) {
+      logger.warn("Failure while caching compiled class {}.", classes.getClassName(), e);
+      deleteQuietly(tmp);
+    }
+  }
+
+  private void recordUse(String key) {
+    LongAdder count = uses.get(key);
+    if (count == null) {
+      if (uses.size() >= MAX_TRACKED_USES) {
+        return;
+      }
+      count = uses.computeIfAbsent(key, k -> new LongAdder());
+    }
+    count.increment();
+  }
+
+  /**
+   * Delete the least recently used classes, until the cached classes take at most 90% of the maximum size, so that
+   * the cache is not evicted on every put.
+   */
+  private synchronized void evict() throws IOException {
+    final List<CachedFile> files = listClasses();
+    long total = files.stream().mapToLong(CachedFile::getSize).sum();
+    final long target = maxSize / 10 * 9;
+    files.sort(Comparator.comparing(CachedFile::getLastModified));
+    int evicted = 0;
+    for (CachedFile file : files) {
+      if (total <= target) {
+        break;
+      }
+      deleteQuietly(file.path);
+      final String key = file.getKey();
+      warm.remove(key);
+      uses.remove(key);
+      total -= file.size;
+      evicted++;
+    }
+    size.set(total);
+    logger.debug("Evicted {} compiled classes from {}.", evicted, directory);
+  }
+
+  private List<CachedFile> listClasses() throws IOException {
+    final List<CachedFile> files = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+      for (Path file : stream) {
+        try {
+          files.add(new CachedFile(file, Files.size(file), Files.getLastModifiedTime(file)));
+        } catch (NoSuchFileException e) {
+          // deleted concurrently
+        }
+      }
+    }
+    return files;
+  }
+
+  private CompiledClasses read(String key) {
+    final Path file = file(key);
+    final CompiledClasses compiled;
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      final String className = input.readUTF();
+      final ClassBytes[] classes = new ClassBytes[input.readInt()];
+      for (int i = 0; i < classes.length; i++) {
+        final String name = input.readUTF();
+        final byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        classes[i] = new ClassBytes(name, bytes);
+      }
+      compiled = new CompiledClasses(className, classes);
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Failure while reading cached compiled class {}, dropping it.", file, e);
+      deleteQuietly(file);
+      return null;
+    }
+
+    // the classes read the most recently are evicted the last
+    try {
+      Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+    } catch (IOException e) {
+      logger.debug("Failure while updating the modification time of {}.", file, e);
+    }
+    return compiled;
+  }
+
+  private void warmUp() {
+    final Path list = directory.resolve(WARMUP_FILE);
+    if (!Files.exists(list)) {
+      return;
+    }
+
+    try {
+      for (String key : Files.readAllLines(list, UTF_8)) {
+        if (warm.size() >= warmupSize) {
+          break;
+        }
+        final CompiledClasses classes = read(key);
+        if (classes != null) {
+          warm.put(key, classes);
+        }
+      }
+      logger.info("Read {} compiled classes from {}.", warm.size(), directory);
+    } catch (IOException e) {
+      logger.warn("Failure while reading the most used compiled classes from {}.", list, e);
+    }
+  }
+
+  /**
+   * Write down the keys of the most used classes.
+   */
+  @Override
+  public void close() throws IOException {
+    final List<String> mostUsed = uses.entrySet().stream()
+        .sorted((e1, e2) -> Long.compare(e2.getValue().sum(), e1.getValue().sum()))
+        .limit(warmupSize)
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toList());
+    final Path tmp = directory.resolve(WARMUP_FILE + ".tmp");
+    Files.write(tmp, mostUsed, UTF_8);
+    Files.move(tmp, directory.resolve(WARMUP_FILE), StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private Path file(String key) {
+    return directory.resolve(key + SUFFIX);
+  }
+
+  /**
+   * Create the directory, only accessible by the current user, or check that it is if it already exists.
+   */
+  private static Path createPrivateDirectory(Path directory) throws IOException {
+    if (!directory.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+      return Files.createDirectories(directory);
+    }
+
+    Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+    final Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(directory);
+    if (!OWNER_ONLY.containsAll(permissions)) {
+      throw new IOException(String.format("%s is accessible by other users, its permissions are %s.",
+          directory, PosixFilePermissions.toString(permissions)));
+    }
+    final UserPrincipal owner = Files.getOwner(directory);
+    final UserPrincipal user = directory.getFileSystem().getUserPrincipalLookupService()
+        .lookupPrincipalByName(System.getProperty("user.name"));
+    if (!owner.equals(user)) {
+      throw new IOException(String.format("%s is owned by %s, not by %s.", directory, owner.getName(), user.getName()));
+    }
+    return directory;
+  }
+
+  private static void deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      logger.debug("Failure while deleting {}.", file, e);
+    }
+  }
+
+  /**
+   * A file of cached classes.
+   */
+  private static final class CachedFile {
+    private final Path path;
+    private final long size;
+    private final FileTime lastModified;
+
+    private CachedFile(Path path, long size, FileTime lastModified) {
+      this.path = path;
+      this.size = size;
+      this.lastModified = lastModified;
+    }
+
+    private long getSize() {
+      return size;
+    }
+
+    private FileTime getLastModified() {
+      return lastModified;
+    }
+
+    private String getKey() {
+      final String name = path.getFileName().toString();
+      return name.substring(0, name.length() - SUFFIX.length());
+    }
+  }
+
+  /**
+   * The classes compiled from a generated source.
+   */
+  public static class CompiledClasses {
+    private final String className;
+    private final ClassBytes[] classes;
+
+    public CompiledClasses(String className, ClassBytes[] classes) {
+      this.className = className;
+      this.classes = classes;
+    }
+
+    /**
+     * @return the name of the generated class, the other classes being its inner classes
+     */
+    public String getClassName() {
+      return className;
+    }
+
+    public ClassBytes[] getClasses() {
+      return classes;
+    }
+  }
+}
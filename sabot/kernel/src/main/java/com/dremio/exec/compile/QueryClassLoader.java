@@ -24,19 +24,26 @@ import java.util.concurrent.atomic.AtomicLong;
 import org.codehaus.commons.compiler.CompileException;
 
 import com.dremio.exec.compile.ClassTransformer.ClassNames;
+import com.dremio.exec.compile.PersistentClassCache.CompiledClasses;
 import com.dremio.exec.exception.ClassTransformationException;
 import com.google.common.collect.MapMaker;
 
 public class QueryClassLoader extends URLClassLoader {
   private final ClassCompilerSelector compilerSelector;
+  private final PersistentClassCache persistentCache;
 
   private final AtomicLong index = new AtomicLong(0);
 
   private final ConcurrentMap<String, byte[]> customClasses = new MapMaker().concurrencyLevel(4).makeMap();
 
   public QueryClassLoader(ClassCompilerSelector classCompilerSelector) {
+    this(classCompilerSelector, null);
+  }
+
+  public QueryClassLoader(ClassCompilerSelector classCompilerSelector, PersistentClassCache persistentCache) {
     super(new URL[0], Thread.currentThread().getContextClassLoader());
     this.compilerSelector = classCompilerSelector;
+    this.persistentCache = persistentCache;
   }
 
   public long getNextClassIndex() {
@@ -64,4 +71,24 @@ public class QueryClassLoader extends URLClassLoader {
       throws CompileException, IOException, ClassNotFoundException, ClassTransformationException {
     return compilerSelector.getClassByteCode(className, sourceCode);
   }
+
+  /**
+   * Get the classes compiled from a source, from the persistent cache if any and if it has them.
+   *
+   * @param cacheKey key of the source in the persistent cache, or null to always compile it
+   */
+  public CompiledClasses getCompiledClasses(final String cacheKey, final ClassNames className, final String sourceCode)
+      throws CompileException, IOException, ClassNotFoundException, ClassTransformationException {
+    if (persistentCache == null || cacheKey == null) {
+      return new CompiledClasses(className.dot, getClassByteCode(className, sourceCode));
+    }
+
+    final CompiledClasses cached = persistentCache.get(cacheKey);
+    if (cached != null) {
+      return cached;
+    }
+    final CompiledClasses compiled = new CompiledClasses(className.dot, getClassByteCode(className, sourceCode));
+    persistentCache.put(cacheKey, compiled);
+    return compiled;
+  }
 }
@@ -15,9 +15,15 @@
  */
 package com.dremio.exec.compile;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.dremio.exec.compile.sig.SignatureHolder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Resources;
 
 public class TemplateClassDefinition<T>{
 
@@ -27,6 +33,7 @@ public class TemplateClassDefinition<T>{
   private final Class<?> template;
   private final SignatureHolder signature;
   private static final AtomicLong classNumber = new AtomicLong(0);
+  private volatile String templateHash;
 
   public <X extends T> TemplateClassDefinition(Class<T> iface, Class<X> template) {
     super();
@@ -59,6 +66,34 @@ public class TemplateClassDefinition<T>{
     return signature;
   }
 
+  /**
+   * @return a hash of the bytecode of the template and of its inner classes, which the generated classes are merged
+   * with
+   */
+  public String getTemplateHash() {
+    if (templateHash == null) {
+      final Hasher hasher = Hashing.sha256().newHasher();
+      putByteCode(hasher, template);
+      templateHash = hasher.hash().toString();
+    }
+    return templateHash;
+  }
+
+  private static void putByteCode(Hasher hasher, Class<?> clazz) {
+    final URL url = clazz.getResource("/" + clazz.getName().replace('.', '/') + ".class");
+    if (url == null) {
+      throw new IllegalStateException(String.format("Unable to find the bytecode of %s.", clazz.getName()));
+    }
+    try {
+      hasher.putBytes(Resources.toByteArray(url));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    for (Class<?> inner : clazz.getDeclaredClasses()) {
+      putByteCode(hasher, inner);
+    }
+  }
+
   @Override
   public String toString() {
     return "TemplateClassDefinition [template=" + template + ", signature=" + signature + "]";
@@ -106,6 +106,13 @@ public class CodeGenerator<T> {
 
   }
 
+  /**
+   * @return the generated code, before the class is given its name
+   */
+  public String getGenerifiedCode() {
+    return generifiedCode;
+  }
+
   public String getGeneratedCode() {
     return generifiedCode.replaceAll("GenericGenerated", this.className);
   }
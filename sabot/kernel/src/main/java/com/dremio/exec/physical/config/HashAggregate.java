@@ -38,6 +38,7 @@ public class HashAggregate extends AbstractSingle {
   private final boolean useSpill;
   private final float cardinality;
   private final int hashTableBatchSize;
+  private final boolean partial;
 
   /* testing related parameters */
   private VectorizedHashAggSpillStats spillStats;
@@ -51,7 +52,8 @@ public class HashAggregate extends AbstractSingle {
       @JsonProperty("vectorize") boolean vectorize,
       @JsonProperty("useSpill") boolean useSpill,
       @JsonProperty("cardinality") float cardinality,
-      @JsonProperty("hashTableBatchSize") int hashTableBatchSize
+      @JsonProperty("hashTableBatchSize") int hashTableBatchSize,
+      @JsonProperty("partial") boolean partial
       ) {
     super(props, child);
     this.groupByExprs = groupByExprs;
@@ -60,6 +62,7 @@ public class HashAggregate extends AbstractSingle {
     this.useSpill = useSpill;
     this.cardinality = cardinality;
     this.hashTableBatchSize = hashTableBatchSize;
+    this.partial = partial;
   }
 
   // for testing only
@@ -71,7 +74,33 @@ public class HashAggregate extends AbstractSingle {
     boolean vectorize,
     boolean useSpill,
     float cardinality) {
-    this(props, child, groupByExprs, aggrExprs, vectorize, useSpill, cardinality, 3968);
+    this(props, child, groupByExprs, aggrExprs, vectorize, useSpill, cardinality, 3968, false);
+  }
+
+  // for testing only
+  public HashAggregate(
+    OpProps props,
+    PhysicalOperator child,
+    List<NamedExpression> groupByExprs,
+    List<NamedExpression> aggrExprs,
+    boolean vectorize,
+    boolean useSpill,
+    float cardinality,
+    int hashTableBatchSize) {
+    this(props, child, groupByExprs, aggrExprs, vectorize, useSpill, cardinality, hashTableBatchSize, false);
+  }
+
+  // for testing only
+  public HashAggregate(
+    OpProps props,
+    PhysicalOperator child,
+    List<NamedExpression> groupByExprs,
+    List<NamedExpression> aggrExprs,
+    boolean vectorize,
+    boolean useSpill,
+    float cardinality,
+    boolean partial) {
+    this(props, child, groupByExprs, aggrExprs, vectorize, useSpill, cardinality, 3968, partial);
   }
 
   public boolean isVectorize(){
@@ -94,6 +123,14 @@ public class HashAggregate extends AbstractSingle {
     return cardinality;
   }
 
+  /**
+   * @return true if this is the first phase of a two phase aggregation, whose output
+   * is aggregated again after the exchange.
+   */
+  public boolean isPartial() {
+    return partial;
+  }
+
   @Override
   public <T, X, E extends Throwable> T accept(PhysicalVisitor<T, X, E> physicalVisitor, X value) throws E{
     return physicalVisitor.visitHashAggregate(this, value);
@@ -101,7 +138,7 @@ public class HashAggregate extends AbstractSingle {
 
   @Override
   protected PhysicalOperator getNewWithChild(PhysicalOperator child) {
-    return new HashAggregate(props, child, groupByExprs, aggrExprs, vectorize, useSpill, cardinality);
+    return new HashAggregate(props, child, groupByExprs, aggrExprs, vectorize, useSpill, cardinality, partial);
   }
 
   @Override
@@ -47,8 +47,21 @@ public class HashJoinPOP extends AbstractBase {
   private final List<JoinCondition> conditions;
   private final JoinRelType joinType;
   private final boolean vectorize;
+  private final boolean sharedBuild;
   private RuntimeFilterInfo runtimeFilterInfo;
 
+  public HashJoinPOP(
+      OpProps props,
+      PhysicalOperator left,
+      PhysicalOperator right,
+      List<JoinCondition> conditions,
+      JoinRelType joinType,
+      boolean vectorize,
+      RuntimeFilterInfo runtimeFilterInfo
+      ) {
+    this(props, left, right, conditions, joinType, vectorize, false, runtimeFilterInfo);
+  }
+
   @JsonCreator
   public HashJoinPOP(
       @JsonProperty("props") OpProps props,
@@ -57,6 +70,7 @@ public class HashJoinPOP extends AbstractBase {
       @JsonProperty("conditions") List<JoinCondition> conditions,
       @JsonProperty("joinType") JoinRelType joinType,
       @JsonProperty("vectorize") boolean vectorize,
+      @JsonProperty("sharedBuild") boolean sharedBuild,
       @JsonProperty("runtimeFilterInfo") RuntimeFilterInfo runtimeFilterInfo
       ) {
     super(props);
@@ -65,6 +79,7 @@ public class HashJoinPOP extends AbstractBase {
     this.conditions = conditions;
     this.joinType = joinType;
     this.vectorize = vectorize;
+    this.sharedBuild = sharedBuild;
     this.runtimeFilterInfo = runtimeFilterInfo;
   }
 
@@ -76,7 +91,7 @@ public class HashJoinPOP extends AbstractBase {
   @Override
   public PhysicalOperator getNewWithChildren(List<PhysicalOperator> children) {
       Preconditions.checkArgument(children.size() == 2);
-      return new HashJoinPOP(props, children.get(0), children.get(1), conditions, joinType, vectorize, runtimeFilterInfo);
+      return new HashJoinPOP(props, children.get(0), children.get(1), conditions, joinType, vectorize, sharedBuild, runtimeFilterInfo);
   }
 
   @Override
@@ -104,6 +119,14 @@ public class HashJoinPOP extends AbstractBase {
     return vectorize;
   }
 
+  /**
+   * @return true if the build side is broadcast, and can be built once and shared by the minor fragments
+   * running on the same node.
+   */
+  public boolean isSharedBuild() {
+    return sharedBuild;
+  }
+
   @Override
   public int getOperatorType() {
     return CoreOperatorType.HASH_JOIN_VALUE;
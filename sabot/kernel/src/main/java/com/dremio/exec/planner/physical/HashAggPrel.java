@@ -344,7 +344,8 @@ public class HashAggPrel extends AggPrelBase implements Prel{
         canVectorize,
         canSpill,
         1.0f,
-        hashTableBatchSize);
+        hashTableBatchSize,
+        getOperatorPhase() == OperatorPhase.PHASE_1of2);
   }
 
 
@@ -175,10 +175,21 @@ public class HashJoinPrel extends JoinPrel {
     }
     BatchSchema schema = b.build();
 
+    // the build side of a broadcast join is the same for all the fragments of a node, it can be built once.
+    // only for joins that don't track matches of the build side, as that state is per fragment.
+    final boolean sharedBuild = vectorize
+        && creator.getOptionManager().getOption(ExecConstants.ENABLE_VECTORIZED_HASHJOIN_SHARED_BUILD)
+        && currentRight instanceof BroadcastExchangePrel
+        && (joinType == JoinRelType.INNER || joinType == JoinRelType.LEFT);
+
+    // a spilling join needs a memory limit to know when to spill
+    final boolean bounded = creator.getOptionManager().getOption(BOUNDED)
+        || (vectorize && creator.getOptionManager().getOption(ExecConstants.ENABLE_VECTORIZED_HASHJOIN_SPILL));
+
     return new HashJoinPOP(
         creator
           .props(this, null, schema, RESERVE, LIMIT)
-          .cloneWithBound(creator.getOptionManager().getOption(BOUNDED))
+          .cloneWithBound(bounded)
           .cloneWithMemoryFactor(creator.getOptionManager().getOption(FACTOR))
           .cloneWithMemoryExpensive(true),
         leftPop,
@@ -186,6 +197,7 @@ public class HashJoinPrel extends JoinPrel {
         conditions,
         joinType,
         vectorize,
+        sharedBuild,
         runtimeFilterInfo
     );
   }
@@ -212,6 +212,12 @@ public class PlannerSettings implements Context{
    */
   public static final BooleanValidator REUSE_PREPARE_HANDLES = new BooleanValidator("planner.reuse_prepare_statement_handles", false);
 
+  /**
+   * Controls whether the physical plans of SQL queries are cached on the coordinator, and reused when the same user
+   * runs the same query again, with the same options, and on the same versions of the datasets.
+   */
+  public static final BooleanValidator PLAN_CACHE_ENABLED = new BooleanValidator("planner.plan_cache.enabled", false);
+
   public static final BooleanValidator VERBOSE_PROFILE = new BooleanValidator("planner.verbose_profile", false);
 
   public static final BooleanValidator INCLUDE_DATASET_PROFILE = new BooleanValidator("planner.include_dataset_profile", true);
@@ -15,6 +15,7 @@
  */
 package com.dremio.exec.planner.sql.handlers.commands;
 
+import static com.dremio.exec.planner.physical.PlannerSettings.PLAN_CACHE_ENABLED;
 import static com.dremio.exec.planner.physical.PlannerSettings.REUSE_PREPARE_HANDLES;
 import static com.dremio.exec.planner.physical.PlannerSettings.STORE_QUERY_RESULTS;
 
@@ -119,6 +120,7 @@ public class CommandCreator {
   private final AttemptObserver observer;
   private final SabotContext dbContext;
   private final Cache<Long, PreparedPlan> plans;
+  private final PlanCache planCache;
   private final int attemptNumber;
   private final Pointer<QueryId> prepareId;
 
@@ -128,6 +130,7 @@ public class CommandCreator {
       UserRequest request,
       AttemptObserver observer,
       Cache<Long, PreparedPlan> plans,
+      PlanCache planCache,
       Pointer<QueryId> prepareId,
       int attemptNumber) {
     this.context = context;
@@ -135,6 +138,7 @@ public class CommandCreator {
     this.observer = observer;
     this.dbContext = dbContext;
     this.plans = plans;
+    this.planCache = planCache;
     this.prepareId = prepareId;
     this.attemptNumber = attemptNumber;
   }
@@ -258,9 +262,42 @@ public class CommandCreator {
     return ReflectionContext.SYSTEM_USER_CONTEXT;
   }
 
+  private boolean storeQueryResults() {
+    final StoreQueryResultsPolicy storeQueryResultsPolicy = Optional
+        .ofNullable(context.getOptions().getOption(STORE_QUERY_RESULTS.getOptionName()))
+        .map(o -> StoreQueryResultsPolicy.valueOf(o.getStringVal().toUpperCase(Locale.ROOT)))
+        .orElse(StoreQueryResultsPolicy.NO);
+    return storeQueryResultsPolicy != StoreQueryResultsPolicy.NO;
+  }
+
+  /**
+   * The plan of a query is cached iff this is the first attempt to run it, as a reattempt might be caused by
+   * a stale plan, and its results are not stored, as the path of the results is specific to each query.
+   *
+   * @return the key of the query in the plan cache, or null if its plan is not cached.
+   */
+  private PlanCache.Key getPlanCacheKey(String sql, PrepareMetadataType prepareMetadataType) {
+    if (planCache == null
+        || prepareMetadataType != PrepareMetadataType.NONE
+        || attemptNumber != 0
+        || !context.getOptions().getOption(PLAN_CACHE_ENABLED)
+        || storeQueryResults()) {
+      return null;
+    }
+    return PlanCache.newKey(sql, context);
+  }
+
   @VisibleForTesting
   CommandRunner<?> getSqlCommand(String sql, PrepareMetadataType prepareMetadataType) {
     try{
+      final PlanCache.Key planCacheKey = getPlanCacheKey(sql, prepareMetadataType);
+      if (planCacheKey != null) {
+        final PreparedPlan plan = planCache.getIfCurrent(planCacheKey, context.getCatalog());
+        if (plan != null) {
+          return new PrepareToExecution(plan, observer);
+        }
+      }
+
       final SqlConverter parser = new SqlConverter(
           context.getPlannerSettings(),
           context.getOperatorTable(),
@@ -366,6 +403,10 @@ public class CommandCreator {
 
         // fallthrough
       default:
+        if (planCacheKey != null) {
+          return new CachingHandlerToExec(context, observer, sql, sqlNode, new NormalHandler(), config, planCache,
+            planCacheKey);
+        }
         return async.create(new NormalHandler(), config);
       }
 
@@ -390,12 +431,7 @@ public class CommandCreator {
       this.sqlNode = sqlNode;
       this.prepareMetadataType = prepareMetadataType;
       this.sql = sql;
-
-      final StoreQueryResultsPolicy storeQueryResultsPolicy = Optional
-          .ofNullable(context.getOptions().getOption(STORE_QUERY_RESULTS.getOptionName()))
-          .map(o -> StoreQueryResultsPolicy.valueOf(o.getStringVal().toUpperCase(Locale.ROOT)))
-          .orElse(StoreQueryResultsPolicy.NO);
-      this.storeResults = storeQueryResultsPolicy != StoreQueryResultsPolicy.NO;
+      this.storeResults = storeQueryResults();
     }
 
     // handlers in handlers.direct package
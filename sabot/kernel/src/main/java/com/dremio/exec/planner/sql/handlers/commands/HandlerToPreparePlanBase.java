@@ -25,6 +25,7 @@ import org.apache.calcite.rel.RelRoot;
 import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.sql.SqlNode;
 
+import com.dremio.exec.catalog.DremioTable;
 import com.dremio.exec.ops.QueryContext;
 import com.dremio.exec.physical.PhysicalPlan;
 import com.dremio.exec.planner.PlannerPhase;
@@ -204,6 +205,11 @@ public abstract class HandlerToPreparePlanBase<T> implements CommandRunner<T> {
       calls.add(observer -> observer.planJsonPlan(text));
     }
 
+    @Override
+    public void tablesCollected(final Iterable<DremioTable> tables) {
+      calls.add(observer -> observer.tablesCollected(tables));
+    }
+
     public void replay(AttemptObserver observer) {
       for(ObserverCall c : calls){
         c.doCall(observer);
@@ -0,0 +1,299 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.sql.handlers.commands;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexShuttle;
+import org.apache.calcite.rex.RexSubQuery;
+import org.apache.calcite.sql.SqlOperator;
+
+import com.dremio.exec.catalog.Catalog;
+import com.dremio.exec.catalog.DremioTable;
+import com.dremio.exec.ops.QueryContext;
+import com.dremio.options.OptionValue;
+import com.dremio.service.namespace.NamespaceKey;
+import com.dremio.service.namespace.dataset.proto.DatasetConfig;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Cache of the physical plans of the SQL queries run on this coordinator, so that a query run again by the same
+ * user, with the same default schema and options, skips planning.
+ *
+ * A cached plan records the version of each dataset it reads, and is only used while all of them are unchanged.
+ * The plans of a dataset are also evicted as soon as its metadata is updated on this coordinator.
+ */
+public class PlanCache {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(PlanCache.class);
+
+  private final Cache<Key, CachedPlan> plans;
+
+  public PlanCache(long maximumSize, long expireAfterWriteMillis) {
+    this.plans = CacheBuilder.newBuilder()
+      .maximumSize(maximumSize)
+      // like prepared statement handles, plans are memory intensive: let GC release them before running OOM.
+      .softValues()
+      .expireAfterWrite(expireAfterWriteMillis, TimeUnit.MILLISECONDS)
+      .recordStats()
+      .build();
+  }
+
+  /**
+   * Get the plan of a query, if it is cached and the datasets it reads did not change since it was planned.
+   *
+   * @param key The key of the query.
+   * @param catalog The catalog of the query, to look up the current version of the datasets.
+   * @return The plan, or null if the query has to be planned.
+   */
+  public PreparedPlan getIfCurrent(Key key, Catalog catalog) {
+    final CachedPlan cached = plans.getIfPresent(key);
+    if (cached == null) {
+      return null;
+    }
+
+    try {
+      for (Map.Entry<NamespaceKey, String> dataset : cached.datasetTags.entrySet()) {
+        final DremioTable table = catalog.getTable(dataset.getKey());
+        if (table == null || table.getDatasetConfig() == null
+          || !Objects.equals(dataset.getValue(), table.getDatasetConfig().getTag())) {
+          plans.invalidate(key);
+          return null;
+        }
+      }
+    } catch (RuntimeException e) {
+      // let planning report the failure, if any.
+      logger.debug("Unable to validate the cached plan of query {}.", key.sql, e);
+      plans.invalidate(key);
+      return null;
+    }
+    return cached.plan;
+  }
+
+  /**
+   * Cache the plan of a query.
+   *
+   * @param key The key of the query.
+   * @param plan The plan of the query.
+   * @param tables The datasets read by the query.
+   */
+  public void put(Key key, PreparedPlan plan, Iterable<DremioTable> tables) {
+    final Map<NamespaceKey, String> datasetTags = new HashMap<>();
+    for (DremioTable table : tables) {
+      final DatasetConfig config = table.getDatasetConfig();
+      if (config == null || config.getTag() == null) {
+        // without a version, the plan can't be validated.
+        return;
+      }
+      datasetTags.put(table.getPath(), config.getTag());
+    }
+    plans.put(key, new CachedPlan(plan, ImmutableMap.copyOf(datasetTags)));
+  }
+
+  /**
+   * Evict the plans reading the given dataset.
+   */
+  public void invalidate(NamespaceKey dataset) {
+    if (plans.size() == 0) {
+      return;
+    }
+    final NamespaceKey lowerCaseKey = dataset.asLowerCase();
+    plans.asMap().values().removeIf(cached -> cached.reads(lowerCaseKey));
+  }
+
+  public void invalidateAll() {
+    plans.invalidateAll();
+  }
+
+  public long size() {
+    return plans.size();
+  }
+
+  public CacheStats stats() {
+    return plans.stats();
+  }
+
+  /**
+   * Create the key of a query.
+   */
+  public static Key newKey(String sql, QueryContext context) {
+    final List<String> options = new ArrayList<>();
+    for (OptionValue option : context.getNonDefaultOptions()) {
+      options.add(option.getType() + ":" + option.getName() + "=" + option.getValue());
+    }
+    options.sort(null);
+
+    final NamespaceKey defaultSchema = context.getSession().getDefaultSchemaPath();
+    return new Key(normalize(sql), context.getQueryUserName(),
+      defaultSchema == null ? null : defaultSchema.getSchemaPath(), String.join("\n", options));
+  }
+
+  /**
+   * Collapse the whitespaces of a query and drop its comments, except in literals and quoted identifiers. Hints, the
+   * comments starting with {@code /*+}, are kept as they change the plan.
+   */
+  @VisibleForTesting
+  static String normalize(String sql) {
+    final StringBuilder normalized = new StringBuilder(sql.length());
+    char quote = 0;
+    boolean whitespace = false;
+    for (int i = 0; i < sql.length(); i++) {
+      final char c = sql.charAt(i);
+      if (quote == 0) {
+        // a comment is a separator, like a whitespace
+        if (sql.startsWith("--", i)) {
+          final int end = sql.indexOf('\n', i);
+          i = end < 0 ? sql.length() : end;
+          whitespace = true;
+          continue;
+        }
+        if (sql.startsWith("/*", i) && !sql.startsWith("/*+", i)) {
+          final int end = sql.indexOf("*/", i + 2);
+          i = end < 0 ? sql.length() : end + 1;
+          whitespace = true;
+          continue;
+        }
+        if (Character.isWhitespace(c)) {
+          whitespace = true;
+          continue;
+        }
+      }
+
+      if (whitespace && normalized.length() > 0) {
+        normalized.append(' ');
+      }
+      whitespace = false;
+      if (quote == 0 && (c == '\'' || c == '"' || c == '`')) {
+        quote = c;
+      } else if (c == quote) {
+        quote = 0;
+      }
+      normalized.append(c);
+    }
+    return normalized.toString();
+  }
+
+  /**
+   * Whether a plan gives the same results every time it runs: it must not call dynamic (e.g. CURRENT_TIMESTAMP)
+   * or non deterministic (e.g. RANDOM) functions.
+   *
+   * @param rel The query, converted to rel.
+   */
+  public static boolean isDeterministic(RelNode rel) {
+    final NonDeterministicCallFinder finder = new NonDeterministicCallFinder();
+    finder.visit(rel);
+    return !finder.found;
+  }
+
+  private static final class NonDeterministicCallFinder extends RexShuttle {
+    private boolean found;
+
+    private void visit(RelNode rel) {
+      rel.accept(this);
+      for (RelNode input : rel.getInputs()) {
+        if (found) {
+          return;
+        }
+        visit(input);
+      }
+    }
+
+    @Override
+    public RexNode visitCall(RexCall call) {
+      final SqlOperator operator = call.getOperator();
+      if (operator.isDynamicFunction() || !operator.isDeterministic()) {
+        found = true;
+        return call;
+      }
+      return super.visitCall(call);
+    }
+
+    @Override
+    public RexNode visitSubQuery(RexSubQuery subQuery) {
+      visit(subQuery.rel);
+      return super.visitSubQuery(subQuery);
+    }
+  }
+
+  /**
+   * The key of a query: plans are only shared by queries of the same user, as the user's privileges are checked
+   * during planning.
+   */
+  public static final class Key {
+    private final String sql;
+    private final String username;
+    private final String defaultSchema;
+    private final String options;
+
+    @VisibleForTesting
+    Key(String sql, String username, String defaultSchema, String options) {
+      this.sql = sql;
+      this.username = username;
+      this.defaultSchema = defaultSchema;
+      this.options = options;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Key that = (Key) o;
+      return Objects.equals(sql, that.sql)
+        && Objects.equals(username, that.username)
+        && Objects.equals(defaultSchema, that.defaultSchema)
+        && Objects.equals(options, that.options);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(sql, username, defaultSchema, options);
+    }
+  }
+
+  private static final class CachedPlan {
+    private final PreparedPlan plan;
+    private final Map<NamespaceKey, String> datasetTags;
+
+    private CachedPlan(PreparedPlan plan, Map<NamespaceKey, String> datasetTags) {
+      this.plan = plan;
+      this.datasetTags = datasetTags;
+    }
+
+    private boolean reads(NamespaceKey lowerCaseKey) {
+      for (NamespaceKey dataset : datasetTags.keySet()) {
+        if (dataset.asLowerCase().equals(lowerCaseKey)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.record;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.OutOfMemoryException;
+import org.apache.arrow.memory.util.LargeMemoryUtil;
+
+import com.dremio.exec.proto.ExecRPC.BufferCompression;
+import com.dremio.exec.proto.ExecRPC.CompressionCodec;
+import com.google.common.base.Stopwatch;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+
+/**
+ * Compresses the buffers of the batches sent by an exchange sender with LZ4.<br>
+ * <br>
+ * Each buffer is compressed on its own, and is sent as is if it is small or if it doesn't compress well. Buffers
+ * are tracked by their position in the batch, that is by column, and a column whose buffer didn't compress well
+ * is only sampled again after {@link #SAMPLE_INTERVAL} batches.<br>
+ * <br>
+ * Not thread safe
+ */
+public class ExchangeCompressor {
+  static final int MIN_COMPRESS_SIZE = 1024;
+  static final int SAMPLE_INTERVAL = 64;
+
+  private final BufferAllocator allocator;
+  private final double maxRatio;
+  private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+  private final Stopwatch watch = Stopwatch.createUnstarted();
+
+  // for each buffer position, number of batches left before compressing that buffer again
+  private int[] skipped = new int[0];
+  private long uncompressedBytes;
+  private long compressedBytes;
+
+  /**
+   * @param allocator allocator for the compressed buffers
+   * @param maxRatio buffers whose compressed length exceeds this ratio of their length are sent as is
+   */
+  public ExchangeCompressor(BufferAllocator allocator, double maxRatio) {
+    this.allocator = allocator;
+    this.maxRatio = maxRatio;
+  }
+
+  /**
+   * Compressed buffers of a batch
+   */
+  public static final class CompressedBuffers {
+    private final List<ArrowBuf> buffers;
+    private final List<BufferCompression> compression;
+
+    private CompressedBuffers(List<ArrowBuf> buffers, List<BufferCompression> compression) {
+      this.buffers = buffers;
+      this.compression = compression;
+    }
+
+    /**
+     * @return buffers to send, compressed or not
+     */
+    public List<ArrowBuf> getBuffers() {
+      return buffers;
+    }
+
+    /**
+     * @return compression of each buffer, empty if none of them is compressed
+     */
+    public List<BufferCompression> getCompression() {
+      return compression;
+    }
+  }
+
+  /**
+   * Compress the buffers of a batch. The caller owns one reference to each of the given buffers, and to each of
+   * the returned ones: the buffers replaced by a compressed one are released.
+   *
+   * @param buffers buffers of the batch, in order
+   * @return buffers to send
+   */
+  public CompressedBuffers compress(List<ArrowBuf> buffers) {
+    if (skipped.length < buffers.size()) {
+      skipped = Arrays.copyOf(skipped, buffers.size());
+    }
+
+    final List<ArrowBuf> out = new ArrayList<>(buffers.size());
+    final List<BufferCompression> compression = new ArrayList<>(buffers.size());
+    boolean anyCompressed = false;
+    watch.start();
+    try {
+      for (int i = 0; i < buffers.size(); i++) {
+        final ArrowBuf buf = buffers.get(i);
+        final int length = LargeMemoryUtil.checkedCastToInt(buf.readableBytes());
+        uncompressedBytes += length;
+
+        ArrowBuf compressed = null;
+        if (length >= MIN_COMPRESS_SIZE) {
+          if (skipped[i] > 0) {
+            skipped[i]--;
+          } else {
+            compressed = tryCompress(buf, length);
+            if (compressed == null) {
+              skipped[i] = SAMPLE_INTERVAL;
+            }
+          }
+        }
+
+        if (compressed == null) {
+          out.add(buf);
+          compression.add(BufferCompression.newBuilder()
+            .setCodec(CompressionCodec.NO_COMPRESSION)
+            .setCompressedLength(length)
+            .build());
+          compressedBytes += length;
+        } else {
+          buf.release();
+          out.add(compressed);
+          final int compressedLength = LargeMemoryUtil.checkedCastToInt(compressed.readableBytes());
+          compression.add(BufferCompression.newBuilder()
+            .setCodec(CompressionCodec.LZ4)
+            .setCompressedLength(compressedLength)
+            .build());
+          compressedBytes += compressedLength;
+          anyCompressed = true;
+        }
+      }
+    } finally {
+      watch.stop();
+    }
+    return new CompressedBuffers(out, anyCompressed ? compression : Collections.<BufferCompression>emptyList());
+  }
+
+  /**
+   * @return the compressed buffer, or null if the buffer doesn't compress well or if there is no memory to
+   * compress it
+   */
+  private ArrowBuf tryCompress(ArrowBuf buf, int length) {
+    final int maxLength = compressor.maxCompressedLength(length);
+    final ArrowBuf compressed;
+    try {
+      compressed = allocator.buffer(maxLength);
+    } catch (OutOfMemoryException e) {
+      return null;
+    }
+
+    try {
+      final int compressedLength = compressor.compress(buf.nioBuffer(buf.readerIndex(), length), 0, length,
+        compressed.nioBuffer(0, maxLength), 0, maxLength);
+      if (compressedLength > length * maxRatio) {
+        compressed.release();
+        return null;
+      }
+      compressed.writerIndex(compressedLength);
+      return compressed;
+    } catch (RuntimeException e) {
+      compressed.release();
+      throw e;
+    }
+  }
+
+  /**
+   * @return number of bytes given to compress
+   */
+  public long getUncompressedBytes() {
+    return uncompressedBytes;
+  }
+
+  /**
+   * @return number of bytes returned by compress
+   */
+  public long getCompressedBytes() {
+    return compressedBytes;
+  }
+
+  public long getCompressionNanos() {
+    return watch.elapsed(TimeUnit.NANOSECONDS);
+  }
+}
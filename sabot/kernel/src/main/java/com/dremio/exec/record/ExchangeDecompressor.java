@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.record;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.flatbuf.Buffer;
+import org.apache.arrow.flatbuf.RecordBatch;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.util.LargeMemoryUtil;
+
+import com.dremio.exec.proto.ExecRPC.BufferCompression;
+import com.dremio.exec.proto.ExecRPC.FragmentRecordBatch;
+import com.dremio.sabot.op.receiver.RawFragmentBatch;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+/**
+ * Decompresses the batches received by an exchange receiver, compressed by {@link ExchangeCompressor}.<br>
+ * <br>
+ * Not thread safe
+ */
+public class ExchangeDecompressor {
+  private final BufferAllocator allocator;
+  private final LZ4FastDecompressor decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+  private final Stopwatch watch = Stopwatch.createUnstarted();
+
+  private long uncompressedBytes;
+
+  /**
+   * @param allocator allocator for the decompressed bodies
+   */
+  public ExchangeDecompressor(BufferAllocator allocator) {
+    this.allocator = allocator;
+  }
+
+  /**
+   * Decompress the body of a batch. The returned batch doesn't send any ack, and must be closed independently
+   * of the given one.
+   *
+   * @param batch received batch
+   * @return batch with the uncompressed body, that is the body of the given batch if it isn't compressed
+   */
+  public RawFragmentBatch decompress(RawFragmentBatch batch) {
+    final FragmentRecordBatch header = batch.getHeader();
+    final ArrowBuf body = batch.getBody();
+    if (header.getBufferCompressionCount() == 0 || body == null) {
+      if (body != null) {
+        uncompressedBytes += body.readableBytes();
+      }
+      return new RawFragmentBatch(header, body, null);
+    }
+
+    watch.start();
+    try {
+      final RecordBatch recordBatch = RecordBatch.getRootAsRecordBatch(header.getArrowRecordBatch().asReadOnlyByteBuffer());
+      Preconditions.checkArgument(recordBatch.buffersLength() == header.getBufferCompressionCount(),
+        "Batch has %s buffers but %s buffer compressions", recordBatch.buffersLength(), header.getBufferCompressionCount());
+
+      long length = 0;
+      for (int i = 0; i < recordBatch.buffersLength(); i++) {
+        final Buffer buffer = recordBatch.buffers(i);
+        length = Math.max(length, buffer.offset() + buffer.length());
+      }
+
+      try (ArrowBuf uncompressed = allocator.buffer(length)) {
+        long readOffset = body.readerIndex();
+        for (int i = 0; i < recordBatch.buffersLength(); i++) {
+          final Buffer buffer = recordBatch.buffers(i);
+          final BufferCompression compression = header.getBufferCompression(i);
+          final int bufferLength = LargeMemoryUtil.checkedCastToInt(buffer.length());
+          final int compressedLength = compression.getCompressedLength();
+          switch (compression.getCodec()) {
+            case NO_COMPRESSION:
+              uncompressed.setBytes(buffer.offset(), body, readOffset, bufferLength);
+              break;
+            case LZ4:
+              decompressor.decompress(body.nioBuffer(readOffset, compressedLength), 0,
+                uncompressed.nioBuffer(buffer.offset(), bufferLength), 0, bufferLength);
+              break;
+            default:
+              throw new IllegalArgumentException("Unknown compression codec " + compression.getCodec());
+          }
+          readOffset += compressedLength;
+        }
+        uncompressed.writerIndex(length);
+        uncompressedBytes += length;
+
+        // the new batch takes its own reference on the buffer
+        return new RawFragmentBatch(header.toBuilder().clearBufferCompression().build(), uncompressed, null);
+      }
+    } finally {
+      watch.stop();
+    }
+  }
+
+  /**
+   * @return number of bytes of the uncompressed bodies
+   */
+  public long getUncompressedBytes() {
+    return uncompressedBytes;
+  }
+
+  public long getDecompressionNanos() {
+    return watch.elapsed(TimeUnit.NANOSECONDS);
+  }
+}
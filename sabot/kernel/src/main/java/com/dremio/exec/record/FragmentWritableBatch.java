@@ -39,6 +39,7 @@ import io.netty.buffer.ByteBuf;
 public class FragmentWritableBatch{
   static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(FragmentWritableBatch.class);
 
+  private final ArrowBuf[] arrowBuffers;
   private final ByteBuf[] buffers;
   private final FragmentRecordBatch header;
   private final int recordCount;
@@ -63,6 +64,28 @@ public class FragmentWritableBatch{
     );
   }
 
+  public static FragmentWritableBatch create(
+    final QueryId queryId,
+    final int sendMajorFragmentId,
+    final int sendMinorFragmentId,
+    final int receiveMajorFragmentId,
+    final VectorAccessible batch,
+    final int receiveMinorFragmentId,
+    final ExchangeCompressor compressor) {
+
+    ArrowRecordBatch recordBatch = getArrowRecordBatch(batch);
+
+    return new FragmentWritableBatch(
+      queryId,
+      sendMajorFragmentId,
+      sendMinorFragmentId,
+      receiveMajorFragmentId,
+      recordBatch,
+      compressor,
+      receiveMinorFragmentId
+    );
+  }
+
   public static ArrowRecordBatch getArrowRecordBatch(final VectorAccessible batch) {
     VectorSchemaRoot root = getVectorSchemaRoot(batch);
     VectorUnloader unloader = new VectorUnloader(root, false, false);
@@ -101,9 +124,24 @@ public class FragmentWritableBatch{
       final int receiveMajorFragmentId,
       ArrowRecordBatch recordBatch,
       final int... receiveMinorFragmentId){
-    this.buffers = recordBatch.getBuffers().stream().map(buf -> buf.asNettyBuffer()).collect
-      (Collectors.toList()).toArray(new ByteBuf[0]);
+    this(queryId, sendMajorFragmentId, sendMinorFragmentId, receiveMajorFragmentId, recordBatch, null,
+      receiveMinorFragmentId);
+  }
+
+  /**
+   * Create a batch whose buffers are compressed with the given compressor, if not null. The buffers of the
+   * record batch that are compressed are released.
+   */
+  public FragmentWritableBatch(
+      final QueryId queryId,
+      final int sendMajorFragmentId,
+      final int sendMinorFragmentId,
+      final int receiveMajorFragmentId,
+      ArrowRecordBatch recordBatch,
+      ExchangeCompressor compressor,
+      final int... receiveMinorFragmentId){
     this.recordCount = recordBatch.getLength();
+    // the header describes the uncompressed buffers
     FlatBufferBuilder fbbuilder = new FlatBufferBuilder();
     fbbuilder.finish(recordBatch.writeTo(fbbuilder));
     ByteBuffer arrowRecordBatch = fbbuilder.dataBuffer();
@@ -118,9 +156,44 @@ public class FragmentWritableBatch{
       builder.addReceivingMinorFragmentId(i);
     }
 
+    if (compressor != null) {
+      final ExchangeCompressor.CompressedBuffers compressed = compressor.compress(recordBatch.getBuffers());
+      this.arrowBuffers = compressed.getBuffers().toArray(new ArrowBuf[0]);
+      builder.addAllBufferCompression(compressed.getCompression());
+    } else {
+      this.arrowBuffers = recordBatch.getBuffers().toArray(new ArrowBuf[0]);
+    }
+    this.buffers = toNettyBuffers(arrowBuffers);
     this.header = builder.build();
   }
 
+  private FragmentWritableBatch(ArrowBuf[] arrowBuffers, FragmentRecordBatch header, int recordCount) {
+    this.arrowBuffers = arrowBuffers;
+    this.buffers = toNettyBuffers(arrowBuffers);
+    this.header = header;
+    this.recordCount = recordCount;
+  }
+
+  private static ByteBuf[] toNettyBuffers(ArrowBuf[] arrowBuffers) {
+    return Arrays.stream(arrowBuffers).map(buf -> buf.asNettyBuffer()).collect
+      (Collectors.toList()).toArray(new ByteBuf[0]);
+  }
+
+  /**
+   * Create a batch with the same content, for other receivers, so that the buffers are only compressed once.
+   * The buffers are retained for the new batch.
+   */
+  public FragmentWritableBatch forReceivers(final int... receiveMinorFragmentId) {
+    final FragmentRecordBatch.Builder builder = header.toBuilder().clearReceivingMinorFragmentId();
+    for(final int i : receiveMinorFragmentId){
+      builder.addReceivingMinorFragmentId(i);
+    }
+    for (ArrowBuf buf : arrowBuffers) {
+      buf.retain(1);
+    }
+    return new FragmentWritableBatch(arrowBuffers, builder.build(), recordCount);
+  }
+
   public ByteBuf[] getBuffers(){
     return buffers;
   }
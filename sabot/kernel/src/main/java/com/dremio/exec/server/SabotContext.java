@@ -17,6 +17,7 @@ package com.dremio.exec.server;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -46,6 +47,7 @@ import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
 import com.dremio.exec.server.options.SystemOptionManager;
 import com.dremio.exec.store.CatalogService;
 import com.dremio.exec.store.dfs.FileSystemWrapper;
+import com.dremio.exec.store.dfs.cache.BlockCacheFileSystemWrapper;
 import com.dremio.exec.store.sys.accel.AccelerationListManager;
 import com.dremio.exec.store.sys.accel.AccelerationManager;
 import com.dremio.exec.work.WorkStats;
@@ -159,7 +161,8 @@ public class SabotContext implements AutoCloseable {
     this.systemOptionManager = systemOptionManager;
     this.functionRegistry = new FunctionImplementationRegistry(config, classpathScan, this.optionManager);
     this.decimalFunctionImplementationRegistry = new DecimalFunctionImplementationRegistry(config, classpathScan, this.optionManager);
-    this.compiler = new CodeCompiler(config, this.optionManager);
+    this.compiler = new CodeCompiler(config, this.optionManager, dremioConfig == null
+      ? null : Paths.get(dremioConfig.getString(DremioConfig.LOCAL_WRITE_PATH_STRING), "codegen"));
     this.kvStoreProvider = kvStoreProvider;
     this.namespaceServiceFactory = namespaceServiceFactory;
     this.datasetListing = datasetListing;
@@ -175,7 +178,7 @@ public class SabotContext implements AutoCloseable {
     this.fileSystemWrapper = config.getInstance(
       FileSystemWrapper.FILE_SYSTEM_WRAPPER_CLASS,
       FileSystemWrapper.class,
-      (fs, storageId, conf, operatorContext, enableAsync, isMetadataEnabled) -> fs,
+      newDefaultFileSystemWrapper(dremioConfig, roles, this.optionManager),
       dremioConfig,
       this.optionManager,
       allocator,
@@ -462,7 +465,7 @@ public class SabotContext implements AutoCloseable {
 
   @Override
   public void close() throws Exception {
-    AutoCloseables.close(fileSystemWrapper);
+    AutoCloseables.close(compiler, fileSystemWrapper);
   }
 
   public Provider<WorkStats> getWorkStatsProvider() {
@@ -497,6 +500,15 @@ public class SabotContext implements AutoCloseable {
     return viewCreatorFactory.get().get(userName);
   }
 
+  private static FileSystemWrapper newDefaultFileSystemWrapper(DremioConfig dremioConfig, Collection<Role> roles,
+                                                               OptionManager optionManager) {
+    if (dremioConfig != null && roles.contains(Role.EXECUTOR)
+      && dremioConfig.getBoolean(DremioConfig.EXECUTOR_CACHE_ENABLED_BOOL)) {
+      return new BlockCacheFileSystemWrapper(dremioConfig, optionManager);
+    }
+    return (fs, storageId, conf, operatorContext, enableAsync, isMetadataEnabled) -> fs;
+  }
+
   public FileSystemWrapper getFileSystemWrapper() {
     return fileSystemWrapper;
   }
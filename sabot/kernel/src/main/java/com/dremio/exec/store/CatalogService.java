@@ -24,6 +24,7 @@ import org.apache.calcite.tools.RuleSet;
 
 import com.dremio.exec.catalog.Catalog;
 import com.dremio.exec.catalog.MetadataRequestOptions;
+import com.dremio.exec.catalog.MetadataUpdateListener;
 import com.dremio.exec.catalog.StoragePluginId;
 import com.dremio.exec.ops.OptimizerRulesContext;
 import com.dremio.exec.planner.PlannerPhase;
@@ -170,4 +171,11 @@ public interface CatalogService extends AutoCloseable, Service {
    * @return boolean
    */
   boolean isComplexTypeSupport();
+
+  /**
+   * Register a listener informed when the metadata of a dataset is updated by this node.
+   *
+   * @param listener listener
+   */
+  void addMetadataUpdateListener(MetadataUpdateListener listener);
 }
@@ -125,8 +125,10 @@ public class PhysicalDatasetUtils {
         textFormatConfig.trimHeader = textFileConfig.getTrimHeader();
         return textFormatConfig;
       case JSON:
+        final JsonFileConfig jsonFileConfig = (JsonFileConfig) JsonFileConfig.getForFile(fileConfig);
         final JSONFormatPlugin.JSONFormatConfig jsonFormatConfig = new JSONFormatPlugin.JSONFormatConfig();
         jsonFormatConfig.extensions = extensions;
+        jsonFormatConfig.newlineDelimited = jsonFileConfig.getNewlineDelimited();
         return jsonFormatConfig;
       case PARQUET:
         final ParquetFileConfig parquetFileConfig = (ParquetFileConfig)com.dremio.service.namespace.file.FileFormat.getForFile(fileConfig);
@@ -199,7 +201,9 @@ public class PhysicalDatasetUtils {
       return toParquetFileConfig(parquetFormatPlugin.getConfig());
     }
     if (formatPlugin instanceof JSONFormatPlugin) {
-      return new JsonFileConfig();
+      final JsonFileConfig jsonFileConfig = new JsonFileConfig();
+      jsonFileConfig.setNewlineDelimited(((JSONFormatPlugin.JSONFormatConfig) formatPlugin.getConfig()).isNewlineDelimited());
+      return jsonFileConfig;
     }
     if (formatPlugin instanceof ArrowFormatPlugin) {
       return new ArrowFileConfig();
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.dfs.cache;
+
+import java.io.IOException;
+
+import com.dremio.config.DremioConfig;
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.store.dfs.AsyncStreamConf;
+import com.dremio.exec.store.dfs.CacheProperties;
+import com.dremio.exec.store.dfs.FileSystemWrapper;
+import com.dremio.io.file.FileSystem;
+import com.dremio.options.OptionManager;
+import com.dremio.sabot.exec.context.OperatorContext;
+
+/**
+ * {@link FileSystemWrapper} adding the executor local block cache to the file systems of the sources which
+ * request caching. The cache is only created when first needed.
+ */
+public class BlockCacheFileSystemWrapper implements FileSystemWrapper {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(BlockCacheFileSystemWrapper.class);
+
+  private final DremioConfig config;
+  private final OptionManager options;
+  private volatile LocalBlockCache cache;
+  private volatile boolean failed;
+
+  public BlockCacheFileSystemWrapper(DremioConfig config, OptionManager options) {
+    this.config = config;
+    this.options = options;
+  }
+
+  @Override
+  public FileSystem wrap(FileSystem fs, String storageId, AsyncStreamConf conf, OperatorContext context,
+                         boolean enableAsync, boolean isMetadataRefresh) throws IOException {
+    if (!enableAsync || isMetadataRefresh || conf == null || !options.getOption(ExecConstants.BLOCK_CACHE_ENABLED)) {
+      return fs;
+    }
+
+    final CacheProperties cacheProperties = conf.getCacheProperties();
+    if (!cacheProperties.isCachingEnabled(options)) {
+      return fs;
+    }
+
+    final LocalBlockCache blockCache = getCache();
+    if (blockCache == null) {
+      return fs;
+    }
+    return new BlockCachingFileSystem(fs, blockCache, storageId, cacheProperties.cacheMaxSpaceLimitPct(),
+      context != null ? context.getStats() : null);
+  }
+
+  private LocalBlockCache getCache() {
+    if (cache != null || failed) {
+      return cache;
+    }
+
+    synchronized (this) {
+      if (cache == null && !failed) {
+        try {
+          cache = LocalBlockCache.create(config);
+        } catch (IOException | RuntimeException e) {
+          // don't fail queries because the local disks cannot be used, just read from the sources
+          logger.warn("Failure while creating the executor block cache, caching disabled", e);
+          failed = true;
+        }
+      }
+      return cache;
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (cache != null) {
+      cache.close();
+      cache = null;
+    }
+  }
+}
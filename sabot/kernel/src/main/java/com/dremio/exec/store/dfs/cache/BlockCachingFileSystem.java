@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.dfs.cache;
+
+import java.io.IOException;
+
+import com.dremio.io.AsyncByteReader;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.FilterFileSystem;
+import com.dremio.sabot.exec.context.OperatorStats;
+
+/**
+ * File system whose asynchronous readers go through the executor {@link LocalBlockCache}
+ */
+class BlockCachingFileSystem extends FilterFileSystem {
+
+  private final LocalBlockCache cache;
+  private final String sourceId;
+  private final int sourceMaxSpacePct;
+  private final OperatorStats stats;
+
+  BlockCachingFileSystem(FileSystem fs, LocalBlockCache cache, String sourceId, int sourceMaxSpacePct,
+                         OperatorStats stats) {
+    super(fs);
+    this.cache = cache;
+    this.sourceId = sourceId;
+    this.sourceMaxSpacePct = sourceMaxSpacePct;
+    this.stats = stats;
+  }
+
+  @Override
+  public AsyncByteReader getAsyncByteReader(AsyncByteReader.FileKey fileKey) throws IOException {
+    return new CachingAsyncByteReader(super.getAsyncByteReader(fileKey), cache, sourceId, sourceMaxSpacePct,
+      fileKey, stats);
+  }
+}
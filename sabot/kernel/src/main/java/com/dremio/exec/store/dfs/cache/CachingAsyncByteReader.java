@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.dfs.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.dremio.exec.store.dfs.cache.LocalBlockCache.BlockKey;
+import com.dremio.io.AsyncByteReader;
+import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.sabot.op.scan.ScanOperator;
+import com.google.common.base.Preconditions;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * {@link AsyncByteReader} serving reads from a {@link LocalBlockCache} when possible.<br>
+ * <br>
+ * Reads are split along the cache block boundaries. Blocks found in the cache are copied from the local disk by the
+ * cache I/O threads, the others are read from the underlying reader and added to the cache once the read completes.
+ * Since the version of the file is part of the block keys, blocks of a previous version of a file are never served.
+ */
+class CachingAsyncByteReader implements AsyncByteReader {
+
+  private final AsyncByteReader delegate;
+  private final LocalBlockCache cache;
+  private final String sourceId;
+  private final int sourceMaxSpacePct;
+  private final String fileId;
+  private final OperatorStats stats;
+
+  CachingAsyncByteReader(AsyncByteReader delegate, LocalBlockCache cache, String sourceId, int sourceMaxSpacePct,
+                         FileKey fileKey, OperatorStats stats) {
+    this.delegate = Preconditions.checkNotNull(delegate);
+    this.cache = Preconditions.checkNotNull(cache);
+    this.sourceId = sourceId;
+    this.sourceMaxSpacePct = sourceMaxSpacePct;
+    this.fileId = sourceId + ":" + fileKey.getPath() + ":" + fileKey.getVersion();
+    this.stats = stats;
+  }
+
+  @Override
+  public CompletableFuture<Void> readFully(long offset, ByteBuf dst, int dstOffset, int len) {
+    final int blockSize = cache.getBlockSize();
+    final List<CompletableFuture<Void>> pending = new ArrayList<>();
+    int hits = 0;
+    int misses = 0;
+
+    long position = offset;
+    int remaining = len;
+    int currentDstOffset = dstOffset;
+    while (remaining > 0) {
+      final long blockIndex = position / blockSize;
+      final int blockOffset = (int) (position % blockSize);
+      final int toRead = Math.min(remaining, blockSize - blockOffset);
+      final BlockKey key = new BlockKey(fileId, blockIndex);
+
+      final long blockPosition = position;
+      final int blockDstOffset = currentDstOffset;
+      if (cache.contains(key, blockOffset, toRead)) {
+        hits++;
+        // the block can be evicted before it is read
+        pending.add(cache.readAsync(key, blockOffset, dst, blockDstOffset, toRead)
+          .thenCompose(read -> read ? completedFuture
+            : readAndCache(key, blockPosition, blockOffset, dst, blockDstOffset, toRead)));
+      } else {
+        misses++;
+        pending.add(readAndCache(key, blockPosition, blockOffset, dst, blockDstOffset, toRead));
+      }
+
+      position += toRead;
+      remaining -= toRead;
+      currentDstOffset += toRead;
+    }
+
+    if (stats != null) {
+      stats.addLongStat(ScanOperator.Metric.NUM_CACHE_HITS, hits);
+      stats.addLongStat(ScanOperator.Metric.NUM_CACHE_MISSES, misses);
+    }
+
+    if (pending.isEmpty()) {
+      return completedFuture;
+    }
+    return CompletableFuture.allOf(pending.toArray(new CompletableFuture[0]));
+  }
+
+  /**
+   * Reads the requested range of a block, copies it into the destination buffer and caches it. Only the requested
+   * range is read, so that the cache doesn't add to the bytes read from the source, at the cost of caching partial
+   * blocks.
+   */
+  private CompletableFuture<Void> readAndCache(BlockKey key, long position, int blockOffset, ByteBuf dst,
+                                               int dstOffset, int len) {
+    final ByteBuf range = Unpooled.directBuffer(len);
+    final CompletableFuture<Void> future;
+    try {
+      future = delegate.readFully(position, range, 0, len);
+    } catch (RuntimeException e) {
+      range.release();
+      throw e;
+    }
+
+    return future
+      .thenRun(() -> {
+        dst.setBytes(dstOffset, range, 0, len);
+        // the cache releases its reference once written
+        cache.writeAsync(sourceId, sourceMaxSpacePct, key, blockOffset, range.retain(), 0, len);
+      })
+      .whenComplete((v, e) -> range.release());
+  }
+
+  @Override
+  public CompletableFuture<Void> checkVersion(String version) {
+    return delegate.checkVersion(version);
+  }
+
+  @Override
+  public List<ReaderStat> getStats() {
+    return delegate.getStats();
+  }
+
+  @Override
+  public void close() throws Exception {
+    delegate.close();
+  }
+}
@@ -0,0 +1,510 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.dfs.cache;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import com.dremio.common.concurrent.NamedThreadFactory;
+import com.dremio.config.DremioConfig;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Executor-local cache of fixed-size, aligned blocks of remote files, stored on local disks.<br>
+ * <br>
+ * Each cached block is a separate file on one of the configured mount points. A block replacing another one of the
+ * same key is written to a new file, and the file of a replaced or evicted block is deleted once no reader uses it. The index of the cached blocks is
+ * kept in memory, in least recently used order, so the cache starts empty after a restart. Eviction happens when a
+ * mount point reaches its capacity, or when a source reaches its share of the total capacity.<br>
+ * <br>
+ * A cached block holds the range of the block that was read from the source. The local disk I/O of the readers is done
+ * by a small pool of threads with a bounded queue, so that it never blocks the threads completing the reads: when the
+ * pool is saturated, reads go to the source and new blocks are not cached.
+ */
+public class LocalBlockCache implements AutoCloseable {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(LocalBlockCache.class);
+
+  static final String CACHE_DIR = "blockcache";
+  private static final String TMP_SUFFIX = ".tmp";
+  private static final int IO_QUEUE_SIZE = 1024;
+
+  private final int blockSize;
+  private final int ensureFreeSpacePct;
+  private final List<MountPoint> mountPoints;
+  private final long totalCapacity;
+  private final ExecutorService ioExecutor;
+
+  // access ordered, least recently used blocks first
+  private final LinkedHashMap<BlockKey, Block> blocks = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, Long> sourceUsage = new HashMap<>();
+  // suffix of the files of the blocks, so that each block has its own file
+  private final AtomicLong fileGeneration = new AtomicLong();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  private boolean closed;
+
+  @VisibleForTesting
+  LocalBlockCache(int blockSize, List<Path> directories, List<Long> capacities, int ensureFreeSpacePct,
+                  ExecutorService ioExecutor) throws IOException {
+    Preconditions.checkArgument(blockSize > 0, "block size must be positive");
+    Preconditions.checkArgument(!directories.isEmpty(), "at least one cache directory is required");
+    Preconditions.checkArgument(directories.size() == capacities.size(), "a capacity is required for each cache directory");
+    this.blockSize = blockSize;
+    this.ensureFreeSpacePct = ensureFreeSpacePct;
+    this.ioExecutor = Preconditions.checkNotNull(ioExecutor);
+
+    final ImmutableList.Builder<MountPoint> builder = ImmutableList.builder();
+    long total = 0;
+    for (int i = 0; i < directories.size(); i++) {
+      final Path dir = directories.get(i);
+      // the index isn't persisted, so blocks left over by a previous run cannot be used
+      deleteRecursively(dir);
+      Files.createDirectories(dir);
+      builder.add(new MountPoint(dir, capacities.get(i)));
+      total += capacities.get(i);
+    }
+    this.mountPoints = builder.build();
+    this.totalCapacity = total;
+  }
+
+  /**
+   * Creates the block cache from the executor cache settings of dremio.conf
+   */
+  public static LocalBlockCache create(DremioConfig config) throws IOException {
+    final List<String> paths = config.getStringList(DremioConfig.EXECUTOR_CACHE_FS_PATHS);
+    final List<Integer> pctQuotas = config.getIntList(DremioConfig.EXECUTOR_CACHE_FS_PCT_QUOTA);
+    final List<Integer> ensureFreeSpace = config.getIntList(DremioConfig.EXECUTOR_CACHE_FS_ENSURE_FREE_SPACE);
+    final int blockSize = config.getInt(DremioConfig.EXECUTOR_CACHE_BLOCK_SIZE);
+    final long maxSize = config.getBytes(DremioConfig.EXECUTOR_CACHE_FS_MAX_SIZE);
+    final int ioThreads = config.getInt(DremioConfig.EXECUTOR_CACHE_IO_THREADS);
+
+    final ImmutableList.Builder<Path> directories = ImmutableList.builder();
+    final ImmutableList.Builder<Long> capacities = ImmutableList.builder();
+    for (int i = 0; i < paths.size(); i++) {
+      final Path dir = Paths.get(paths.get(i)).resolve(CACHE_DIR);
+      Files.createDirectories(dir);
+      final int pct = pctQuotas.get(Math.min(i, pctQuotas.size() - 1));
+      final long capacity = Math.min(maxSize, Files.getFileStore(dir).getTotalSpace() / 100 * pct);
+      logger.info("Using {} bytes of {} for the block cache", capacity, dir);
+      directories.add(dir);
+      capacities.add(capacity);
+    }
+    final ExecutorService ioExecutor = new ThreadPoolExecutor(ioThreads, ioThreads, 0L, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(IO_QUEUE_SIZE), new NamedThreadFactory("block-cache-io-"));
+    return new LocalBlockCache(blockSize, directories.build(), capacities.build(),
+      ensureFreeSpace.isEmpty() ? 0 : ensureFreeSpace.get(0), ioExecutor);
+  }
+
+  public int getBlockSize() {
+    return blockSize;
+  }
+
+  /**
+   * Is the given range of a block cached.
+   *
+   * @param key block to look up
+   * @param blockOffset offset within the block
+   * @param len length of the range
+   * @return true if the range is cached, in which case it can still be evicted before being read
+   */
+  public synchronized boolean contains(BlockKey key, int blockOffset, int len) {
+    final Block block = blocks.get(key);
+    return block != null && block.contains(blockOffset, len);
+  }
+
+  /**
+   * Reads part of a cached block on the cache I/O threads.
+   *
+   * @return a future completed with true if the data was read from the cache, or with false if the block (or the
+   * requested part of it) isn't cached, or the cache is too busy
+   * @see #read(BlockKey, int, ByteBuf, int, int)
+   */
+  public CompletableFuture<Boolean> readAsync(BlockKey key, int blockOffset, ByteBuf dst, int dstOffset, int len) {
+    try {
+      return CompletableFuture.supplyAsync(() -> read(key, blockOffset, dst, dstOffset, len), ioExecutor);
+    } catch (RejectedExecutionException e) {
+      misses.incrementAndGet();
+      return CompletableFuture.completedFuture(false);
+    }
+  }
+
+  /**
+   * Reads part of a cached block.
+   *
+   * @param key block to read
+   * @param blockOffset offset within the block
+   * @param dst destination buffer
+   * @param dstOffset offset in the destination buffer
+   * @param len number of bytes to read
+   * @return true if the data was read from the cache, false if the block (or the requested part of it) isn't cached
+   */
+  public boolean read(BlockKey key, int blockOffset, ByteBuf dst, int dstOffset, int len) {
+    final Block block;
+    synchronized (this) {
+      block = blocks.get(key);
+      if (block == null || !block.contains(blockOffset, len)) {
+        misses.incrementAndGet();
+        return false;
+      }
+      // the file of the block isn't deleted while it is read
+      block.readers++;
+    }
+
+    try (FileChannel channel = FileChannel.open(block.file, StandardOpenOption.READ)) {
+      int read = 0;
+      while (read < len) {
+        final int n = dst.setBytes(dstOffset + read, channel, blockOffset - block.offset + read, len - read);
+        if (n < 0) {
+          throw new EOFException("Unexpected end of cached block " + block.file);
+        }
+        read += n;
+      }
+      hits.incrementAndGet();
+      return true;
+    } catch (IOException e) {
+      // block evicted concurrently, or the local disk failed. Either way, read from the source.
+      logger.debug("Failure while reading cached block {}", block.file, e);
+      misses.incrementAndGet();
+      return false;
+    } finally {
+      synchronized (this) {
+        block.readers--;
+        if (block.released && block.readers == 0) {
+          deleteFile(block);
+        }
+      }
+    }
+  }
+
+  /**
+   * Adds a block to the cache on the cache I/O threads, or drops it if the cache is too busy. The buffer is released
+   * once written.
+   *
+   * @see #write(String, int, BlockKey, int, ByteBuf, int, int)
+   */
+  public void writeAsync(String sourceId, int sourceMaxSpacePct, BlockKey key, int blockOffset, ByteBuf src,
+                         int srcIndex, int len) {
+    try {
+      ioExecutor.execute(() -> {
+        try {
+          write(sourceId, sourceMaxSpacePct, key, blockOffset, src, srcIndex, len);
+        } finally {
+          src.release();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      src.release();
+    }
+  }
+
+  /**
+   * Adds a block to the cache, evicting least recently used blocks if needed. A block already holding the range
+   * is kept, otherwise the range replaces the cached block.
+   *
+   * @param sourceId the source the block belongs to
+   * @param sourceMaxSpacePct max percentage of the total cache capacity the source can use
+   * @param key block to add
+   * @param blockOffset offset of the range within the block
+   * @param src buffer containing the range of the block
+   * @param srcIndex index of the range in the buffer
+   * @param len length of the range
+   */
+  public void write(String sourceId, int sourceMaxSpacePct, BlockKey key, int blockOffset, ByteBuf src, int srcIndex,
+                    int len) {
+    final MountPoint mountPoint = getMountPoint(key);
+    final long sourceQuota = totalCapacity / 100 * sourceMaxSpacePct;
+    if (len > mountPoint.capacity || len > sourceQuota || !hasEnoughFreeSpace(mountPoint)) {
+      return;
+    }
+
+    synchronized (this) {
+      final Block existing = blocks.get(key);
+      if (closed || (existing != null && existing.contains(blockOffset, len))) {
+        return;
+      }
+    }
+
+    final String fileName = key.getFileName() + "." + fileGeneration.incrementAndGet();
+    final Path tmpFile = mountPoint.dir.resolve(fileName + TMP_SUFFIX);
+    try {
+      try (FileChannel channel = FileChannel.open(tmpFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+        int written = 0;
+        while (written < len) {
+          written += src.getBytes(srcIndex + written, channel, written, len - written);
+        }
+      }
+
+      synchronized (this) {
+        if (closed) {
+          Files.deleteIfExists(tmpFile);
+          return;
+        }
+        final Block existing = blocks.remove(key);
+        if (existing != null) {
+          if (existing.contains(blockOffset, len)) {
+            blocks.put(key, existing);
+            Files.deleteIfExists(tmpFile);
+            return;
+          }
+          release(existing, false);
+        }
+
+        if (!evict(mountPoint, sourceId, len, sourceQuota)) {
+          Files.deleteIfExists(tmpFile);
+          return;
+        }
+
+        final Path file = mountPoint.dir.resolve(fileName);
+        Files.move(tmpFile, file, StandardCopyOption.ATOMIC_MOVE);
+        blocks.put(key, new Block(sourceId, mountPoint, file, blockOffset, len));
+        mountPoint.used += len;
+        sourceUsage.merge(sourceId, (long) len, Long::sum);
+      }
+    } catch (IOException e) {
+      logger.debug("Failure while caching block {}", key, e);
+      try {
+        Files.deleteIfExists(tmpFile);
+      } catch (IOException ignored) {
+        // nothing else to do
+      }
+    }
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+
+  public synchronized long getUsedBytes() {
+    long used = 0;
+    for (MountPoint mountPoint : mountPoints) {
+      used += mountPoint.used;
+    }
+    return used;
+  }
+
+  public synchronized long getUsedBytes(String sourceId) {
+    return sourceUsage.getOrDefault(sourceId, 0L);
+  }
+
+  @Override
+  public void close() throws IOException {
+    ioExecutor.shutdownNow();
+    try {
+      ioExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    synchronized (this) {
+      closed = true;
+      blocks.clear();
+      sourceUsage.clear();
+      for (MountPoint mountPoint : mountPoints) {
+        deleteRecursively(mountPoint.dir);
+        mountPoint.used = 0;
+      }
+    }
+  }
+
+  /**
+   * Evicts least recently used blocks until the mount point and the source have room for the new block.
+   * Must be called while holding the lock.
+   *
+   * @return true if enough space is available
+   */
+  private boolean evict(MountPoint mountPoint, String sourceId, int len, long sourceQuota) {
+    final Iterator<Map.Entry<BlockKey, Block>> iterator = blocks.entrySet().iterator();
+    while (true) {
+      final boolean mountPointFull = mountPoint.used + len > mountPoint.capacity;
+      final boolean sourceFull = sourceUsage.getOrDefault(sourceId, 0L) + len > sourceQuota;
+      if (!mountPointFull && !sourceFull) {
+        return true;
+      }
+      if (!iterator.hasNext()) {
+        return false;
+      }
+
+      final Block block = iterator.next().getValue();
+      if ((mountPointFull && block.mountPoint == mountPoint) || (sourceFull && block.sourceId.equals(sourceId))) {
+        iterator.remove();
+        release(block, true);
+      }
+    }
+  }
+
+  private void release(Block block, boolean evicted) {
+    block.mountPoint.used -= block.length;
+    sourceUsage.computeIfPresent(block.sourceId, (k, v) -> v - block.length > 0 ? v - block.length : null);
+    if (evicted) {
+      evictions.incrementAndGet();
+    }
+    block.released = true;
+    if (block.readers == 0) {
+      deleteFile(block);
+    }
+  }
+
+  private static void deleteFile(Block block) {
+    try {
+      Files.deleteIfExists(block.file);
+    } catch (IOException e) {
+      logger.warn("Failure while deleting cached block {}", block.file, e);
+    }
+  }
+
+  private boolean hasEnoughFreeSpace(MountPoint mountPoint) {
+    if (ensureFreeSpacePct <= 0) {
+      return true;
+    }
+    try {
+      final FileStore store = Files.getFileStore(mountPoint.dir);
+      return store.getUsableSpace() >= store.getTotalSpace() / 100 * ensureFreeSpacePct;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  private MountPoint getMountPoint(BlockKey key) {
+    return mountPoints.get(Math.floorMod(key.hashCode(), mountPoints.size()));
+  }
+
+  private static void deleteRecursively(Path dir) throws IOException {
+    if (!Files.exists(dir)) {
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(dir)) {
+      final Iterator<Path> iterator = paths.sorted(Comparator.reverseOrder()).iterator();
+      while (iterator.hasNext()) {
+        final Path path = iterator.next();
+        if (!path.equals(dir)) {
+          Files.deleteIfExists(path);
+        }
+      }
+    }
+  }
+
+  /**
+   * Identifies a block of a given version of a file
+   */
+  public static final class BlockKey {
+    private final String fileId;
+    private final long index;
+
+    public BlockKey(String fileId, long index) {
+      this.fileId = Preconditions.checkNotNull(fileId);
+      this.index = index;
+    }
+
+    String getFileName() {
+      return Hashing.murmur3_128().hashString(fileId, StandardCharsets.UTF_8).toString() + "-" + index;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final BlockKey that = (BlockKey) o;
+      return index == that.index && fileId.equals(that.fileId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(fileId, index);
+    }
+
+    @Override
+    public String toString() {
+      return fileId + "#" + index;
+    }
+  }
+
+  private static final class MountPoint {
+    private final Path dir;
+    private final long capacity;
+    private long used;
+
+    private MountPoint(Path dir, long capacity) {
+      this.dir = dir;
+      this.capacity = capacity;
+    }
+  }
+
+  private static final class Block {
+    private final String sourceId;
+    private final MountPoint mountPoint;
+    private final Path file;
+    // range of the block held in the file
+    private final int offset;
+    private final int length;
+    // guarded by the cache: the number of reads of the file, and whether the block left the cache
+    private int readers;
+    private boolean released;
+
+    private Block(String sourceId, MountPoint mountPoint, Path file, int offset, int length) {
+      this.sourceId = sourceId;
+      this.mountPoint = mountPoint;
+      this.file = file;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    private boolean contains(int blockOffset, int len) {
+      return offset <= blockOffset && blockOffset + len <= offset + length;
+    }
+  }
+}
@@ -23,6 +23,9 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -52,6 +55,7 @@ import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.record.RecordBatchData;
 import com.dremio.exec.record.RecordBatchHolder;
 import com.dremio.exec.record.VectorContainer;
+import com.dremio.io.ByteBufferFSInputStream;
 import com.dremio.io.FSInputStream;
 import com.dremio.io.file.FileAttributes;
 import com.dremio.io.file.FileSystem;
@@ -60,15 +64,22 @@ import com.google.common.collect.Lists;
 import com.google.common.primitives.Longs;
 
 /**
- * Reader which takes a file and reads the record batches.
+ * Reader which takes a file and reads the record batches.<br>
+ * <br>
+ * The file is opened on the first read, and stays open until the reader is closed, so the same reader can be
+ * used for several reads. Files of the local filesystem are memory-mapped.
  */
 public class ArrowFileReader implements AutoCloseable {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ArrowFileReader.class);
 
+  private static final String LOCAL_SCHEME = "file";
+
   private final FileSystem dfs;
   private final ArrowFileMetadata metadata;
   private final BufferAllocator allocator;
   private final Path path;
+  // for each batch of the footer, number of records up to the end of the batch
+  private final long[] cumulativeRecordCounts;
 
   private FSInputStream inputStream;
 
@@ -78,9 +89,33 @@ public class ArrowFileReader implements AutoCloseable {
     this.metadata = metadata;
     this.allocator = allocator;
     this.path = basePath.resolve(metadata.getPath());
+
+    final List<ArrowRecordBatchSummary> batches = metadata.getFooter() == null ? null : metadata.getFooter().getBatchList();
+    final int numBatches = batches == null ? 0 : batches.size();
+    cumulativeRecordCounts = new long[numBatches];
+    long runningCount = 0;
+    for (int i = 0; i < numBatches; i++) {
+      runningCount += batches.get(i).getRecordCount();
+      cumulativeRecordCounts[i] = runningCount;
+    }
   }
 
   private void openFile() throws IOException {
+    if (inputStream != null) {
+      return;
+    }
+
+    if (LOCAL_SCHEME.equals(dfs.getScheme())) {
+      try (FileChannel channel = FileChannel.open(Paths.get(Path.withoutSchemeAndAuthority(path).toString()),
+          StandardOpenOption.READ)) {
+        final long size = channel.size();
+        // a mapped buffer is limited to 2GB
+        if (size <= Integer.MAX_VALUE) {
+          inputStream = ByteBufferFSInputStream.map(channel, 0, size);
+          return;
+        }
+      }
+    }
     inputStream = dfs.open(path);
 
     if (false /* disable this until a PDFS getFileStatus() issue is fixed AssertionUtil.ASSERT_ENABLED */) {
@@ -127,7 +162,7 @@ public class ArrowFileReader implements AutoCloseable {
    * @param limit number of records to read
    * @return
    */
-  public List<RecordBatchHolder> read(final long start, final long limit) throws IOException {
+  public synchronized List<RecordBatchHolder> read(final long start, final long limit) throws IOException {
     // Make sure the range is valid according to the metadata in footer
     checkArgument(start == 0 && metadata.getRecordCount() == 0|| start >= 0 && start < metadata.getRecordCount(),
         "Invalid start index (%s). Record count in file (%s)", start, metadata.getRecordCount());
@@ -141,23 +176,19 @@ public class ArrowFileReader implements AutoCloseable {
     final List<RecordBatchHolder> batches = Lists.newArrayList();
     final ArrowFileFooter footer = metadata.getFooter();
 
-    long runningCount = 0;
     long remaining = limit;
-    final int numBatches = footer.getBatchList() == null ? 0 : footer.getBatchList().size();
-    for(int batchIndex = 0; batchIndex < numBatches; batchIndex++) {
+    final int numBatches = cumulativeRecordCounts.length;
+    // Skip batches until we reach the first batch that contains the start index, that is the first batch whose
+    // cumulative count is greater than the start index: valid indices up until a batch are in range
+    // [0, cumulative count - 1]
+    for(int batchIndex = firstBatchEndingAfter(start); batchIndex < numBatches; batchIndex++) {
       ArrowRecordBatchSummary batchSummary = footer.getBatchList().get(batchIndex);
       // Skip past empty batches
       if (batchSummary.getRecordCount() == 0) {
         continue;
       }
 
-      runningCount += batchSummary.getRecordCount();
-
-      // Skip batches until we reach a batch that contains the start index
-      if (start >= runningCount) {
-        // valid indices in up until the current batch are in range [0, runningCount - 1]
-        continue;
-      }
+      final long runningCount = cumulativeRecordCounts[batchIndex];
 
       final long currentBatchCount = batchSummary.getRecordCount();
 
@@ -192,8 +223,26 @@ public class ArrowFileReader implements AutoCloseable {
     return batches;
   }
 
+  /**
+   * @return index of the first batch whose cumulative record count is greater than the given index, or the
+   * number of batches if there is none
+   */
+  private int firstBatchEndingAfter(long index) {
+    int low = 0;
+    int high = cumulativeRecordCounts.length;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (cumulativeRecordCounts[mid] > index) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low;
+  }
+
   @Override
-  public void close() throws IOException {
+  public synchronized void close() throws IOException {
     if (inputStream != null) {
       inputStream.close();
       inputStream = null;
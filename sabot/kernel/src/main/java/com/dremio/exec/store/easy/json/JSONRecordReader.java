@@ -31,7 +31,9 @@ import com.dremio.exec.store.AbstractRecordReader;
 import com.dremio.exec.store.easy.json.JsonProcessor.ReadState;
 import com.dremio.exec.store.easy.json.reader.CountingJsonReader;
 import com.dremio.exec.vector.complex.fn.JsonReader;
+import com.dremio.io.CompressedFSInputStream;
 import com.dremio.io.CompressionCodecFactory;
+import com.dremio.io.FSInputStream;
 import com.dremio.io.file.FileSystem;
 import com.dremio.io.file.FileSystemUtils;
 import com.dremio.io.file.Path;
@@ -53,6 +55,9 @@ public class JSONRecordReader extends AbstractRecordReader {
   // Data we're consuming
   private final Path fsPath;
   private final JsonNode embeddedContent;
+  // split of the file to read, null to read the whole file
+  private final Long start;
+  private final Long length;
 
   private final CompressionCodecFactory codecFactory;
   private final FileSystem fileSystem;
@@ -79,7 +84,30 @@ public class JSONRecordReader extends AbstractRecordReader {
       final CompressionCodecFactory codecFactory,
       final FileSystem fileSystem,
       final List<SchemaPath> columns) throws OutOfMemoryException {
-    this(context, inputPath, null, codecFactory, fileSystem, columns);
+    this(context, inputPath, null, null, null, codecFactory, fileSystem, columns);
+  }
+
+  /**
+   * Create a JSON Record Reader of the records of a split of a newline delimited JSON file, each record being on its own
+   * line.
+   * @param context
+   * @param inputPath
+   * @param start offset of the split, the split reads the records starting after it
+   * @param length length of the split, the split reads up to the record crossing its end
+   * @param codecFactory
+   * @param fileSystem
+   * @param columns  pathnames of columns/subfields to read
+   * @throws OutOfMemoryException
+   */
+  public JSONRecordReader(
+      final OperatorContext context,
+      final String inputPath,
+      final long start,
+      final long length,
+      final CompressionCodecFactory codecFactory,
+      final FileSystem fileSystem,
+      final List<SchemaPath> columns) throws OutOfMemoryException {
+    this(context, inputPath, null, start, length, codecFactory, fileSystem, columns);
   }
 
   /**
@@ -94,12 +122,14 @@ public class JSONRecordReader extends AbstractRecordReader {
   public JSONRecordReader(final OperatorContext context, final JsonNode embeddedContent,
       final CompressionCodecFactory codecFactory, final FileSystem fileSystem, final List<SchemaPath> columns)
       throws OutOfMemoryException {
-    this(context, null, embeddedContent, codecFactory, fileSystem, columns);
+    this(context, null, embeddedContent, null, null, codecFactory, fileSystem, columns);
   }
 
   private JSONRecordReader(final OperatorContext operatorContext,
                            final String inputPath,
                            final JsonNode embeddedContent,
+                           final Long start,
+                           final Long length,
                            final CompressionCodecFactory codecFactory,
                            final FileSystem fileSystem,
                            final List<SchemaPath> columns) {
@@ -119,6 +149,8 @@ public class JSONRecordReader extends AbstractRecordReader {
       this.fsPath = null;
     }
 
+    this.start = start;
+    this.length = length;
     this.codecFactory = codecFactory;
     this.fileSystem = fileSystem;
     this.context = operatorContext;
@@ -133,6 +165,8 @@ public class JSONRecordReader extends AbstractRecordReader {
   public String toString() {
     return super.toString()
         + "[hadoopPath = " + fsPath
+        + ", start = " + start
+        + ", length = " + length
         + ", recordCount = " + recordCount
         + ", runningRecordCount = " + runningRecordCount + ", ...]";
   }
@@ -141,7 +175,13 @@ public class JSONRecordReader extends AbstractRecordReader {
   public void setup(final OutputMutator output) throws ExecutionSetupException {
     try{
       if (fsPath != null) {
-        this.stream = FileSystemUtils.openPossiblyCompressedStream(codecFactory, fileSystem, fsPath);
+        final FSInputStream input = FileSystemUtils.openPossiblyCompressedStream(codecFactory, fileSystem, fsPath);
+        // compressed files are not split
+        if (start != null && !(input instanceof CompressedFSInputStream)) {
+          this.stream = new SplitLineInputStream(input, start, length);
+        } else {
+          this.stream = input;
+        }
       }
 
       this.writer = new VectorContainerWriter(output);
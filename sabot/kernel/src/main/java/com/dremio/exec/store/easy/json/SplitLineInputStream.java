@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.easy.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.dremio.io.FSInputStream;
+
+/**
+ * Stream of the lines of a split of a file. As for the splits of text files, a split reads the lines starting after its
+ * start offset, up to the line crossing its end offset: the partial line at the start of a split is read by the
+ * previous split, and the first split of a file reads from the beginning of the file.
+ */
+class SplitLineInputStream extends InputStream {
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final byte LINE_DELIMITER = '\n';
+
+  private final FSInputStream input;
+  private final long end;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int bufferPos;
+  private int bufferLimit;
+  // position in the file of the next byte of the buffer
+  private long position;
+  private boolean finished;
+
+  SplitLineInputStream(FSInputStream input, long start, long length) throws IOException {
+    this.input = input;
+    this.end = length > Long.MAX_VALUE - start ? Long.MAX_VALUE : start + length;
+    if (start > 0) {
+      input.setPosition(start);
+      position = start;
+      // move to the next full line
+      int b;
+      do {
+        b = readByte();
+      } while (b != -1 && b != LINE_DELIMITER);
+    }
+    finished = position > end;
+  }
+
+  private boolean fill() throws IOException {
+    while (bufferPos == bufferLimit) {
+      final int read = input.read(buffer, 0, buffer.length);
+      if (read == -1) {
+        return false;
+      }
+      bufferPos = 0;
+      bufferLimit = read;
+    }
+    return true;
+  }
+
+  private int readByte() throws IOException {
+    if (!fill()) {
+      return -1;
+    }
+    position++;
+    return buffer[bufferPos++] & 0xFF;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (finished) {
+      return -1;
+    }
+    final int b = readByte();
+    // the line ending at or after the end of the split is the last one
+    if (b == -1 || (b == LINE_DELIMITER && position > end)) {
+      finished = true;
+    }
+    return b;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (finished || !fill()) {
+      finished = true;
+      return -1;
+    }
+
+    int count = Math.min(len, bufferLimit - bufferPos);
+    // only a line delimiter at or after the end of the split ends the stream
+    final long firstAfterEnd = Math.max(0, end - position);
+    for (int i = (int) Math.min(firstAfterEnd, count); i < count; i++) {
+      if (buffer[bufferPos + i] == LINE_DELIMITER) {
+        count = i + 1;
+        finished = true;
+        break;
+      }
+    }
+    System.arraycopy(buffer, bufferPos, b, off, count);
+    bufferPos += count;
+    position += count;
+    return count;
+  }
+
+  @Override
+  public int available() {
+    return finished ? 0 : bufferLimit - bufferPos;
+  }
+
+  @Override
+  public void close() throws IOException {
+    input.close();
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.Type;
+
+import com.dremio.common.expression.BooleanOperator;
+import com.dremio.common.expression.FunctionCall;
+import com.dremio.common.expression.FunctionCallFactory;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.expression.ValueExpressions.IntExpression;
+import com.dremio.common.expression.ValueExpressions.LongExpression;
+import com.dremio.common.expression.ValueExpressions.QuotedString;
+
+/**
+ * Checks the equality conditions of a scan against the bloom filters in the footer of a parquet file, to skip the row
+ * groups of the files without any of the values looked up. A disjunction of equalities, as an IN list is pushed down,
+ * matches if any of its values may be in the file. The other conditions always match.
+ */
+class BloomFilterEvaluator {
+  private final MessageType schema;
+  private final ParquetColumnResolver columnResolver;
+  private final Map<String, String> metadata;
+  private final Map<String, ParquetBloomFilter> filters = new HashMap<>();
+
+  BloomFilterEvaluator(MessageType schema, ParquetColumnResolver columnResolver, Map<String, String> metadata) {
+    this.schema = schema;
+    this.columnResolver = columnResolver;
+    this.metadata = metadata;
+  }
+
+  /**
+   * Does the file have any bloom filter.
+   */
+  static boolean hasBloomFilters(Map<String, String> metadata) {
+    return metadata != null
+      && metadata.keySet().stream().anyMatch(key -> key.startsWith(ParquetBloomFilter.METADATA_KEY_PREFIX));
+  }
+
+  /**
+   * Can some rows of the file match all the conditions.
+   */
+  boolean mayMatch(List<ParquetFilterCondition> conditions) {
+    for (ParquetFilterCondition condition : conditions) {
+      if (!mayMatch(condition.getExpr())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean mayMatch(LogicalExpression expr) {
+    if (expr instanceof BooleanOperator) {
+      final BooleanOperator operator = (BooleanOperator) expr;
+      if (operator.isAnd()) {
+        return operator.args.stream().allMatch(this::mayMatch);
+      }
+      if (operator.isOr()) {
+        return operator.args.stream().anyMatch(this::mayMatch);
+      }
+      return true;
+    }
+
+    if (!(expr instanceof FunctionCall) || ((FunctionCall) expr).args.size() != 2
+      || !"equal".equals(FunctionCallFactory.replaceOpWithFuncName(((FunctionCall) expr).getName()))) {
+      return true;
+    }
+    final LogicalExpression left = ((FunctionCall) expr).args.get(0);
+    final LogicalExpression right = ((FunctionCall) expr).args.get(1);
+    if (left instanceof SchemaPath) {
+      return mayContain((SchemaPath) left, right);
+    }
+    if (right instanceof SchemaPath) {
+      return mayContain((SchemaPath) right, left);
+    }
+    return true;
+  }
+
+  private boolean mayContain(SchemaPath column, LogicalExpression literal) {
+    if (!column.isSimplePath()) {
+      return true;
+    }
+    final Type field = getField(columnResolver.getParquetColumnName(column.getRootSegment().getPath()));
+    if (field == null || !field.isPrimitive()) {
+      return true;
+    }
+    final ParquetBloomFilter filter = getFilter(field.getName());
+    if (filter == null) {
+      return true;
+    }
+    final Long hash = hash(field, literal);
+    return hash == null || filter.mightContain(hash);
+  }
+
+  private ParquetBloomFilter getFilter(String column) {
+    final String key = ParquetBloomFilter.getMetadataKey(column);
+    if (!filters.containsKey(key)) {
+      final String value = metadata.get(key);
+      filters.put(key, value == null ? null : ParquetBloomFilter.deserialize(value));
+    }
+    return filters.get(key);
+  }
+
+  private Type getField(String name) {
+    if (name == null) {
+      return null;
+    }
+    if (schema.containsField(name)) {
+      return schema.getType(name);
+    }
+    for (Type field : schema.getFields()) {
+      if (field.getName().equalsIgnoreCase(name)) {
+        return field;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Hash of the literal as a value of the column, or null if it has another type.
+   */
+  private static Long hash(Type field, LogicalExpression literal) {
+    final OriginalType originalType = field.getOriginalType();
+    switch (field.asPrimitiveType().getPrimitiveTypeName()) {
+      case INT32:
+        if (originalType == null || originalType == OriginalType.INT_32) {
+          return literal instanceof IntExpression ? ParquetBloomFilter.hash(((IntExpression) literal).getInt()) : null;
+        }
+        return null;
+      case INT64:
+        if (originalType != null && originalType != OriginalType.INT_64) {
+          return null;
+        }
+        if (literal instanceof IntExpression) {
+          return ParquetBloomFilter.hash((long) ((IntExpression) literal).getInt());
+        }
+        return literal instanceof LongExpression ? ParquetBloomFilter.hash(((LongExpression) literal).getLong()) : null;
+      case BINARY:
+        if (originalType == null || originalType == OriginalType.UTF8) {
+          return literal instanceof QuotedString
+            ? ParquetBloomFilter.hash(Binary.fromString(((QuotedString) literal).getString())) : null;
+        }
+        return null;
+      default:
+        return null;
+    }
+  }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.Type;
+
+import com.carrotsearch.hppc.LongHashSet;
+import com.carrotsearch.hppc.cursors.LongCursor;
+
+/**
+ * Record consumer collecting the hashes of the values of some top level columns, to write their bloom filters in the
+ * footer of the file. The hashes of a column are kept in a set until it takes about as much heap as a filter of the
+ * max size, and are then inserted in a filter of the max size, folded down to the number of distinct values once the
+ * file is written. The filter of a column is dropped if it has more distinct values than a filter of the max size can
+ * hold.
+ */
+class BloomFilterRecordConsumer extends RecordConsumer {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(BloomFilterRecordConsumer.class);
+
+  private final RecordConsumer delegate;
+  private final double fpp;
+  private final int maxBytes;
+  // most hashes kept in the set of a column, which then takes about the max size of a filter with its load factor
+  private final int maxHashes;
+  private final Map<String, ColumnHashes> hashes = new HashMap<>();
+
+  private int groupDepth;
+  // the hashes of the top level column being written, null if not collected
+  private ColumnHashes columnHashes;
+
+  BloomFilterRecordConsumer(RecordConsumer delegate, MessageType schema, Set<String> columns, double fpp,
+                            int maxBytes) {
+    this.delegate = delegate;
+    this.fpp = fpp;
+    this.maxBytes = maxBytes;
+    this.maxHashes = maxBytes / (2 * Long.BYTES);
+    for (Type field : schema.getFields()) {
+      if (columns.contains(field.getName().toLowerCase()) && isSupported(field)) {
+        hashes.put(field.getName(), new ColumnHashes());
+      }
+    }
+  }
+
+  /**
+   * Only integers and strings are hashed, as the equality of floating point values doesn't match the equality of their
+   * encoding.
+   */
+  private static boolean isSupported(Type field) {
+    if (!field.isPrimitive() || field.getOriginalType() == OriginalType.DECIMAL) {
+      return false;
+    }
+    switch (field.asPrimitiveType().getPrimitiveTypeName()) {
+      case INT32:
+      case INT64:
+      case BINARY:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  boolean hasColumns() {
+    return !hashes.isEmpty();
+  }
+
+  /**
+   * The bloom filters of the columns, by key in the footer metadata.
+   */
+  Map<String, String> getMetadata() {
+    final Map<String, String> metadata = new HashMap<>();
+    for (Map.Entry<String, ColumnHashes> column : hashes.entrySet()) {
+      final ParquetBloomFilter filter = column.getValue().getFilter();
+      if (filter == null) {
+        logger.debug("Not writing the bloom filter of column {} with too many distinct values", column.getKey());
+        continue;
+      }
+      metadata.put(ParquetBloomFilter.getMetadataKey(column.getKey()), filter.serialize());
+    }
+    return metadata;
+  }
+
+  /**
+   * Hashes of the values of a column, in a set or, once the set is full, in a filter of the max size.
+   */
+  private final class ColumnHashes {
+    private LongHashSet set = new LongHashSet();
+    private ParquetBloomFilter filter;
+
+    void add(long hash) {
+      if (filter != null) {
+        filter.insertHash(hash);
+        return;
+      }
+      set.add(hash);
+      if (set.size() > maxHashes) {
+        filter = ParquetBloomFilter.createFoldable(maxBytes);
+        for (LongCursor cursor : set) {
+          filter.insertHash(cursor.value);
+        }
+        set = null;
+      }
+    }
+
+    /**
+     * @return the filter sized for the distinct values of the column, or null if it has too many of them
+     */
+    ParquetBloomFilter getFilter() {
+      if (filter == null) {
+        final ParquetBloomFilter exact = ParquetBloomFilter.create(set.size(), fpp, maxBytes);
+        for (LongCursor cursor : set) {
+          exact.insertHash(cursor.value);
+        }
+        return exact;
+      }
+
+      final long distinctValues = filter.estimateDistinctValues();
+      if (distinctValues > ParquetBloomFilter.getMaxDistinctValues(fpp, filter.getNumBytes())) {
+        return null;
+      }
+      return filter.fold(ParquetBloomFilter.getNumBytes(distinctValues, fpp, maxBytes));
+    }
+  }
+
+  @Override
+  public void startMessage() {
+    delegate.startMessage();
+  }
+
+  @Override
+  public void endMessage() {
+    delegate.endMessage();
+  }
+
+  @Override
+  public void startField(String field, int index) {
+    if (groupDepth == 0) {
+      columnHashes = hashes.get(field);
+    }
+    delegate.startField(field, index);
+  }
+
+  @Override
+  public void endField(String field, int index) {
+    if (groupDepth == 0) {
+      columnHashes = null;
+    }
+    delegate.endField(field, index);
+  }
+
+  @Override
+  public void startGroup() {
+    groupDepth++;
+    delegate.startGroup();
+  }
+
+  @Override
+  public void endGroup() {
+    groupDepth--;
+    delegate.endGroup();
+  }
+
+  @Override
+  public void addInteger(int value) {
+    if (columnHashes != null) {
+      columnHashes.add(ParquetBloomFilter.hash(value));
+    }
+    delegate.addInteger(value);
+  }
+
+  @Override
+  public void addLong(long value) {
+    if (columnHashes != null) {
+      columnHashes.add(ParquetBloomFilter.hash(value));
+    }
+    delegate.addLong(value);
+  }
+
+  @Override
+  public void addBoolean(boolean value) {
+    delegate.addBoolean(value);
+  }
+
+  @Override
+  public void addBinary(Binary value) {
+    if (columnHashes != null) {
+      columnHashes.add(ParquetBloomFilter.hash(value));
+    }
+    delegate.addBinary(value);
+  }
+
+  @Override
+  public void addFloat(float value) {
+    delegate.addFloat(value);
+  }
+
+  @Override
+  public void addDouble(double value) {
+    delegate.addDouble(value);
+  }
+
+  @Override
+  public void flush() {
+    delegate.flush();
+  }
+}
@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.arrow.memory.OutOfMemoryException;
+import org.apache.arrow.vector.SimpleIntVector;
 import org.apache.arrow.vector.ValueVector;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.util.CallBack;
@@ -64,6 +65,10 @@ public class CopyingFilteringReader implements RecordReader {
   private final RecordReader delegate;
   private final OperatorContext context;
   private final LogicalExpression filterCondition;
+  // optional, filled with the number of rows filtered out before each returned row
+  private final SimpleIntVector deltas;
+  // optional, filled by the delegate reader with the number of rows it skipped before each row it read
+  private final SimpleIntVector delegateDeltas;
 
   private final Map<String, ValueVector> fieldVectorMap = Maps.newHashMap();
 
@@ -83,13 +88,38 @@ public class CopyingFilteringReader implements RecordReader {
   private VectorContainer readerOutput = new VectorContainer();
   private VectorContainer copyOutput;
   private ScanMutator mutator;
+  private SelectionVector2 filteredSV2;
   private Filterer filter;
   private Copier copier;
+  // rows filtered out since the last returned row
+  private int skipped;
 
   public CopyingFilteringReader(RecordReader delegate, OperatorContext context, LogicalExpression filterCondition) {
+    this(delegate, context, filterCondition, null, null);
+  }
+
+  /**
+   * @param deltas if not null, filled for each batch with the number of rows filtered out before each returned row, so
+   *               that a reader of the other columns of the same rows can skip them
+   */
+  public CopyingFilteringReader(RecordReader delegate, OperatorContext context, LogicalExpression filterCondition,
+                                SimpleIntVector deltas) {
+    this(delegate, context, filterCondition, null, deltas);
+  }
+
+  /**
+   * @param delegateDeltas if not null, the deltas of the rows skipped by the delegate reader, added to the deltas of
+   *                       this reader and closed with it
+   * @param deltas if not null, filled for each batch with the number of rows filtered out or skipped before each
+   *               returned row
+   */
+  public CopyingFilteringReader(RecordReader delegate, OperatorContext context, LogicalExpression filterCondition,
+                                SimpleIntVector delegateDeltas, SimpleIntVector deltas) {
     this.delegate = delegate;
     this.context = context;
     this.filterCondition = filterCondition;
+    this.delegateDeltas = delegateDeltas;
+    this.deltas = deltas;
   }
 
   @Override
@@ -120,7 +150,7 @@ public class CopyingFilteringReader implements RecordReader {
     cg.addExpr(new ReturnValueExpression(expr), ClassGenerator.BlockCreateMode.MERGE);
 
     // we only need the filterer to set the selection vector of scanOutput, that's why we use a SV2Holder instead of a VectorContainer
-    final SelectionVector2 filteredSV2 = new SelectionVector2(context.getAllocator());
+    filteredSV2 = new SelectionVector2(context.getAllocator());
     final SV2Holder sv2Holder = new SV2Holder(filteredSV2);
     this.filter = cg.getCodeGenerator().getImplementationClass();
     filter.setup(context.getClassProducer().getFunctionContext(), readerOutput, sv2Holder);
@@ -153,7 +183,9 @@ public class CopyingFilteringReader implements RecordReader {
     delegate.allocate(fieldVectorMap);
 
     // keep reading until the delegate reader is done or the filter doesn't filter everything
-    while ((recordCount = delegate.next()) > 0) {
+    int readCount;
+    recordCount = 0;
+    while ((readCount = delegate.next()) > 0) {
       if (mutator.getAndResetSchemaChanged()) {
         // report the schema change to the caller but keep reading from the reader
         // This is similar to the behavior of ScanOperator.outputData()
@@ -161,16 +193,21 @@ public class CopyingFilteringReader implements RecordReader {
       }
 
       filterWatch.start();
-      recordCount = filter.filterBatch(recordCount);
+      recordCount = filter.filterBatch(readCount);
       filterWatch.stop();
       if (recordCount > 0) {
         break;
       }
 
       // filter excluded all rows, we need to call the delegate reader again
+      skipped += readCount + delegateSkipped(0, readCount);
       readerOutput.allocateNew();
     }
 
+    if (deltas != null) {
+      fillDeltas(readCount, recordCount);
+    }
+
     copyOutput.allocateNew();
 
     copyWatch.start();
@@ -189,9 +226,38 @@ public class CopyingFilteringReader implements RecordReader {
     return recordCount;
   }
 
+  private void fillDeltas(int readCount, int recordCount) {
+    int previous = -1;
+    for (int i = 0; i < recordCount; i++) {
+      final int index = filteredSV2.getIndex(i);
+      deltas.setSafe(i, skipped + index - previous - 1 + delegateSkipped(previous + 1, index + 1));
+      skipped = 0;
+      previous = index;
+    }
+    deltas.setValueCount(recordCount);
+    // the rows after the last returned row are skipped before the first row of the next batch
+    if (recordCount > 0) {
+      skipped = readCount - previous - 1 + delegateSkipped(previous + 1, readCount);
+    }
+  }
+
+  /**
+   * Number of rows skipped by the delegate reader before its rows from start inclusive to end exclusive.
+   */
+  private int delegateSkipped(int start, int end) {
+    if (delegateDeltas == null) {
+      return 0;
+    }
+    int count = 0;
+    for (int i = start; i < end; i++) {
+      count += delegateDeltas.get(i);
+    }
+    return count;
+  }
+
   @Override
   public void close() throws Exception {
-    AutoCloseables.close(copier, copyOutput, readerOutput, delegate);
+    AutoCloseables.close(copier, copyOutput, readerOutput, delegate, delegateDeltas);
   }
 
   private static class ContainerAndSV2 implements VectorAccessible {
@@ -60,8 +60,8 @@ public interface InputStreamProviderFactory {
 
       final long maxFooterLen = context.getOptions().getOption(ExecConstants.PARQUET_MAX_FOOTER_LEN_VALIDATOR);
       return useSingleStream
-        ? new SingleStreamProvider(fs, path, fileLength, maxFooterLen, readFullFile, footerIfKnown, context, readColumnIndices)
-        : new StreamPerColumnProvider(fs, path, fileLength, maxFooterLen, footerIfKnown, context, readColumnIndices);
+        ? new SingleStreamProvider(fs, path, fileLength, mTime, maxFooterLen, readFullFile, footerIfKnown, context, readColumnIndices)
+        : new StreamPerColumnProvider(fs, path, fileLength, mTime, maxFooterLen, footerIfKnown, context, readColumnIndices);
     }
   };
 
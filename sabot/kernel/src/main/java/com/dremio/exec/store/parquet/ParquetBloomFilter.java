@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Base64;
+
+import org.apache.parquet.io.api.Binary;
+
+import com.dremio.sabot.op.common.ht2.XXH64;
+import com.google.common.base.Preconditions;
+
+/**
+ * Split block bloom filter of the values of a column, as described in the parquet format: the filter is made of blocks
+ * of eight 32 bit words, and a value sets one bit in each word of the block picked by its hash. The values are hashed
+ * with xxHash64 over their plain encoding.
+ *
+ * The filters of the columns of a file written by Dremio are stored in the key value metadata of its footer, under
+ * {@link #getMetadataKey(String)}.
+ */
+public final class ParquetBloomFilter {
+  public static final String METADATA_KEY_PREFIX = "dremio.bloom_filter.";
+
+  private static final int BYTES_PER_BLOCK = 32;
+  private static final int WORDS_PER_BLOCK = 8;
+  private static final int[] SALT = {
+    0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d, 0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31
+  };
+
+  private final int[] words;
+
+  private ParquetBloomFilter(int[] words) {
+    this.words = words;
+  }
+
+  /**
+   * Empty filter sized for a number of distinct values and a false positive probability.
+   */
+  public static ParquetBloomFilter create(long distinctValues, double fpp, int maxBytes) {
+    return new ParquetBloomFilter(new int[getNumBytes(distinctValues, fpp, maxBytes) / Integer.BYTES]);
+  }
+
+  /**
+   * Empty filter of at most the max size, with a power of two number of blocks so that it can be folded down to the
+   * size of the values inserted in it.
+   */
+  static ParquetBloomFilter createFoldable(int maxBytes) {
+    final int blocks = Integer.highestOneBit(Math.max(1, maxBytes / BYTES_PER_BLOCK));
+    return new ParquetBloomFilter(new int[blocks * WORDS_PER_BLOCK]);
+  }
+
+  /**
+   * Size of a filter for a number of distinct values and a false positive probability, in whole blocks between one
+   * block and the max size.
+   */
+  static int getNumBytes(long distinctValues, double fpp, int maxBytes) {
+    final double bits = -WORDS_PER_BLOCK * distinctValues / Math.log(1 - Math.pow(fpp, 1.0 / WORDS_PER_BLOCK));
+    final long blocks = (long) Math.ceil(bits / Byte.SIZE / BYTES_PER_BLOCK);
+    return (int) Math.max(1, Math.min(maxBytes / BYTES_PER_BLOCK, blocks)) * BYTES_PER_BLOCK;
+  }
+
+  /**
+   * Most distinct values in a filter of the max size for a false positive probability.
+   */
+  public static long getMaxDistinctValues(double fpp, int maxBytes) {
+    return (long) (-(double) maxBytes * Byte.SIZE * Math.log(1 - Math.pow(fpp, 1.0 / WORDS_PER_BLOCK))
+      / WORDS_PER_BLOCK);
+  }
+
+  public static String getMetadataKey(String column) {
+    return METADATA_KEY_PREFIX + column;
+  }
+
+  int getNumBytes() {
+    return words.length * Integer.BYTES;
+  }
+
+  /**
+   * Estimate of the number of distinct values inserted, from the fraction of the bits still unset, as each value sets
+   * one bit of each word of one block.
+   *
+   * @return the estimate, or {@link Long#MAX_VALUE} if all the bits are set
+   */
+  long estimateDistinctValues() {
+    long unsetBits = 0;
+    for (int word : words) {
+      unsetBits += Integer.SIZE - Integer.bitCount(word);
+    }
+    if (unsetBits == 0) {
+      return Long.MAX_VALUE;
+    }
+    final double bits = (double) words.length * Integer.SIZE;
+    // a value sets a given bit with a probability of 1 / (blocks * 32)
+    final double blocks = (double) words.length / WORDS_PER_BLOCK;
+    return (long) Math.ceil(Math.log(unsetBits / bits) / Math.log1p(-1 / (blocks * Integer.SIZE)));
+  }
+
+  /**
+   * Fold the filter in halves while it stays of at least the given size. The block of a hash scales with the number
+   * of blocks, so merging each pair of adjacent blocks gives the filter the same hashes would make with half the
+   * blocks.
+   */
+  ParquetBloomFilter fold(int minBytes) {
+    int[] folded = words;
+    while (folded.length % (2 * WORDS_PER_BLOCK) == 0 && folded.length / 2 * Integer.BYTES >= minBytes) {
+      final int[] half = new int[folded.length / 2];
+      for (int block = 0; block < half.length; block += WORDS_PER_BLOCK) {
+        for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+          half[block + i] = folded[2 * block + i] | folded[2 * block + WORDS_PER_BLOCK + i];
+        }
+      }
+      folded = half;
+    }
+    return folded == words ? this : new ParquetBloomFilter(folded);
+  }
+
+  public void insertHash(long hash) {
+    final int block = getBlock(hash);
+    final int key = (int) hash;
+    for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+      words[block + i] |= mask(key, i);
+    }
+  }
+
+  public boolean mightContain(long hash) {
+    final int block = getBlock(hash);
+    final int key = (int) hash;
+    for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+      if ((words[block + i] & mask(key, i)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int getBlock(long hash) {
+    final long blocks = words.length / WORDS_PER_BLOCK;
+    return (int) (((hash >>> 32) * blocks) >>> 32) * WORDS_PER_BLOCK;
+  }
+
+  private static int mask(int key, int word) {
+    return 1 << ((key * SALT[word]) >>> 27);
+  }
+
+  public static long hash(int value) {
+    return hash(ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(value).array());
+  }
+
+  public static long hash(long value) {
+    return hash(ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(value).array());
+  }
+
+  public static long hash(Binary value) {
+    return hash(value.getBytesUnsafe());
+  }
+
+  private static long hash(byte[] bytes) {
+    return XXH64.xxHash64(bytes, 0, bytes.length, 0);
+  }
+
+  public String serialize() {
+    final ByteBuffer buffer = ByteBuffer.allocate(words.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.asIntBuffer().put(words);
+    return Base64.getEncoder().encodeToString(buffer.array());
+  }
+
+  public static ParquetBloomFilter deserialize(String value) {
+    final ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(value)).order(ByteOrder.LITTLE_ENDIAN);
+    Preconditions.checkArgument(buffer.remaining() >= BYTES_PER_BLOCK && buffer.remaining() % BYTES_PER_BLOCK == 0,
+      "Invalid size of bloom filter: %s bytes", buffer.remaining());
+    final int[] words = new int[buffer.remaining() / Integer.BYTES];
+    buffer.asIntBuffer().get(words);
+    return new ParquetBloomFilter(words);
+  }
+}
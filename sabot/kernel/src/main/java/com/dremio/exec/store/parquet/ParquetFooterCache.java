@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+
+import com.dremio.exec.ExecConstants;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+import com.dremio.options.OptionManager;
+import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.sabot.op.scan.ScanOperator;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Node-wide cache of parquet footers, shared by all the fragments and queries running on this node.<br>
+ * <br>
+ * Entries are keyed by the file location, length and modification time so that a rewritten file is never served
+ * a stale footer. The cache is bounded by an estimate of the heap used by the parsed footers.
+ */
+public final class ParquetFooterCache {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ParquetFooterCache.class);
+
+  // rough heap usage estimates of the parsed footer objects
+  private static final int BASE_HEAP_SIZE = 1024;
+  private static final int SCHEMA_COLUMN_HEAP_SIZE = 256;
+  private static final int COLUMN_CHUNK_HEAP_SIZE = 512;
+
+  private static volatile ParquetFooterCache instance;
+
+  /**
+   * Loads a footer when it is not in the cache
+   */
+  @FunctionalInterface
+  public interface FooterLoader {
+    ParquetMetadata load() throws IOException;
+  }
+
+  private final long maxSizeBytes;
+  private final Cache<FooterKey, ParquetMetadata> cache;
+
+  @VisibleForTesting
+  ParquetFooterCache(long maxSizeBytes) {
+    this.maxSizeBytes = maxSizeBytes;
+    this.cache = CacheBuilder.newBuilder()
+      .maximumWeight(maxSizeBytes)
+      .weigher((FooterKey key, ParquetMetadata footer) -> estimateHeapSize(footer))
+      .recordStats()
+      .build();
+  }
+
+  /**
+   * Returns the footer of the given file, reading it with the provided loader if it isn't cached yet.
+   * Files without a known length or modification time are never cached.
+   *
+   * @param options option manager, used to check if the cache is enabled and its size. If null, the cache is bypassed.
+   * @param stats operator stats to record the cache hits/misses into, or null
+   * @param fs file system the file belongs to
+   * @param path file path
+   * @param fileLength length of the file
+   * @param mtime modification time of the file
+   * @param loader reads the footer from the file on a cache miss
+   * @return the footer. The returned object is private to the caller and can be trimmed.
+   * @throws IOException if the footer cannot be read
+   */
+  public static ParquetMetadata getFooter(OptionManager options, OperatorStats stats, FileSystem fs, Path path,
+                                          long fileLength, long mtime, FooterLoader loader) throws IOException {
+    final ParquetFooterCache footerCache = getInstance(options);
+    if (footerCache == null || fileLength < 0 || mtime <= 0) {
+      return loader.load();
+    }
+
+    return footerCache.get(new FooterKey(fs.getUri().toString(), path.toString(), fileLength, mtime), stats, loader);
+  }
+
+  private static ParquetFooterCache getInstance(OptionManager options) {
+    if (options == null || !options.getOption(ExecConstants.PARQUET_FOOTER_CACHE_ENABLED)) {
+      return null;
+    }
+
+    final long maxSizeBytes = options.getOption(ExecConstants.PARQUET_FOOTER_CACHE_MAX_SIZE_BYTES);
+    ParquetFooterCache current = instance;
+    if (current == null || current.maxSizeBytes != maxSizeBytes) {
+      synchronized (ParquetFooterCache.class) {
+        current = instance;
+        if (current == null || current.maxSizeBytes != maxSizeBytes) {
+          logger.info("Creating parquet footer cache with a max size of {} bytes", maxSizeBytes);
+          current = new ParquetFooterCache(maxSizeBytes);
+          instance = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  @VisibleForTesting
+  ParquetMetadata get(FooterKey key, OperatorStats stats, FooterLoader loader) throws IOException {
+    ParquetMetadata footer = cache.getIfPresent(key);
+    if (footer != null) {
+      addStat(stats, ScanOperator.Metric.NUM_FOOTER_CACHE_HITS, 1);
+      return copyOf(footer);
+    }
+
+    // concurrent readers of the same file may load it at the same time, which is harmless
+    footer = loader.load();
+    final long evictionsBefore = cache.stats().evictionCount();
+    cache.put(key, footer);
+    addStat(stats, ScanOperator.Metric.NUM_FOOTER_CACHE_MISSES, 1);
+    addStat(stats, ScanOperator.Metric.NUM_FOOTER_CACHE_EVICTIONS, cache.stats().evictionCount() - evictionsBefore);
+    return copyOf(footer);
+  }
+
+  @VisibleForTesting
+  long size() {
+    return cache.size();
+  }
+
+  private static void addStat(OperatorStats stats, ScanOperator.Metric metric, long value) {
+    if (stats != null && value > 0) {
+      stats.addLongStat(metric, value);
+    }
+  }
+
+  /**
+   * Readers remove row groups and columns from their footer once they are done with them, which modifies the
+   * list of blocks in place. Give each caller its own list so that the cached footer is never modified.
+   */
+  private static ParquetMetadata copyOf(ParquetMetadata footer) {
+    return new ParquetMetadata(footer.getFileMetaData(), new ArrayList<>(footer.getBlocks()));
+  }
+
+  @VisibleForTesting
+  static int estimateHeapSize(ParquetMetadata footer) {
+    long size = BASE_HEAP_SIZE;
+    size += (long) footer.getFileMetaData().getSchema().getColumns().size() * SCHEMA_COLUMN_HEAP_SIZE;
+    for (Map.Entry<String, String> entry : footer.getFileMetaData().getKeyValueMetaData().entrySet()) {
+      // java strings are utf-16
+      size += 2L * (entry.getKey().length() + (entry.getValue() != null ? entry.getValue().length() : 0));
+    }
+    for (BlockMetaData block : footer.getBlocks()) {
+      if (block != null) {
+        size += (long) block.getColumns().size() * COLUMN_CHUNK_HEAP_SIZE;
+      }
+    }
+    return (int) Math.min(Integer.MAX_VALUE, size);
+  }
+
+  /**
+   * Identifies a version of a parquet file
+   */
+  @VisibleForTesting
+  static final class FooterKey {
+    private final String fsUri;
+    private final String path;
+    private final long length;
+    private final long mtime;
+
+    FooterKey(String fsUri, String path, long length, long mtime) {
+      this.fsUri = fsUri;
+      this.path = path;
+      this.length = length;
+      this.mtime = mtime;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      FooterKey that = (FooterKey) o;
+      return length == that.length &&
+        mtime == that.mtime &&
+        Objects.equals(fsUri, that.fsUri) &&
+        Objects.equals(path, that.path);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(fsUri, path, length, mtime);
+    }
+  }
+}
@@ -19,6 +19,7 @@ import static com.dremio.exec.ExecConstants.PARQUET_READER_INT96_AS_TIMESTAMP;
 import static com.dremio.service.users.SystemUser.SYSTEM_USERNAME;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -168,8 +169,7 @@ public class ParquetFormatDatasetAccessor implements FileDatasetHandle {
     }
 
     final FileAttributes firstFile = firstFileO.get();
-    final ParquetMetadata footer = SingletonParquetFooterCache.readFooter(fsPlugin.getSystemUserFS(), firstFile, ParquetMetadataConverter.NO_FILTER,
-      context.getOptionManager().getOption(ExecConstants.PARQUET_MAX_FOOTER_LEN_VALIDATOR));
+    final ParquetMetadata footer = readFooter(context, firstFile);
 
     Schema arrowSchema;
     try {
@@ -230,6 +230,17 @@ public class ParquetFormatDatasetAccessor implements FileDatasetHandle {
     return oldSchema != null ? oldSchema.merge(newSchema) : newSchema;
   }
 
+  /**
+   * Reads the footer of the given file through the node-wide footer cache
+   */
+  private ParquetMetadata readFooter(final SabotContext context, final FileAttributes file) throws IOException {
+    final FileSystem systemUserFS = fsPlugin.getSystemUserFS();
+    final long maxFooterLen = context.getOptionManager().getOption(ExecConstants.PARQUET_MAX_FOOTER_LEN_VALIDATOR);
+    return ParquetFooterCache.getFooter(context.getOptionManager(), null, systemUserFS, file.getPath(), file.size(),
+      file.lastModifiedTime().toMillis(),
+      () -> SingletonParquetFooterCache.readFooter(systemUserFS, file, ParquetMetadataConverter.NO_FILTER, maxFooterLen));
+  }
+
   /**
    * Read the records in the first parquet file to generate schema for selected parquet files
    *
@@ -248,8 +259,7 @@ public class ParquetFormatDatasetAccessor implements FileDatasetHandle {
       final CompressionCodecFactory codec = CodecFactory.createDirectCodecFactory(new Configuration(),
           new ParquetDirectByteBufferAllocator(operatorContext.getAllocator()), 0);
       for (FileAttributes firstFile : selection.getFileAttributesList()) {
-        ParquetMetadata footer = SingletonParquetFooterCache.readFooter(fsPlugin.getSystemUserFS(), firstFile, ParquetMetadataConverter.NO_FILTER,
-          context.getOptionManager().getOption(ExecConstants.PARQUET_MAX_FOOTER_LEN_VALIDATOR));
+        ParquetMetadata footer = readFooter(context, firstFile);
 
         if (footer.getBlocks().size() == 0) {
           continue;
@@ -270,7 +280,7 @@ public class ParquetFormatDatasetAccessor implements FileDatasetHandle {
         final ImplicitFilesystemColumnFinder finder = new ImplicitFilesystemColumnFinder(context.getOptionManager(), fs, GroupScan.ALL_COLUMNS, isAccelerator);
 
         final long maxFooterLen = context.getOptionManager().getOption(ExecConstants.PARQUET_MAX_FOOTER_LEN_VALIDATOR);
-        try (InputStreamProvider streamProvider = new SingleStreamProvider(fs, firstFile.getPath(), firstFile.size(), maxFooterLen, false, null, null, false);
+        try (InputStreamProvider streamProvider = new SingleStreamProvider(fs, firstFile.getPath(), firstFile.size(), firstFile.lastModifiedTime().toMillis(), maxFooterLen, false, null, null, false);
             RecordReader reader = new AdditionalColumnsRecordReader(operatorContext, new ParquetRowiseReader(operatorContext, mutableParquetMetadata, 0,
                  firstFile.getPath().toString(), ParquetScanProjectedColumns.fromSchemaPaths(GroupScan.ALL_COLUMNS),
                  fs, schemaHelper, streamProvider, codec, true), finder.getImplicitFieldsForSample(selection), sampleAllocator)) {
@@ -54,6 +54,26 @@ public interface ParquetReaderFactory {
                          BatchSchema tableSchema,
                          boolean ignoreSchemaLearning);
 
+  /**
+   * Reader of columns without filter conditions, reading only the rows selected by the reader of the filtered columns
+   * of the same row group.
+   *
+   * @param selectedRows filled by the reader of the filtered columns before each batch, with the number of rows to
+   *                     skip before each row to read
+   * @return the reader, or null if not supported by this factory
+   */
+  default RecordReader newSelectedRowsReader(OperatorContext context,
+                                             ParquetScanProjectedColumns projectedColumns,
+                                             String path,
+                                             CompressionCodecFactory codecFactory,
+                                             MutableParquetMetadata footer,
+                                             int rowGroupIndex,
+                                             SimpleIntVector selectedRows,
+                                             SchemaDerivationHelper schemaHelper,
+                                             InputStreamProvider inputStreamProvider) {
+    return null;
+  }
+
   ParquetFilterCreator newFilterCreator(ManagedSchemaType type, ManagedSchema schema, BufferAllocator allocator);
 
   ParquetDictionaryConvertor newDictionaryConvertor(ManagedSchemaType type, ManagedSchema schema);
@@ -23,6 +23,7 @@ public class ParquetReaderStats {
   public long numPageLoads;
   public long numDictPagesDecompressed;
   public long numPagesDecompressed;
+  public long numPagesSkipped;
 
   public long totalDictPageHeaderBytes;
   public long totalPageHeaderBytes;
@@ -30,6 +31,7 @@ public class ParquetReaderStats {
   public long totalPageReadBytes;
   public long totalDictDecompressedBytes;
   public long totalDecompressedBytes;
+  public long totalPageBytesSkipped;
 
   public long timeDictPageHeaders;
   public long timePageHeaders;
@@ -115,6 +115,7 @@ import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.exec.store.iceberg.proto.IcebergProtobuf;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -146,6 +147,7 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
 
   private static final int MINIMUM_RECORD_COUNT_FOR_CHECK = 100;
   private static final int MAXIMUM_RECORD_COUNT_FOR_CHECK = 10000;
+  private static final double BLOOM_FILTER_FPP = 0.01;
 
   public static final String DRILL_VERSION_PROPERTY = "drill.version";
   public static final String DREMIO_VERSION_PROPERTY = "dremio.version";
@@ -177,6 +179,7 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
   private PageWriteStore pageStore;
 
   private RecordConsumer consumer;
+  private BloomFilterRecordConsumer bloomFilterConsumer;
   private BatchSchema batchSchema;
   private UpdateTrackingConverter trackingConverter;
 
@@ -189,6 +192,8 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
   private final int memoryThreshold;
   private final long maxPartitions;
   private final long minRecordsForFlush;
+  private final Set<String> bloomFilterColumns;
+  private final int bloomFilterMaxBytes;
   private List<String> partitionColumns;
   private boolean isIcebergWriter;
   private CaseInsensitiveImmutableBiMap<Integer> icebergColumnIDMap;
@@ -264,6 +269,9 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
     minRecordsForFlush = context.getOptions().getOption(ExecConstants.PARQUET_MIN_RECORDS_FOR_FLUSH_VALIDATOR);
     parquetFileWriteTimeThresholdMilliSecs = (int)context.getOptions().getOption(ExecConstants.PARQUET_WRITE_TIME_THRESHOLD_MILLI_SECS_VALIDATOR);
     parquetFileWriteIoRateThresholdMbps = context.getOptions().getOption(ExecConstants.PARQUET_WRITE_IO_RATE_THRESHOLD_MBPS_VALIDATOR);
+    bloomFilterColumns = Sets.newHashSet(Splitter.on(',').trimResults().omitEmptyStrings().split(
+      context.getOptions().getOption(ExecConstants.PARQUET_WRITER_BLOOM_FILTER_COLUMNS).toLowerCase()));
+    bloomFilterMaxBytes = (int) context.getOptions().getOption(ExecConstants.PARQUET_WRITER_BLOOM_FILTER_MAX_BYTES);
   }
 
   @Override
@@ -367,6 +375,15 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
     store = new ColumnWriteStoreV1(pageStore, parquetProperties);
     MessageColumnIO columnIO = new ColumnIOFactory(false).getColumnIO(this.schema);
     consumer = columnIO.getRecordWriter(store);
+    bloomFilterConsumer = null;
+    if (!bloomFilterColumns.isEmpty()) {
+      final BloomFilterRecordConsumer bloomFilters = new BloomFilterRecordConsumer(consumer, schema, bloomFilterColumns,
+        BLOOM_FILTER_FPP, bloomFilterMaxBytes);
+      if (bloomFilters.hasColumns()) {
+        bloomFilterConsumer = bloomFilters;
+        consumer = bloomFilters;
+      }
+    }
     setUp(schema, consumer);
   }
 
@@ -591,7 +608,11 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
 
       long footerWriteAndFlushStartTimeMillis = System.currentTimeMillis();
       // we are writing one single block per file
-      parquetFileWriter.end(extraMetaData);
+      final Map<String, String> fileMetaData = new HashMap<>(extraMetaData);
+      if (bloomFilterConsumer != null) {
+        fileMetaData.putAll(bloomFilterConsumer.getMetadata());
+      }
+      parquetFileWriter.end(fileMetaData);
 
       long writeFileEndTimeMillis = System.currentTimeMillis();
 
@@ -74,7 +74,7 @@ public class ParquetScanProjectedColumns {
     return new ParquetScanProjectedColumns(projectedColumns, icebergColumnIDs);
   }
 
-  ParquetScanProjectedColumns cloneForSchemaPaths(List<SchemaPath> projectedColumns) {
+  public ParquetScanProjectedColumns cloneForSchemaPaths(List<SchemaPath> projectedColumns) {
     return new ParquetScanProjectedColumns(projectedColumns, this.icebergColumnIDs);
   }
 }
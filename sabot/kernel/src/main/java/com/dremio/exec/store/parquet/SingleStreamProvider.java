@@ -41,6 +41,7 @@ public class SingleStreamProvider implements InputStreamProvider {
   private final BufferAllocator allocator;
   private final long fileLength;
   private final long maxFooterLen;
+  private final long mTime;
   private final boolean readFullFile;
   private BulkInputStream stream;
   private OperatorContext context;
@@ -48,11 +49,12 @@ public class SingleStreamProvider implements InputStreamProvider {
   private MutableParquetMetadata footer;
   private boolean readColumnOffsetIndices;
 
-  public SingleStreamProvider(FileSystem fs, Path path, long fileLength, long maxFooterLen, boolean readFullFile, MutableParquetMetadata footer, OperatorContext context, boolean readColumnOffsetIndices) {
+  public SingleStreamProvider(FileSystem fs, Path path, long fileLength, long mTime, long maxFooterLen, boolean readFullFile, MutableParquetMetadata footer, OperatorContext context, boolean readColumnOffsetIndices) {
     this.fs = fs;
     this.path = path;
     this.fileLength = fileLength;
     this.maxFooterLen = maxFooterLen;
+    this.mTime = mTime;
     this.readFullFile = readFullFile;
     this.footer = footer;
     this.context = context;
@@ -143,8 +145,11 @@ public class SingleStreamProvider implements InputStreamProvider {
   @Override
   public MutableParquetMetadata getFooter() throws IOException {
     if(footer == null) {
-      SingletonParquetFooterCache footerCache = new SingletonParquetFooterCache();
-      footer = new MutableParquetMetadata(footerCache.getFooter(getStream(null), path.toString(), fileLength, fs, maxFooterLen));
+      footer = new MutableParquetMetadata(ParquetFooterCache.getFooter(
+        context != null ? context.getOptions() : null,
+        context != null ? context.getStats() : null,
+        fs, path, fileLength, mTime,
+        () -> new SingletonParquetFooterCache().getFooter(getStream(null), path.toString(), fileLength, fs, maxFooterLen)));
     }
     return footer;
   }
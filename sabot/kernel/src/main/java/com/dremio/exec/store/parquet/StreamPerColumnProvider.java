@@ -39,17 +39,19 @@ public class StreamPerColumnProvider implements InputStreamProvider {
   private final long length;
   private MutableParquetMetadata footer;
   private final long maxFooterLen;
+  private final long mTime;
   private boolean readColumnOffsetIndexes;
   private final BufferAllocator allocator;
   private final OperatorContext context;
 
   private final List<BulkInputStream> streams = new ArrayList<>();
 
-  public StreamPerColumnProvider(FileSystem fs, Path path, long length, long maxFooterLen, MutableParquetMetadata footer, OperatorContext context, boolean readColumnOffsetIndexes) {
+  public StreamPerColumnProvider(FileSystem fs, Path path, long length, long mTime, long maxFooterLen, MutableParquetMetadata footer, OperatorContext context, boolean readColumnOffsetIndexes) {
     this.fs = fs;
     this.path = path;
     this.length = length;
     this.maxFooterLen = maxFooterLen;
+    this.mTime = mTime;
     this.footer = footer;
     this.readColumnOffsetIndexes = readColumnOffsetIndexes;
     if (context != null) {
@@ -123,8 +125,11 @@ public class StreamPerColumnProvider implements InputStreamProvider {
   @Override
   public MutableParquetMetadata getFooter() throws IOException {
     if(footer == null) {
-      SingletonParquetFooterCache footerCache = new SingletonParquetFooterCache();
-      footer = new MutableParquetMetadata(footerCache.getFooter(getStream(null), path.toString(), length, fs, maxFooterLen));
+      footer = new MutableParquetMetadata(ParquetFooterCache.getFooter(
+        context != null ? context.getOptions() : null,
+        context != null ? context.getStats() : null,
+        fs, path, length, mTime,
+        () -> new SingletonParquetFooterCache().getFooter(getStream(null), path.toString(), length, fs, maxFooterLen)));
     }
     return footer;
   }
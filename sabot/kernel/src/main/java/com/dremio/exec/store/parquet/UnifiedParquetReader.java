@@ -654,27 +654,7 @@ public class UnifiedParquetReader implements RecordReader {
 
         List<RecordReader> returnList = new ArrayList<>();
         if (!unifiedReader.vectorizableReaderColumns.isEmpty() || unifiedReader.nonVectorizableReaderColumns.isEmpty()) {
-          returnList.add(
-              unifiedReader.readerFactory.newReader(
-                  unifiedReader.context,
-                  unifiedReader.projectedColumns.cloneForSchemaPaths(
-                    unifiedReader.columnResolver.getBatchSchemaColumns(unifiedReader.vectorizableReaderColumns)),
-                  unifiedReader.readEntry.getPath(),
-                  unifiedReader.codecFactory,
-                  unifiedReader.filterConditions,
-                  unifiedReader.filterCreator,
-                  unifiedReader.dictionaryConvertor,
-                  unifiedReader.enableDetailedTracing,
-                  unifiedReader.getFooter(),
-                  unifiedReader.readEntry.getRowGroupIndex(),
-                  deltas,
-                  unifiedReader.schemaHelper,
-                  unifiedReader.inputStreamProvider,
-                  unifiedReader.runtimeFilters,
-                  unifiedReader.validityBuf,
-                  unifiedReader.tableSchema,
-                  unifiedReader.ignoreSchemaLearning)
-          );
+          returnList.addAll(unifiedReader.newVectorizedReaders(deltas));
         }
         if (!unifiedReader.nonVectorizableReaderColumns.isEmpty()) {
           returnList.add(
@@ -771,11 +751,77 @@ public class UnifiedParquetReader implements RecordReader {
     public abstract List<RecordReader> getReaders(UnifiedParquetReader unifiedReader) throws ExecutionSetupException;
   }
 
+  /**
+   * Readers of the vectorizable columns. With filter conditions on some of them, the other columns are read by a
+   * second reader decoding only the rows passing the filter, if the reader factory supports it.
+   */
+  private List<RecordReader> newVectorizedReaders(SimpleIntVector deltas) {
+    final List<SchemaPath> filteredColumns = new ArrayList<>();
+    final List<SchemaPath> otherColumns = new ArrayList<>();
+    if (deltas != null && !isNonPartitionColFilterPresent()
+      && filterConditions.stream().anyMatch(c -> c.getFilter().exact())
+      && context.getOptions().getOption(ExecConstants.PARQUET_READER_LATE_MATERIALIZATION)) {
+      for (SchemaPath column : vectorizableReaderColumns) {
+        final String name = column.getRootSegment().getPath();
+        if (filterConditions.stream().anyMatch(c -> c.getPath().getRootSegment().getPath().equalsIgnoreCase(name))) {
+          filteredColumns.add(column);
+        } else {
+          otherColumns.add(column);
+        }
+      }
+    }
+
+    if (!filteredColumns.isEmpty() && !otherColumns.isEmpty()) {
+      final RecordReader selectedRowsReader = readerFactory.newSelectedRowsReader(
+        context,
+        projectedColumns.cloneForSchemaPaths(columnResolver.getBatchSchemaColumns(otherColumns)),
+        readEntry.getPath(),
+        codecFactory,
+        getFooter(),
+        readEntry.getRowGroupIndex(),
+        deltas,
+        schemaHelper,
+        inputStreamProvider);
+      if (selectedRowsReader != null) {
+        logger.debug("Reading columns {} of {} after the filtered columns {}", otherColumns, readEntry.getPath(),
+          filteredColumns);
+        // the filtered columns are read first, filling the deltas used by the other readers
+        return Lists.newArrayList(newVectorizedReader(filteredColumns, deltas), selectedRowsReader);
+      }
+    }
+    return Collections.singletonList(newVectorizedReader(vectorizableReaderColumns, deltas));
+  }
+
+  private RecordReader newVectorizedReader(List<SchemaPath> columns, SimpleIntVector deltas) {
+    return readerFactory.newReader(
+      context,
+      projectedColumns.cloneForSchemaPaths(columnResolver.getBatchSchemaColumns(columns)),
+      readEntry.getPath(),
+      codecFactory,
+      filterConditions,
+      filterCreator,
+      dictionaryConvertor,
+      enableDetailedTracing,
+      getFooter(),
+      readEntry.getRowGroupIndex(),
+      deltas,
+      schemaHelper,
+      inputStreamProvider,
+      runtimeFilters,
+      validityBuf,
+      tableSchema,
+      ignoreSchemaLearning);
+  }
+
   private boolean isNonPartitionColFilterPresent() {
     return this.runtimeFilters.stream().flatMap(f -> f.getNonPartitionColumnFilters().stream()).findAny().isPresent();
   }
 
   private ExecutionPath getExecutionPath() {
+    if (isExcludedByBloomFilters()) {
+      context.getStats().addLongStat(Metric.NUM_ROW_GROUPS_PRUNED, 1);
+      return ExecutionPath.SKIP_ALL;
+    }
     if ((globalDictionaryFieldInfoMap != null && !globalDictionaryFieldInfoMap.isEmpty())) {
       return ExecutionPath.DEPRECATED_VECTORIZED;
     }
@@ -789,6 +835,27 @@ public class UnifiedParquetReader implements RecordReader {
     return ExecutionPath.VECTORIZED;
   }
 
+  /**
+   * Can no row of the row group match the filter conditions, from the bloom filters in the footer.
+   */
+  private boolean isExcludedByBloomFilters() {
+    if (filterConditions == null || filterConditions.isEmpty()
+      || !context.getOptions().getOption(ExecConstants.PARQUET_READER_BLOOM_FILTER)) {
+      return false;
+    }
+    final Map<String, String> metadata = footer.getFileMetaData().getKeyValueMetaData();
+    if (!BloomFilterEvaluator.hasBloomFilters(metadata)) {
+      return false;
+    }
+    final boolean excluded = !new BloomFilterEvaluator(footer.getFileMetaData().getSchema(), columnResolver, metadata)
+      .mayMatch(filterConditions);
+    if (excluded) {
+      logger.debug("Skipping row group {} of {} excluded by its bloom filters", readEntry.getRowGroupIndex(),
+        readEntry.getPath());
+    }
+    return excluded;
+  }
+
   private boolean filterCanContainNull() {
     return CollectionUtils.isEmpty(filterConditions)
             && runtimeFilters
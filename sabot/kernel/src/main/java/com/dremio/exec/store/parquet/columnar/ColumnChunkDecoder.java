@@ -0,0 +1,654 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet.columnar;
+
+import static com.dremio.common.exceptions.FieldSizeLimitExceptionHelper.checkSizeLimit;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.bytes.BytesUtils;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.ValuesType;
+import org.apache.parquet.column.page.DataPage;
+import org.apache.parquet.column.page.DataPageV1;
+import org.apache.parquet.column.page.DataPageV2;
+import org.apache.parquet.column.page.DictionaryPage;
+import org.apache.parquet.column.page.PageReader;
+import org.apache.parquet.column.values.ValuesReader;
+import org.apache.parquet.column.values.dictionary.DictionaryValuesReader;
+import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridDecoder;
+import org.apache.parquet.hadoop.ColumnChunkIncReadStore;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+import org.apache.parquet.io.ParquetDecodingException;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
+
+import com.dremio.exec.store.parquet.ParquetReaderStats;
+
+/**
+ * Decodes the pages of a column chunk straight into the Arrow vectors of the column.
+ *
+ * The values are written to the leaf vector of the column. The validity of the structs and the offsets of the lists
+ * above the leaf are written by the first column under them, the other columns only keep track of their position in
+ * them. Dictionaries are decoded once per column chunk, and the values of dictionary encoded pages are copied from
+ * the decoded dictionary by id.
+ *
+ * Rows can be skipped. The pages made only of skipped rows are not read if the column is not repeated and has an
+ * offset index, the values of the other skipped rows are decoded and dropped.
+ */
+class ColumnChunkDecoder {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ColumnChunkDecoder.class);
+
+  private static final LevelReader NO_LEVELS = () -> 0;
+
+  private final ColumnDescriptor descriptor;
+  private final ColumnChunkIncReadStore pages;
+  private final PageReader pageReader;
+  // null if the pages can't be skipped
+  private final OffsetIndex offsetIndex;
+  private final ParquetReaderStats stats;
+  private final VectorNode[] path;
+  private final ValueWriter writer;
+  private final int maxDefinitionLevel;
+  private final int maxRepetitionLevel;
+
+  // for each list above the leaf, the index of the current list and the number of elements in the batch
+  private final int[] lists;
+  private final int[] elements;
+
+  private Dictionary dictionary;
+  private boolean dictionaryLoaded;
+
+  // rows read or skipped, and index in the offset index of the next page to read
+  private long rowsRead;
+  private int pageIndex;
+
+  private int valuesLeftInPage;
+  private LevelReader repetitionLevels;
+  private LevelReader definitionLevels;
+  private ValuesReader values;
+  private boolean dictionaryEncoded;
+
+  // levels of the next value, read ahead to find the end of a batch
+  private boolean pending;
+  private int repetitionLevel;
+  private int definitionLevel;
+
+  /**
+   * @param descriptor the column
+   * @param pages the pages of the row group, the column chunk being already added to them
+   * @param offsetIndex the offset index of the column chunk, null if the pages of skipped rows are read
+   * @param path the struct and list vectors above the leaf vector, outermost first
+   * @param leaf the leaf vector
+   * @param varValueSizeLimit the maximum size of a variable width value
+   * @param stats the stats of the reader, updated with the skipped pages
+   */
+  ColumnChunkDecoder(ColumnDescriptor descriptor, ColumnChunkIncReadStore pages, OffsetIndex offsetIndex,
+                     List<VectorNode> path, ValueVector leaf, int varValueSizeLimit, ParquetReaderStats stats) {
+    this.descriptor = descriptor;
+    this.pages = pages;
+    this.pageReader = pages.getPageReader(descriptor);
+    this.path = path.toArray(new VectorNode[0]);
+    this.writer = newWriter(leaf, varValueSizeLimit);
+    this.maxDefinitionLevel = descriptor.getMaxDefinitionLevel();
+    this.maxRepetitionLevel = descriptor.getMaxRepetitionLevel();
+    // the first row of a page is the first value of the page only if the column is not repeated
+    this.offsetIndex = maxRepetitionLevel == 0 ? offsetIndex : null;
+    this.stats = stats;
+    this.lists = new int[this.path.length];
+    this.elements = new int[this.path.length];
+
+    for (VectorNode node : this.path) {
+      if (node.owner == null) {
+        node.owner = this;
+      }
+    }
+  }
+
+  /**
+   * Can the values of a column be decoded into a vector.
+   */
+  static boolean isDecodable(ValueVector vector, PrimitiveType type) {
+    final OriginalType originalType = type.getOriginalType();
+    switch (type.getPrimitiveTypeName()) {
+      case BOOLEAN:
+        return vector instanceof BitVector;
+      case INT32:
+        return vector instanceof IntVector && originalType != OriginalType.DECIMAL
+          && originalType != OriginalType.DATE && originalType != OriginalType.TIME_MILLIS;
+      case INT64:
+        return vector instanceof BigIntVector && originalType != OriginalType.DECIMAL
+          && originalType != OriginalType.TIMESTAMP_MILLIS;
+      case FLOAT:
+        return vector instanceof Float4Vector;
+      case DOUBLE:
+        return vector instanceof Float8Vector;
+      case BINARY:
+        return (vector instanceof VarCharVector || vector instanceof VarBinaryVector)
+          && originalType != OriginalType.DECIMAL;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Read the values of the next rows.
+   *
+   * @param rows the number of rows to read
+   * @return the number of rows read, less than requested only at the end of the column chunk
+   */
+  int readBatch(int rows) throws IOException {
+    startBatch();
+    return readRows(0, rows);
+  }
+
+  /**
+   * Start a new batch, read by one or more calls to {@link #readRows(int, int)}.
+   */
+  void startBatch() {
+    Arrays.fill(elements, 0);
+  }
+
+  /**
+   * Read the values of the next rows in the current batch.
+   *
+   * @param offset the index in the batch of the first row
+   * @param rows the number of rows to read
+   * @return the number of rows read, less than requested only at the end of the column chunk
+   */
+  int readRows(int offset, int rows) throws IOException {
+    if (!dictionaryLoaded) {
+      loadDictionary();
+    }
+
+    final int end = offset + rows;
+    int row = offset - 1;
+    while (readLevels()) {
+      if (repetitionLevel == 0) {
+        if (row + 1 == end) {
+          // first value of the next rows
+          break;
+        }
+        row++;
+      }
+      pending = false;
+      writeValue(row);
+    }
+    rowsRead += row + 1 - offset;
+    return row + 1 - offset;
+  }
+
+  /**
+   * Skip the next rows.
+   *
+   * @param rows the number of rows to skip, all in the column chunk
+   */
+  void skipRows(long rows) throws IOException {
+    if (!dictionaryLoaded) {
+      loadDictionary();
+    }
+
+    final long target = rowsRead + rows;
+    while (true) {
+      if (!pending && valuesLeftInPage == 0 && offsetIndex != null) {
+        skipPages(target);
+      }
+      if (!readLevels()) {
+        break;
+      }
+      if (repetitionLevel == 0) {
+        if (rowsRead == target) {
+          // first value of the next row to read
+          break;
+        }
+        rowsRead++;
+      }
+      pending = false;
+      if (definitionLevel == maxDefinitionLevel) {
+        values.skip();
+      }
+    }
+  }
+
+  /**
+   * Skip the pages ending before the target row, without reading them. The current page must be read entirely.
+   */
+  private void skipPages(long target) throws IOException {
+    int page = pageIndex;
+    long bytes = 0;
+    while (page + 1 < offsetIndex.getPageCount() && offsetIndex.getFirstRowIndex(page + 1) <= target) {
+      bytes += offsetIndex.getCompressedPageSize(page);
+      page++;
+    }
+    if (page == pageIndex) {
+      return;
+    }
+
+    final long firstRow = offsetIndex.getFirstRowIndex(page);
+    pages.skipPages(descriptor, offsetIndex.getOffset(page), firstRow - rowsRead);
+    stats.numPagesSkipped += page - pageIndex;
+    stats.totalPageBytesSkipped += bytes;
+    rowsRead = firstRow;
+    pageIndex = page;
+  }
+
+  private void writeValue(int row) {
+    int index = row;
+    boolean newValue = repetitionLevel == 0;
+    for (int i = 0; i < path.length; i++) {
+      final VectorNode node = path[i];
+      final boolean owner = node.owner == this;
+      if (node.isStruct()) {
+        if (newValue) {
+          if (definitionLevel < node.definitionLevel) {
+            // null struct
+            return;
+          }
+          if (owner) {
+            ((StructVector) node.vector).setIndexDefined(index);
+          }
+        }
+        continue;
+      }
+
+      final ListVector list = (ListVector) node.vector;
+      if (newValue) {
+        lists[i] = index;
+        if (definitionLevel < node.definitionLevel) {
+          // null list
+          return;
+        }
+        if (owner) {
+          list.startNewValue(index);
+        }
+        if (definitionLevel < node.elementDefinitionLevel) {
+          // empty list
+          return;
+        }
+      } else if (repetitionLevel > node.repetitionLevel) {
+        // value of the current element of the list
+        index = elements[i] - 1;
+        continue;
+      }
+
+      // new element of the list
+      if (owner) {
+        list.endValue(lists[i], 1);
+      }
+      index = elements[i]++;
+      newValue = true;
+    }
+
+    if (definitionLevel == maxDefinitionLevel) {
+      if (dictionaryEncoded) {
+        writer.writeDictionaryValue(index, values.readValueDictionaryId());
+      } else {
+        writer.write(index, values);
+      }
+    }
+  }
+
+  private boolean readLevels() throws IOException {
+    if (pending) {
+      return true;
+    }
+    if (valuesLeftInPage == 0 && !readPage()) {
+      return false;
+    }
+    repetitionLevel = repetitionLevels.readLevel();
+    definitionLevel = definitionLevels.readLevel();
+    valuesLeftInPage--;
+    pending = true;
+    return true;
+  }
+
+  private void loadDictionary() throws IOException {
+    final DictionaryPage dictionaryPage = pageReader.readDictionaryPage();
+    if (dictionaryPage != null) {
+      dictionary = dictionaryPage.getEncoding().initDictionary(descriptor, dictionaryPage);
+      writer.loadDictionary(dictionary);
+    }
+    dictionaryLoaded = true;
+  }
+
+  private boolean readPage() throws IOException {
+    final DataPage page = pageReader.readPage();
+    if (page == null) {
+      return false;
+    }
+
+    pageIndex++;
+    valuesLeftInPage = page.getValueCount();
+    if (page instanceof DataPageV1) {
+      final DataPageV1 pageV1 = (DataPageV1) page;
+      final ByteBuffer buffer = pageV1.getBytes().toByteBuffer();
+      int offset = 0;
+      repetitionLevels = NO_LEVELS;
+      if (maxRepetitionLevel > 0) {
+        final ValuesReader reader = pageV1.getRlEncoding().getValuesReader(descriptor, ValuesType.REPETITION_LEVEL);
+        reader.initFromPage(valuesLeftInPage, buffer, offset);
+        offset = reader.getNextOffset();
+        repetitionLevels = reader::readInteger;
+      }
+      definitionLevels = NO_LEVELS;
+      if (maxDefinitionLevel > 0) {
+        final ValuesReader reader = pageV1.getDlEncoding().getValuesReader(descriptor, ValuesType.DEFINITION_LEVEL);
+        reader.initFromPage(valuesLeftInPage, buffer, offset);
+        offset = reader.getNextOffset();
+        definitionLevels = reader::readInteger;
+      }
+      initValues(pageV1.getValueEncoding(), buffer, offset);
+    } else {
+      // levels of v2 pages are not prefixed by their length
+      final DataPageV2 pageV2 = (DataPageV2) page;
+      repetitionLevels = newLevelReader(maxRepetitionLevel, pageV2.getRepetitionLevels());
+      definitionLevels = newLevelReader(maxDefinitionLevel, pageV2.getDefinitionLevels());
+      initValues(pageV2.getDataEncoding(), pageV2.getData().toByteBuffer(), 0);
+    }
+    return true;
+  }
+
+  private void initValues(Encoding encoding, ByteBuffer buffer, int offset) throws IOException {
+    if (encoding.usesDictionary()) {
+      if (dictionary == null) {
+        throw new ParquetDecodingException("Dictionary encoded page without a dictionary in column " + descriptor);
+      }
+      values = new DictionaryValuesReader(dictionary);
+      dictionaryEncoded = true;
+    } else {
+      values = encoding.getValuesReader(descriptor, ValuesType.VALUES);
+      dictionaryEncoded = false;
+    }
+    values.initFromPage(valuesLeftInPage, buffer, offset);
+  }
+
+  private static LevelReader newLevelReader(int maxLevel, BytesInput levels) throws IOException {
+    if (maxLevel == 0) {
+      return NO_LEVELS;
+    }
+    final RunLengthBitPackingHybridDecoder decoder = new RunLengthBitPackingHybridDecoder(
+      BytesUtils.getWidthFromMaxInt(maxLevel), new ByteArrayInputStream(levels.toByteArray()));
+    return decoder::readInt;
+  }
+
+  private static ValueWriter newWriter(ValueVector vector, int varValueSizeLimit) {
+    if (vector instanceof BitVector) {
+      return new BitWriter((BitVector) vector);
+    } else if (vector instanceof IntVector) {
+      return new IntWriter((IntVector) vector);
+    } else if (vector instanceof BigIntVector) {
+      return new BigIntWriter((BigIntVector) vector);
+    } else if (vector instanceof Float4Vector) {
+      return new Float4Writer((Float4Vector) vector);
+    } else if (vector instanceof Float8Vector) {
+      return new Float8Writer((Float8Vector) vector);
+    } else if (vector instanceof BaseVariableWidthVector) {
+      return new VariableWidthWriter((BaseVariableWidthVector) vector, varValueSizeLimit);
+    }
+    throw new UnsupportedOperationException("Unsupported vector " + vector.getField());
+  }
+
+  /**
+   * A struct or a list vector above the leaf vector of a column.
+   */
+  static final class VectorNode {
+    private final ValueVector vector;
+    // minimum definition level of a non null struct or list
+    private final int definitionLevel;
+    // minimum definition level of a non empty list
+    private final int elementDefinitionLevel;
+    // repetition level of the elements of the list
+    private final int repetitionLevel;
+    // the column writing the validity or offsets of the vector
+    private ColumnChunkDecoder owner;
+
+    private VectorNode(ValueVector vector, int definitionLevel, int elementDefinitionLevel, int repetitionLevel) {
+      this.vector = vector;
+      this.definitionLevel = definitionLevel;
+      this.elementDefinitionLevel = elementDefinitionLevel;
+      this.repetitionLevel = repetitionLevel;
+    }
+
+    static VectorNode struct(StructVector vector, int definitionLevel) {
+      return new VectorNode(vector, definitionLevel, -1, -1);
+    }
+
+    static VectorNode list(ListVector vector, int definitionLevel, int elementDefinitionLevel, int repetitionLevel) {
+      return new VectorNode(vector, definitionLevel, elementDefinitionLevel, repetitionLevel);
+    }
+
+    private boolean isStruct() {
+      return vector instanceof StructVector;
+    }
+  }
+
+  @FunctionalInterface
+  private interface LevelReader {
+    int readLevel() throws IOException;
+  }
+
+  /**
+   * Writes the values of a column to its vector.
+   */
+  private abstract static class ValueWriter {
+    /**
+     * Decode the values of the dictionary of the column chunk.
+     */
+    abstract void loadDictionary(Dictionary dictionary);
+
+    abstract void write(int index, ValuesReader reader);
+
+    abstract void writeDictionaryValue(int index, int id);
+  }
+
+  private static final class BitWriter extends ValueWriter {
+    private final BitVector vector;
+    private boolean[] dictionary;
+
+    private BitWriter(BitVector vector) {
+      this.vector = vector;
+    }
+
+    @Override
+    void loadDictionary(Dictionary dictionary) {
+      this.dictionary = new boolean[dictionary.getMaxId() + 1];
+      for (int id = 0; id < this.dictionary.length; id++) {
+        this.dictionary[id] = dictionary.decodeToBoolean(id);
+      }
+    }
+
+    @Override
+    void write(int index, ValuesReader reader) {
+      vector.setSafe(index, reader.readBoolean() ? 1 : 0);
+    }
+
+    @Override
+    void writeDictionaryValue(int index, int id) {
+      vector.setSafe(index, dictionary[id] ? 1 : 0);
+    }
+  }
+
+  private static final class IntWriter extends ValueWriter {
+    private final IntVector vector;
+    private int[] dictionary;
+
+    private IntWriter(IntVector vector) {
+      this.vector = vector;
+    }
+
+    @Override
+    void loadDictionary(Dictionary dictionary) {
+      this.dictionary = new int[dictionary.getMaxId() + 1];
+      for (int id = 0; id < this.dictionary.length; id++) {
+        this.dictionary[id] = dictionary.decodeToInt(id);
+      }
+    }
+
+    @Override
+    void write(int index, ValuesReader reader) {
+      vector.setSafe(index, reader.readInteger());
+    }
+
+    @Override
+    void writeDictionaryValue(int index, int id) {
+      vector.setSafe(index, dictionary[id]);
+    }
+  }
+
+  private static final class BigIntWriter extends ValueWriter {
+    private final BigIntVector vector;
+    private long[] dictionary;
+
+    private BigIntWriter(BigIntVector vector) {
+      this.vector = vector;
+    }
+
+    @Override
+    void loadDictionary(Dictionary dictionary) {
+      this.dictionary = new long[dictionary.getMaxId() + 1];
+      for (int id = 0; id < this.dictionary.length; id++) {
+        this.dictionary[id] = dictionary.decodeToLong(id);
+      }
+    }
+
+    @Override
+    void write(int index, ValuesReader reader) {
+      vector.setSafe(index, reader.readLong());
+    }
+
+    @Override
+    void writeDictionaryValue(int index, int id) {
+      vector.setSafe(index, dictionary[id]);
+    }
+  }
+
+  private static final class Float4Writer extends ValueWriter {
+    private final Float4Vector vector;
+    private float[] dictionary;
+
+    private Float4Writer(Float4Vector vector) {
+      this.vector = vector;
+    }
+
+    @Override
+    void loadDictionary(Dictionary dictionary) {
+      this.dictionary = new float[dictionary.getMaxId() + 1];
+      for (int id = 0; id < this.dictionary.length; id++) {
+        this.dictionary[id] = dictionary.decodeToFloat(id);
+      }
+    }
+
+    @Override
+    void write(int index, ValuesReader reader) {
+      vector.setSafe(index, reader.readFloat());
+    }
+
+    @Override
+    void writeDictionaryValue(int index, int id) {
+      vector.setSafe(index, dictionary[id]);
+    }
+  }
+
+  private static final class Float8Writer extends ValueWriter {
+    private final Float8Vector vector;
+    private double[] dictionary;
+
+    private Float8Writer(Float8Vector vector) {
+      this.vector = vector;
+    }
+
+    @Override
+    void loadDictionary(Dictionary dictionary) {
+      this.dictionary = new double[dictionary.getMaxId() + 1];
+      for (int id = 0; id < this.dictionary.length; id++) {
+        this.dictionary[id] = dictionary.decodeToDouble(id);
+      }
+    }
+
+    @Override
+    void write(int index, ValuesReader reader) {
+      vector.setSafe(index, reader.readDouble());
+    }
+
+    @Override
+    void writeDictionaryValue(int index, int id) {
+      vector.setSafe(index, dictionary[id]);
+    }
+  }
+
+  /**
+   * Writes binary values, the dictionary being decoded in a single array.
+   */
+  private static final class VariableWidthWriter extends ValueWriter {
+    private final BaseVariableWidthVector vector;
+    private final int varValueSizeLimit;
+    private byte[] dictionary;
+    private int[] offsets;
+
+    private VariableWidthWriter(BaseVariableWidthVector vector, int varValueSizeLimit) {
+      this.vector = vector;
+      this.varValueSizeLimit = varValueSizeLimit;
+    }
+
+    @Override
+    void loadDictionary(Dictionary dictionary) {
+      final int size = dictionary.getMaxId() + 1;
+      offsets = new int[size + 1];
+      for (int id = 0; id < size; id++) {
+        offsets[id + 1] = offsets[id] + dictionary.decodeToBinary(id).length();
+      }
+      this.dictionary = new byte[offsets[size]];
+      for (int id = 0; id < size; id++) {
+        final ByteBuffer value = dictionary.decodeToBinary(id).toByteBuffer();
+        value.get(this.dictionary, offsets[id], offsets[id + 1] - offsets[id]);
+      }
+    }
+
+    @Override
+    void write(int index, ValuesReader reader) {
+      final Binary value = reader.readBytes();
+      checkSizeLimit(value.length(), varValueSizeLimit, logger);
+      final ByteBuffer buffer = value.toByteBuffer();
+      vector.setSafe(index, buffer, buffer.position(), value.length());
+    }
+
+    @Override
+    void writeDictionaryValue(int index, int id) {
+      final int length = offsets[id + 1] - offsets[id];
+      checkSizeLimit(length, varValueSizeLimit, logger);
+      vector.setSafe(index, dictionary, offsets[id], length);
+    }
+  }
+}
@@ -0,0 +1,503 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet.columnar;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.arrow.memory.OutOfMemoryException;
+import org.apache.arrow.vector.SimpleIntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.parquet.compression.CompressionCodecFactory;
+import org.apache.parquet.hadoop.ColumnChunkIncReadStore;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.internal.column.columnindex.ColumnIndex;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.Type;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.exceptions.ExecutionSetupException;
+import com.dremio.common.exceptions.UserException;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.store.parquet.AbstractParquetReader;
+import com.dremio.exec.store.parquet.ColumnIndexProvider;
+import com.dremio.exec.store.parquet.InputStreamProvider;
+import com.dremio.exec.store.parquet.MutableParquetMetadata;
+import com.dremio.exec.store.parquet.OffsetIndexProvider;
+import com.dremio.exec.store.parquet.ParquetColumnResolver;
+import com.dremio.exec.store.parquet.ParquetFilterCondition;
+import com.dremio.exec.store.parquet.ParquetReaderStats;
+import com.dremio.exec.store.parquet.ParquetScanProjectedColumns;
+import com.dremio.exec.store.parquet.SchemaDerivationHelper;
+import com.dremio.exec.store.parquet.columnar.ColumnChunkDecoder.VectorNode;
+import com.dremio.exec.store.parquet.columnar.PageFilter.Predicate;
+import com.dremio.exec.store.parquet.columnar.PageFilter.Range;
+import com.dremio.exec.store.parquet2.LogicalListL1Converter;
+import com.dremio.exec.store.parquet2.ParquetRowiseReader;
+import com.dremio.io.file.Path;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.sabot.op.scan.OutputMutator;
+import com.dremio.sabot.op.scan.ScanOperator;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Columnar reader of a row group of a parquet file, decoding the pages of each column straight into its Arrow vector.
+ *
+ * Primitive columns, structs and lists are decoded by this reader. Columns it can't decode, such as maps, unions,
+ * columns with a type different from the table schema or columns not yet in the table schema, are read by a
+ * {@link ParquetRowiseReader} over the same rows.
+ *
+ * If deltas are given, the rows of the pages that can't match the filter conditions, according to the column indexes
+ * of the file, are skipped and the deltas are filled with the number of rows skipped before each row read. Without
+ * deltas, all the rows are read.
+ *
+ * A reader can also read only the rows selected by the reader of the filtered columns of the same row group, so that
+ * the columns not used by the filter are only decoded for the rows passing it.
+ */
+public class ColumnarParquetReader extends AbstractParquetReader {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ColumnarParquetReader.class);
+
+  private final ParquetScanProjectedColumns projectedColumns;
+  private final String path;
+  private final CompressionCodecFactory codecFactory;
+  private final MutableParquetMetadata footer;
+  private final int rowGroupIndex;
+  private final SchemaDerivationHelper schemaHelper;
+  private final InputStreamProvider inputStreamProvider;
+  private final List<ParquetFilterCondition> conditions;
+  // number of rows to skip before each row to read, null if the rows are not selected by another reader
+  private final SimpleIntVector selectedRows;
+  private final ParquetReaderStats stats = new ParquetReaderStats();
+
+  private final List<ColumnChunkDecoder> decoders = new ArrayList<>();
+  // top level vectors filled by this reader, including the vectors of the columns missing from the file
+  private final List<ValueVector> vectors = new ArrayList<>();
+  private ColumnChunkIncReadStore pageReadStore;
+  private ParquetRowiseReader rowwiseReader;
+  private long rowCount;
+  private long totalRead;
+  // rows that may match the filter conditions, null if all the rows are read
+  private List<Range> rowRanges;
+  private int rangeIndex;
+  private OffsetIndexProvider offsetIndexes;
+
+  public ColumnarParquetReader(OperatorContext context, ParquetScanProjectedColumns projectedColumns, String path,
+                               CompressionCodecFactory codecFactory, MutableParquetMetadata footer, int rowGroupIndex,
+                               SimpleIntVector deltas, SchemaDerivationHelper schemaHelper,
+                               InputStreamProvider inputStreamProvider, List<ParquetFilterCondition> conditions,
+                               SimpleIntVector selectedRows) {
+    super(context, projectedColumns.getBatchSchemaProjectedColumns(), deltas);
+    this.projectedColumns = projectedColumns;
+    this.path = path;
+    this.codecFactory = codecFactory;
+    this.footer = footer;
+    this.rowGroupIndex = rowGroupIndex;
+    this.schemaHelper = schemaHelper;
+    this.inputStreamProvider = inputStreamProvider;
+    this.conditions = conditions == null ? ImmutableList.of() : conditions;
+    this.selectedRows = selectedRows;
+    Preconditions.checkArgument(selectedRows == null || deltas == null,
+      "A reader of the selected rows doesn't select rows");
+  }
+
+  @Override
+  public void setup(OutputMutator output) throws ExecutionSetupException {
+    final MessageType schema = footer.getFileMetaData().getSchema();
+    final ParquetColumnResolver columnResolver = projectedColumns.getColumnResolver(schema);
+    final Map<ColumnPath, ColumnChunkMetaData> chunks = new HashMap<>();
+    if (!footer.getBlocks().isEmpty()) {
+      final BlockMetaData block = footer.getBlocks().get(rowGroupIndex);
+      Preconditions.checkArgument(block != null, "Parquet footer does not contain information about row group");
+      rowCount = block.getRowCount();
+      for (ColumnChunkMetaData chunk : block.getColumns()) {
+        chunks.put(chunk.getPath(), chunk);
+      }
+    }
+
+    final List<SchemaPath> rowwiseColumns = new ArrayList<>();
+    try {
+      if (deltas != null && selectedRows == null && !conditions.isEmpty() && !chunks.isEmpty()
+        && context.getOptions().getOption(ExecConstants.PARQUET_READER_PAGE_PRUNING)) {
+        setupRowRanges(schema, columnResolver, chunks);
+      } else if (selectedRows != null && !chunks.isEmpty()) {
+        // the offset indexes are used to skip the pages without selected rows
+        final List<ColumnChunkMetaData> columns = ImmutableList.copyOf(chunks.values());
+        inputStreamProvider.enableColumnIndices(columns);
+        offsetIndexes = inputStreamProvider.getOffsetIndexProvider(columns);
+      }
+      pageReadStore = new ColumnChunkIncReadStore(rowCount, codecFactory, context.getAllocator(), Path.of(path),
+        inputStreamProvider);
+
+      for (Map.Entry<String, List<SchemaPath>> column : getProjectedColumns(schema, columnResolver).entrySet()) {
+        final ValueVector vector = output.getVector(column.getKey());
+        final Type field = getField(schema, columnResolver.getParquetColumnName(column.getKey()));
+        if (field == null) {
+          // not in the file, the vector is left null
+          if (vector != null) {
+            vectors.add(vector);
+          }
+          continue;
+        }
+
+        final List<String> fieldPath = ImmutableList.of(field.getName());
+        if (vector != null && (field.isPrimitive() || isWholeColumn(column.getValue()))
+          && isDecodable(vector, field, fieldPath, chunks)) {
+          addDecoders(vector, field, fieldPath, ImmutableList.of(), 0, 0, schema, chunks);
+          vectors.add(vector);
+        } else {
+          rowwiseColumns.addAll(column.getValue());
+        }
+      }
+    } catch (IOException e) {
+      throw new ExecutionSetupException("Failure while setting up the columnar reader of " + path, e);
+    }
+
+    if (!rowwiseColumns.isEmpty()) {
+      logger.debug("Reading columns {} of {} row wise", rowwiseColumns, path);
+      rowwiseReader = new ParquetRowiseReader(context, footer, rowGroupIndex, path,
+        projectedColumns.cloneForSchemaPaths(rowwiseColumns), null, schemaHelper, getRowwiseDeltas(),
+        inputStreamProvider, codecFactory);
+      rowwiseReader.setup(output);
+    }
+  }
+
+  private SimpleIntVector getRowwiseDeltas() {
+    if (selectedRows != null) {
+      return selectedRows;
+    }
+    return rowRanges != null ? deltas : null;
+  }
+
+  /**
+   * Find the rows that may match the filter conditions from the column indexes of the filtered columns, and load the
+   * offset indexes used to skip the pages of the other rows.
+   */
+  private void setupRowRanges(MessageType schema, ParquetColumnResolver columnResolver,
+                              Map<ColumnPath, ColumnChunkMetaData> chunks) throws IOException {
+    final List<Predicate> predicates = PageFilter.getPredicates(conditions);
+    if (predicates.isEmpty()) {
+      return;
+    }
+
+    final List<ColumnChunkMetaData> columns = ImmutableList.copyOf(footer.getBlocks().get(rowGroupIndex).getColumns());
+    inputStreamProvider.enableColumnIndices(columns);
+    offsetIndexes = inputStreamProvider.getOffsetIndexProvider(columns);
+    if (offsetIndexes == null) {
+      return;
+    }
+
+    List<Range> ranges = PageFilter.all(rowCount);
+    try (ColumnIndexProvider columnIndexes = inputStreamProvider.getColumnIndexProvider(columns)) {
+      if (columnIndexes == null) {
+        return;
+      }
+      for (Predicate predicate : predicates) {
+        if (!predicate.getColumn().isSimplePath()) {
+          continue;
+        }
+        final Type field = getField(schema,
+          columnResolver.getParquetColumnName(predicate.getColumn().getRootSegment().getPath()));
+        if (field == null || !field.isPrimitive()) {
+          continue;
+        }
+        final ColumnChunkMetaData chunk = chunks.get(ColumnPath.get(field.getName()));
+        final ColumnIndex columnIndex = chunk == null ? null : columnIndexes.getColumnIndex(chunk);
+        final OffsetIndex offsetIndex = chunk == null ? null : offsetIndexes.getOffsetIndex(chunk);
+        if (columnIndex == null || offsetIndex == null) {
+          continue;
+        }
+        final List<Range> predicateRanges = PageFilter.getRowRanges(predicate, field.asPrimitiveType(), columnIndex,
+          offsetIndex, rowCount);
+        if (predicateRanges != null) {
+          ranges = PageFilter.intersect(ranges, predicateRanges);
+        }
+      }
+    }
+
+    if (!ranges.equals(PageFilter.all(rowCount))) {
+      logger.debug("Reading rows {} of row group {} of {}", ranges, rowGroupIndex, path);
+      rowRanges = ranges;
+    }
+  }
+
+  /**
+   * Projected columns, grouped by top level column.
+   */
+  private Map<String, List<SchemaPath>> getProjectedColumns(MessageType schema, ParquetColumnResolver columnResolver) {
+    final Map<String, List<SchemaPath>> columns = new LinkedHashMap<>();
+    if (isStarQuery()) {
+      for (Type field : schema.getFields()) {
+        final String name = columnResolver.getBatchSchemaColumnName(field.getName());
+        if (name != null) {
+          columns.put(name, ImmutableList.of(SchemaPath.getSimplePath(name)));
+        }
+      }
+      return columns;
+    }
+
+    for (SchemaPath column : getColumns()) {
+      columns.computeIfAbsent(column.getRootSegment().getPath(), k -> new ArrayList<>()).add(column);
+    }
+    return columns;
+  }
+
+  private static boolean isWholeColumn(List<SchemaPath> columns) {
+    return columns.stream().anyMatch(SchemaPath::isSimplePath);
+  }
+
+  private static Type getField(GroupType group, String name) {
+    if (name == null) {
+      return null;
+    }
+    if (group.containsField(name)) {
+      return group.getType(name);
+    }
+    for (Type field : group.getFields()) {
+      if (field.getName().equalsIgnoreCase(name)) {
+        return field;
+      }
+    }
+    return null;
+  }
+
+  private static ValueVector getChild(StructVector vector, String name) {
+    for (ValueVector child : vector.getChildrenFromFields()) {
+      if (child.getName().equalsIgnoreCase(name)) {
+        return child;
+      }
+    }
+    return null;
+  }
+
+  private static List<String> append(List<String> path, String... names) {
+    return ImmutableList.<String>builder().addAll(path).add(names).build();
+  }
+
+  /**
+   * Can a parquet field be decoded into a vector. All the children of structs must be in the vector, so that new
+   * fields are learnt by the row wise reader.
+   */
+  private boolean isDecodable(ValueVector vector, Type type, List<String> path,
+                              Map<ColumnPath, ColumnChunkMetaData> chunks) {
+    if (type.isRepetition(Type.Repetition.REPEATED)) {
+      // repeated fields outside of a list
+      return false;
+    }
+
+    if (type.isPrimitive()) {
+      final ColumnChunkMetaData chunk = chunks.get(ColumnPath.get(path.toArray(new String[0])));
+      return chunk != null && ColumnarParquetReaderFactory.isSupportedChunk(chunk)
+        && ColumnChunkDecoder.isDecodable(vector, type.asPrimitiveType());
+    }
+
+    final GroupType group = type.asGroupType();
+    if (vector instanceof ListVector) {
+      if (group.getOriginalType() != OriginalType.LIST || !LogicalListL1Converter.isSupportedSchema(group)) {
+        return false;
+      }
+      final GroupType repeated = group.getType(0).asGroupType();
+      final Type element = repeated.getType(0);
+      return isDecodable(((ListVector) vector).getDataVector(), element,
+        append(path, repeated.getName(), element.getName()), chunks);
+    }
+
+    if (vector instanceof StructVector && group.getOriginalType() == null && group.getFieldCount() > 0) {
+      for (Type child : group.getFields()) {
+        final ValueVector childVector = getChild((StructVector) vector, child.getName());
+        if (childVector == null || !isDecodable(childVector, child, append(path, child.getName()), chunks)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  private void addDecoders(ValueVector vector, Type type, List<String> path, List<VectorNode> nodes,
+                           int definitionLevel, int repetitionLevel, MessageType schema,
+                           Map<ColumnPath, ColumnChunkMetaData> chunks) throws IOException {
+    final int level = type.isRepetition(Type.Repetition.REQUIRED) ? definitionLevel : definitionLevel + 1;
+    if (type.isPrimitive()) {
+      final String[] columnPath = path.toArray(new String[0]);
+      final ColumnChunkMetaData chunk = chunks.get(ColumnPath.get(columnPath));
+      pageReadStore.addColumn(schema.getColumnDescription(columnPath), chunk);
+      // pages are only skipped when some rows can't match the filter conditions or are not selected
+      final OffsetIndex offsetIndex = (rowRanges != null || selectedRows != null) && offsetIndexes != null
+        ? offsetIndexes.getOffsetIndex(chunk) : null;
+      decoders.add(new ColumnChunkDecoder(schema.getColumnDescription(columnPath), pageReadStore, offsetIndex, nodes,
+        vector, varValueSizeLimit, stats));
+      return;
+    }
+
+    final GroupType group = type.asGroupType();
+    if (vector instanceof ListVector) {
+      final GroupType repeated = group.getType(0).asGroupType();
+      final Type element = repeated.getType(0);
+      final VectorNode node = VectorNode.list((ListVector) vector, level, level + 1, repetitionLevel + 1);
+      addDecoders(((ListVector) vector).getDataVector(), element, append(path, repeated.getName(), element.getName()),
+        ImmutableList.<VectorNode>builder().addAll(nodes).add(node).build(), level + 1, repetitionLevel + 1, schema,
+        chunks);
+      return;
+    }
+
+    final VectorNode node = VectorNode.struct((StructVector) vector, level);
+    final List<VectorNode> childNodes = ImmutableList.<VectorNode>builder().addAll(nodes).add(node).build();
+    for (Type child : group.getFields()) {
+      addDecoders(getChild((StructVector) vector, child.getName()), child, append(path, child.getName()), childNodes,
+        level, repetitionLevel, schema, chunks);
+    }
+  }
+
+  @Override
+  public void allocate(Map<String, ValueVector> vectorMap) throws OutOfMemoryException {
+    for (final ValueVector v : vectorMap.values()) {
+      v.allocateNew();
+    }
+  }
+
+  @Override
+  public int next() {
+    final int rows;
+    try {
+      rows = selectedRows != null ? readSelectedRows() : readNextRows();
+      if (rows == 0) {
+        if (deltas != null) {
+          deltas.setValueCount(0);
+        }
+        return 0;
+      }
+      for (ValueVector vector : vectors) {
+        vector.setValueCount(rows);
+      }
+      if (rowwiseReader != null) {
+        final int read = rowwiseReader.next();
+        Preconditions.checkState(read == rows, "Read %s rows row wise instead of %s", read, rows);
+      }
+    } catch (Throwable t) {
+      throw UserException.dataReadError(t)
+        .message("Failed to read data from parquet file")
+        .addContext("File path", path)
+        .addContext("Rowgroup index", rowGroupIndex)
+        .addContext("No. of rows read so far in current rowgroup", totalRead)
+        .addContext("Max no. rows in current rowgroup", rowCount)
+        .build(logger);
+    }
+    return rows;
+  }
+
+  /**
+   * Read the next rows from a single range of rows, after skipping the rows before it.
+   */
+  private int readNextRows() throws IOException {
+    long skip = 0;
+    long end = rowCount;
+    if (rowRanges != null) {
+      while (rangeIndex < rowRanges.size() && rowRanges.get(rangeIndex).getTo() <= totalRead) {
+        rangeIndex++;
+      }
+      if (rangeIndex == rowRanges.size()) {
+        return 0;
+      }
+      skip = Math.max(0, rowRanges.get(rangeIndex).getFrom() - totalRead);
+      end = rowRanges.get(rangeIndex).getTo();
+    }
+    if (totalRead + skip >= end) {
+      return 0;
+    }
+
+    final int rows = (int) Math.min(numRowsPerBatch, end - totalRead - skip);
+    for (ColumnChunkDecoder decoder : decoders) {
+      if (skip > 0) {
+        decoder.skipRows(skip);
+      }
+      final int read = decoder.readBatch(rows);
+      Preconditions.checkState(read == rows, "Read %s rows from a column instead of %s", read, rows);
+    }
+    if (deltas != null) {
+      // read by the row wise readers of the other columns
+      deltas.setSafe(0, Math.toIntExact(skip));
+      for (int i = 1; i < rows; i++) {
+        deltas.setSafe(i, 0);
+      }
+      deltas.setValueCount(rows);
+    }
+    totalRead += skip + rows;
+    return rows;
+  }
+
+  /**
+   * Read the rows selected by the reader of the filtered columns, one run of consecutive rows at a time.
+   */
+  private int readSelectedRows() throws IOException {
+    final int rows = selectedRows.getValueCount();
+    for (ColumnChunkDecoder decoder : decoders) {
+      decoder.startBatch();
+    }
+    int start = 0;
+    while (start < rows) {
+      final int skip = selectedRows.get(start);
+      int end = start + 1;
+      while (end < rows && selectedRows.get(end) == 0) {
+        end++;
+      }
+      for (ColumnChunkDecoder decoder : decoders) {
+        if (skip > 0) {
+          decoder.skipRows(skip);
+        }
+        final int read = decoder.readRows(start, end - start);
+        Preconditions.checkState(read == end - start, "Read %s rows from a column instead of %s", read, end - start);
+      }
+      totalRead += skip + end - start;
+      start = end;
+    }
+    return rows;
+  }
+
+  @Override
+  protected boolean supportsSkipAllQuery() {
+    return true;
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (stats.numPagesSkipped > 0 && context.getStats() != null) {
+      context.getStats().addLongStat(ScanOperator.Metric.NUM_PAGES_PRUNED, stats.numPagesSkipped);
+      context.getStats().addLongStat(ScanOperator.Metric.PAGE_BYTES_PRUNED, stats.totalPageBytesSkipped);
+      stats.numPagesSkipped = 0;
+    }
+    try {
+      if (pageReadStore != null) {
+        pageReadStore.close();
+        pageReadStore = null;
+      }
+    } finally {
+      AutoCloseables.close(rowwiseReader, offsetIndexes);
+    }
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet.columnar;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.SimpleIntVector;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.compression.CompressionCodecFactory;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+import com.dremio.common.expression.FunctionCallFactory;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.exec.record.BatchSchema;
+import com.dremio.exec.store.RecordReader;
+import com.dremio.exec.store.RuntimeFilter;
+import com.dremio.exec.store.parquet.CopyingFilteringReader;
+import com.dremio.exec.store.parquet.InputStreamProvider;
+import com.dremio.exec.store.parquet.ManagedSchema;
+import com.dremio.exec.store.parquet.MutableParquetMetadata;
+import com.dremio.exec.store.parquet.ParquetDictionaryConvertor;
+import com.dremio.exec.store.parquet.ParquetFilterCondition;
+import com.dremio.exec.store.parquet.ParquetFilterCreator;
+import com.dremio.exec.store.parquet.ParquetReaderFactory;
+import com.dremio.exec.store.parquet.ParquetScanProjectedColumns;
+import com.dremio.exec.store.parquet.SchemaDerivationHelper;
+import com.dremio.sabot.exec.context.OperatorContext;
+
+/**
+ * {@link ParquetReaderFactory} of {@link ColumnarParquetReader}.
+ *
+ * Exact filter conditions are applied by a {@link CopyingFilteringReader}, which also fills the deltas used by the
+ * row wise reader of the other columns. All the conditions are used to skip the pages that can't match them. Runtime
+ * filters are not applied by this reader.
+ */
+public class ColumnarParquetReaderFactory implements ParquetReaderFactory {
+
+  private static final Set<PrimitiveTypeName> SUPPORTED_TYPES = EnumSet.of(PrimitiveTypeName.BOOLEAN,
+    PrimitiveTypeName.INT32, PrimitiveTypeName.INT64, PrimitiveTypeName.FLOAT, PrimitiveTypeName.DOUBLE,
+    PrimitiveTypeName.BINARY);
+
+  private static final Set<Encoding> SUPPORTED_ENCODINGS = EnumSet.of(Encoding.PLAIN, Encoding.PLAIN_DICTIONARY,
+    Encoding.RLE_DICTIONARY, Encoding.RLE, Encoding.BIT_PACKED);
+
+  @Override
+  public boolean isSupported(ColumnChunkMetaData chunk) {
+    return isSupportedChunk(chunk);
+  }
+
+  static boolean isSupportedChunk(ColumnChunkMetaData chunk) {
+    return SUPPORTED_TYPES.contains(chunk.getType()) && SUPPORTED_ENCODINGS.containsAll(chunk.getEncodings());
+  }
+
+  @Override
+  public RecordReader newReader(OperatorContext context,
+                                ParquetScanProjectedColumns projectedColumns,
+                                String path,
+                                CompressionCodecFactory codecFactory,
+                                List<ParquetFilterCondition> conditions,
+                                ParquetFilterCreator filterCreator,
+                                ParquetDictionaryConvertor dictionaryConvertor,
+                                boolean enableDetailedTracing,
+                                MutableParquetMetadata footer,
+                                int rowGroupIndex,
+                                SimpleIntVector deltas,
+                                SchemaDerivationHelper schemaHelper,
+                                InputStreamProvider inputStreamProvider,
+                                List<RuntimeFilter> runtimeFilters,
+                                ArrowBuf validityBuf,
+                                BatchSchema tableSchema,
+                                boolean ignoreSchemaLearning) {
+    final List<LogicalExpression> exactConditions = conditions == null ? Collections.emptyList() :
+      conditions.stream()
+        .filter(c -> c.getFilter().exact())
+        .map(ParquetFilterCondition::getExpr)
+        .collect(Collectors.toList());
+    if (exactConditions.isEmpty()) {
+      return new ColumnarParquetReader(context, projectedColumns, path, codecFactory, footer, rowGroupIndex, deltas,
+        schemaHelper, inputStreamProvider, conditions, null);
+    }
+
+    final LogicalExpression filterExpr = exactConditions.size() == 1 ? exactConditions.get(0)
+      : FunctionCallFactory.createBooleanOperator("and", exactConditions);
+    // the rows of the pruned pages are only skipped if the rows filtered out are reported to the other readers
+    final SimpleIntVector readerDeltas = deltas == null ? null
+      : new SimpleIntVector("deltas", context.getAllocator());
+    return new CopyingFilteringReader(
+      new ColumnarParquetReader(context, projectedColumns, path, codecFactory, footer, rowGroupIndex, readerDeltas,
+        schemaHelper, inputStreamProvider, conditions, null),
+      context, filterExpr, readerDeltas, deltas);
+  }
+
+  @Override
+  public RecordReader newSelectedRowsReader(OperatorContext context,
+                                            ParquetScanProjectedColumns projectedColumns,
+                                            String path,
+                                            CompressionCodecFactory codecFactory,
+                                            MutableParquetMetadata footer,
+                                            int rowGroupIndex,
+                                            SimpleIntVector selectedRows,
+                                            SchemaDerivationHelper schemaHelper,
+                                            InputStreamProvider inputStreamProvider) {
+    return new ColumnarParquetReader(context, projectedColumns, path, codecFactory, footer, rowGroupIndex, null,
+      schemaHelper, inputStreamProvider, null, selectedRows);
+  }
+
+  @Override
+  public ParquetFilterCreator newFilterCreator(ManagedSchemaType type, ManagedSchema schema, BufferAllocator allocator) {
+    return ParquetFilterCreator.DEFAULT;
+  }
+
+  @Override
+  public ParquetDictionaryConvertor newDictionaryConvertor(ManagedSchemaType type, ManagedSchema schema) {
+    return ParquetDictionaryConvertor.DEFAULT;
+  }
+}
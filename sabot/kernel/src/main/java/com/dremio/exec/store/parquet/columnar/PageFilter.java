@@ -0,0 +1,348 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet.columnar;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.parquet.internal.column.columnindex.ColumnIndex;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveComparator;
+import org.apache.parquet.schema.PrimitiveType;
+
+import com.dremio.common.expression.BooleanOperator;
+import com.dremio.common.expression.FunctionCall;
+import com.dremio.common.expression.FunctionCallFactory;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.expression.ValueExpressions.DoubleExpression;
+import com.dremio.common.expression.ValueExpressions.FloatExpression;
+import com.dremio.common.expression.ValueExpressions.IntExpression;
+import com.dremio.common.expression.ValueExpressions.LongExpression;
+import com.dremio.common.expression.ValueExpressions.QuotedString;
+import com.dremio.exec.store.parquet.ParquetFilterCondition;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Finds the rows of a row group that may match the filter conditions of a scan, from the min and max values of the
+ * pages of the filtered columns in their column indexes. Only the comparisons of a column to a literal are used, the
+ * other conditions match all the rows.
+ */
+final class PageFilter {
+
+  private PageFilter() {
+  }
+
+  /**
+   * Comparisons of a column to a literal in the conditions. All of them must be true for a row to match.
+   */
+  static List<Predicate> getPredicates(List<ParquetFilterCondition> conditions) {
+    final List<Predicate> predicates = new ArrayList<>();
+    for (ParquetFilterCondition condition : conditions) {
+      addPredicates(condition.getExpr(), predicates);
+    }
+    return predicates;
+  }
+
+  private static void addPredicates(LogicalExpression expr, List<Predicate> predicates) {
+    if (expr instanceof BooleanOperator) {
+      if (((BooleanOperator) expr).isAnd()) {
+        for (LogicalExpression arg : ((BooleanOperator) expr).args) {
+          addPredicates(arg, predicates);
+        }
+      }
+      return;
+    }
+
+    if (!(expr instanceof FunctionCall) || ((FunctionCall) expr).args.size() != 2) {
+      return;
+    }
+    final FunctionCall call = (FunctionCall) expr;
+    final Comparison comparison = Comparison.of(FunctionCallFactory.replaceOpWithFuncName(call.getName()));
+    if (comparison == null) {
+      return;
+    }
+    final LogicalExpression left = call.args.get(0);
+    final LogicalExpression right = call.args.get(1);
+    if (left instanceof SchemaPath) {
+      predicates.add(new Predicate((SchemaPath) left, comparison, right));
+    } else if (right instanceof SchemaPath) {
+      predicates.add(new Predicate((SchemaPath) right, comparison.mirror(), left));
+    }
+  }
+
+  /**
+   * Rows of the pages of a column that may match a predicate.
+   *
+   * @return the ranges of rows, or null if the predicate can't be checked against the column index
+   */
+  static List<Range> getRowRanges(Predicate predicate, PrimitiveType type, ColumnIndex columnIndex,
+                                  OffsetIndex offsetIndex, long rowCount) {
+    final Object literal = toValue(type, predicate.literal);
+    if (literal == null) {
+      return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    final PrimitiveComparator<Object> comparator = (PrimitiveComparator<Object>) type.comparator();
+    final List<Boolean> nullPages = columnIndex.getNullPages();
+    final List<ByteBuffer> minValues = columnIndex.getMinValues();
+    final List<ByteBuffer> maxValues = columnIndex.getMaxValues();
+    if (nullPages.size() != offsetIndex.getPageCount()) {
+      return null;
+    }
+
+    final List<Range> ranges = new ArrayList<>();
+    for (int page = 0; page < offsetIndex.getPageCount(); page++) {
+      // a comparison to null is never true
+      if (nullPages.get(page)) {
+        continue;
+      }
+      final int min = comparator.compare(toValue(type, minValues.get(page)), literal);
+      final int max = comparator.compare(toValue(type, maxValues.get(page)), literal);
+      if (predicate.comparison.mayMatch(min, max)) {
+        final long to = page + 1 < offsetIndex.getPageCount() ? offsetIndex.getFirstRowIndex(page + 1) : rowCount;
+        add(ranges, offsetIndex.getFirstRowIndex(page), to);
+      }
+    }
+    return ranges;
+  }
+
+  /**
+   * Rows in both lists of ranges.
+   */
+  static List<Range> intersect(List<Range> left, List<Range> right) {
+    final List<Range> ranges = new ArrayList<>();
+    int i = 0;
+    int j = 0;
+    while (i < left.size() && j < right.size()) {
+      final Range l = left.get(i);
+      final Range r = right.get(j);
+      add(ranges, Math.max(l.from, r.from), Math.min(l.to, r.to));
+      if (l.to < r.to) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return ranges;
+  }
+
+  static List<Range> all(long rowCount) {
+    return ImmutableList.of(new Range(0, rowCount));
+  }
+
+  private static void add(List<Range> ranges, long from, long to) {
+    if (from >= to) {
+      return;
+    }
+    final int last = ranges.size() - 1;
+    if (last >= 0 && ranges.get(last).to == from) {
+      ranges.set(last, new Range(ranges.get(last).from, to));
+    } else {
+      ranges.add(new Range(from, to));
+    }
+  }
+
+  private static Object toValue(PrimitiveType type, ByteBuffer value) {
+    final ByteBuffer buffer = value.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    switch (type.getPrimitiveTypeName()) {
+      case INT32:
+        return buffer.getInt(buffer.position());
+      case INT64:
+        return buffer.getLong(buffer.position());
+      case FLOAT:
+        return buffer.getFloat(buffer.position());
+      case DOUBLE:
+        return buffer.getDouble(buffer.position());
+      default:
+        return Binary.fromConstantByteBuffer(value);
+    }
+  }
+
+  /**
+   * The literal as a value of the column, or null if it has another type.
+   */
+  private static Object toValue(PrimitiveType type, LogicalExpression literal) {
+    if (type.getOriginalType() == OriginalType.DECIMAL) {
+      // the literal is not scaled
+      return null;
+    }
+    switch (type.getPrimitiveTypeName()) {
+      case INT32:
+        return literal instanceof IntExpression ? ((IntExpression) literal).getInt() : null;
+      case INT64:
+        if (literal instanceof IntExpression) {
+          return (long) ((IntExpression) literal).getInt();
+        }
+        return literal instanceof LongExpression ? ((LongExpression) literal).getLong() : null;
+      case FLOAT:
+        if (literal instanceof FloatExpression && !Float.isNaN(((FloatExpression) literal).getFloat())) {
+          return ((FloatExpression) literal).getFloat();
+        }
+        return null;
+      case DOUBLE:
+        if (literal instanceof FloatExpression && !Float.isNaN(((FloatExpression) literal).getFloat())) {
+          return (double) ((FloatExpression) literal).getFloat();
+        }
+        if (literal instanceof DoubleExpression && !Double.isNaN(((DoubleExpression) literal).getDouble())) {
+          return ((DoubleExpression) literal).getDouble();
+        }
+        return null;
+      case BINARY:
+        return literal instanceof QuotedString ? Binary.fromString(((QuotedString) literal).getString()) : null;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Comparison of a column to a literal.
+   */
+  static final class Predicate {
+    private final SchemaPath column;
+    private final Comparison comparison;
+    private final LogicalExpression literal;
+
+    Predicate(SchemaPath column, Comparison comparison, LogicalExpression literal) {
+      this.column = column;
+      this.comparison = comparison;
+      this.literal = literal;
+    }
+
+    SchemaPath getColumn() {
+      return column;
+    }
+
+    @Override
+    public String toString() {
+      return column + " " + comparison + " " + literal;
+    }
+  }
+
+  enum Comparison {
+    EQUAL,
+    LESS_THAN,
+    LESS_THAN_OR_EQUAL,
+    GREATER_THAN,
+    GREATER_THAN_OR_EQUAL;
+
+    private static Comparison of(String name) {
+      switch (name) {
+        case "equal":
+          return EQUAL;
+        case "less_than":
+          return LESS_THAN;
+        case "less_than_or_equal_to":
+          return LESS_THAN_OR_EQUAL;
+        case "greater_than":
+          return GREATER_THAN;
+        case "greater_than_or_equal_to":
+          return GREATER_THAN_OR_EQUAL;
+        default:
+          return null;
+      }
+    }
+
+    /**
+     * The comparison with the operands swapped.
+     */
+    private Comparison mirror() {
+      switch (this) {
+        case LESS_THAN:
+          return GREATER_THAN;
+        case LESS_THAN_OR_EQUAL:
+          return GREATER_THAN_OR_EQUAL;
+        case GREATER_THAN:
+          return LESS_THAN;
+        case GREATER_THAN_OR_EQUAL:
+          return LESS_THAN_OR_EQUAL;
+        default:
+          return this;
+      }
+    }
+
+    /**
+     * Can a value of a page match the literal.
+     *
+     * @param min the comparison of the min value of the page to the literal
+     * @param max the comparison of the max value of the page to the literal
+     */
+    private boolean mayMatch(int min, int max) {
+      switch (this) {
+        case EQUAL:
+          return min <= 0 && max >= 0;
+        case LESS_THAN:
+          return min < 0;
+        case LESS_THAN_OR_EQUAL:
+          return min <= 0;
+        case GREATER_THAN:
+          return max > 0;
+        case GREATER_THAN_OR_EQUAL:
+          return max >= 0;
+        default:
+          throw new IllegalStateException("Unknown comparison " + this);
+      }
+    }
+  }
+
+  /**
+   * A range of rows, from inclusive to exclusive.
+   */
+  static final class Range {
+    private final long from;
+    private final long to;
+
+    Range(long from, long to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    long getFrom() {
+      return from;
+    }
+
+    long getTo() {
+      return to;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Range range = (Range) o;
+      return from == range.from && to == range.to;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(from) * 31 + Long.hashCode(to);
+    }
+
+    @Override
+    public String toString() {
+      return "[" + from + ", " + to + ")";
+    }
+  }
+}
@@ -44,6 +44,7 @@ import com.dremio.exec.planner.observer.DelegatingAttemptObserver;
 import com.dremio.exec.planner.observer.QueryObserver;
 import com.dremio.exec.planner.physical.HashAggPrel;
 import com.dremio.exec.planner.physical.PlannerSettings;
+import com.dremio.exec.planner.sql.handlers.commands.PlanCache;
 import com.dremio.exec.planner.sql.handlers.commands.PreparedPlan;
 import com.dremio.exec.proto.GeneralRPCProtos;
 import com.dremio.exec.proto.UserBitShared;
@@ -101,6 +102,7 @@ public class Foreman {
   private final QueryObserver observer;
   private final ReAttemptHandler attemptHandler;
   private final Cache<Long, PreparedPlan> plans;
+  private final PlanCache planCache;
   protected final MaestroService maestroService;
   protected final JobTelemetryClient jobTelemetryClient;
 
@@ -123,6 +125,7 @@ public class Foreman {
     final OptionProvider config,
     final ReAttemptHandler attemptHandler,
     Cache<Long, PreparedPlan> plans,
+    PlanCache planCache,
     final MaestroService maestroService,
     final JobTelemetryClient jobTelemetryClient) {
     this.attemptId = AttemptId.of(externalId);
@@ -136,6 +139,7 @@ public class Foreman {
     this.observer = observer;
     this.attemptHandler = attemptHandler;
     this.plans = plans;
+    this.planCache = planCache;
     this.maestroService = maestroService;
     this.jobTelemetryClient = jobTelemetryClient;
   }
@@ -163,7 +167,7 @@ public class Foreman {
     }
 
     attemptManager = newAttemptManager(context, attemptId, request, attemptObserver, session,
-      optionProvider, plans, datasetValidityChecker, commandPool);
+      optionProvider, plans, planCache, datasetValidityChecker, commandPool);
 
     if (request.runInSameThread()) {
       attemptManager.run();
@@ -174,11 +178,11 @@ public class Foreman {
 
   protected AttemptManager newAttemptManager(SabotContext context, AttemptId attemptId, UserRequest queryRequest,
       AttemptObserver observer, UserSession session, OptionProvider options,
-      Cache<Long, PreparedPlan> plans, Predicate<DatasetConfig> datasetValidityChecker,
+      Cache<Long, PreparedPlan> plans, PlanCache planCache, Predicate<DatasetConfig> datasetValidityChecker,
       CommandPool commandPool) {
     final QueryContext queryContext = new QueryContext(session, context, attemptId.toQueryId(),
         queryRequest.getPriority(), queryRequest.getMaxAllocation(), datasetValidityChecker);
-    return new AttemptManager(context, attemptId, queryRequest, observer, options, plans,
+    return new AttemptManager(context, attemptId, queryRequest, observer, options, plans, planCache,
       queryContext, commandPool, maestroService, jobTelemetryClient,
       queryRequest.runInSameThread());
   }
@@ -43,6 +43,7 @@ import com.dremio.exec.maestro.MaestroForwarder;
 import com.dremio.exec.maestro.MaestroService;
 import com.dremio.exec.planner.observer.OutOfBandQueryObserver;
 import com.dremio.exec.planner.observer.QueryObserver;
+import com.dremio.exec.planner.sql.handlers.commands.PlanCache;
 import com.dremio.exec.planner.sql.handlers.commands.PreparedPlan;
 import com.dremio.exec.proto.GeneralRPCProtos.Ack;
 import com.dremio.exec.proto.UserBitShared.ExternalId;
@@ -100,6 +101,8 @@ public class ForemenWorkManager implements Service, SafeExit {
   // Not making this a system/session option as we initialize this in the beginning of the node start and
   // changing system/session option is not going to have any effect.
   private static final String PREPARE_HANDLE_TIMEOUT_MS = "dremio.prepare.handle.timeout_ms";
+  private static final String PLAN_CACHE_SIZE = "dremio.plan_cache.size";
+  private static final String PLAN_CACHE_TIMEOUT_MS = "dremio.plan_cache.timeout_ms";
 
   // send profile updates to the job-telemetry-service for all active queries at this
   // interval.
@@ -114,6 +117,10 @@ public class ForemenWorkManager implements Service, SafeExit {
           .expireAfterWrite(Long.getLong(PREPARE_HANDLE_TIMEOUT_MS, 60_000L), TimeUnit.MILLISECONDS)
           .build();
 
+  // cache of the plans of sql queries, used when planner.plan_cache.enabled is set.
+  private final PlanCache planCache = new PlanCache(Long.getLong(PLAN_CACHE_SIZE, 1000L),
+          Long.getLong(PLAN_CACHE_TIMEOUT_MS, 600_000L));
+
   // single map of currently running queries, mapped by their external ids.
   private final ConcurrentMap<ExternalId, ManagedForeman> externalIdToForeman = Maps.newConcurrentMap();
   private final Provider<SabotContext> dbContext;
@@ -182,6 +189,10 @@ public class ForemenWorkManager implements Service, SafeExit {
   @Override
   public void start() throws Exception {
     Metrics.newGauge(Metrics.join("jobs","active"), () -> externalIdToForeman.size());
+    Metrics.newGauge(Metrics.join("planner","plan_cache","hits"), () -> planCache.stats().hitCount());
+    Metrics.newGauge(Metrics.join("planner","plan_cache","misses"), () -> planCache.stats().missCount());
+    Metrics.newGauge(Metrics.join("planner","plan_cache","size"), planCache::size);
+    dbContext.get().getCatalogService().addMetadataUpdateListener(planCache::invalidate);
 
     execToCoordResultsHandler = new ExecToCoordResultsHandlerImpl();
 
@@ -221,7 +232,7 @@ public class ForemenWorkManager implements Service, SafeExit {
 
     final DelegatingCompletionListener delegate = new DelegatingCompletionListener();
     final Foreman foreman = newForeman(pool, commandPool.get(), delegate, externalId, observer, session, request,
-            config, attemptHandler, preparedHandles);
+            config, attemptHandler, preparedHandles, planCache);
     final ManagedForeman managed = new ManagedForeman(registry, foreman);
     externalIdToForeman.put(foreman.getExternalId(), managed);
     delegate.setListener(managed);
@@ -230,9 +241,10 @@ public class ForemenWorkManager implements Service, SafeExit {
 
   protected Foreman newForeman(Executor executor, CommandPool commandPool, CompletionListener listener, ExternalId externalId,
                                QueryObserver observer, UserSession session, UserRequest request, OptionProvider config,
-                               ReAttemptHandler attemptHandler, Cache<Long, PreparedPlan> plans) {
+                               ReAttemptHandler attemptHandler, Cache<Long, PreparedPlan> plans,
+                               PlanCache planCache) {
     return new Foreman(dbContext.get(), executor, commandPool, listener, externalId, observer, session, request, config,
-            attemptHandler, plans, maestroService.get(), jobTelemetryClient.get());
+            attemptHandler, plans, planCache, maestroService.get(), jobTelemetryClient.get());
   }
 
   /**
@@ -481,7 +493,8 @@ public class ForemenWorkManager implements Service, SafeExit {
 
     @Override
     public void submitWork(ExternalId externalId, UserSession session,
-                           UserResponseHandler responseHandler, UserRequest request, TerminationListenerRegistry registry) {
+                           UserResponseHandler responseHandler, UserRequest request, TerminationListenerRegistry registry,
+                           OptionProvider queryOptions) {
       commandPool.get().<Void>submit(CommandPool.Priority.HIGH,
               ExternalIdHelper.toString(externalId) + ":work-submission",
               (waitInMillis) -> {
@@ -500,7 +513,7 @@ public class ForemenWorkManager implements Service, SafeExit {
                         externalId, session, responseHandler);
                 final QueryObserver oobObserver = new OutOfBandQueryObserver(observer, executor);
                 final ReAttemptHandler attemptHandler = newExternalAttemptHandler(session.getOptions());
-                submit(externalId, oobObserver, session, request, registry, null, attemptHandler);
+                submit(externalId, oobObserver, session, request, registry, queryOptions, attemptHandler);
                 return null;
               }, request.runInSameThread());
     }
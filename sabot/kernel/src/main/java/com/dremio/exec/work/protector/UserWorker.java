@@ -19,13 +19,23 @@ import com.dremio.common.utils.protos.ExternalIdHelper;
 import com.dremio.exec.proto.GeneralRPCProtos.Ack;
 import com.dremio.exec.proto.UserBitShared.ExternalId;
 import com.dremio.exec.work.foreman.TerminationListenerRegistry;
+import com.dremio.exec.work.user.OptionProvider;
 import com.dremio.options.OptionManager;
 import com.dremio.sabot.rpc.user.UserSession;
 
 public interface UserWorker {
 
+  default void submitWork(ExternalId externalId, UserSession session,
+    UserResponseHandler responseHandler, UserRequest request, TerminationListenerRegistry registry) {
+    submitWork(externalId, session, responseHandler, request, registry, null);
+  }
+
+  /**
+   * Submit work, applying the given query options on top of the session options.
+   */
   void submitWork(ExternalId externalId, UserSession session,
-    UserResponseHandler responseHandler, UserRequest request, TerminationListenerRegistry registry);
+    UserResponseHandler responseHandler, UserRequest request, TerminationListenerRegistry registry,
+    OptionProvider queryOptions);
 
   default void submitWork(UserSession session, UserResponseHandler responseHandler,
       UserRequest request, TerminationListenerRegistry registry) {
@@ -22,6 +22,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import org.apache.arrow.memory.BufferAllocator;
 
 import com.dremio.exec.proto.CoordExecRPC.NodePhaseStatus;
+import com.dremio.sabot.exec.context.PhaseSharedState;
 import com.google.common.collect.ImmutableList;
 
 /**
@@ -41,11 +42,13 @@ public class PhaseTicket extends TicketWithChildren {
   private final QueryTicket queryTicket;
   private final int majorFragmentId;
   private final Set<FragmentTicket> fragmentTickets = ConcurrentHashMap.newKeySet();
+  private final PhaseSharedState sharedState;
 
   public PhaseTicket(QueryTicket queryTicket, int majorFragmentId, BufferAllocator allocator) {
     super(allocator);
     this.queryTicket = queryTicket;
     this.majorFragmentId = majorFragmentId;
+    this.sharedState = new PhaseSharedState(allocator);
   }
 
   public int getMajorFragmentId() {
@@ -66,10 +69,27 @@ public class PhaseTicket extends TicketWithChildren {
     return super.release();
   }
 
+  /**
+   * @return the objects shared by the fragments of this phase on this node
+   */
+  public PhaseSharedState getSharedState() {
+    return sharedState;
+  }
+
   public Collection<FragmentTicket> getFragmentTickets() {
     return ImmutableList.copyOf(fragmentTickets);
   }
 
+  @Override
+  public void close() throws Exception {
+    // shared objects are normally released by their last fragment, they must not outlive the phase allocator
+    try {
+      sharedState.close();
+    } finally {
+      super.close();
+    }
+  }
+
   /**
    * Return the status of the query's phase tracked by this ticket, on this node.
    */
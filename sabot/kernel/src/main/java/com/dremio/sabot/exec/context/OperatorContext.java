@@ -44,6 +44,7 @@ import com.dremio.exec.testing.ExecutionControls;
 import com.dremio.options.OptionManager;
 import com.dremio.sabot.exec.rpc.TunnelProvider;
 import com.dremio.sabot.op.filter.VectorContainerWithSV;
+import com.dremio.sabot.threads.sharedres.SharedResourceGroup;
 import com.dremio.service.spill.SpillService;
 
 public abstract class OperatorContext {
@@ -123,6 +124,21 @@ public abstract class OperatorContext {
 
   public abstract MajorFragmentAssignment getExtMajorFragmentAssignments(int extMajorFragment);
 
+  /**
+   * Objects shared with the other minor fragments of the same phase running on this node.
+   *
+   * @return the shared state, or null if the operator doesn't run inside a fragment
+   */
+  public abstract PhaseSharedState getPhaseSharedState();
+
+  /**
+   * Group of resources of the fragment pipeline. A resource created in this group and marked as blocked
+   * prevents the fragment from running until it is available again.
+   *
+   * @return the resource group, or null if the operator doesn't run inside a fragment
+   */
+  public abstract SharedResourceGroup getPipelineResourceGroup();
+
   public static int getChildCount(PhysicalOperator popConfig) {
     Iterator<PhysicalOperator> iter = popConfig.iterator();
     int i = 0;
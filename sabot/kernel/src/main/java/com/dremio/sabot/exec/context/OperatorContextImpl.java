@@ -54,6 +54,7 @@ import com.dremio.options.OptionManager;
 import com.dremio.sabot.exec.fragment.FragmentExecutorBuilder;
 import com.dremio.sabot.exec.rpc.TunnelProvider;
 import com.dremio.sabot.op.filter.VectorContainerWithSV;
+import com.dremio.sabot.threads.sharedres.SharedResourceGroup;
 import com.dremio.service.spill.SpillService;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
@@ -85,6 +86,8 @@ public class OperatorContextImpl extends OperatorContext implements AutoCloseabl
   private final SpillService spillService;
   private final EndpointsIndex endpointsIndex;
   private final Map<Integer, MajorFragmentAssignment> majorFragmentAssignments;
+  private final PhaseSharedState phaseSharedState;
+  private final SharedResourceGroup pipelineResourceGroup;
 
   public OperatorContextImpl(
     SabotConfig config,
@@ -108,6 +111,36 @@ public class OperatorContextImpl extends OperatorContext implements AutoCloseabl
     List<MajorFragmentAssignment> majorFragmentAssignments,
     Provider<CoordinationProtos.NodeEndpoint> nodeEndpointProvider,
     EndpointsIndex endpointsIndex) throws OutOfMemoryException {
+    this(config, handle, popConfig, allocator, fragmentOutputAllocator, compiler, stats, executionControls,
+      fragmentExecutorBuilder, executor, functions, contextInformation, optionManager, spillService,
+      nodeDebugContextProvider, targetBatchSize, tunnelProvider, assignments, majorFragmentAssignments,
+      nodeEndpointProvider, endpointsIndex, null, null);
+  }
+
+  public OperatorContextImpl(
+    SabotConfig config,
+    FragmentHandle handle,
+    PhysicalOperator popConfig,
+    BufferAllocator allocator,
+    BufferAllocator fragmentOutputAllocator,
+    CodeCompiler compiler,
+    OperatorStats stats,
+    ExecutionControls executionControls,
+    FragmentExecutorBuilder fragmentExecutorBuilder,
+    ExecutorService executor,
+    FunctionLookupContext functions,
+    ContextInformation contextInformation,
+    final OptionManager optionManager,
+    SpillService spillService,
+    NodeDebugContextProvider nodeDebugContextProvider,
+    int targetBatchSize,
+    TunnelProvider tunnelProvider,
+    List<FragmentAssignment> assignments,
+    List<MajorFragmentAssignment> majorFragmentAssignments,
+    Provider<CoordinationProtos.NodeEndpoint> nodeEndpointProvider,
+    EndpointsIndex endpointsIndex,
+    PhaseSharedState phaseSharedState,
+    SharedResourceGroup pipelineResourceGroup) throws OutOfMemoryException {
     this.config = config;
     this.handle = handle;
     this.allocator = allocator;
@@ -135,6 +168,8 @@ public class OperatorContextImpl extends OperatorContext implements AutoCloseabl
     this.majorFragmentAssignments = Optional.ofNullable(majorFragmentAssignments)
             .map(f -> f.stream().collect(Collectors.toMap(MajorFragmentAssignment::getMajorFragmentId, v -> v)))
             .orElse(Collections.emptyMap());
+    this.phaseSharedState = phaseSharedState;
+    this.pipelineResourceGroup = pipelineResourceGroup;
   }
 
   public OperatorContextImpl(
@@ -324,4 +359,14 @@ public class OperatorContextImpl extends OperatorContext implements AutoCloseabl
   public SpillService getSpillService() {
     return spillService;
   }
+
+  @Override
+  public PhaseSharedState getPhaseSharedState() {
+    return phaseSharedState;
+  }
+
+  @Override
+  public SharedResourceGroup getPipelineResourceGroup() {
+    return pipelineResourceGroup;
+  }
 }
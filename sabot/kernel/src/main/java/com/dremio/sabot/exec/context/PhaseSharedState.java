@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.exec.context;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.arrow.memory.BufferAllocator;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.AutoCloseables.RollbackCloseable;
+import com.google.common.base.Preconditions;
+
+/**
+ * Objects shared by the minor fragments of one phase (major fragment) of a query running on the same node,
+ * keyed by operator id.<br>
+ * <br>
+ * An object is created by the first fragment that acquires it, with its own allocator, child of the phase
+ * allocator, so that it can outlive the fragment that created it. It is closed when the last fragment that
+ * acquired it releases it.<br>
+ * <br>
+ * Multi-thread safe
+ */
+public class PhaseSharedState implements AutoCloseable {
+
+  /**
+   * Creates a shared object
+   */
+  public interface Factory<T extends AutoCloseable> {
+    /**
+     * @param allocator allocator for the memory of the shared object, closed after the object
+     */
+    T create(BufferAllocator allocator) throws Exception;
+  }
+
+  private final BufferAllocator allocator;
+  private final Map<Integer, Entry> entries = new HashMap<>();
+  private boolean closed;
+
+  public PhaseSharedState(BufferAllocator allocator) {
+    this.allocator = allocator;
+  }
+
+  /**
+   * Get the object shared by the instances of an operator, creating it if needed. Each call must be
+   * matched by a call to {@link #release(int)}.
+   *
+   * @param operatorId id of the operator
+   * @param memLimit memory limit of the shared object, the limit of the operator
+   * @param factory creates the object, if it doesn't exist yet
+   * @return the shared object
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized <T extends AutoCloseable> T acquire(int operatorId, long memLimit, Factory<T> factory) throws Exception {
+    Preconditions.checkState(!closed, "Trying to acquire a shared object from a closed phase");
+    Entry entry = entries.get(operatorId);
+    if (entry == null) {
+      final BufferAllocator childAllocator = allocator.newChildAllocator("shared-op-" + operatorId, 0, memLimit);
+      try (RollbackCloseable rollback = AutoCloseables.rollbackable(childAllocator)) {
+        entry = new Entry(childAllocator, factory.create(childAllocator));
+        rollback.commit();
+      }
+      entries.put(operatorId, entry);
+    }
+    entry.refCount++;
+    return (T) entry.object;
+  }
+
+  /**
+   * Release an object obtained with {@link #acquire(int, long, Factory)}, and close it if this was the last reference.
+   *
+   * @param operatorId id of the operator
+   */
+  public void release(int operatorId) throws Exception {
+    final Entry entry;
+    synchronized (this) {
+      entry = entries.get(operatorId);
+      Preconditions.checkState(entry != null, "No shared object for operator %s", operatorId);
+      if (--entry.refCount > 0) {
+        return;
+      }
+      entries.remove(operatorId);
+    }
+    AutoCloseables.close(entry.object, entry.allocator);
+  }
+
+  @Override
+  public void close() throws Exception {
+    final List<AutoCloseable> closeables = new ArrayList<>();
+    synchronized (this) {
+      closed = true;
+      for (Entry entry : entries.values()) {
+        closeables.add(entry.object);
+        closeables.add(entry.allocator);
+      }
+      entries.clear();
+    }
+    AutoCloseables.close(closeables);
+  }
+
+  private static final class Entry {
+    private final BufferAllocator allocator;
+    private final AutoCloseable object;
+    private int refCount;
+
+    Entry(BufferAllocator allocator, AutoCloseable object) {
+      this.allocator = allocator;
+      this.object = object;
+    }
+  }
+}
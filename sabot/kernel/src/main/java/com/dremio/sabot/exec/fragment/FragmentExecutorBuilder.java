@@ -296,7 +296,9 @@ public class FragmentExecutorBuilder {
             major.getAllAssignmentList(),
             cachedReader.getPlanFragmentsIndex().getEndpointsIndex(),
             nodeEndpointProvider,
-            major.getExtFragmentAssignmentsList()
+            major.getExtFragmentAssignmentsList(),
+            ticket.getPhaseSharedState(),
+            sharedResources.getGroup(PIPELINE_RES_GRP)
           );
 
         final FragmentStatusReporter statusReporter = new FragmentStatusReporter(fragment.getHandle(), stats,
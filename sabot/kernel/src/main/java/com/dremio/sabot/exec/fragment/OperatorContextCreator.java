@@ -46,7 +46,9 @@ import com.dremio.sabot.exec.context.OpProfileDef;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.context.OperatorContextImpl;
 import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.sabot.exec.context.PhaseSharedState;
 import com.dremio.sabot.exec.rpc.TunnelProvider;
+import com.dremio.sabot.threads.sharedres.SharedResourceGroup;
 import com.dremio.service.namespace.NamespaceService;
 import com.dremio.service.spill.SpillService;
 import com.google.common.base.Preconditions;
@@ -75,6 +77,8 @@ class OperatorContextCreator implements OperatorContext.Creator, AutoCloseable {
   private final EndpointsIndex endpointsIndex;
   private Provider<CoordinationProtos.NodeEndpoint> nodeEndpointProvider;
   private final List<CoordExecRPC.MajorFragmentAssignment> extFragmentAssignments;
+  private final PhaseSharedState phaseSharedState;
+  private final SharedResourceGroup pipelineResourceGroup;
 
   public OperatorContextCreator(FragmentStats stats, BufferAllocator allocator, CodeCompiler compiler,
                                 SabotConfig config, FragmentHandle handle, ExecutionControls executionControls,
@@ -84,7 +88,8 @@ class OperatorContextCreator implements OperatorContext.Creator, AutoCloseable {
                                 NodeDebugContextProvider nodeDebugContextProvider, TunnelProvider tunnelProvider,
                                 List<FragmentAssignment> assignments, EndpointsIndex endpointsIndex,
                                 Provider<CoordinationProtos.NodeEndpoint> nodeEndpointProvider,
-                                List<CoordExecRPC.MajorFragmentAssignment> extFragmentAssignments) {
+                                List<CoordExecRPC.MajorFragmentAssignment> extFragmentAssignments,
+                                PhaseSharedState phaseSharedState, SharedResourceGroup pipelineResourceGroup) {
     super();
     this.stats = stats;
     this.allocator = allocator;
@@ -107,6 +112,8 @@ class OperatorContextCreator implements OperatorContext.Creator, AutoCloseable {
     this.assignments = assignments;
     this.endpointsIndex = endpointsIndex;
     this.extFragmentAssignments = extFragmentAssignments;
+    this.phaseSharedState = phaseSharedState;
+    this.pipelineResourceGroup = pipelineResourceGroup;
   }
 
   public void setFragmentOutputAllocator(BufferAllocator fragmentOutputAllocator) {
@@ -153,7 +160,9 @@ class OperatorContextCreator implements OperatorContext.Creator, AutoCloseable {
         assignments,
         extFragmentAssignments,
         nodeEndpointProvider,
-        endpointsIndex);
+        endpointsIndex,
+        phaseSharedState,
+        pipelineResourceGroup);
       operatorContexts.add(context);
       closeable.commit();
       return context;
@@ -80,7 +80,14 @@ public class HashAggStats {
     OOB_DROP_UNDER_THRESHOLD, // Number of times OOB dropped spilling notification as it was under the threshold.
     OOB_DROP_NO_VICTIM, // Number of times OOB dropped spilling notification as all allocations were minimal.
     OOB_SPILL, // Spill was done due to oob.
-    OOB_DROP_ALREADY_SPILLING // Number of times operator dropped spilling notification as it was already spilling
+    OOB_DROP_ALREADY_SPILLING, // Number of times operator dropped spilling notification as it was already spilling
+
+    // adaptive (phase 1) aggregation related metrics
+    PASS_THROUGH,               /* 1 if the partial aggregation switched to streaming pass-through, 0 otherwise */
+    PASS_THROUGH_DECISION_RECORDS, /* number of input records consumed when the reduction was evaluated */
+    PASS_THROUGH_DECISION_GROUPS,  /* number of distinct groups in the hash tables when the reduction was evaluated */
+    PASS_THROUGH_RECORDS,       /* number of input records consumed in pass-through mode */
+    PASS_THROUGH_FLUSHES        /* number of times the hash tables were flushed early in pass-through mode */
 
     ;
 
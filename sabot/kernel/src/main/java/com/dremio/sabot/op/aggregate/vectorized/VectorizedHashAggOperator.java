@@ -330,6 +330,16 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
   public static final BooleanValidator OOB_SPILL_TRIGGER_ENABLED = new BooleanValidator("exec.operator.aggregate.vectorize.oob_trigger_enabled", true);
   public static final BooleanValidator VECTORIZED_HASHAGG_ENABLE_MICRO_SPILLS = new BooleanValidator("exec.operator.aggregate.vectorize.enable_micro_spills", true);
 
+  /* adaptive partial aggregation: once the first phase of a two phase aggregation has consumed min_records
+   * input records, the ratio of distinct groups to input records is evaluated. If the aggregation reduced the
+   * input by less than min_reduction, the operator switches to pass-through mode where the hash tables are
+   * flushed to the exchange as soon as they hold one batch per partition, instead of growing (and spilling)
+   * for data that the second phase will have to aggregate anyway.
+   */
+  public static final BooleanValidator VECTORIZED_HASHAGG_ADAPTIVE_ENABLED = new BooleanValidator("exec.operator.aggregate.vectorize.adaptive.enabled", true);
+  public static final PositiveLongValidator VECTORIZED_HASHAGG_ADAPTIVE_MIN_RECORDS = new PositiveLongValidator("exec.operator.aggregate.vectorize.adaptive.min_records", Integer.MAX_VALUE, 100_000);
+  public static final DoubleValidator VECTORIZED_HASHAGG_ADAPTIVE_MIN_REDUCTION = new RangeDoubleValidator("exec.operator.aggregate.vectorize.adaptive.min_reduction", 0.0d, 1.0d, .1d);
+
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(VectorizedHashAggOperator.class);
 
   private final OperatorContext context;
@@ -374,6 +384,17 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
   private int oobDropNoVictim;
   private int oobSpills;
   private int oobDropSpill;
+  private final boolean adaptive;
+  private final long adaptiveMinRecords;
+  private final double adaptiveMinReduction;
+  private long recordsConsumed;
+  private boolean passThroughDecided;
+  private boolean passThrough;
+  private boolean passThroughFlushing;
+  private long passThroughDecisionRecords;
+  private long passThroughDecisionGroups;
+  private long passThroughRecords;
+  private int passThroughFlushes;
   private final BufferAllocator allocator;
   private final VectorizedHashAggDebug debug;
   private boolean closed;
@@ -382,6 +403,8 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
   /* preallocated data structures for hash table insertion */
   private FixedBlockVector fixedBlockVector;
   private VariableBlockVector variableBlockVector;
+  /* hash values of the records of the current probe window, see insertIntoPartitions() */
+  private final long[] windowHashes = new long[LBlockHashTable.PROBE_WINDOW];
 
   @VisibleForTesting
   public static final int PARTITIONINDEX_HTORDINAL_WIDTH = 8;
@@ -462,6 +485,9 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
     this.resumableInsertState = null;
     this.operatorStateBeforeOOB = null;
     this.forceSpillState = null;
+    this.adaptive = popConfig.isPartial() && options.getOption(VECTORIZED_HASHAGG_ADAPTIVE_ENABLED);
+    this.adaptiveMinRecords = options.getOption(VECTORIZED_HASHAGG_ADAPTIVE_MIN_RECORDS);
+    this.adaptiveMinReduction = options.getOption(VECTORIZED_HASHAGG_ADAPTIVE_MIN_REDUCTION);
     logger.debug("partitions:{}, min-hashtable-size:{}, max-hashtable-batch-size:{} variable-width-key-size:{}",
       numPartitions, minHashTableSize, maxHashTableBatchSize, estimatedVariableWidthKeySize);
   }
@@ -763,6 +789,53 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
       VariableLengthValidator.validateVariable(v, records);
     }
     consumeDataHelper(records);
+    recordsConsumed += records;
+    if (passThrough) {
+      passThroughRecords += records;
+    }
+
+    if (adaptive && internalStateMachine == InternalState.NONE) {
+      /* the batch was entirely consumed without running out of memory */
+      checkPassThrough();
+    }
+  }
+
+  /**
+   * Adaptive partial aggregation. Decides once, after enough input was consumed,
+   * if the aggregation achieves enough reduction to be worth keeping all the groups
+   * in memory. If it doesn't, the in-memory partitions are outputted every time
+   * they hold about one batch of groups per partition (pass-through mode): the
+   * hash tables never grow beyond their preallocated size and the operator never
+   * spills, while the second phase aggregates the partial groups as usual.
+   */
+  private void checkPassThrough() {
+    if (!passThroughDecided) {
+      if (recordsConsumed < adaptiveMinRecords) {
+        return;
+      }
+      passThroughDecided = true;
+      if (partitionSpillHandler.getNumberOfSpills() > 0) {
+        /* hash tables don't hold all the groups seen so far, and spilling already happened */
+        updateStats();
+        return;
+      }
+      passThroughDecisionRecords = recordsConsumed;
+      passThroughDecisionGroups = getHashTableSize();
+      final double reduction = 1.0d - ((double) passThroughDecisionGroups / passThroughDecisionRecords);
+      passThrough = reduction < adaptiveMinReduction;
+      logger.debug("adaptive aggregation: records:{}, groups:{}, reduction:{}, pass-through:{}",
+        passThroughDecisionRecords, passThroughDecisionGroups, reduction, passThrough);
+      updateStats();
+    }
+
+    if (passThrough && partitionSpillHandler.getActiveSpilledPartitionCount() == 0
+      && partitionSpillHandler.isSpillQueueEmpty()
+      && getHashTableSize() >= (long) numPartitions * maxHashTableBatchSize) {
+      /* output the in-memory partitions, postOutputProcessing() brings us back to consuming */
+      passThroughFlushing = true;
+      passThroughFlushes++;
+      moveToOutputState();
+    }
   }
 
   /**
@@ -963,20 +1036,27 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
     long keyVarAddr;
     int keyVarLen;
     long partitionsUsed = partitionsUsedMask;
+    final long[] windowHashes = this.windowHashes;
+    int windowStart = insertStartIndex;
+    int windowEnd = insertStartIndex;
 
     insertWatch.start();
     insertAllRecords:
     {
       for (int keyIndex = insertStartIndex; keyIndex < recordsPivoted; keyIndex++, keyFixedAddr += blockWidth) {
-        final long keyHash;
+        if (keyIndex == windowEnd) {
+          /* hash the next window of records and touch their hash table slots before inserting them */
+          windowStart = keyIndex;
+          windowEnd = Math.min(recordsPivoted, keyIndex + LBlockHashTable.PROBE_WINDOW);
+          hashAndPrefetch(keyFixedAddr, keyVarVectorAddr, windowEnd - windowStart, seed);
+        }
+        final long keyHash = windowHashes[keyIndex - windowStart];
         if (fixedOnly) {
-          keyHash = LBlockHashTable.fixedKeyHashCode(keyFixedAddr, dataWidth, seed);
           keyVarAddr = -1;
           keyVarLen = 0;
         } else {
           keyVarAddr = keyVarVectorAddr + PlatformDependent.getInt(keyFixedAddr + dataWidth);
           keyVarLen = PlatformDependent.getInt(keyVarAddr);
-          keyHash = LBlockHashTable.keyHashCode(keyFixedAddr, dataWidth, keyVarAddr, keyVarLen, seed);
         }
         /* get the partition index from higher order bits in hash */
         final int hashPartitionIndex = ((int) (keyHash >> 32)) & hashPartitionMask;
@@ -1020,6 +1100,37 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
     return partitionsUsed;
   }
 
+  /**
+   * Helper function for insertIntoPartitions(). Computes the hash values of a window of
+   * pivoted records, and then touches the slots of each record in the hash table of its
+   * partition, so that the cache misses of the window overlap instead of being taken one
+   * record at a time during insertion.
+   *
+   * @param keyFixedAddr pointer to the first record of the window in fixed key buffer
+   * @param keyVarVectorAddr starting address of variable key buffer
+   * @param count number of records in the window
+   * @param seed seed for the hash computation
+   */
+  private void hashAndPrefetch(final long keyFixedAddr, final long keyVarVectorAddr, final int count, final long seed) {
+    final int blockWidth = pivot.getBlockWidth();
+    final int dataWidth = fixedOnly ? blockWidth : blockWidth - LBlockHashTable.VAR_OFFSET_SIZE;
+    final long[] windowHashes = this.windowHashes;
+    long addr = keyFixedAddr;
+    for (int i = 0; i < count; i++, addr += blockWidth) {
+      if (fixedOnly) {
+        windowHashes[i] = LBlockHashTable.fixedKeyHashCode(addr, dataWidth, seed);
+      } else {
+        final long keyVarAddr = keyVarVectorAddr + PlatformDependent.getInt(addr + dataWidth);
+        final int keyVarLen = PlatformDependent.getInt(keyVarAddr);
+        windowHashes[i] = LBlockHashTable.keyHashCode(addr, dataWidth, keyVarAddr, keyVarLen, seed);
+      }
+    }
+    for (int i = 0; i < count; i++) {
+      final long keyHash = windowHashes[i];
+      hashAggPartitions[((int) (keyHash >> 32)) & hashPartitionMask].hashTable.prefetch((int) keyHash);
+    }
+  }
+
   /**
    * When operator detects (proactively) it will run out of memory or it has
    * already run of memory, we use this function to handle OOM by spilling a
@@ -1823,6 +1934,12 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
     stats.setLongStat(Metric.OOB_SPILL, oobSpills);
     stats.setLongStat(Metric.OOB_DROP_ALREADY_SPILLING, oobDropSpill);
 
+    stats.setLongStat(Metric.PASS_THROUGH, passThrough ? 1 : 0);
+    stats.setLongStat(Metric.PASS_THROUGH_DECISION_RECORDS, passThroughDecisionRecords);
+    stats.setLongStat(Metric.PASS_THROUGH_DECISION_GROUPS, passThroughDecisionGroups);
+    stats.setLongStat(Metric.PASS_THROUGH_RECORDS, passThroughRecords);
+    stats.setLongStat(Metric.PASS_THROUGH_FLUSHES, passThroughFlushes);
+
     if (iterations == 1) {
       stats.setLongStat(Metric.ALLOCATED_FOR_FIXED_KEYS, statsHolder.allocatedForFixedBlocks);
       stats.setLongStat(Metric.UNUSED_FOR_FIXED_KEYS, statsHolder.unusedForFixedBlocks);
@@ -2271,6 +2388,15 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
    * are not done and need to start the next iteration.
    */
   private void postOutputProcessing() {
+    if (passThroughFlushing) {
+      /* early output in pass-through mode is done, continue consuming incoming data */
+      passThroughFlushing = false;
+      state = State.CAN_CONSUME;
+      internalStateMachine = InternalState.NONE;
+      updateStats();
+      return;
+    }
+
     if ((partitionSpillHandler.getActiveSpilledPartitionCount() == 0) && partitionSpillHandler.isSpillQueueEmpty()) {
       /* if we are inside recursion, that is we are outputting after
        * consuming the input from a spilled partition, we need to check if
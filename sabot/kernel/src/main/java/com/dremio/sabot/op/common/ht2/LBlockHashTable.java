@@ -76,6 +76,9 @@ public final class LBlockHashTable implements AutoCloseable {
 
   private static final int RETRY_RETURN_CODE = -2;
   public static final int ORDINAL_SIZE = 4;
+  /* number of records whose hash table slots are touched ahead of probing them, in the batched methods */
+  public static final int PROBE_WINDOW = 64;
+  private static final int HASH_VALUE_SIZE = 8;
 
   private final HashConfigWrapper config;
   private final ResizeListener listener;
@@ -126,6 +129,8 @@ public final class LBlockHashTable implements AutoCloseable {
 
   private final boolean enforceVarWidthBufferLimit;
   private int maxOrdinalBeforeExpand;
+  /* sink for the loads done by prefetch(), so that they can't be optimized away */
+  private long prefetchSink;
 
   public LBlockHashTable(HashConfig config,
                          PivotDef pivot,
@@ -214,6 +219,75 @@ public final class LBlockHashTable implements AutoCloseable {
   }
 
 
+  /**
+   * Add a batch of keys, if they don't exist already.
+   *
+   * The keys are processed in windows of {@link #PROBE_WINDOW} records: the slots of all the
+   * records of a window are first touched with {@link #prefetch(int)}, and then the records are
+   * inserted one at a time. The cache misses of a window overlap, instead of being serialized
+   * with the key comparison of each record, which matters once the table doesn't fit in cache.
+   *
+   * @param keyFixedVectorAddr starting address of fixed vector block
+   * @param keyVarVectorAddr starting address of variable vector block
+   * @param hashValuesAddr starting address of the hash values (8 bytes per record, hashing is external to the hash table)
+   * @param records number of records
+   * @param ordinalsAddr address where the ordinals (4 bytes per record) are written
+   */
+  public final void addBatch(final long keyFixedVectorAddr, final long keyVarVectorAddr,
+                             final long hashValuesAddr, final int records, final long ordinalsAddr) {
+    getOrInsertBatch(keyFixedVectorAddr, keyVarVectorAddr, hashValuesAddr, records, ordinalsAddr, true);
+  }
+
+  /**
+   * Find a batch of keys, see {@link #addBatch(long, long, long, int, long)}.
+   *
+   * @param keyFixedVectorAddr starting address of fixed vector block
+   * @param keyVarVectorAddr starting address of variable vector block
+   * @param hashValuesAddr starting address of the hash values (8 bytes per record, hashing is external to the hash table)
+   * @param records number of records
+   * @param ordinalsAddr address where the ordinals (4 bytes per record, -1 if the key doesn't exist) are written
+   */
+  public final void findBatch(final long keyFixedVectorAddr, final long keyVarVectorAddr,
+                              final long hashValuesAddr, final int records, final long ordinalsAddr) {
+    getOrInsertBatch(keyFixedVectorAddr, keyVarVectorAddr, hashValuesAddr, records, ordinalsAddr, false);
+  }
+
+  private void getOrInsertBatch(final long keyFixedVectorAddr, final long keyVarVectorAddr,
+                                final long hashValuesAddr, final int records, final long ordinalsAddr,
+                                final boolean insertNew) {
+    for (int start = 0; start < records; start += PROBE_WINDOW) {
+      final int end = Math.min(records, start + PROBE_WINDOW);
+      for (int keyIndex = start; keyIndex < end; keyIndex++) {
+        prefetch((int) PlatformDependent.getLong(hashValuesAddr + keyIndex * HASH_VALUE_SIZE));
+      }
+      for (int keyIndex = start; keyIndex < end; keyIndex++) {
+        final int keyHash = (int) PlatformDependent.getLong(hashValuesAddr + keyIndex * HASH_VALUE_SIZE);
+        PlatformDependent.putInt(ordinalsAddr + keyIndex * ORDINAL_SIZE,
+          getOrInsert(keyFixedVectorAddr, keyVarVectorAddr, keyIndex, keyHash, insertNew));
+      }
+    }
+  }
+
+  /**
+   * Touch the control block where the probe for the given hash starts, and the first byte
+   * of the key it points to (if any), so that they are in cache by the time the key is probed.
+   * The loads done for consecutive hashes don't depend on each other, so the processor can
+   * have several of them in flight. This is only a hint, the table is never modified.
+   *
+   * @param keyHash 32 bit hash
+   */
+  public void prefetch(final int keyHash) {
+    final int controlIndex = keyHash & (capacity - 1);
+    final long control = PlatformDependent.getLong(tableControlAddresses[controlIndex >>> BITS_IN_CHUNK]
+      + ((controlIndex & CHUNK_OFFSET_MASK) * CONTROL_WIDTH));
+    if (control != LFREE) {
+      final int ordinal = (int) control;
+      prefetchSink += PlatformDependent.getByte(tableFixedAddresses[ordinal >>> BITS_IN_CHUNK]
+        + ((ordinal & CHUNK_OFFSET_MASK) * pivot.getBlockWidth()));
+    }
+    prefetchSink += control;
+  }
+
   // TODO: we need to fix the hashjoin operator code to pass addresses directly pointing
   // to records in pivot buffers and then we can remove this method. right now it is
   // passing starting address of pivot buffers and the hash table has to repeat
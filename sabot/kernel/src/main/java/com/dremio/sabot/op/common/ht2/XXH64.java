@@ -18,7 +18,9 @@
  */
 package com.dremio.sabot.op.common.ht2;
 
-import io.netty.util.internal.PlatformDependent;
+import org.apache.arrow.memory.util.MemoryUtil;
+
+import com.google.common.base.Preconditions;
 
 public class XXH64 {
 
@@ -41,15 +43,17 @@ public class XXH64 {
       return v;
   }
 
-  private static int b(long addr){
-    return PlatformDependent.getByte(addr) & 0xFF;
+  // the bytes are read at an offset of a base object, or at an absolute address when the base is null
+  private static int b(Object base, long offset){
+    return MemoryUtil.UNSAFE.getByte(base, offset) & 0xFF;
   }
-  private static long l(long addr){
-    return PlatformDependent.getLong(addr);
+
+  private static long l(Object base, long offset){
+    return MemoryUtil.UNSAFE.getLong(base, offset);
   }
 
-  private static long i(long addr){
-    return (long) (PlatformDependent.getInt(addr) & 0xFFFFFFFFL);
+  private static long i(Object base, long offset){
+    return (long) (MemoryUtil.UNSAFE.getInt(base, offset) & 0xFFFFFFFFL);
   }
 
   public static int xxHash6432(long addr, long length, long seed) {
@@ -57,6 +61,15 @@ public class XXH64 {
   }
 
   public static long xxHash64(long addr, long length, long seed) {
+    return xxHash64(null, addr, length, seed);
+  }
+
+  public static long xxHash64(byte[] bytes, int offset, int length, long seed) {
+    Preconditions.checkPositionIndexes(offset, offset + length, bytes.length);
+    return xxHash64(bytes, MemoryUtil.BYTE_ARRAY_BASE_OFFSET + offset, length, seed);
+  }
+
+  private static long xxHash64(Object base, long addr, long length, long seed) {
       long hash;
       long remaining = length;
 
@@ -67,19 +80,19 @@ public class XXH64 {
           long v4 = seed - P1;
 
           do {
-              v1 += l(addr) * P2;
+              v1 += l(base, addr) * P2;
               v1 = Long.rotateLeft(v1, 31);
               v1 *= P1;
 
-              v2 += l(addr + 8) * P2;
+              v2 += l(base, addr + 8) * P2;
               v2 = Long.rotateLeft(v2, 31);
               v2 *= P1;
 
-              v3 += l(addr + 16) * P2;
+              v3 += l(base, addr + 16) * P2;
               v3 = Long.rotateLeft(v3, 31);
               v3 *= P1;
 
-              v4 += l(addr + 24) * P2;
+              v4 += l(base, addr + 24) * P2;
               v4 = Long.rotateLeft(v4, 31);
               v4 *= P1;
 
@@ -122,7 +135,7 @@ public class XXH64 {
       hash += length;
 
       while (remaining >= 8) {
-          long k1 = l(addr);
+          long k1 = l(base, addr);
           k1 *= P2;
           k1 = Long.rotateLeft(k1, 31);
           k1 *= P1;
@@ -133,14 +146,14 @@ public class XXH64 {
       }
 
       if (remaining >= 4) {
-          hash ^= i(addr) * P1;
+          hash ^= i(base, addr) * P1;
           hash = Long.rotateLeft(hash, 23) * P2 + P3;
           addr += 4;
           remaining -= 4;
       }
 
       while (remaining != 0) {
-          hash ^= b(addr) * P5;
+          hash ^= b(base, addr) * P5;
           hash = Long.rotateLeft(hash, 11) * P1;
           --remaining;
           ++addr;
@@ -34,6 +34,7 @@ import com.dremio.sabot.op.common.ht2.PivotDef;
 import com.dremio.sabot.op.common.ht2.Pivots;
 import com.dremio.sabot.op.common.ht2.ResizeListener;
 import com.dremio.sabot.op.common.ht2.VariableBlockVector;
+import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
 import com.koloboke.collect.hash.HashConfig;
 
@@ -55,6 +56,8 @@ public class BlockJoinTable implements JoinTable {
   private final Stopwatch buildHashComputationWatch = Stopwatch.createUnstarted();
   private final Stopwatch probeHashComputationWatch = Stopwatch.createUnstarted();
   private boolean fixedOnly;
+  // true if this is a read only view of a table owned by another instance
+  private final boolean view;
 
   public BlockJoinTable(PivotDef buildPivot, PivotDef probePivot, BufferAllocator allocator, NullComparator nullMask, int minSize, int varFieldAverageSize) {
     super();
@@ -66,6 +69,24 @@ public class BlockJoinTable implements JoinTable {
     this.nullMask = nullMask;
     this.tableTracing = false;
     this.fixedOnly = buildPivot.getVariableCount() == 0;
+    this.view = false;
+  }
+
+  /**
+   * Creates a read only view of a table that is fully built, so that several probes can run concurrently
+   * on the same hash table: the view has its own probe pivot, allocator for temporary buffers, and timers.
+   * Closing the view doesn't close the hash table.
+   */
+  public BlockJoinTable(BlockJoinTable built, PivotDef probePivot, BufferAllocator allocator, NullComparator nullMask) {
+    super();
+    this.table = built.table;
+    this.buildPivot = built.buildPivot;
+    this.probePivot = probePivot;
+    this.allocator = allocator;
+    this.nullMask = nullMask;
+    this.tableTracing = false;
+    this.fixedOnly = built.fixedOnly;
+    this.view = true;
   }
 
   /* Copy the keys of the records specified in keyOffsetAddr to destination memory
@@ -132,6 +153,7 @@ public class BlockJoinTable implements JoinTable {
 
   @Override
   public void insert(long findAddr, int records) {
+    Preconditions.checkState(!view, "Can't insert into a read only view of a join table");
     try(FixedBlockVector fbv = new FixedBlockVector(allocator, buildPivot.getBlockWidth());
         VariableBlockVector var = new VariableBlockVector(allocator, buildPivot.getVariableCount());
         ){
@@ -158,10 +180,7 @@ public class BlockJoinTable implements JoinTable {
 
         // STEP 3: then we insert build side into hash table
         insertWatch.start();
-        for(int keyIndex = 0 ; keyIndex < records; keyIndex++, findAddr += 4) {
-          final int keyHash = (int)hashValues.get(keyIndex);
-          PlatformDependent.putInt(findAddr, table.add(keyFixedVectorAddr, keyVarVectorAddr, keyIndex, keyHash));
-        }
+        table.addBatch(keyFixedVectorAddr, keyVarVectorAddr, hashValues.getBufferAddress(), records, findAddr);
         insertWatch.stop();
       }
 
@@ -202,13 +221,12 @@ public class BlockJoinTable implements JoinTable {
 
       // STEP 3: then we probe hash table.
       probeFindWatch.start();
+      table.findBatch(keyFixedVectorAddr, keyVarVectorAddr, hashValues.getBufferAddress(), records, offsetAddr);
+
+      // STEP 4: keys with null values in columns where nulls are not comparable don't match.
       final NullComparator compare = nullMask;
       switch(compare.getMode()){
       case NONE:
-        for(int keyIndex = 0; keyIndex < records; keyIndex++, offsetAddr += 4) {
-          final int keyHash = (int)hashValues.get(keyIndex);
-          PlatformDependent.putInt(offsetAddr, table.find(keyFixedVectorAddr, keyVarVectorAddr, keyIndex, keyHash));
-        }
         break;
 
       // 32 bits to consider.
@@ -216,11 +234,7 @@ public class BlockJoinTable implements JoinTable {
         long bitsAddr = keyFixedVectorAddr;
         final int nullMask = compare.getFour();
         for(int keyIndex = 0; keyIndex < records; keyIndex++, offsetAddr += 4, bitsAddr += blockWidth){
-          if((PlatformDependent.getInt(bitsAddr) & nullMask) == nullMask){
-            // the nulls are not comparable. as such, this doesn't match.
-            final int keyHash = (int)hashValues.get(keyIndex);
-            PlatformDependent.putInt(offsetAddr, table.find(keyFixedVectorAddr, keyVarVectorAddr, keyIndex, keyHash));
-          } else {
+          if((PlatformDependent.getInt(bitsAddr) & nullMask) != nullMask){
             PlatformDependent.putInt(offsetAddr, SKIP);
           }
         }
@@ -232,11 +246,7 @@ public class BlockJoinTable implements JoinTable {
         long bitsAddr = keyFixedVectorAddr;
         final long nullMask = compare.getEight();
         for(int keyIndex = 0; keyIndex < records; keyIndex++, offsetAddr += 4, bitsAddr += blockWidth){
-          if((PlatformDependent.getLong(bitsAddr) & nullMask) == nullMask){
-            final int keyHash = (int)hashValues.get(keyIndex);
-            PlatformDependent.putInt(offsetAddr, table.find(keyFixedVectorAddr, keyVarVectorAddr, keyIndex, keyHash));
-          } else {
-            // the nulls are not comparable. as such, this doesn't match.
+          if((PlatformDependent.getLong(bitsAddr) & nullMask) != nullMask){
             PlatformDependent.putInt(offsetAddr, SKIP);
           }
         }
@@ -247,18 +257,13 @@ public class BlockJoinTable implements JoinTable {
       case BIG: {
         long bitsAddr = keyFixedVectorAddr;
         for(int keyIndex = 0; keyIndex < records; keyIndex++, offsetAddr += 4, bitsAddr += blockWidth){
-          if(compare.isComparableBigBits(bitsAddr)){
-            final int keyHash = (int)hashValues.get(keyIndex);
-            PlatformDependent.putInt(offsetAddr, table.find(keyFixedVectorAddr, keyVarVectorAddr, keyIndex, keyHash));
-          } else {
-            // the nulls are not comparable. as such, this doesn't match.
+          if(!compare.isComparableBigBits(bitsAddr)){
             PlatformDependent.putInt(offsetAddr, SKIP);
           }
         }
         break;
       }
 
-
       default:
         throw new IllegalStateException();
       }
@@ -286,7 +291,9 @@ public class BlockJoinTable implements JoinTable {
 
   @Override
   public void close() throws Exception {
-    table.close();
+    if (!view) {
+      table.close();
+    }
   }
 
   @Override
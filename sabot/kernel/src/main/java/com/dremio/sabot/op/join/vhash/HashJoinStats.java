@@ -19,7 +19,8 @@ import com.dremio.sabot.exec.context.MetricDef;
 
 /**
  * Stats for {@link com.dremio.sabot.op.join.hash.HashJoinOperator}
- * and {@link com.dremio.sabot.op.join.vhash.VectorizedHashJoinOperator}
+ * {@link com.dremio.sabot.op.join.vhash.VectorizedHashJoinOperator}
+ * and {@link com.dremio.sabot.op.join.vhash.VectorizedSpillingHashJoinOperator}
  * VERY IMPORTANT
  * Please add new stats at the end of Metric table and
  * be careful about changing the order of metrics and/or
@@ -54,7 +55,15 @@ public class HashJoinStats {
     HASHCOMPUTATION_TIME_NANOS,  /* used by hash agg and build side of hash join */
     PROBE_HASHCOMPUTATION_TIME_NANOS, /* used by probe side of hash join */
     RUNTIME_FILTER_DROP_COUNT,
-    RUNTIME_COL_FILTER_DROP_COUNT;
+    RUNTIME_COL_FILTER_DROP_COUNT,
+    SPILL_PARTITIONS,       /* spilled partitions, including the ones partitioned again */
+    SPILL_RECURSION_DEPTH,  /* deepest level of partitioning */
+    SPILL_BUILD_BYTES,
+    SPILL_PROBE_BYTES,
+    SPILL_WRITE_IO_NANOS,
+    SPILL_READ_IO_NANOS,
+    SHARED_BUILD,           /* 1 if this fragment built a shared build side, 2 if it probed one built by another fragment */
+    SHARED_BUILD_WAIT_NANOS;
 
 
     @Override
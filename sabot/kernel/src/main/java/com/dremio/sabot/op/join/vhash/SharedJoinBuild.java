@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.join.vhash;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.exec.record.ExpandableHyperContainer;
+import com.dremio.sabot.op.join.hash.BuildInfo;
+import com.dremio.sabot.threads.sharedres.SharedResource;
+import com.google.common.base.Preconditions;
+
+/**
+ * Build side of a broadcast hash join, shared by the minor fragments of the phase running on the same node.<br>
+ * <br>
+ * All these fragments receive the same build batches. The first one to claim the build inserts them into a
+ * hash table allocated from the allocator of this object, and publishes it. The other ones drop their build
+ * batches, and block until the table is published. Once published, the table is only read, by all the fragments.
+ * Match tracking of build keys is per fragment, so this is only used for joins that don't output unmatched
+ * build records.<br>
+ * <br>
+ * Multi-thread safe
+ */
+class SharedJoinBuild implements AutoCloseable {
+  private final BufferAllocator allocator;
+  private final List<SharedResource> waiting = new ArrayList<>();
+
+  private boolean claimed;
+  private boolean published;
+  private boolean abandoned;
+
+  private BlockJoinTable table;
+  private ExpandableHyperContainer hyperContainer;
+  private List<BuildInfo> buildInfoList;
+  private List<ArrowBuf> startIndices;
+  private int maxHashTableIndex;
+
+  SharedJoinBuild(BufferAllocator allocator) {
+    this.allocator = allocator;
+  }
+
+  /**
+   * @return allocator for the build side structures
+   */
+  BufferAllocator getAllocator() {
+    return allocator;
+  }
+
+  /**
+   * @return true if the caller is the first fragment to claim the build, and has to build and publish the table
+   */
+  synchronized boolean claim() {
+    if (claimed) {
+      return false;
+    }
+    claimed = true;
+    return true;
+  }
+
+  /**
+   * Publish the build side. The structures are owned by this object from now on, and must not be modified.
+   */
+  synchronized void publish(BlockJoinTable table, ExpandableHyperContainer hyperContainer, List<BuildInfo> buildInfoList,
+                            List<ArrowBuf> startIndices, int maxHashTableIndex) {
+    Preconditions.checkState(!published && !abandoned, "Shared build side already published or abandoned");
+    this.table = table;
+    this.hyperContainer = hyperContainer;
+    this.buildInfoList = new ArrayList<>(buildInfoList);
+    this.startIndices = new ArrayList<>(startIndices);
+    this.maxHashTableIndex = maxHashTableIndex;
+    this.published = true;
+    wakeUpWaiting();
+  }
+
+  /**
+   * Called by the fragment that claimed the build if it closes without publishing: the fragments waiting for
+   * the table are woken up, and fail.
+   */
+  synchronized void abandon() {
+    if (!published) {
+      abandoned = true;
+      wakeUpWaiting();
+    }
+  }
+
+  /**
+   * Check whether the build side is available, and if not, block the given resource until it is.
+   * Must be called by the fragment that owns the resource.
+   *
+   * @return true if the build side is published (or abandoned)
+   */
+  synchronized boolean isAvailableOrBlock(SharedResource resource) {
+    if (published || abandoned) {
+      return true;
+    }
+    waiting.add(resource);
+    resource.markBlocked();
+    return false;
+  }
+
+  synchronized boolean isPublished() {
+    return published;
+  }
+
+  private void checkPublished() {
+    Preconditions.checkState(published, abandoned ? "Fragment building the shared join table failed" :
+      "Shared join table is not published yet");
+  }
+
+  synchronized BlockJoinTable getTable() {
+    checkPublished();
+    return table;
+  }
+
+  synchronized ExpandableHyperContainer getHyperContainer() {
+    checkPublished();
+    return hyperContainer;
+  }
+
+  synchronized List<BuildInfo> getBuildInfoList() {
+    checkPublished();
+    return buildInfoList;
+  }
+
+  synchronized List<ArrowBuf> getStartIndices() {
+    checkPublished();
+    return startIndices;
+  }
+
+  synchronized int getMaxHashTableIndex() {
+    checkPublished();
+    return maxHashTableIndex;
+  }
+
+  private void wakeUpWaiting() {
+    for (SharedResource resource : waiting) {
+      resource.markAvailable();
+    }
+    waiting.clear();
+  }
+
+  @Override
+  public synchronized void close() throws Exception {
+    if (!published) {
+      return;
+    }
+    final List<AutoCloseable> closeables = new ArrayList<>();
+    closeables.add(hyperContainer);
+    closeables.add(table);
+    closeables.addAll(buildInfoList);
+    closeables.addAll(startIndices);
+    AutoCloseables.close(closeables);
+  }
+}
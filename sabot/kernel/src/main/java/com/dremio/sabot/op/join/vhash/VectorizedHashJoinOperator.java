@@ -29,6 +29,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.OutOfMemoryException;
 import org.apache.arrow.vector.FieldVector;
 import org.apache.arrow.vector.VarBinaryVector;
@@ -64,6 +65,7 @@ import com.dremio.exec.util.ValueListFilter;
 import com.dremio.exec.util.ValueListFilterBuilder;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.sabot.exec.context.PhaseSharedState;
 import com.dremio.sabot.exec.fragment.OutOfBandMessage;
 import com.dremio.sabot.op.aggregate.vectorized.VariableLengthValidator;
 import com.dremio.sabot.op.common.hashtable.Comparator;
@@ -75,6 +77,8 @@ import com.dremio.sabot.op.join.JoinUtils;
 import com.dremio.sabot.op.join.hash.BuildInfo;
 import com.dremio.sabot.op.join.vhash.HashJoinStats.Metric;
 import com.dremio.sabot.op.spi.DualInputOperator;
+import com.dremio.sabot.threads.sharedres.SharedResource;
+import com.dremio.sabot.threads.sharedres.SharedResourceType;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
@@ -107,6 +111,7 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
   private final HashJoinPOP config;
 
   private final Stopwatch linkWatch = Stopwatch.createUnstarted();
+  private final Stopwatch sharedBuildWatch = Stopwatch.createUnstarted();
 
   // A structure that parallels the
   private final List<ArrowBuf> startIndices = new ArrayList<>();
@@ -162,11 +167,22 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
   private long outputRecords = 0;
   private int runtimeValFilterCap;
 
+  /* Build side shared by the fragments of this phase on this node, for broadcast joins. Null if not shared.
+   * The fragment that claims it (buildsShared) builds and publishes it, the other ones drop their build batches
+   * and probe a read only view of the published table.
+   */
+  private SharedJoinBuild sharedBuild;
+  private boolean buildsShared;
+  private SharedResource sharedBuildResource;
+  // allocator of the hash table, links and build batches
+  private BufferAllocator buildAllocator;
+
   public VectorizedHashJoinOperator(OperatorContext context, HashJoinPOP popConfig) throws OutOfMemoryException {
     this.context = context;
     this.config = popConfig;
     this.joinType = popConfig.getJoinType();
     this.outgoing = new VectorContainer(context.getAllocator());
+    this.buildAllocator = context.getAllocator();
     final Set<Integer> allMinorFragments = context.getAssignments().stream().flatMap(a -> a.getMinorFragmentIdList().stream())
               .collect(Collectors.toSet()); // all minor fragments across all assignments
     runtimeValFilterCap = (int) context.getOptions().getOption(ExecConstants.RUNTIME_FILTER_VALUE_FILTER_MAX_SIZE);
@@ -271,6 +287,22 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
       fieldIndex++;
     }
 
+    final PhaseSharedState phaseSharedState = context.getPhaseSharedState();
+    if (config.isSharedBuild() && phaseSharedState != null && context.getPipelineResourceGroup() != null
+        && (joinType == JoinRelType.INNER || joinType == JoinRelType.LEFT)) {
+      sharedBuild = phaseSharedState.acquire(config.getProps().getLocalOperatorId(),
+        config.getProps().getMemLimit(), SharedJoinBuild::new);
+      buildsShared = sharedBuild.claim();
+      if (buildsShared) {
+        buildAllocator = sharedBuild.getAllocator();
+      } else {
+        sharedBuildResource = context.getPipelineResourceGroup().createResource(
+          "shared-join-build-" + config.getProps().getLocalOperatorId(), SharedResourceType.SHARED_JOIN_BUILD);
+      }
+      // only the generic table can be probed concurrently
+      mode = Mode.VECTORIZED_GENERIC;
+    }
+
     for(VectorWrapper<?> w : right){
       final FieldVector v = (FieldVector) w.getValueVector();
       if(v instanceof VarBinaryVector || v instanceof VarCharVector){
@@ -329,10 +361,14 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
       case VECTORIZED_GENERIC:
         // Create the PivotDef for unpivot in projectBuildNonMatches
         this.buildUnpivot = PivotBuilder.getBlockDefinition(buildOutputFields);
+        if (sharedBuild != null && !buildsShared) {
+          // the table is built by another fragment, see attachSharedBuild()
+          break;
+        }
         // Create the hyper container with isKeyBits that indicates which field is key and will not be added to hyper container
-        hyperContainer = new ExpandableHyperContainer(context.getAllocator(), right.getSchema(), isKeyBits);
+        hyperContainer = new ExpandableHyperContainer(buildAllocator, right.getSchema(), isKeyBits);
         // Create generic hash table
-        this.table = new BlockJoinTable(buildPivot, probePivot, context.getAllocator(), comparator, (int)context.getOptions().getOption(ExecConstants.MIN_HASH_TABLE_SIZE), INITIAL_VAR_FIELD_AVERAGE_SIZE);
+        this.table = new BlockJoinTable(buildPivot, probePivot, buildAllocator, comparator, (int)context.getOptions().getOption(ExecConstants.MIN_HASH_TABLE_SIZE), INITIAL_VAR_FIELD_AVERAGE_SIZE);
         break;
       default:
         throw new UnsupportedOperationException();
@@ -368,6 +404,11 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
   public void consumeDataRight(int records) throws Exception {
     state.is(State.CAN_CONSUME_R);
 
+    if (sharedBuild != null && !buildsShared) {
+      // the fragment building the shared table receives the same batches
+      return;
+    }
+
     // ensure that none of the variable length vectors are corrupt so we can avoid doing bounds checking later.
     for(FieldVector v : buildVectorsToValidate){
       VariableLengthValidator.validateVariable(v, records);
@@ -399,7 +440,7 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
      * to the hyper vector container. Will be used when we want to retrieve
      * records that have matching keys on the probe side.
      */
-    hyperContainer.addBatch(VectorContainer.getTransferClone(right, context.getAllocator()));
+    hyperContainer.addBatch(VectorContainer.getTransferClone(right, buildAllocator));
     // completed processing a batch, increment batch index
 
     buildBatchIndex++;
@@ -513,6 +554,10 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
 
     stats.setLongStat(Metric.VECTORIZED, mode.ordinal());
     stats.setLongStat(Metric.LINK_TIME_NANOS, linkWatch.elapsed(ns));
+    if (sharedBuild != null) {
+      stats.setLongStat(Metric.SHARED_BUILD, buildsShared ? 1 : 2);
+      stats.setLongStat(Metric.SHARED_BUILD_WAIT_NANOS, sharedBuildWatch.elapsed(ns));
+    }
 
     if(probe != null){
       stats.setLongStat(Metric.PROBE_PIVOT_NANOS, table.getProbePivotTime(ns));
@@ -534,12 +579,29 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
   public void noMoreToConsumeRight() throws Exception {
     state.is(State.CAN_CONSUME_R);
 
+    if (sharedBuild != null) {
+      if (buildsShared) {
+        sharedBuild.publish((BlockJoinTable) table, hyperContainer, buildInfoList, startIndices, maxHashTableIndex);
+      } else {
+        // the fragment is blocked until the table is published, the probe is set up on the first probe batch
+        sharedBuildWatch.start();
+        sharedBuild.isAvailableOrBlock(sharedBuildResource);
+        state = State.CAN_CONSUME_L;
+        return;
+      }
+    }
+
     if ((table.size() == 0) && !(joinType == JoinRelType.LEFT || joinType == JoinRelType.FULL)) {
       // nothing needs to be read on the left side as right side is empty
       state = State.DONE;
       return;
     }
 
+    startProbe();
+    state = State.CAN_CONSUME_L;
+  }
+
+  private void startProbe() {
     tryPushRuntimeFilter();
     this.probe = new VectorizedProbe();
     this.probe.setup(
@@ -561,12 +623,33 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
         buildUnpivot,
         context.getTargetBatchSize(),
         comparator);
-    state = State.CAN_CONSUME_L;
+  }
+
+  /**
+   * Sets up the probe on the build side published by another fragment, with match bits of its own.
+   */
+  private void attachSharedBuild() {
+    if (sharedBuild == null || buildsShared || probe != null) {
+      return;
+    }
+    if (sharedBuildWatch.isRunning()) {
+      sharedBuildWatch.stop();
+    }
+    this.table = new BlockJoinTable(sharedBuild.getTable(), probePivot, context.getAllocator(), comparator);
+    this.hyperContainer = sharedBuild.getHyperContainer();
+    buildInfoList.addAll(sharedBuild.getBuildInfoList());
+    startIndices.addAll(sharedBuild.getStartIndices());
+    maxHashTableIndex = sharedBuild.getMaxHashTableIndex();
+    for (int i = 0; i < startIndices.size(); i++) {
+      keyMatchBitVectors.add(new MatchBitSet(HashTable.BATCH_SIZE, context.getAllocator()));
+    }
+    startProbe();
   }
 
   @Override
   public void consumeDataLeft(int records) throws Exception {
     state.is(State.CAN_CONSUME_L);
+    attachSharedBuild();
 
     // ensure that none of the variable length vectors are corrupt so we can avoid doing bounds checking later.
     for(FieldVector v : probeVectorsToValidate){
@@ -609,6 +692,7 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
   @Override
   public void noMoreToConsumeLeft() throws Exception {
     state.is(State.CAN_CONSUME_L);
+    attachSharedBuild();
 
     finishedProbe = true;
     if(joinType == JoinRelType.FULL || joinType == JoinRelType.RIGHT){
@@ -623,7 +707,7 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
   public ArrowBuf newLinksBuffer(int recordCount) {
     // Each link is 6 bytes.
     // First 4 bytes are used to identify the batch and remaining 2 bytes for record within the batch.
-    final ArrowBuf linkBuf = context.getAllocator().buffer(recordCount * HashTable.BUILD_RECORD_LINK_SIZE);
+    final ArrowBuf linkBuf = buildAllocator.buffer(recordCount * HashTable.BUILD_RECORD_LINK_SIZE);
 
     // Initialize the buffer. Write -1 (int) in the first four bytes.
     long bufOffset = linkBuf.memoryAddress();
@@ -948,16 +1032,33 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
   public void close() throws Exception {
     updateStats();
     List<AutoCloseable> autoCloseables = new ArrayList<>();
+    // once published, the shared build side is closed by the last fragment that releases it
+    final boolean ownsBuild = sharedBuild == null || !sharedBuild.isPublished();
     autoCloseables.add(filterManager);
-    autoCloseables.add(hyperContainer);
-    autoCloseables.add(table);
+    if (ownsBuild) {
+      autoCloseables.add(hyperContainer);
+      autoCloseables.add(table);
+    }
     autoCloseables.add(probe);
     autoCloseables.add(outgoing);
-    autoCloseables.addAll(buildInfoList);
+    if (ownsBuild) {
+      autoCloseables.addAll(buildInfoList);
+    }
     autoCloseables.addAll(probeIncomingKeys);
     autoCloseables.addAll(buildOutputKeys);
-    autoCloseables.addAll(startIndices);
+    if (ownsBuild) {
+      autoCloseables.addAll(startIndices);
+    }
     autoCloseables.addAll(keyMatchBitVectors);
+    if (sharedBuild != null) {
+      // after the build side structures, as releasing may close their allocator
+      autoCloseables.add(() -> {
+        if (buildsShared) {
+          sharedBuild.abandon();
+        }
+        context.getPhaseSharedState().release(config.getProps().getLocalOperatorId());
+      });
+    }
     AutoCloseables.close(autoCloseables);
   }
 }
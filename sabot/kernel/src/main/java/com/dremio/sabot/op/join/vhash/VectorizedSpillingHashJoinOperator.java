@@ -0,0 +1,699 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.join.vhash;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.SimpleBigIntVector;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.logical.data.JoinCondition;
+import com.dremio.common.utils.protos.QueryIdHelper;
+import com.dremio.exec.expr.ValueVectorReadExpression;
+import com.dremio.exec.physical.config.HashJoinPOP;
+import com.dremio.exec.proto.ExecProtos.FragmentHandle;
+import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.exec.store.LocalSyncableFileSystem;
+import com.dremio.exec.store.dfs.FileSystemPlugin;
+import com.dremio.options.Options;
+import com.dremio.options.TypeValidators.DoubleValidator;
+import com.dremio.options.TypeValidators.PositiveLongValidator;
+import com.dremio.options.TypeValidators.PowerOfTwoLongValidator;
+import com.dremio.options.TypeValidators.RangeDoubleValidator;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.sabot.exec.fragment.OutOfBandMessage;
+import com.dremio.sabot.op.common.ht2.BlockChunk;
+import com.dremio.sabot.op.common.ht2.FieldVectorPair;
+import com.dremio.sabot.op.common.ht2.FixedBlockVector;
+import com.dremio.sabot.op.common.ht2.HashComputation;
+import com.dremio.sabot.op.common.ht2.PivotBuilder;
+import com.dremio.sabot.op.common.ht2.PivotDef;
+import com.dremio.sabot.op.common.ht2.Pivots;
+import com.dremio.sabot.op.common.ht2.VariableBlockVector;
+import com.dremio.sabot.op.copier.FieldBufferCopier;
+import com.dremio.sabot.op.join.vhash.HashJoinStats.Metric;
+import com.dremio.sabot.op.sort.external.SpillManager;
+import com.dremio.sabot.op.sort.external.SpillManager.SpillFile;
+import com.dremio.sabot.op.sort.external.SpillManager.SpillInputStream;
+import com.dremio.sabot.op.sort.external.SpillManager.SpillOutputStream;
+import com.dremio.sabot.op.spi.DualInputOperator;
+import com.google.common.base.Preconditions;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Vectorized hash join that degrades to a grace hash join when its build side doesn't fit in memory.
+ *
+ * The build batches are buffered until either:
+ * - the build side is over: the join is then done entirely in memory by a {@link VectorizedHashJoinOperator},
+ *   exactly as if spilling was disabled.
+ * - the operator allocation exceeds a fraction of its limit: the buffered and subsequent build batches,
+ *   and then all the probe batches, are hash partitioned into spill files. Once the probe side is over,
+ *   each pair of (build, probe) partitions is joined by its own {@link VectorizedHashJoinOperator}. A
+ *   partition whose build side is still too large is partitioned again with a different hash seed, up to
+ *   a maximum recursion depth.
+ *
+ * Runtime filters are only produced when the join runs in memory: a partition only sees part of the
+ * build keys, so filters built from it would drop matching probe records.
+ */
+@Options
+public class VectorizedSpillingHashJoinOperator implements DualInputOperator {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(VectorizedSpillingHashJoinOperator.class);
+
+  public static final PowerOfTwoLongValidator NUM_PARTITIONS = new PowerOfTwoLongValidator("exec.operator.join.vectorize.spill.num_partitions", 64, 8);
+  // fraction of the operator allocation limit that the buffered build side can use before spilling
+  public static final DoubleValidator MEMORY_FRACTION = new RangeDoubleValidator("exec.operator.join.vectorize.spill.memory_fraction", 0.0d, 1.0d, 0.5d);
+  public static final PositiveLongValidator MAX_RECURSION_DEPTH = new PositiveLongValidator("exec.operator.join.vectorize.spill.max_recursion_depth", 8, 3);
+
+  private static final String DREMIO_LOCAL_IMPL_STRING = "fs.dremio-local.impl";
+
+  private final OperatorContext context;
+  private final HashJoinPOP config;
+  private final BufferAllocator allocator;
+  private final JoinRelType joinType;
+  private final int numPartitions;
+  private final long spillThreshold;
+  private final int maxRecursionDepth;
+  private final List<LogicalExpression> buildKeys = new ArrayList<>();
+  private final List<LogicalExpression> probeKeys = new ArrayList<>();
+
+  private final VectorContainer outgoing;
+  private final List<VectorContainer> bufferedBuild = new ArrayList<>();
+  private final Deque<SpilledPartition> partitions = new ArrayDeque<>();
+
+  private VectorAccessible left;
+  private VectorAccessible right;
+  private State state = State.NEEDS_SETUP;
+
+  /* in memory join: either for the whole input, or for the current spilled partition */
+  private VectorizedHashJoinOperator join;
+  private VectorContainer joinOutgoing;
+  private VectorContainer buildInput;
+  private VectorContainer probeInput;
+
+  /* spilling state */
+  private boolean spilling;
+  private SpillManager spillManager;
+  private int spillFileIndex;
+  private VectorContainer buildStaging;
+  private VectorContainer probeStaging;
+  private PartitionSource rightSource;
+  private PartitionSource leftSource;
+  private PartitionSource buildInputSource;
+  private PartitionSource probeInputSource;
+  private PartitionWriter buildWriter;
+  private PartitionWriter probeWriter;
+  private SpilledSide[] spilledBuild;
+
+  /* current spilled partition, joined or partitioned again */
+  private SpilledPartition currentPartition;
+  private SpillInputStream currentStream;
+  private int currentBatchesLeft;
+  private PartitionWriter repartitionWriter;
+  private SpilledSide[] repartitionedBuild;
+
+  private long spilledPartitions;
+  private int maxSpillDepth;
+  private long spilledBuildBytes;
+  private long spilledProbeBytes;
+
+  public VectorizedSpillingHashJoinOperator(OperatorContext context, HashJoinPOP config) {
+    this.context = context;
+    this.config = config;
+    this.allocator = context.getAllocator();
+    this.joinType = config.getJoinType();
+    this.numPartitions = (int) context.getOptions().getOption(NUM_PARTITIONS);
+    this.maxRecursionDepth = (int) context.getOptions().getOption(MAX_RECURSION_DEPTH);
+    final double fraction = context.getOptions().getOption(MEMORY_FRACTION);
+    this.spillThreshold = allocator.getLimit() == Long.MAX_VALUE ? Long.MAX_VALUE : (long) (allocator.getLimit() * fraction);
+    this.outgoing = new VectorContainer(allocator);
+    for (JoinCondition c : config.getConditions()) {
+      buildKeys.add(c.getRight());
+      probeKeys.add(c.getLeft());
+    }
+  }
+
+  @Override
+  public State getState() {
+    return state;
+  }
+
+  @Override
+  public VectorAccessible setup(VectorAccessible left, VectorAccessible right) throws Exception {
+    state.is(State.NEEDS_SETUP);
+    this.left = left;
+    this.right = right;
+    // same layout as the outgoing container of VectorizedHashJoinOperator, see transferOutput()
+    outgoing.addSchema(right.getSchema());
+    outgoing.addSchema(left.getSchema());
+    outgoing.buildSchema(SelectionVectorMode.NONE);
+    buildInput = VectorContainer.create(allocator, right.getSchema());
+    state = State.CAN_CONSUME_R;
+    return outgoing;
+  }
+
+  @Override
+  public void consumeDataRight(int records) throws Exception {
+    state.is(State.CAN_CONSUME_R);
+    if (spilling) {
+      buildWriter.write(rightSource, records);
+    } else {
+      bufferedBuild.add(VectorContainer.getTransferClone(right, allocator));
+      if (allocator.getAllocatedMemory() > spillThreshold) {
+        startSpilling();
+      }
+    }
+    updateStats();
+  }
+
+  @Override
+  public void noMoreToConsumeRight() throws Exception {
+    state.is(State.CAN_CONSUME_R);
+    if (spilling) {
+      spilledBuild = buildWriter.finish();
+      buildWriter = null;
+      probeWriter = new PartitionWriter(1, false);
+      state = State.CAN_CONSUME_L;
+      return;
+    }
+
+    // the build side fits in memory, join everything in memory
+    startJoin(config, left);
+    for (VectorContainer batch : bufferedBuild) {
+      loadBuildInput(batch);
+      join.consumeDataRight(batch.getRecordCount());
+      batch.close();
+    }
+    bufferedBuild.clear();
+    join.noMoreToConsumeRight();
+    state = join.getState() == State.DONE ? State.DONE : State.CAN_CONSUME_L;
+  }
+
+  @Override
+  public void consumeDataLeft(int records) throws Exception {
+    state.is(State.CAN_CONSUME_L);
+    if (spilling) {
+      probeWriter.write(leftSource, records);
+      updateStats();
+      return;
+    }
+
+    join.consumeDataLeft(records);
+    state = join.getState();
+  }
+
+  @Override
+  public void noMoreToConsumeLeft() throws Exception {
+    state.is(State.CAN_CONSUME_L);
+    if (spilling) {
+      final SpilledSide[] spilledProbe = probeWriter.finish();
+      probeWriter = null;
+      addPartitions(spilledBuild, spilledProbe, 1, false);
+      spilledBuild = null;
+      updateStats();
+      state = State.CAN_PRODUCE;
+      return;
+    }
+
+    join.noMoreToConsumeLeft();
+    state = join.getState();
+  }
+
+  @Override
+  public int outputData() throws Exception {
+    state.is(State.CAN_PRODUCE);
+    if (!spilling) {
+      final int records = join.outputData();
+      state = join.getState();
+      return transferOutput(records);
+    }
+    return outputSpilled();
+  }
+
+  /**
+   * Makes progress on the spilled partitions: reads/writes at most one spilled batch per call,
+   * and returns as soon as the join of the current partition produced some output.
+   *
+   * @return number of records outputted
+   */
+  private int outputSpilled() throws Exception {
+    while (true) {
+      if (repartitionWriter != null) {
+        continueRepartition();
+        return 0;
+      }
+
+      if (join == null) {
+        currentPartition = partitions.pollFirst();
+        if (currentPartition == null) {
+          updateStats();
+          state = State.DONE;
+          return 0;
+        }
+
+        if (canSkip(currentPartition)) {
+          closeCurrentPartition();
+          continue;
+        }
+
+        if (currentPartition.build.bytes > spillThreshold && currentPartition.depth < maxRecursionDepth) {
+          startRepartition();
+          return 0;
+        }
+
+        startJoin(withoutRuntimeFilter(), probeInput);
+        openCurrentStream(currentPartition.build);
+        continue;
+      }
+
+      switch (join.getState()) {
+        case CAN_CONSUME_R:
+          if (currentBatchesLeft > 0) {
+            readBatch(buildInput);
+            join.consumeDataRight(buildInput.getRecordCount());
+            return 0;
+          }
+          closeCurrentStream();
+          join.noMoreToConsumeRight();
+          if (join.getState() == State.CAN_CONSUME_L) {
+            openCurrentStream(currentPartition.probe);
+          }
+          continue;
+
+        case CAN_CONSUME_L:
+          if (currentBatchesLeft > 0) {
+            readBatch(probeInput);
+            join.consumeDataLeft(probeInput.getRecordCount());
+          } else {
+            closeCurrentStream();
+            join.noMoreToConsumeLeft();
+          }
+          continue;
+
+        case CAN_PRODUCE:
+          return transferOutput(join.outputData());
+
+        case DONE:
+          closeCurrentPartition();
+          continue;
+
+        default:
+          throw new IllegalStateException("Unexpected state of partition join: " + join.getState());
+      }
+    }
+  }
+
+  /**
+   * A partition doesn't produce any output if one of its sides is empty, and the join
+   * doesn't preserve the records of the other side.
+   */
+  private boolean canSkip(SpilledPartition partition) {
+    final boolean preserveProbe = joinType == JoinRelType.LEFT || joinType == JoinRelType.FULL;
+    final boolean preserveBuild = joinType == JoinRelType.RIGHT || joinType == JoinRelType.FULL;
+    return (partition.build.records == 0 && !preserveProbe) || (partition.probe.records == 0 && !preserveBuild);
+  }
+
+  private HashJoinPOP withoutRuntimeFilter() {
+    return new HashJoinPOP(config.getProps(), config.getLeft(), config.getRight(), config.getConditions(),
+      config.getJoinType(), config.isVectorize(), null);
+  }
+
+  private void startJoin(HashJoinPOP joinConfig, VectorAccessible probe) throws Exception {
+    Preconditions.checkState(join == null, "Previous join was not closed");
+    join = new VectorizedHashJoinOperator(context, joinConfig);
+    joinOutgoing = (VectorContainer) join.setup(probe, buildInput);
+  }
+
+  private int transferOutput(int records) {
+    joinOutgoing.transferOut(outgoing);
+    return outgoing.setAllCount(records);
+  }
+
+  private void loadBuildInput(VectorContainer batch) {
+    buildInput.zeroVectors();
+    batch.transferOut(buildInput);
+    buildInput.setAllCount(batch.getRecordCount());
+  }
+
+  /**
+   * Switches to spilling: sets up the partitioning and the spill files, and moves
+   * the buffered build batches to disk.
+   */
+  private void startSpilling() throws Exception {
+    final FragmentHandle handle = context.getFragmentHandle();
+    final Configuration conf = FileSystemPlugin.getNewFsConf();
+    conf.set(DREMIO_LOCAL_IMPL_STRING, LocalSyncableFileSystem.class.getName());
+    // If the location URI doesn't contain any schema, fall back to local.
+    conf.set(FileSystem.FS_DEFAULT_NAME_KEY, FileSystem.DEFAULT_FS);
+    final String id = String.format("hjoin-%s.%s.%s.%s", QueryIdHelper.getQueryId(handle.getQueryId()),
+      handle.getMajorFragmentId(), handle.getMinorFragmentId(), config.getProps().getLocalOperatorId());
+    spillManager = new SpillManager(context.getConfig(), context.getOptions(), id, conf, context.getSpillService(),
+      "hash join spilling", context.getStats());
+
+    probeInput = VectorContainer.create(allocator, left.getSchema());
+    buildStaging = VectorContainer.create(allocator, right.getSchema());
+    probeStaging = VectorContainer.create(allocator, left.getSchema());
+    rightSource = new PartitionSource(right, buildKeys, buildStaging);
+    buildInputSource = new PartitionSource(buildInput, buildKeys, buildStaging);
+    leftSource = new PartitionSource(left, probeKeys, probeStaging);
+    probeInputSource = new PartitionSource(probeInput, probeKeys, probeStaging);
+    spilling = true;
+
+    buildWriter = new PartitionWriter(1, true);
+    logger.debug("Build side exceeded {} bytes, spilling {} buffered batches", spillThreshold, bufferedBuild.size());
+    for (VectorContainer batch : bufferedBuild) {
+      loadBuildInput(batch);
+      buildWriter.write(buildInputSource, batch.getRecordCount());
+      buildInput.zeroVectors();
+      batch.close();
+    }
+    bufferedBuild.clear();
+  }
+
+  private void startRepartition() throws IOException {
+    logger.debug("Partition of depth {} has {} bytes on build side, partitioning again",
+      currentPartition.depth, currentPartition.build.bytes);
+    repartitionWriter = new PartitionWriter(currentPartition.depth + 1, true);
+    repartitionedBuild = null;
+    openCurrentStream(currentPartition.build);
+  }
+
+  /**
+   * Partitions one batch of the current partition again, build side first and then probe side.
+   */
+  private void continueRepartition() throws Exception {
+    final boolean build = repartitionedBuild == null;
+    if (currentBatchesLeft > 0) {
+      final VectorContainer input = build ? buildInput : probeInput;
+      readBatch(input);
+      repartitionWriter.write(build ? buildInputSource : probeInputSource, input.getRecordCount());
+      input.zeroVectors();
+      return;
+    }
+
+    closeCurrentStream();
+    final SpilledSide[] sides = repartitionWriter.finish();
+    if (build) {
+      repartitionedBuild = sides;
+      repartitionWriter = new PartitionWriter(currentPartition.depth + 1, false);
+      openCurrentStream(currentPartition.probe);
+    } else {
+      repartitionWriter = null;
+      addPartitions(repartitionedBuild, sides, currentPartition.depth + 1, true);
+      repartitionedBuild = null;
+      closeCurrentPartition();
+      updateStats();
+    }
+  }
+
+  private void addPartitions(SpilledSide[] build, SpilledSide[] probe, int depth, boolean first) {
+    maxSpillDepth = Math.max(maxSpillDepth, depth);
+    for (int i = 0; i < build.length; i++) {
+      // sub-partitions are processed before the remaining partitions of the parent level
+      final SpilledPartition partition = new SpilledPartition(build[first ? build.length - 1 - i : i],
+        probe[first ? probe.length - 1 - i : i], depth);
+      if (first) {
+        partitions.addFirst(partition);
+      } else {
+        partitions.addLast(partition);
+      }
+      spilledPartitions++;
+    }
+  }
+
+  private void openCurrentStream(SpilledSide side) throws IOException {
+    currentStream = side.file.open(false);
+    currentBatchesLeft = side.batches;
+  }
+
+  private void readBatch(VectorContainer container) throws IOException {
+    container.zeroVectors();
+    currentStream.load(container, allocator);
+    currentBatchesLeft--;
+  }
+
+  private void closeCurrentStream() throws Exception {
+    AutoCloseables.close(currentStream);
+    currentStream = null;
+    currentBatchesLeft = 0;
+  }
+
+  private void closeCurrentPartition() throws Exception {
+    try {
+      AutoCloseables.close(currentStream, join, currentPartition);
+    } finally {
+      currentStream = null;
+      join = null;
+      joinOutgoing = null;
+      currentPartition = null;
+    }
+  }
+
+  private FieldVector getField(VectorAccessible accessible, LogicalExpression expr) {
+    final LogicalExpression materialized = context.getClassProducer().materialize(expr, accessible);
+    if (!(materialized instanceof ValueVectorReadExpression)) {
+      throw new IllegalStateException("Only direct references allowed.");
+    }
+    final int[] fieldIds = ((ValueVectorReadExpression) materialized).getFieldId().getFieldIds();
+    return accessible.getValueAccessorById(FieldVector.class, fieldIds).getValueVector();
+  }
+
+  private void updateStats() {
+    final OperatorStats stats = context.getStats();
+    stats.setLongStat(Metric.SPILL_PARTITIONS, spilledPartitions);
+    stats.setLongStat(Metric.SPILL_RECURSION_DEPTH, maxSpillDepth);
+    stats.setLongStat(Metric.SPILL_BUILD_BYTES, spilledBuildBytes);
+    stats.setLongStat(Metric.SPILL_PROBE_BYTES, spilledProbeBytes);
+    if (spillManager != null) {
+      stats.setLongStat(Metric.SPILL_WRITE_IO_NANOS, spillManager.getIOWriteWait());
+      stats.setLongStat(Metric.SPILL_READ_IO_NANOS, spillManager.getIOReadWait());
+    }
+  }
+
+  @Override
+  public void workOnOOB(OutOfBandMessage message) {
+    // runtime filter pieces are only merged when the whole join runs in memory
+    if (join != null && !spilling) {
+      join.workOnOOB(message);
+    }
+  }
+
+  @Override
+  public <OUT, IN, EXCEP extends Throwable> OUT accept(OperatorVisitor<OUT, IN, EXCEP> visitor, IN value) throws EXCEP {
+    return visitor.visitDualInput(this, value);
+  }
+
+  @Override
+  public void close() throws Exception {
+    updateStats();
+    final List<AutoCloseable> closeables = new ArrayList<>();
+    closeables.add(currentStream);
+    closeables.add(join);
+    closeables.add(currentPartition);
+    closeables.add(repartitionWriter);
+    closeables.add(buildWriter);
+    closeables.add(probeWriter);
+    if (spilledBuild != null) {
+      closeables.add(AutoCloseables.all(Arrays.asList(spilledBuild)));
+    }
+    if (repartitionedBuild != null) {
+      closeables.add(AutoCloseables.all(Arrays.asList(repartitionedBuild)));
+    }
+    closeables.addAll(partitions);
+    closeables.addAll(bufferedBuild);
+    closeables.add(buildInput);
+    closeables.add(probeInput);
+    closeables.add(buildStaging);
+    closeables.add(probeStaging);
+    closeables.add(outgoing);
+    // deletes the spill directory, so it goes last
+    closeables.add(spillManager);
+    AutoCloseables.close(closeables);
+  }
+
+  /**
+   * Pivots the join keys of a container, and copies its records to a staging container
+   * of the same schema, to hash partition the batches of one side of the join.
+   */
+  private final class PartitionSource {
+    private final PivotDef pivot;
+    private final List<FieldBufferCopier> copiers;
+    private final VectorContainer staging;
+
+    PartitionSource(VectorAccessible incoming, List<LogicalExpression> keys, VectorContainer staging) {
+      final List<FieldVectorPair> fields = new ArrayList<>();
+      for (LogicalExpression key : keys) {
+        final FieldVector vector = getField(incoming, key);
+        fields.add(new FieldVectorPair(vector, vector));
+      }
+      this.pivot = PivotBuilder.getBlockDefinition(fields);
+      this.copiers = FieldBufferCopier.getCopiers(VectorContainer.getFieldVectors(incoming), VectorContainer.getFieldVectors(staging));
+      this.staging = staging;
+    }
+  }
+
+  /**
+   * Hash partitions the batches of one side of the join into one spill file per partition.
+   * The partition of a record is given by the high bits of the hash of its keys, computed
+   * with a seed that depends on the depth, so that partitioning again a partition spreads
+   * its records, and so that the hash table of a partition (which uses the low bits) stays balanced.
+   */
+  private final class PartitionWriter implements AutoCloseable {
+    private final int depth;
+    private final boolean build;
+    private final SpillFile[] files = new SpillFile[numPartitions];
+    private final SpillOutputStream[] streams = new SpillOutputStream[numPartitions];
+    private final int[] batches = new int[numPartitions];
+    private final long[] records = new long[numPartitions];
+    private final int[] counts = new int[numPartitions];
+
+    PartitionWriter(int depth, boolean build) throws IOException {
+      this.depth = depth;
+      this.build = build;
+      for (int i = 0; i < numPartitions; i++) {
+        files[i] = spillManager.getSpillFile(String.format("part%05d", spillFileIndex++));
+        streams[i] = files[i].create(false);
+      }
+    }
+
+    void write(PartitionSource source, int count) throws IOException {
+      if (count == 0) {
+        return;
+      }
+      final int mask = numPartitions - 1;
+      final PivotDef pivot = source.pivot;
+      try (FixedBlockVector fbv = new FixedBlockVector(allocator, pivot.getBlockWidth());
+           VariableBlockVector var = new VariableBlockVector(allocator, pivot.getVariableCount());
+           SimpleBigIntVector hashValues = new SimpleBigIntVector("hashvalues", allocator);
+           ArrowBuf selections = allocator.buffer(numPartitions * count * 2)) {
+        Pivots.pivot(pivot, count, fbv, var);
+        hashValues.allocateNew(count);
+        final BlockChunk blockChunk = new BlockChunk(fbv.getMemoryAddress(), var.getMemoryAddress(),
+          pivot.getVariableCount() == 0, pivot.getBlockWidth(), count, hashValues.getBufferAddress(), depth - 1);
+        HashComputation.computeHash(blockChunk);
+
+        // one selection vector per partition
+        final long selectionsAddr = selections.memoryAddress();
+        final int[] counts = this.counts;
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < count; i++) {
+          final int partition = ((int) (hashValues.get(i) >> 32)) & mask;
+          PlatformDependent.putShort(selectionsAddr + ((long) partition * count + counts[partition]) * 2, (short) i);
+          counts[partition]++;
+        }
+
+        final VectorContainer staging = source.staging;
+        for (int partition = 0; partition < numPartitions; partition++) {
+          if (counts[partition] == 0) {
+            continue;
+          }
+          for (FieldBufferCopier copier : source.copiers) {
+            copier.copy(selectionsAddr + (long) partition * count * 2, counts[partition]);
+          }
+          staging.setAllCount(counts[partition]);
+          streams[partition].writeBatch(staging);
+          staging.zeroVectors();
+          batches[partition]++;
+          records[partition] += counts[partition];
+        }
+      }
+    }
+
+    /**
+     * Closes the spill files for writing.
+     *
+     * @return the spilled data of each partition, which now owns the spill file
+     */
+    SpilledSide[] finish() throws Exception {
+      final SpilledSide[] sides = new SpilledSide[numPartitions];
+      for (int i = 0; i < numPartitions; i++) {
+        streams[i].close();
+        final long bytes = streams[i].getWriteBytes();
+        streams[i] = null;
+        if (build) {
+          spilledBuildBytes += bytes;
+        } else {
+          spilledProbeBytes += bytes;
+        }
+        sides[i] = new SpilledSide(files[i], batches[i], records[i], bytes);
+        files[i] = null;
+      }
+      return sides;
+    }
+
+    @Override
+    public void close() throws Exception {
+      AutoCloseables.close(AutoCloseables.all(Arrays.asList(streams)), AutoCloseables.all(Arrays.asList(files)));
+    }
+  }
+
+  /**
+   * Spilled batches of one partition of one side of the join.
+   */
+  private static final class SpilledSide implements AutoCloseable {
+    private final SpillFile file;
+    private final int batches;
+    private final long records;
+    private final long bytes;
+
+    SpilledSide(SpillFile file, int batches, long records, long bytes) {
+      this.file = file;
+      this.batches = batches;
+      this.records = records;
+      this.bytes = bytes;
+    }
+
+    @Override
+    public void close() throws Exception {
+      file.close();
+    }
+  }
+
+  /**
+   * Pair of build and probe partitions, joined together.
+   */
+  private static final class SpilledPartition implements AutoCloseable {
+    private final SpilledSide build;
+    private final SpilledSide probe;
+    private final int depth;
+
+    SpilledPartition(SpilledSide build, SpilledSide probe, int depth) {
+      this.build = build;
+      this.probe = probe;
+      this.depth = depth;
+    }
+
+    @Override
+    public void close() throws Exception {
+      AutoCloseables.close(build, probe);
+    }
+  }
+}
@@ -39,6 +39,7 @@ import com.dremio.exec.expr.CodeGenerator;
 import com.dremio.exec.expr.fn.FunctionGenerationHelper;
 import com.dremio.exec.physical.config.MergingReceiverPOP;
 import com.dremio.exec.record.ArrowRecordBatchLoader;
+import com.dremio.exec.record.ExchangeDecompressor;
 import com.dremio.exec.record.ExpandableHyperContainer;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.VectorContainer;
@@ -66,6 +67,7 @@ public class MergingReceiverOperator implements ProducerOperator {
   private final Node[] nodes;
   private final BatchStreamProvider streamProvider;
   private final OperatorStats stats;
+  private final ExchangeDecompressor decompressor;
 
   private static enum OutputState {INIT_ON_NEXT, ACTIVE_OUTPUT};
 
@@ -79,7 +81,9 @@ public class MergingReceiverOperator implements ProducerOperator {
   public static enum Metric implements MetricDef{
     BYTES_RECEIVED,
     NUM_SENDERS,
-    NEXT_WAIT_NANOS;
+    NEXT_WAIT_NANOS,
+    UNCOMPRESSED_BYTES_RECEIVED,
+    DECOMPRESSION_NANOS;
 
     @Override
     public int metricId() {
@@ -98,6 +102,7 @@ public class MergingReceiverOperator implements ProducerOperator {
     this.config = config;
     this.outgoingContainer = context.createOutputVectorContainer(config.getSchema());
     this.stats.setLongStat(Metric.NUM_SENDERS, config.getNumSenders());
+    this.decompressor = new ExchangeDecompressor(context.getAllocator());
     this.nodes = new Node[config.getNumSenders()];
     RawFragmentBatchProvider[] fragProviders = streamProvider.getBuffers(config.getSenderMajorFragmentId());
     assert fragProviders.length == config.getNumSenders();
@@ -309,17 +314,25 @@ public class MergingReceiverOperator implements ProducerOperator {
         clear();
 
         // get next batch.
-        currentBatch = provider.getNext();
+        final RawFragmentBatch received = provider.getNext();
 
 
         int size;
+        long bytesReceived;
         // we didn't get a batch. this is because we're pending on a message or we're finished.
-        if (currentBatch == null) {
+        if (received == null) {
+          currentBatch = null;
           if(provider.isStreamDone()){
             done = true;
           }
           return provider.isStreamDone();
         } else {
+          bytesReceived = received.getByteCount();
+          try {
+            currentBatch = decompressor.decompress(received);
+          } finally {
+            received.close();
+          }
 
           size = loader.load(currentBatch);
 
@@ -327,7 +340,9 @@ public class MergingReceiverOperator implements ProducerOperator {
         }
 
         // we received actual data, let's set things up and add to priority queue.
-        stats.addLongStat(Metric.BYTES_RECEIVED, currentBatch.getByteCount());
+        stats.addLongStat(Metric.BYTES_RECEIVED, bytesReceived);
+        stats.setLongStat(Metric.UNCOMPRESSED_BYTES_RECEIVED, decompressor.getUncompressedBytes());
+        stats.setLongStat(Metric.DECOMPRESSION_NANOS, decompressor.getDecompressionNanos());
         stats.batchReceived(0, loader.getRecordCount(), size);
         inputCounts += loader.getRecordCount();
         valueIndex = 0;
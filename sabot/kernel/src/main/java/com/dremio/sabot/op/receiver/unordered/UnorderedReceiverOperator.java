@@ -19,6 +19,7 @@ import com.dremio.common.AutoCloseables;
 import com.dremio.common.exceptions.ExecutionSetupException;
 import com.dremio.exec.physical.config.UnorderedReceiver;
 import com.dremio.exec.record.ArrowRecordBatchLoader;
+import com.dremio.exec.record.ExchangeDecompressor;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.sabot.exec.context.MetricDef;
@@ -41,10 +42,13 @@ public class UnorderedReceiverOperator implements ProducerOperator {
   private final OperatorContext context;
   private final VectorContainer outgoing;
   private final BatchStreamProvider streams;
+  private final ExchangeDecompressor decompressor;
 
   public enum Metric implements MetricDef {
     BYTES_RECEIVED,
-    NUM_SENDERS;
+    NUM_SENDERS,
+    UNCOMPRESSED_BYTES_RECEIVED,
+    DECOMPRESSION_NANOS;
 
     @Override
     public int metricId() {
@@ -66,6 +70,7 @@ public class UnorderedReceiverOperator implements ProducerOperator {
     // In normal case, batchLoader does not require an allocator. However, in case of splitAndTransfer of a value vector,
     // we may need an allocator for the new offset vector. Therefore, here we pass the context's allocator to batchLoader.
     this.batchLoader = new ArrowRecordBatchLoader(outgoing);
+    this.decompressor = new ExchangeDecompressor(context.getAllocator());
   }
 
   @Override
@@ -87,9 +92,9 @@ public class UnorderedReceiverOperator implements ProducerOperator {
 
     batchLoader.resetRecordCount();
 
-    try(final RawFragmentBatch batch = fragProvider.getNext()){
+    try(final RawFragmentBatch received = fragProvider.getNext()){
 
-      if(batch == null){
+      if(received == null){
         if(fragProvider.isStreamDone()){
           state = State.DONE;
         } else {
@@ -98,9 +103,14 @@ public class UnorderedReceiverOperator implements ProducerOperator {
         return 0;
       }
 
-      int size = batchLoader.load(batch);
+      final int size;
+      try (final RawFragmentBatch batch = decompressor.decompress(received)) {
+        size = batchLoader.load(batch);
+      }
 
-      stats.addLongStat(Metric.BYTES_RECEIVED, batch.getByteCount());
+      stats.addLongStat(Metric.BYTES_RECEIVED, received.getByteCount());
+      stats.setLongStat(Metric.UNCOMPRESSED_BYTES_RECEIVED, decompressor.getUncompressedBytes());
+      stats.setLongStat(Metric.DECOMPRESSION_NANOS, decompressor.getDecompressionNanos());
 
       final int count = batchLoader.getRecordCount();
       stats.batchReceived(0, count, size);
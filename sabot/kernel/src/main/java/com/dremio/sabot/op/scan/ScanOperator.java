@@ -161,7 +161,11 @@ public class ScanOperator implements ProducerOperator {
     MIN_METADATA_IO_READ_TIME_NS,  // Minimum IO read time for metadata operations
     MAX_METADATA_IO_READ_TIME_NS,   // Maximum IO read time for metadata operations
     AVG_METADATA_IO_READ_TIME_NS,  // Average IO read time for metadata operations
-    NUM_METADATA_IO_READ
+    NUM_METADATA_IO_READ,
+    NUM_FOOTER_CACHE_HITS, // Number of parquet footers served from the node-wide footer cache
+    NUM_FOOTER_CACHE_MISSES, // Number of parquet footers read from the file and added to the footer cache
+    NUM_FOOTER_CACHE_EVICTIONS, // Number of footers evicted from the footer cache to make room for the footers read
+    PAGE_BYTES_PRUNED // Compressed bytes of the pages skipped based on the column indexes
     ;
 
     @Override
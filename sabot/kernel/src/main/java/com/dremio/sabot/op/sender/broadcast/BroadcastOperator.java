@@ -24,12 +24,14 @@ import org.apache.arrow.memory.OutOfMemoryException;
 import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
 
 import com.dremio.common.exceptions.ExecutionSetupException;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.physical.config.BroadcastSender;
 import com.dremio.exec.physical.config.MinorFragmentEndpoint;
 import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
 import com.dremio.exec.proto.ExecProtos;
 import com.dremio.exec.proto.ExecProtos.FragmentHandle;
 import com.dremio.exec.proto.ExecRPC.FragmentStreamComplete;
+import com.dremio.exec.record.ExchangeCompressor;
 import com.dremio.exec.record.FragmentWritableBatch;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.sabot.exec.context.MetricDef;
@@ -60,12 +62,16 @@ public class BroadcastOperator extends BaseSender {
   private final ExecProtos.FragmentHandle handle;
   private final OperatorStats stats;
   private final OperatorContext context;
+  private final ExchangeCompressor compressor;
 
   private VectorAccessible incoming;
 
   public enum Metric implements MetricDef {
     N_RECEIVERS,
-    BYTES_SENT;
+    BYTES_SENT,
+    COMPRESSION_INPUT_BYTES,  // bytes of the batches, before compression (counted once for all the receivers)
+    COMPRESSION_OUTPUT_BYTES, // bytes of the batches, after compression (counted once for all the receivers)
+    COMPRESSION_NANOS;
     @Override
     public int metricId() {
       return ordinal();
@@ -102,6 +108,10 @@ public class BroadcastOperator extends BaseSender {
       tunnels[i] = tunnelProvider.getExecTunnel(ep);
       i++;
     }
+
+    this.compressor = context.getOptions().getOption(ExecConstants.EXCHANGE_COMPRESSION)
+      ? new ExchangeCompressor(context.getAllocator(), context.getOptions().getOption(ExecConstants.EXCHANGE_COMPRESSION_MAX_RATIO))
+      : null;
   }
 
   @Override
@@ -115,6 +125,11 @@ public class BroadcastOperator extends BaseSender {
   private void updateStats(FragmentWritableBatch writableBatch) {
     stats.setLongStat(Metric.N_RECEIVERS, tunnels.length);
     stats.addLongStat(Metric.BYTES_SENT, writableBatch.getByteCount());
+    if (compressor != null) {
+      stats.setLongStat(Metric.COMPRESSION_INPUT_BYTES, compressor.getUncompressedBytes());
+      stats.setLongStat(Metric.COMPRESSION_OUTPUT_BYTES, compressor.getCompressedBytes());
+      stats.setLongStat(Metric.COMPRESSION_NANOS, compressor.getCompressionNanos());
+    }
   }
 
   @Override
@@ -172,26 +187,26 @@ public class BroadcastOperator extends BaseSender {
         }
       }).toList();
 
-    if (tunnels.length > 1) {
-      for (ArrowBuf buf : buffers) {
-        buf.retain(tunnels.length - 1);
-      }
+    // the buffers are compressed once, and shared by the batches sent to all the receivers
+    final FragmentWritableBatch batch = new FragmentWritableBatch(
+        handle.getQueryId(),
+        handle.getMajorFragmentId(),
+        handle.getMinorFragmentId(),
+        config.getReceiverMajorFragmentId(),
+        new ArrowRecordBatch(arrowRecordBatch.getLength(), arrowRecordBatch.getNodes(), buffers, false),
+        compressor,
+        receivingMinorFragments[0]);
+    for (ArrowBuf buf : buffers) {
+      buf.release();
     }
 
-    for (int i = 0; i < tunnels.length; ++i) {
-      FragmentWritableBatch batch = new FragmentWritableBatch(
-          handle.getQueryId(),
-          handle.getMajorFragmentId(),
-          handle.getMinorFragmentId(),
-          config.getReceiverMajorFragmentId(),
-          new ArrowRecordBatch(arrowRecordBatch.getLength(), arrowRecordBatch.getNodes(), buffers, false),
-          receivingMinorFragments[i]);
-      updateStats(batch);
-      tunnels[i].sendRecordBatch(batch);
-      for (ArrowBuf buf : buffers) {
-        buf.release();
-      }
+    for (int i = 1; i < tunnels.length; ++i) {
+      final FragmentWritableBatch receiverBatch = batch.forReceivers(receivingMinorFragments[i]);
+      updateStats(receiverBatch);
+      tunnels[i].sendRecordBatch(receiverBatch);
     }
+    updateStats(batch);
+    tunnels[0].sendRecordBatch(batch);
   }
 
   public static class Creator implements TerminalOperator.Creator<BroadcastSender> {
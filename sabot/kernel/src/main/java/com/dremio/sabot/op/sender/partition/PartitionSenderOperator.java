@@ -92,7 +92,10 @@ public class PartitionSenderOperator extends BaseSender {
     PRECOPY_NS,
     FLUSH_NS,
     NUM_FLUSHES,
-    BUCKET_SIZE;
+    BUCKET_SIZE,
+    COMPRESSION_INPUT_BYTES,  // bytes of the sent batches, before compression
+    COMPRESSION_OUTPUT_BYTES, // bytes of the sent batches, after compression
+    COMPRESSION_NANOS;
 
     @Override
     public int metricId() {
@@ -456,7 +456,6 @@ public abstract class MultiDestCopier {
 
   static ImmutableList<MultiDestCopier> getCopiers(final List<FieldVector> inputs, OutgoingBatch[] batches,
                                                           CopyWatches copyWatches) {
-    ImmutableList.Builder<MultiDestCopier> copiers = ImmutableList.builder();
     final int numFields = inputs.size();
     final int numBatches = batches.length;
 
@@ -471,6 +470,16 @@ public abstract class MultiDestCopier {
       }
     }
 
+    return getCopiers(inputs, outputs, copyWatches);
+  }
+
+  /**
+   * @param inputs incoming field vectors
+   * @param outputs target field vectors, outputs[f][b] = field vector f for batch b
+   */
+  static ImmutableList<MultiDestCopier> getCopiers(final List<FieldVector> inputs, final FieldVector[][] outputs,
+                                                   CopyWatches copyWatches) {
+    ImmutableList.Builder<MultiDestCopier> copiers = ImmutableList.builder();
     for (int i = 0; i < inputs.size(); i++) {
       final FieldVector input = inputs.get(i);
       final FieldVector[] targets = outputs[i];
@@ -32,11 +32,13 @@ import com.carrotsearch.hppc.IntArrayList;
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.expression.SchemaPath;
 import com.dremio.common.util.Numbers;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.physical.config.HashPartitionSender;
 import com.dremio.exec.physical.config.MinorFragmentEndpoint;
 import com.dremio.exec.proto.ExecProtos;
 import com.dremio.exec.proto.ExecRPC;
 import com.dremio.exec.record.BatchSchema;
+import com.dremio.exec.record.ExchangeCompressor;
 import com.dremio.exec.record.TypedFieldId;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.VectorContainer;
@@ -209,14 +211,18 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
   private void initBatchesAndLookup(VectorAccessible incoming) {
     final BufferAllocator allocator = context.getAllocator();
     final List<MinorFragmentEndpoint> destinations = config.getDestinations(context.getEndpointsIndex());
+    // a single compressor, so that the compression ratio of each column is sampled across all the receivers
+    final ExchangeCompressor compressor = context.getOptions().getOption(ExecConstants.EXCHANGE_COMPRESSION)
+      ? new ExchangeCompressor(allocator, context.getOptions().getOption(ExecConstants.EXCHANGE_COMPRESSION_MAX_RATIO))
+      : null;
     for (int p = 0; p < numReceivers; p++) {
       final int batchB = numReceivers + p;
 
       final MinorFragmentEndpoint destination = destinations.get(p);
       final AccountingExecTunnel tunnel = tunnelProvider.getExecTunnel(destination.getEndpoint());
 
-      batches[p] = new OutgoingBatch(p, batchB, numRecordsBeforeFlush, incoming, allocator, tunnel, config, context, destination.getMinorFragmentId(), stats);
-      batches[batchB] = new OutgoingBatch(batchB, p, numRecordsBeforeFlush, incoming, allocator, tunnel, config, context, destination.getMinorFragmentId(), stats);
+      batches[p] = new OutgoingBatch(p, batchB, numRecordsBeforeFlush, incoming, allocator, tunnel, config, context, destination.getMinorFragmentId(), stats, compressor);
+      batches[batchB] = new OutgoingBatch(batchB, p, numRecordsBeforeFlush, incoming, allocator, tunnel, config, context, destination.getMinorFragmentId(), stats, compressor);
 
       // Only allocate the primary batch. Backup batch is allocated when it is needed.
       batches[p].allocateNew();
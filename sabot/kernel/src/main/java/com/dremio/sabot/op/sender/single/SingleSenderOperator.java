@@ -18,10 +18,12 @@ package com.dremio.sabot.op.sender.single;
 import org.apache.arrow.memory.OutOfMemoryException;
 
 import com.dremio.common.exceptions.ExecutionSetupException;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.physical.config.SingleSender;
 import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
 import com.dremio.exec.proto.ExecProtos.FragmentHandle;
 import com.dremio.exec.proto.ExecRPC.FragmentStreamComplete;
+import com.dremio.exec.record.ExchangeCompressor;
 import com.dremio.exec.record.FragmentWritableBatch;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.testing.ControlsInjector;
@@ -43,12 +45,16 @@ public class SingleSenderOperator extends BaseSender {
     private final AccountingExecTunnel tunnel;
     private final FragmentHandle handle;
     private final int recMajor;
+    private final ExchangeCompressor compressor;
 
     private State state = State.NEEDS_SETUP;
     private VectorAccessible incoming;
 
     public enum Metric implements MetricDef {
-      BYTES_SENT;
+      BYTES_SENT,
+      COMPRESSION_INPUT_BYTES,  // bytes of the sent batches, before compression
+      COMPRESSION_OUTPUT_BYTES, // bytes of the sent batches, after compression
+      COMPRESSION_NANOS;
 
       @Override
       public int metricId() {
@@ -68,6 +74,9 @@ public class SingleSenderOperator extends BaseSender {
 
       NodeEndpoint ep = config.getDestinations(context.getEndpointsIndex()).get(0).getEndpoint();
       this.tunnel = tunnelProvider.getExecTunnel(ep);
+      this.compressor = context.getOptions().getOption(ExecConstants.EXCHANGE_COMPRESSION)
+        ? new ExchangeCompressor(context.getAllocator(), context.getOptions().getOption(ExecConstants.EXCHANGE_COMPRESSION_MAX_RATIO))
+        : null;
     }
 
     @Override
@@ -79,7 +88,8 @@ public class SingleSenderOperator extends BaseSender {
           handle.getMinorFragmentId(),
           recMajor,
           incoming,
-          oppositeHandle.getMinorFragmentId()
+          oppositeHandle.getMinorFragmentId(),
+          compressor
           );
       updateStats(batch);
       context.getStats().startWait();
@@ -126,6 +136,11 @@ public class SingleSenderOperator extends BaseSender {
 
     private void updateStats(FragmentWritableBatch writableBatch) {
       context.getStats().addLongStat(Metric.BYTES_SENT, writableBatch.getByteCount());
+      if (compressor != null) {
+        context.getStats().setLongStat(Metric.COMPRESSION_INPUT_BYTES, compressor.getUncompressedBytes());
+        context.getStats().setLongStat(Metric.COMPRESSION_OUTPUT_BYTES, compressor.getCompressedBytes());
+        context.getStats().setLongStat(Metric.COMPRESSION_NANOS, compressor.getCompressionNanos());
+      }
     }
 
     @Override
@@ -21,6 +21,9 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.arrow.memory.BufferAllocator;
@@ -75,6 +78,7 @@ import com.google.common.base.Throwables;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 /**
  * Maintains 0..N separate runs of sorted data on disk, each in its own file.
@@ -96,6 +100,8 @@ public class DiskRunManager implements AutoCloseable {
   private final Stopwatch spillWatch = Stopwatch.createUnstarted();
   private final Stopwatch mergeWatch = Stopwatch.createUnstarted();
   private final Stopwatch spillCopyWatch = Stopwatch.createUnstarted();
+  private final Stopwatch asyncWriteWaitWatch = Stopwatch.createUnstarted();
+  private final Stopwatch asyncReadWaitWatch = Stopwatch.createUnstarted();
 
   private int run = 0;
   private int merge = 0;
@@ -123,7 +129,10 @@ public class DiskRunManager implements AutoCloseable {
   private final double allocationDensity;
   private long compressionNanos;
   private long uncompressionNanos;
-
+  // executor for spill writes and run reads, null if the I/O is synchronous
+  private final ExecutorService asyncExecutor;
+  // true if the copier allocator has room to read the next batch of each run ahead
+  private boolean readAhead;
 
   private final OperatorStats operatorStats;
   private final ExecutionControls executionControls;
@@ -149,7 +158,8 @@ public class DiskRunManager implements AutoCloseable {
       ExternalSortTracer tracer,
       SpillService spillService,
       OperatorStats stats,
-      ExecutionControls executionControls
+      ExecutionControls executionControls,
+      ExecutorService executor
       ) throws Exception {
     try (RollbackCloseable rollback = new RollbackCloseable()) {
       this.targetRecordCount = targetRecordCount;
@@ -170,6 +180,8 @@ public class DiskRunManager implements AutoCloseable {
       this.useArrowEncoding = optionManager.getOption(ExecConstants.EXTERNAL_SORT_ARROW_ENCODING);
       this.useVectorCopier = optionManager.getOption(ExecConstants.EXTERNAL_SORT_VECTOR_COPIER);
       this.allocationDensity = optionManager.getOption(ExecConstants.EXTERNAL_SORT_SPILL_ALLOCATION_DENSITY);
+      // the legacy encoding shares its compression buffers between batches, so it is always synchronous
+      this.asyncExecutor = optionManager.getOption(ExecConstants.EXTERNAL_SORT_ASYNC_IO) && useArrowEncoding ? executor : null;
 
       if (compressSpilledBatch) {
         long reserve = VectorAccessibleSerializable.RAW_CHUNK_SIZE_TO_COMPRESS * 2;
@@ -373,13 +385,11 @@ public class DiskRunManager implements AutoCloseable {
     private final List<DiskRun> diskRuns;
 
     private PriorityQueueCopier copier;
-    private SpillOutputStream out;
+    private BatchWriter writer;
     private VectorContainer container;
     private SpillFile spillFile;
 
-    private int maxBatchSize = 0;
     private int recordCount;
-    private int batchCount = 0;
 
     public DiskRunMerger(List<DiskRun> diskRuns) {
       this.diskRuns = diskRuns;
@@ -390,7 +400,7 @@ public class DiskRunManager implements AutoCloseable {
       try (RollbackCloseable rollback = new RollbackCloseable()) {
         container = rollback.add(VectorContainer.create(copierAllocator, dataSchema));
         copier = rollback.add(createCopier(container, diskRuns));
-        out = spillFile.create(useArrowEncoding && compressSpilledBatch);
+        writer = newBatchWriter(spillFile, targetBatchSizeInBytes);
         rollback.commit();
       }
     }
@@ -400,16 +410,15 @@ public class DiskRunManager implements AutoCloseable {
       try {
         int copied = copier.copy(targetRecordCount);
         if (copied == 0) {
-          out.close();
-          DiskRun diskRun = new DiskRun(spillFile, recordCount, maxBatchSize, batchCount);
+          writer.finish();
+          writer.close();
+          DiskRun diskRun = new DiskRun(spillFile, recordCount, writer.getMaxBatchSize(), writer.getBatchCount());
           DiskRunManager.this.diskRuns.add(diskRun);
           return true;
         }
         recordCount += copied;
-        int batchSize = spillBatch(container, copied, out);
+        writer.write(container, copied);
         container.zeroVectors();
-        maxBatchSize = Math.max(maxBatchSize, batchSize);
-        batchCount++;
         return false;
       } finally {
         mergeWatch.stop();
@@ -419,7 +428,7 @@ public class DiskRunManager implements AutoCloseable {
     @Override
     public void close() {
       try {
-        AutoCloseables.close(copier, out, container);
+        AutoCloseables.close(copier, writer, container);
         removeDiskRuns(this.diskRuns.size());
       } catch (Exception e) {
         Throwables.propagate(e);
@@ -432,7 +441,6 @@ public class DiskRunManager implements AutoCloseable {
     logger.debug("DiskRunManager-Spill: spill copy allocator reservation {} spill copy allocator limit {}", copyTargetAllocator.getInitReservation(), copyTargetAllocator.getLimit());
     spillWatch.start();
     try {
-      int maxBatchSize = 0;
       int batchCount = 0;
       int records = 0;
       int recordCount = 0;
@@ -441,7 +449,8 @@ public class DiskRunManager implements AutoCloseable {
       final SpillFile spillFile = spillManager.getSpillFile(String.format("run%05d", run++));
       BatchSchema outgoingSchema = null;
 
-      try (SpillOutputStream out = spillFile.create(useArrowEncoding && compressSpilledBatch);
+      final BatchWriter writer = newBatchWriter(spillFile, copyTargetAllocator.getInitReservation());
+      try (BatchWriter writerToClose = writer;
            final VectorContainer outgoing = VectorContainer.create(copyTargetAllocator, hyperBatch.getSchema());
            VectorContainer hyperBatchToClose = hyperBatch) {
 
@@ -485,10 +494,8 @@ public class DiskRunManager implements AutoCloseable {
             injector.injectChecked(executionControls, INJECTOR_OOM_SPILL, OutOfMemoryException.class);
             assert copied > 0 : "couldn't copy any rows, probably run out of memory while doing so";
             outgoing.setAllCount(copied);
-            int batchSize = spillBatch(outgoing, copied, out);
-            totalDataSpilled += batchSize;
+            writer.write(outgoing, copied);
             recordsSpilledInCurrentIteration += copied;
-            maxBatchSize = Math.max(maxBatchSize, batchSize);
             batchCount++;
             logger.debug("spilled a batch of records {}", copied);
             outgoing.zeroVectors();
@@ -498,6 +505,8 @@ public class DiskRunManager implements AutoCloseable {
           records += recordCount;
         } while (sv4.next());
 
+        writer.finish();
+        totalDataSpilled += writer.getBytesWritten();
         oomAllocate += copier.getOOMCountDuringAllocation();
         oomCopy += copier.getOOMCountDuringCopy();
       } catch (OutOfMemoryException ex) {
@@ -514,7 +523,7 @@ public class DiskRunManager implements AutoCloseable {
         tracer.setRecordsSpilledInCurrentIteration(recordsSpilledInCurrentIteration);
         tracer.setSchemaOfBatchToSpill(outgoingSchema.toString());
         tracer.setInitialCapacityForCurrentSpillIteration(remainingRecordCount);
-        tracer.setMaxBatchSizeSpilled(maxBatchSize);
+        tracer.setMaxBatchSizeSpilled(writer.getMaxBatchSize());
         tracer.setSpillCopyAllocatorState(copyTargetAllocator);
         tracer.setDiskRunState(diskRuns.size(), spillCount(), mergeCount(), getMaxBatchSize());
         tracer.setDiskRunCopyAllocatorState(copierAllocator);
@@ -526,18 +535,18 @@ public class DiskRunManager implements AutoCloseable {
 
       Preconditions.checkArgument(copyTargetAllocator.getAllocatedMemory() == 0,
         "Target Allocator should be empty, is consuming %s bytes.", copyTargetAllocator.getAllocatedMemory());
-      final DiskRun run = new DiskRun(spillFile, records, maxBatchSize, batchCount);
+      final DiskRun run = new DiskRun(spillFile, records, writer.getMaxBatchSize(), batchCount);
       diskRuns.add(run);
     } finally {
       spillWatch.stop();
     }
   }
 
-  public void startMicroSpilling(final VectorContainer container) throws IOException {
+  public void startMicroSpilling(final VectorContainer container, BufferAllocator copyTargetAllocator) throws IOException {
     Preconditions.checkState(this.microSpillState == null);
     final SpillFile spillFile = spillManager.getSpillFile(String.format("run%05d", run++));
-    final SpillOutputStream out = spillFile.create(useArrowEncoding && compressSpilledBatch);
-    this.microSpillState = new MicroSpillState(spillFile, container, out);
+    final BatchWriter writer = newBatchWriter(spillFile, copyTargetAllocator.getInitReservation());
+    this.microSpillState = new MicroSpillState(spillFile, container, writer);
   }
 
   /**
@@ -575,9 +584,7 @@ public class DiskRunManager implements AutoCloseable {
           injector.injectChecked(executionControls, INJECTOR_OOM_SPILL, OutOfMemoryException.class);
           assert copied > 0 : "couldn't copy any rows, probably run out of memory while doing so";
           outgoing.setAllCount(copied);
-          final int batchSize = spillBatch(outgoing, copied, this.microSpillState.outputStream);
-          totalDataSpilled += batchSize;
-          this.microSpillState.maxBatchSize = Math.max(this.microSpillState.maxBatchSize, batchSize);
+          this.microSpillState.writer.write(outgoing, copied);
           this.microSpillState.recordsSpilled += copied;
           ++(this.microSpillState.batchesSpilled);
           ++(this.batchesSpilled);
@@ -603,7 +610,7 @@ public class DiskRunManager implements AutoCloseable {
         tracer.setRecordsSpilledInCurrentIteration(recordsSpilledInCurrentIteration);
         tracer.setSchemaOfBatchToSpill(outgoingSchema.toString());
         tracer.setInitialCapacityForCurrentSpillIteration(recordsToSpill);
-        tracer.setMaxBatchSizeSpilled(this.microSpillState.maxBatchSize);
+        tracer.setMaxBatchSizeSpilled(this.microSpillState.writer.getMaxBatchSize());
         tracer.setSpillCopyAllocatorState(copyTargetAllocator);
         tracer.setDiskRunState(diskRuns.size(), spillCount(), mergeCount(), getMaxBatchSize());
         tracer.setDiskRunCopyAllocatorState(copierAllocator);
@@ -616,8 +623,11 @@ public class DiskRunManager implements AutoCloseable {
       // 3. all records spilled ?
       if (this.microSpillState.recordsSpilled == this.microSpillState.totalRecords) {
         done = true;
+        final BatchWriter writer = this.microSpillState.writer;
+        writer.finish();
+        totalDataSpilled += writer.getBytesWritten();
         final DiskRun run = new DiskRun(this.microSpillState.spillFile,
-          this.microSpillState.totalRecords, this.microSpillState.maxBatchSize, this.microSpillState.batchesSpilled);
+          this.microSpillState.totalRecords, writer.getMaxBatchSize(), this.microSpillState.batchesSpilled);
         diskRuns.add(run);
         this.microSpillState.close();
         this.microSpillState = null;
@@ -695,20 +705,27 @@ public class DiskRunManager implements AutoCloseable {
       copierAllocator = null;
     }
 
-    long totalSizeNeeded = 0;
-    // for now we always read one batch from all disk runs, so we need to make sure we have enough memory reserved
+    // we read one batch from all disk runs, so we need to make sure we have enough memory reserved
     // to allocate the largest batch per run
-    for(DiskRun run : diskRuns){
-      long batchSize = nextPowerOfTwo(run.largestBatch);
-      totalSizeNeeded += batchSize;
-    }
+    final long runsSizeNeeded = getMaxBatchSizeAllRuns(diskRuns);
 
     // add the required space for the copy output. We use * 3 to manage against a really large vector.
-    totalSizeNeeded += targetBatchSizeInBytes * 3;
+    final long copySizeNeeded = targetBatchSizeInBytes * 3;
 
     // because we can't know for sure how much memory will be needed for variable length vectors we don't put a limit
     // on the copy allocator. But this will still be capped by the sort allocator limit.
-    copierAllocator = this.parentAllocator.newChildAllocator("spill_copier", totalSizeNeeded, Long.MAX_VALUE);
+    if (asyncExecutor != null) {
+      // reading ahead needs room for a second batch per run
+      try {
+        copierAllocator = this.parentAllocator.newChildAllocator("spill_copier", runsSizeNeeded * 2 + copySizeNeeded, Long.MAX_VALUE);
+        readAhead = true;
+        return;
+      } catch (OutOfMemoryException e) {
+        logger.debug("DiskRunManager: Unable to reserve memory to read ahead {} diskruns, reading them synchronously", diskRuns.size());
+      }
+    }
+    readAhead = false;
+    copierAllocator = this.parentAllocator.newChildAllocator("spill_copier", runsSizeNeeded + copySizeNeeded, Long.MAX_VALUE);
   }
 
   public PriorityQueueCopier createCopier() throws Exception {
@@ -775,27 +792,137 @@ public class DiskRunManager implements AutoCloseable {
   private class MicroSpillState implements AutoCloseable {
     private final SpillFile spillFile;
     private final VectorContainer containerToBeSpilled;
-    private final SpillOutputStream outputStream;
+    private final BatchWriter writer;
     private final int totalRecords;
     private int recordsSpilled;
     private int batchesSpilled;
-    private int maxBatchSize;
 
     public MicroSpillState(final SpillFile spillFile, final VectorContainer containerToBeSpilled,
-                           final SpillOutputStream outputStream) {
+                           final BatchWriter writer) {
       this.spillFile = spillFile;
       this.containerToBeSpilled = containerToBeSpilled;
-      this.outputStream = outputStream;
+      this.writer = writer;
       this.totalRecords = containerToBeSpilled.getRecordCount();
       this.recordsSpilled = 0;
       this.batchesSpilled = 0;
-      this.maxBatchSize = 0;
     }
 
     @Override
     public void close() throws Exception {
       //not closing spillFile, as its closed by DiskRun
-      AutoCloseables.close(this.outputStream, this.containerToBeSpilled);
+      AutoCloseables.close(this.writer, this.containerToBeSpilled);
+    }
+  }
+
+  private BatchWriter newBatchWriter(SpillFile spillFile, long reservation) throws IOException {
+    final SpillOutputStream out = spillFile.create(useArrowEncoding && compressSpilledBatch);
+    if (asyncExecutor == null) {
+      return new BatchWriter(out, null);
+    }
+    try {
+      return new BatchWriter(out, parentAllocator.newChildAllocator("spill_writer", reservation, Long.MAX_VALUE));
+    } catch (OutOfMemoryException e) {
+      logger.debug("DiskRunManager: Unable to reserve {} bytes to write spilled batches asynchronously", reservation);
+      return new BatchWriter(out, null);
+    }
+  }
+
+  /**
+   * Writes the batches of a spill file. When the I/O is asynchronous, each batch is transferred to the allocator
+   * of the writer and written by the executor while the caller copies the next one. At most one write is pending,
+   * so the writer holds at most one batch.
+   */
+  private class BatchWriter implements AutoCloseable {
+    private final SpillOutputStream out;
+    // allocator of the batch being written, null if writes are synchronous
+    private final BufferAllocator allocator;
+    private VectorContainer pendingBatch;
+    private Future<Integer> pendingWrite;
+    private long bytesWritten;
+    private int maxBatchSize;
+    private int batchCount;
+    private boolean closed;
+
+    private BatchWriter(SpillOutputStream out, BufferAllocator allocator) {
+      this.out = out;
+      this.allocator = allocator;
+    }
+
+    public void write(VectorContainer outgoing, int records) throws IOException {
+      if (allocator == null) {
+        batchWritten(spillBatch(outgoing, records, out));
+        return;
+      }
+      waitForPendingWrite();
+      outgoing.setRecordCount(records);
+      final VectorContainer batch = VectorContainer.getTransferClone(outgoing, allocator);
+      pendingBatch = batch;
+      pendingWrite = asyncExecutor.submit(() -> (int) out.writeBatch(batch));
+    }
+
+    /**
+     * Wait for the batches to be written. The stream is still open.
+     */
+    public void finish() throws IOException {
+      waitForPendingWrite();
+    }
+
+    private void waitForPendingWrite() throws IOException {
+      if (pendingWrite == null) {
+        return;
+      }
+      asyncWriteWaitWatch.start();
+      try {
+        batchWritten(pendingWrite.get());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while writing spilled batch", e);
+      } catch (ExecutionException e) {
+        Throwables.propagateIfPossible(e.getCause(), IOException.class);
+        throw new IOException("Failure while writing spilled batch", e.getCause());
+      } finally {
+        asyncWriteWaitWatch.stop();
+        pendingWrite = null;
+        pendingBatch.close();
+        pendingBatch = null;
+      }
+    }
+
+    private void batchWritten(int batchSize) {
+      bytesWritten += batchSize;
+      maxBatchSize = Math.max(maxBatchSize, batchSize);
+      batchCount++;
+    }
+
+    public long getBytesWritten() {
+      return bytesWritten;
+    }
+
+    public int getMaxBatchSize() {
+      return maxBatchSize;
+    }
+
+    public int getBatchCount() {
+      return batchCount;
+    }
+
+    @Override
+    public void close() throws Exception {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      // the batch and the stream can't be released while they are written
+      if (pendingWrite != null && !pendingWrite.cancel(false)) {
+        try {
+          Uninterruptibles.getUninterruptibly(pendingWrite);
+        } catch (ExecutionException e) {
+          logger.debug("DiskRunManager: Failure while writing spilled batch", e.getCause());
+        }
+      }
+      pendingWrite = null;
+      AutoCloseables.close(pendingBatch, out, allocator);
+      pendingBatch = null;
     }
   }
 
@@ -835,8 +962,9 @@ public class DiskRunManager implements AutoCloseable {
      */
     private DiskRunIterator openRun(BufferAllocator copierAllocator, int batchId, ExpandableHyperContainer container) throws Exception{
       Preconditions.checkState(iterator == null);
-      final long memCapacity = nextPowerOfTwo(largestBatch);
-      iterator = new DiskRunIterator(batchCount, spillFile, container, copierAllocator, memCapacity);
+      // room for the batch read ahead
+      final long memCapacity = nextPowerOfTwo(largestBatch) * (readAhead ? 2L : 1L);
+      iterator = new DiskRunIterator(batchCount, spillFile, container, copierAllocator, memCapacity, readAhead);
 
       return iterator;
     }
@@ -863,6 +991,11 @@ public class DiskRunManager implements AutoCloseable {
     private int recordIndexMax;
     private final VectorContainer container;
 
+    // next batch of the run, read by the executor while the current one is merged
+    private final boolean readAhead;
+    private VectorContainer nextContainer;
+    private Future<?> nextBatch;
+
     /*
      * DiskRunIterator opens a spill file and loads batch(es) into memory when reading spill files.
      * As part of creation of iterator below, we load a single batch and if this IO fails, the
@@ -870,10 +1003,15 @@ public class DiskRunManager implements AutoCloseable {
      * DiskRunIterator never succeeded. Using RollbackCloseable in the caller will also not
      * help for the same reason that failure happened during instantiation.
      */
-    private DiskRunIterator(int batchCount, SpillFile spillFile, ExpandableHyperContainer hyperContainer, BufferAllocator parentAllocator, long memCapacity) throws Exception {
+    private DiskRunIterator(int batchCount, SpillFile spillFile, ExpandableHyperContainer hyperContainer, BufferAllocator parentAllocator,
+                            long memCapacity, boolean readAhead) throws Exception {
       try (RollbackCloseable rollback = new RollbackCloseable()){
         this.allocator = rollback.add(parentAllocator.newChildAllocator("diskrun", 0, memCapacity));
         this.container = rollback.add(VectorContainer.create(allocator, dataSchema));
+        this.readAhead = readAhead;
+        if (readAhead) {
+          this.nextContainer = rollback.add(VectorContainer.create(allocator, dataSchema));
+        }
         this.inputStream = rollback.add(spillFile.open(useArrowEncoding && compressSpilledBatch));
         this.batchIndexMax = batchCount;
         loadNextBatch(true);
@@ -886,6 +1024,7 @@ public class DiskRunManager implements AutoCloseable {
         }
         throw e;
       }
+      readNextBatchAhead();
     }
 
     private void loadNextBatch(boolean first) throws IOException{
@@ -894,10 +1033,19 @@ public class DiskRunManager implements AutoCloseable {
 
 
       if(useArrowEncoding) {
-        inputStream.load(container, allocator);
+        if (readAhead && !first) {
+          waitForNextBatch();
+          nextContainer.transferOut(container);
+          container.setRecordCount(nextContainer.getRecordCount());
+        } else {
+          inputStream.load(container, allocator);
+        }
         recordIndexMax = container.getRecordCount();
         batchIndex++;
         recordIndex = -1;
+        if (!first) {
+          readNextBatchAhead();
+        }
         return;
       }
 
@@ -932,9 +1080,45 @@ public class DiskRunManager implements AutoCloseable {
       recordIndex = -1;
     }
 
+    private void readNextBatchAhead() {
+      if (!readAhead || batchIndex + 1 >= batchIndexMax) {
+        return;
+      }
+      nextBatch = asyncExecutor.submit(() -> {
+        inputStream.load(nextContainer, allocator);
+        return null;
+      });
+    }
+
+    private void waitForNextBatch() throws IOException {
+      Preconditions.checkState(nextBatch != null, "No batch read ahead.");
+      asyncReadWaitWatch.start();
+      try {
+        nextBatch.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while reading spilled batch", e);
+      } catch (ExecutionException e) {
+        Throwables.propagateIfPossible(e.getCause(), IOException.class);
+        throw new IOException("Failure while reading spilled batch", e.getCause());
+      } finally {
+        asyncReadWaitWatch.stop();
+        nextBatch = null;
+      }
+    }
+
     @Override
     public void close() throws Exception {
-      AutoCloseables.close(container, allocator, inputStream);
+      // the stream and the allocator can't be released while a batch is read ahead
+      if (nextBatch != null && !nextBatch.cancel(false)) {
+        try {
+          Uninterruptibles.getUninterruptibly(nextBatch);
+        } catch (ExecutionException e) {
+          logger.debug("DiskRunManager: Failure while reading spilled batch", e.getCause());
+        }
+      }
+      nextBatch = null;
+      AutoCloseables.close(container, nextContainer, allocator, inputStream);
     }
 
     public int getNextId() throws IOException{
@@ -996,6 +1180,14 @@ public class DiskRunManager implements AutoCloseable {
     return spillCopyWatch.elapsed(TimeUnit.NANOSECONDS);
   }
 
+  public long getAsyncWriteWaitNanos() {
+    return asyncWriteWaitWatch.elapsed(TimeUnit.NANOSECONDS);
+  }
+
+  public long getAsyncReadWaitNanos() {
+    return asyncReadWaitWatch.elapsed(TimeUnit.NANOSECONDS);
+  }
+
   /**
    * Create configuration appropriate copier and monitor its use with stopwatch.
    * @param incoming
@@ -176,6 +176,9 @@ public class ExternalSortOperator implements SingleInputOperator {
 
     OOM_ALLOCATE_COUNT,
     OOM_COPY_COUNT,
+
+    ASYNC_WRITE_WAIT_NANOS, // time spent waiting for spilled batches written in the background
+    ASYNC_READ_WAIT_NANOS,  // time spent waiting for run batches read ahead in the background
     ;
 
     @Override
@@ -238,7 +241,8 @@ public class ExternalSortOperator implements SingleInputOperator {
       this.diskRuns = new DiskRunManager(context.getConfig(), context.getOptions(), targetBatchSize, targetBatchSizeInBytes,
                                          context.getFragmentHandle(), config.getProps().getLocalOperatorId(), context.getClassProducer(), allocator,
                                          config.getOrderings(), incoming.getSchema(), compressSpilledBatch, tracer,
-                                         context.getSpillService(), context.getStats(), context.getExecutionControls());
+                                         context.getSpillService(), context.getStats(), context.getExecutionControls(),
+                                         context.getExecutor());
       rollback.add(this.diskRuns);
 
       tracer.setTargetBatchSize(targetBatchSize);
@@ -421,6 +425,8 @@ public class ExternalSortOperator implements SingleInputOperator {
       stats.setLongStat(Metric.OOM_ALLOCATE_COUNT, diskRuns.getOOMAllocateCount());
       stats.setLongStat(Metric.OOM_COPY_COUNT, diskRuns.getOOMCopyCount());
       stats.setLongStat(Metric.SPILL_COPY_NANOS, diskRuns.getSpillCopyNanos());
+      stats.setLongStat(Metric.ASYNC_WRITE_WAIT_NANOS, diskRuns.getAsyncWriteWaitNanos());
+      stats.setLongStat(Metric.ASYNC_READ_WAIT_NANOS, diskRuns.getAsyncReadWaitNanos());
     }
 
   }
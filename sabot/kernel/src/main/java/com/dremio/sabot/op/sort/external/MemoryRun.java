@@ -320,7 +320,7 @@ class MemoryRun implements AutoCloseable {
     final SelectionVector4 sv4 = closeToContainer(sv4HyperContainer, this.recordLength);
     sv4HyperContainer.setSelectionVector4(sv4);
     sv4HyperContainer.setRecordCount(sv4HyperContainer.getSelectionVector4().getTotalCount());
-    diskRunManager.startMicroSpilling(sv4HyperContainer);
+    diskRunManager.startMicroSpilling(sv4HyperContainer, copyTargetAllocator);
   }
 
   public boolean spillNextBatch(final DiskRunManager diskRunManager) throws Exception{
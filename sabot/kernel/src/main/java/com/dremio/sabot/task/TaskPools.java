@@ -16,7 +16,7 @@
 package com.dremio.sabot.task;
 
 import com.dremio.common.config.SabotConfig;
-import com.dremio.sabot.task.single.DedicatedTaskPool;
+import com.dremio.sabot.task.slicing.SlicingTaskPool;
 
 /**
  * Task pool utilities
@@ -32,7 +32,7 @@ public final class TaskPools {
     if (config.hasPath(TaskPools.DREMIO_TASK_POOL_FACTORY_CLASS)) {
       factory = config.getInstanceOf(TaskPools.DREMIO_TASK_POOL_FACTORY_CLASS, TaskPoolFactory.class);
     } else {
-      factory = new DedicatedTaskPool.Factory();
+      factory = new SlicingTaskPool.Factory();
     }
 
     return factory;
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.task.slicing;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.dremio.config.DremioConfig;
+import com.dremio.exec.ExecConstants;
+import com.dremio.options.OptionManager;
+import com.dremio.sabot.task.AsyncTaskWrapper;
+import com.dremio.sabot.task.GroupManager;
+import com.dremio.sabot.task.TaskPool;
+import com.dremio.sabot.task.TaskPoolFactory;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A task pool that runs tasks cooperatively on a bounded number of threads (one per core by default).<br>
+ * <br>
+ * Tasks are expected to yield after a short amount of time. Each thread runs a task for at most one quantum
+ * (or until the task blocks) before going back to the shared {@link WeightedRunQueue}, which decides the next
+ * task to run based on the weights of the scheduling groups the tasks belong to.
+ */
+public class SlicingTaskPool implements TaskPool {
+
+  /**
+   * Factory for {@code SlicingTaskPool}
+   */
+  public static final class Factory implements TaskPoolFactory {
+    @Override
+    public TaskPool newInstance(OptionManager options, DremioConfig config) {
+      int numThreads = (int) options.getOption(ExecConstants.SLICING_NUM_THREADS);
+      if (numThreads == 0) {
+        numThreads = Runtime.getRuntime().availableProcessors();
+      }
+      final long quantumMs = options.getOption(ExecConstants.SLICING_THREAD_QUANTUM_MS);
+      return new SlicingTaskPool(numThreads, TimeUnit.MILLISECONDS.toNanos(quantumMs));
+    }
+  }
+
+  static final long DEFAULT_TASK_WEIGHT = 100;
+
+  private final WeightedRunQueue runQueue = new WeightedRunQueue();
+  private final List<SlicingThread> threads;
+  private volatile boolean closed;
+
+  public SlicingTaskPool(int numThreads, long quantumNanos) {
+    Preconditions.checkArgument(numThreads > 0, "at least one slicing thread required");
+    Preconditions.checkArgument(quantumNanos > 0, "quantum must be positive");
+
+    final ImmutableList.Builder<SlicingThread> builder = ImmutableList.builder();
+    for (int i = 0; i < numThreads; i++) {
+      final SlicingThread thread = new SlicingThread("e" + i, i, runQueue, quantumNanos);
+      thread.start();
+      builder.add(thread);
+    }
+    threads = builder.build();
+  }
+
+  @Override
+  public void execute(AsyncTaskWrapper task) {
+    Preconditions.checkState(!closed, "Task pool closed");
+    // the scheduling group also sets the task handle on the task
+    task.getSchedulingGroup().addTask(task, DEFAULT_TASK_WEIGHT);
+  }
+
+  @Override
+  public Iterable<ThreadInfo> getSlicingThreads() {
+    return FluentIterable.from(threads)
+      .transform(SlicingThread::getThreadInfo)
+      .toList();
+  }
+
+  @Override
+  public boolean areAllThreadsAlive() {
+    if (closed) {
+      return true;
+    }
+    for (SlicingThread thread : threads) {
+      if (!thread.isAlive()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public GroupManager<AsyncTaskWrapper> getGroupManager() {
+    return runQueue;
+  }
+
+  @Override
+  public void close() throws Exception {
+    closed = true;
+    runQueue.close();
+    for (SlicingThread thread : threads) {
+      thread.interrupt();
+    }
+  }
+}
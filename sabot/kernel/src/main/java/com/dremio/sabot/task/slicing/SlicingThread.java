@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.task.slicing;
+
+import com.dremio.sabot.task.AsyncTaskWrapper;
+import com.dremio.sabot.task.BlockRun;
+import com.dremio.sabot.task.Task.State;
+import com.dremio.sabot.task.TaskPool;
+import com.dremio.sabot.task.slicing.WeightedRunQueue.TaskEntity;
+
+/**
+ * Executing thread of the {@link SlicingTaskPool}. Repeatedly picks the next task from the shared run queue
+ * and runs it until it blocks, finishes or exhausts its quantum.
+ */
+class SlicingThread extends Thread {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(SlicingThread.class);
+
+  private final int slicingThreadId;
+  private final WeightedRunQueue runQueue;
+  private final long quantumNanos;
+
+  private volatile TaskEntity current;
+
+  SlicingThread(String name, int slicingThreadId, WeightedRunQueue runQueue, long quantumNanos) {
+    super(name);
+    this.slicingThreadId = slicingThreadId;
+    this.runQueue = runQueue;
+    this.quantumNanos = quantumNanos;
+    setDaemon(true);
+  }
+
+  @Override
+  public void run() {
+    while (true) {
+      final TaskEntity handle;
+      try {
+        handle = runQueue.take();
+      } catch (InterruptedException e) {
+        logger.info("Thread interrupted, exiting.");
+        return;
+      }
+
+      if (handle == null) {
+        // task pool closed
+        return;
+      }
+
+      current = handle;
+      try {
+        runTask(handle);
+      } finally {
+        current = null;
+      }
+    }
+  }
+
+  private void runTask(TaskEntity handle) {
+    final AsyncTaskWrapper task = handle.getTask();
+    handle.setThread(slicingThreadId);
+
+    final long start = System.nanoTime();
+    try {
+      // keep running the task as long as it is runnable and its quantum isn't exhausted, this avoids going
+      // through the run queue after every single pump
+      do {
+        task.run();
+      } while (task.getState() == State.RUNNABLE && System.nanoTime() - start < quantumNanos);
+    } catch (Throwable t) {
+      // don't lose the thread because of an uncaught exception, but the task cannot be scheduled anymore
+      logger.error("Unhandled Exception in Fragment Thread.", t);
+      runQueue.done(handle, System.nanoTime() - start);
+      cleanup(task);
+      return;
+    }
+
+    final long runtime = System.nanoTime() - start;
+    switch (task.getState()) {
+    case BLOCKED_ON_DOWNSTREAM:
+    case BLOCKED_ON_UPSTREAM:
+    case BLOCKED_ON_SHARED_RESOURCE:
+      // must be charged before setting the callback, as the callback may re-enqueue the task immediately
+      runQueue.blocked(handle, runtime);
+      task.setAvailabilityCallback(new BlockRun(handle));
+      break;
+    case DONE:
+      runQueue.done(handle, runtime);
+      cleanup(task);
+      break;
+    case RUNNABLE:
+    default:
+      runQueue.yielded(handle, runtime);
+      break;
+    }
+  }
+
+  /**
+   * Release the resources of a task that won't run anymore.
+   */
+  private static void cleanup(AsyncTaskWrapper task) {
+    try {
+      task.getCleaner().close();
+    } catch (Throwable t) {
+      logger.error("Failure while cleaning up task {}.", task, t);
+    }
+  }
+
+  TaskPool.ThreadInfo getThreadInfo() {
+    return new TaskPool.ThreadInfo(getName(), slicingThreadId, -1, -1, current != null ? 1 : 0,
+      runQueue.getNumRunnable(), 0, getId());
+  }
+}
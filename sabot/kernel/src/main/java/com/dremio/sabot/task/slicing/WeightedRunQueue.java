@@ -0,0 +1,361 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.task.slicing;
+
+import java.util.Comparator;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.dremio.sabot.task.AsyncTaskWrapper;
+import com.dremio.sabot.task.GroupManager;
+import com.dremio.sabot.task.SchedulingGroup;
+import com.dremio.sabot.task.TaskManager;
+import com.dremio.sabot.task.TaskManager.TaskHandle;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+/**
+ * Hierarchical weighted run queue shared by all the slicing threads of a {@link SlicingTaskPool}.<br>
+ * <br>
+ * Groups and tasks form a tree. Every entity keeps a virtual runtime which is advanced by the time its
+ * tasks spent running, scaled by the inverse of its weight. When a thread asks for work, the queue walks
+ * down the tree always selecting the child with the smallest virtual runtime, so siblings get a share of the
+ * cpu proportional to their weight.<br>
+ * <br>
+ * Only runnable tasks (and groups containing at least one runnable task) are queued. Running and blocked
+ * tasks are out of the queue until they are re-enqueued.
+ */
+class WeightedRunQueue implements GroupManager<AsyncTaskWrapper> {
+
+  private static final Comparator<Entity> VRUNTIME_ORDER = Comparator
+    .comparingLong((Entity e) -> e.vruntime)
+    .thenComparingLong(e -> e.id);
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final AtomicLong nextId = new AtomicLong();
+  private final Group root = new Group(null, TaskManager.MAX_WEIGHT);
+
+  private int numTasks;
+  private int numRunnable;
+  private boolean closed;
+
+  @Override
+  public SchedulingGroup<AsyncTaskWrapper> newGroup(long weight) {
+    return root.addGroup(weight);
+  }
+
+  /**
+   * Waits until a runnable task is available and removes it from the queue.
+   *
+   * @return the next task to run, or null if the queue has been closed
+   * @throws InterruptedException if interrupted while waiting
+   */
+  TaskEntity take() throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (!closed && root.children.isEmpty()) {
+        notEmpty.await();
+      }
+      return closed ? null : pick();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Same as {@link #take()} but gives up after the given timeout.
+   *
+   * @return the next task to run, or null if the queue has been closed or no task became runnable in time
+   */
+  @VisibleForTesting
+  TaskEntity poll(long timeout, TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (!closed && root.children.isEmpty()) {
+        if (nanos <= 0) {
+          return null;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+      }
+      return closed ? null : pick();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Task yielded after running for the given amount of time, but is still runnable.
+   */
+  void yielded(TaskEntity task, long runtimeNanos) {
+    lock.lock();
+    try {
+      charge(task, runtimeNanos);
+      enqueue(task);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Task ran for the given amount of time and is now blocked. It will be queued again once
+   * {@link TaskEntity#reEnqueue()} is called.
+   */
+  void blocked(TaskEntity task, long runtimeNanos) {
+    lock.lock();
+    try {
+      charge(task, runtimeNanos);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Task ran for the given amount of time and is now done.
+   */
+  void done(TaskEntity task, long runtimeNanos) {
+    lock.lock();
+    try {
+      charge(task, runtimeNanos);
+      numTasks--;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Wakes up all waiting threads and prevents any task from being handed out.
+   */
+  void close() {
+    lock.lock();
+    try {
+      closed = true;
+      notEmpty.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return number of tasks currently managed by the queue, whatever their state
+   */
+  int getNumTasks() {
+    lock.lock();
+    try {
+      return numTasks;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return number of runnable tasks waiting for a slicing thread
+   */
+  int getNumRunnable() {
+    lock.lock();
+    try {
+      return numRunnable;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void add(TaskEntity task) {
+    lock.lock();
+    try {
+      numTasks++;
+      enqueue(task);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void reEnqueue(TaskEntity task) {
+    lock.lock();
+    try {
+      enqueue(task);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Selects the runnable task with the smallest virtual runtime, descending through the groups.
+   * Must be called with the lock held and a non empty root.
+   */
+  private TaskEntity pick() {
+    Group group = root;
+    while (true) {
+      final Entity entity = group.children.pollFirst();
+      entity.queued = false;
+      group.minVruntime = Math.max(group.minVruntime, entity.vruntime);
+      if (entity instanceof TaskEntity) {
+        numRunnable--;
+        // the groups on the path were removed from their parents, put back the ones that still have runnable work
+        for (Group g = entity.parent; g != root; g = g.parent) {
+          if (!g.queued && !g.children.isEmpty()) {
+            enqueue(g);
+          }
+        }
+        return (TaskEntity) entity;
+      }
+      group = (Group) entity;
+    }
+  }
+
+  /**
+   * Charges the task and all its ancestors for the time spent running. Must be called with the lock held.
+   */
+  private void charge(TaskEntity task, long runtimeNanos) {
+    for (Entity entity = task; entity.parent != null; entity = entity.parent) {
+      if (entity.queued) {
+        // the sort key changes, remove and re-insert
+        entity.parent.children.remove(entity);
+        entity.charge(runtimeNanos);
+        entity.parent.children.add(entity);
+      } else {
+        entity.charge(runtimeNanos);
+      }
+    }
+  }
+
+  /**
+   * Adds the entity to its parent, as well as all the ancestors that were not already queued.
+   * Must be called with the lock held.
+   */
+  private void enqueue(Entity entity) {
+    Preconditions.checkState(!entity.queued, "Entity already queued");
+    if (entity instanceof TaskEntity) {
+      numRunnable++;
+      notEmpty.signal();
+    }
+
+    for (Entity current = entity; current.parent != null && !current.queued; current = current.parent) {
+      final Group parent = current.parent;
+      // an entity coming back after being blocked or idle shouldn't be able to monopolize the cpu with the
+      // credit it accumulated in the meantime
+      current.vruntime = Math.max(current.vruntime, parent.minVruntime);
+      parent.children.add(current);
+      current.queued = true;
+    }
+  }
+
+  /**
+   * Node of the scheduling tree
+   */
+  abstract class Entity {
+    private final long id = nextId.getAndIncrement();
+    private final Group parent;
+    private final long weight;
+
+    private long vruntime;
+    private boolean queued;
+
+    Entity(Group parent, long weight) {
+      Preconditions.checkArgument(weight > 0 && weight <= TaskManager.MAX_WEIGHT,
+        "weight must be in (0, %s], was %s", TaskManager.MAX_WEIGHT, weight);
+      this.parent = parent;
+      this.weight = weight;
+      this.vruntime = parent != null ? parent.minVruntime : 0;
+    }
+
+    private void charge(long runtimeNanos) {
+      vruntime += runtimeNanos * TaskManager.MAX_WEIGHT / weight;
+    }
+
+    long getWeight() {
+      return weight;
+    }
+  }
+
+  /**
+   * A scheduling group. Its children share the cpu time allocated to the group proportionally to their weight.
+   */
+  final class Group extends Entity implements SchedulingGroup<AsyncTaskWrapper> {
+    private final TreeSet<Entity> children = new TreeSet<>(VRUNTIME_ORDER);
+    private long minVruntime;
+
+    private Group(Group parent, long weight) {
+      super(parent, weight);
+    }
+
+    @Override
+    public SchedulingGroup<AsyncTaskWrapper> addGroup(long weight) {
+      lock.lock();
+      try {
+        // new entities start at the parent's current virtual time
+        return new Group(this, weight);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public TaskHandle<AsyncTaskWrapper> addTask(AsyncTaskWrapper task, long weight) {
+      final TaskEntity entity;
+      lock.lock();
+      try {
+        entity = new TaskEntity(this, weight, task);
+      } finally {
+        lock.unlock();
+      }
+      task.setTaskHandle(entity);
+      add(entity);
+      return entity;
+    }
+  }
+
+  /**
+   * A task in the scheduling tree
+   */
+  final class TaskEntity extends Entity implements TaskHandle<AsyncTaskWrapper> {
+    private final AsyncTaskWrapper task;
+    private volatile int thread = -1;
+
+    private TaskEntity(Group parent, long weight, AsyncTaskWrapper task) {
+      super(parent, weight);
+      this.task = Preconditions.checkNotNull(task);
+    }
+
+    @Override
+    public AsyncTaskWrapper getTask() {
+      return task;
+    }
+
+    @Override
+    public void reEnqueue() {
+      WeightedRunQueue.this.reEnqueue(this);
+    }
+
+    @Override
+    public int getThread() {
+      return thread;
+    }
+
+    void setThread(int thread) {
+      this.thread = thread;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s", task.getState());
+    }
+  }
+}
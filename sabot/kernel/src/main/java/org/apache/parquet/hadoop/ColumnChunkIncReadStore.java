@@ -96,6 +96,12 @@ public class ColumnChunkIncReadStore implements PageReadStore {
         throw new RuntimeException(ioe);
       }
     }
+
+    @Override
+    void skipPages(long offset, long values) throws IOException {
+      super.skipPages(offset, values);
+      lastPosition = offset;
+    }
   }
 
   class ColumnChunkIncPageReader implements PageReader {
@@ -236,6 +242,19 @@ public class ColumnChunkIncReadStore implements PageReadStore {
       }
     }
 
+    /**
+     * Skips the data pages before the given file offset without reading them, the next page read being the page at
+     * this offset.
+     *
+     * @param offset the file offset of the next page to read
+     * @param values the number of values in the skipped pages
+     */
+    void skipPages(long offset, long values) throws IOException {
+      releasePrevDataPageBuffers();
+      in.seek(offset);
+      valueReadSoFar += values;
+    }
+
     void close() {
       try {
         releasePrevDataPageBuffers();
@@ -328,6 +347,17 @@ public class ColumnChunkIncReadStore implements PageReadStore {
       : new ColumnChunkIncPageReader(metaData, descriptor, in));
   }
 
+  /**
+   * Skips the data pages of a column before the given file offset without reading them.
+   *
+   * @param descriptor the column
+   * @param offset the file offset of the next page to read, from the offset index of the column
+   * @param values the number of values in the skipped pages
+   */
+  public void skipPages(ColumnDescriptor descriptor, long offset, long values) throws IOException {
+    columns.get(descriptor).skipPages(offset, values);
+  }
+
   public void close() throws IOException {
     for (ColumnChunkIncPageReader reader : columns.values()) {
       reader.close();
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import com.dremio.service.namespace.NamespaceKey;
+import com.dremio.service.namespace.PartitionChunkMetadata;
+import com.dremio.service.namespace.proto.EntityId;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for {@link DatasetMetadataCache}.
+ */
+public class TestDatasetMetadataCache {
+
+  private static final List<String> PATH = ImmutableList.of("src", "t");
+  private static final EntityId DATASET_ID = new EntityId("id");
+
+  private final PartitionChunkMetadata chunk = mock(PartitionChunkMetadata.class);
+  private final AtomicInteger loads = new AtomicInteger();
+  private final Supplier<Iterable<PartitionChunkMetadata>> loader = () -> {
+    loads.incrementAndGet();
+    return ImmutableList.of(chunk);
+  };
+
+  @Test
+  public void testSameVersionIsLoadedOnce() {
+    final DatasetMetadataCache cache = new DatasetMetadataCache(100);
+
+    assertEquals(ImmutableList.of(chunk), cache.getPartitionChunks(PATH, DATASET_ID, 1, 1, loader));
+    assertEquals(ImmutableList.of(chunk), cache.getPartitionChunks(PATH, DATASET_ID, 1, 1, loader));
+    assertEquals(1, loads.get());
+    assertEquals(1, cache.stats().hitCount());
+  }
+
+  @Test
+  public void testNewVersionIsLoaded() {
+    final DatasetMetadataCache cache = new DatasetMetadataCache(100);
+
+    cache.getPartitionChunks(PATH, DATASET_ID, 1, 1, loader);
+    cache.getPartitionChunks(PATH, DATASET_ID, 2, 1, loader);
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  public void testDatasetWithTooManySplitsIsNotCached() {
+    final DatasetMetadataCache cache = new DatasetMetadataCache(100);
+
+    assertEquals(ImmutableList.of(chunk), cache.getPartitionChunks(PATH, DATASET_ID, 1, 100, loader));
+    assertEquals(ImmutableList.of(chunk), cache.getPartitionChunks(PATH, DATASET_ID, 1, 100, loader));
+    assertEquals(2, loads.get());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testInvalidate() {
+    final DatasetMetadataCache cache = new DatasetMetadataCache(100);
+    cache.getPartitionChunks(PATH, DATASET_ID, 1, 1, loader);
+
+    cache.invalidate(new NamespaceKey(ImmutableList.of("src", "other")));
+    assertEquals(1, cache.size());
+
+    cache.invalidate(new NamespaceKey(ImmutableList.of("SRC", "T")));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testInvalidateSource() {
+    final DatasetMetadataCache cache = new DatasetMetadataCache(100);
+    cache.getPartitionChunks(PATH, DATASET_ID, 1, 1, loader);
+
+    cache.invalidateSource("other");
+    assertEquals(1, cache.size());
+
+    cache.invalidateSource("Src");
+    assertEquals(0, cache.size());
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.dremio.connector.metadata.DatasetHandle;
+import com.dremio.connector.metadata.DatasetHandleListing;
+import com.dremio.connector.metadata.EntityPath;
+import com.dremio.connector.metadata.SourceMetadata;
+import com.dremio.connector.metadata.extensions.SupportsListingDatasets;
+import com.dremio.exec.store.DatasetRetrievalOptions;
+import com.dremio.options.OptionManager;
+import com.dremio.service.namespace.NamespaceAttribute;
+import com.dremio.service.namespace.NamespaceKey;
+import com.dremio.service.namespace.NamespaceService;
+import com.dremio.service.namespace.dataset.proto.DatasetConfig;
+import com.dremio.service.namespace.dataset.proto.ReadDefinition;
+import com.dremio.service.namespace.source.proto.MetadataPolicy;
+import com.dremio.service.namespace.source.proto.UpdateMode;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for {@link MetadataSynchronizer}.
+ */
+public class TestMetadataSynchronizer {
+
+  private static final int DATASETS = 20;
+  private static final int PARALLELISM = 3;
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+  @After
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testExistingDatasetsRefreshedConcurrently() throws Exception {
+    final List<NamespaceKey> keys = new ArrayList<>();
+    final List<DatasetHandle> handles = new ArrayList<>();
+    for (int i = 0; i < DATASETS; i++) {
+      final List<String> path = ImmutableList.of("source", "t" + i);
+      keys.add(new NamespaceKey(path));
+      final DatasetHandle handle = mock(DatasetHandle.class);
+      when(handle.getDatasetPath()).thenReturn(new EntityPath(path));
+      handles.add(handle);
+    }
+
+    final NamespaceService namespace = mock(NamespaceService.class);
+    when(namespace.getAllDatasets(new NamespaceKey("source"))).thenReturn(keys);
+    when(namespace.getDataset(any(NamespaceKey.class)))
+        .thenAnswer(invocation -> new DatasetConfig().setReadDefinition(new ReadDefinition()));
+
+    final SourceMetadata sourceMetadata = mock(SourceMetadata.class,
+        withSettings().extraInterfaces(SupportsListingDatasets.class));
+    final DatasetHandleListing listing = handles::iterator;
+    when(((SupportsListingDatasets) sourceMetadata).listDatasetHandles(anyVararg())).thenReturn(listing);
+
+    final ManagedStoragePlugin.MetadataBridge bridge = mock(ManagedStoragePlugin.MetadataBridge.class);
+    when(bridge.getMetadata()).thenReturn(sourceMetadata);
+
+    final CountingSaver saver = new CountingSaver(namespace);
+    final MetadataSynchronizer synchronizer = new MetadataSynchronizer(namespace, new NamespaceKey("source"), bridge,
+        new MetadataPolicy().setDatasetUpdateMode(UpdateMode.PREFETCH_QUERIED), saver,
+        DatasetRetrievalOptions.DEFAULT, executor, PARALLELISM);
+    synchronizer.setup();
+    final SyncStatus status = synchronizer.go();
+
+    // all the datasets are refreshed by the time go() returns.
+    assertEquals(DATASETS, saver.saved.size());
+    assertEquals(DATASETS, status.getProbed());
+    assertTrue(status.isRefreshed());
+    assertTrue(saver.maxConcurrent.get() <= PARALLELISM);
+  }
+
+  private static class CountingSaver extends DatasetSaver {
+    private final Set<List<String>> saved = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+    CountingSaver(NamespaceService namespace) {
+      super(namespace, key -> {}, mock(OptionManager.class));
+    }
+
+    @Override
+    public void save(DatasetConfig datasetConfig, DatasetHandle handle, SourceMetadata sourceMetadata,
+                     boolean opportunisticSave, DatasetRetrievalOptions options, NamespaceAttribute... attributes) {
+      final int current = concurrent.incrementAndGet();
+      maxConcurrent.accumulateAndGet(current, Math::max);
+      try {
+        Thread.sleep(10);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      saved.add(handle.getDatasetPath().getComponents());
+      concurrent.decrementAndGet();
+    }
+  }
+}
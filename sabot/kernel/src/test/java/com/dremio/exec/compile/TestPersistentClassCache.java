@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.compile;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.dremio.exec.compile.PersistentClassCache.CompiledClasses;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for {@link PersistentClassCache}.
+ */
+public class TestPersistentClassCache {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private static final long MAX_SIZE = 1024 * 1024;
+
+  private static final CompiledClasses CLASSES = new CompiledClasses("com.dremio.s.ProjectorGen0", new ClassBytes[] {
+      new ClassBytes("com.dremio.s.ProjectorGen0", new byte[] {1, 2, 3}),
+      new ClassBytes("com.dremio.s.ProjectorGen0$Inner", new byte[] {4, 5})
+  });
+
+  private int directories;
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    final Path directory = newDirectory();
+    try (PersistentClassCache cache = new PersistentClassCache(directory, 10, MAX_SIZE)) {
+      assertNull(cache.get("key"));
+      cache.put("key", CLASSES);
+    }
+
+    // a new cache, as after a restart.
+    try (PersistentClassCache cache = new PersistentClassCache(directory, 10, MAX_SIZE)) {
+      assertClassesEqual(CLASSES, cache.get("key"));
+    }
+  }
+
+  @Test
+  public void testCorruptedFileIsDropped() throws Exception {
+    final Path directory = newDirectory();
+    try (PersistentClassCache cache = new PersistentClassCache(directory, 10, MAX_SIZE)) {
+      Files.write(directory.resolve("key.classes"), new byte[] {0, 42});
+      assertNull(cache.get("key"));
+      assertFalse(Files.exists(directory.resolve("key.classes")));
+    }
+  }
+
+  @Test
+  public void testWarmupListsMostUsedKeys() throws Exception {
+    final Path directory = newDirectory();
+    try (PersistentClassCache cache = new PersistentClassCache(directory, 1, MAX_SIZE)) {
+      cache.put("rare", CLASSES);
+      cache.put("frequent", CLASSES);
+      cache.get("frequent");
+    }
+
+    assertEquals(ImmutableList.of("frequent"),
+        Files.readAllLines(directory.resolve(PersistentClassCache.WARMUP_FILE), UTF_8));
+  }
+
+  @Test
+  public void testLeastRecentlyUsedClassesAreEvicted() throws Exception {
+    final Path directory = newDirectory();
+    final long classesSize;
+    try (PersistentClassCache cache = new PersistentClassCache(directory, 10, MAX_SIZE)) {
+      cache.put("old", CLASSES);
+      cache.put("recent", CLASSES);
+      classesSize = Files.size(directory.resolve("old.classes"));
+    }
+    Files.setLastModifiedTime(directory.resolve("old.classes"), FileTime.fromMillis(1000));
+    Files.setLastModifiedTime(directory.resolve("recent.classes"), FileTime.fromMillis(2000));
+
+    // room for two classes only
+    try (PersistentClassCache cache = new PersistentClassCache(directory, 10, 3 * classesSize - 1)) {
+      cache.put("new", CLASSES);
+      assertNull(cache.get("old"));
+      assertClassesEqual(CLASSES, cache.get("recent"));
+      assertClassesEqual(CLASSES, cache.get("new"));
+    }
+    assertFalse(Files.exists(directory.resolve("old.classes")));
+  }
+
+  @Test
+  public void testDirectoryIsPrivate() throws Exception {
+    assumeTrue(folder.getRoot().toPath().getFileSystem().supportedFileAttributeViews().contains("posix"));
+    final Path directory = newDirectory();
+    try (PersistentClassCache cache = new PersistentClassCache(directory, 10, MAX_SIZE)) {
+      assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(directory)));
+    }
+
+    final Path shared = folder.newFolder().toPath();
+    // a directory created by another process, readable by all
+    Files.setPosixFilePermissions(shared, PosixFilePermissions.fromString("rwxr-xr-x"));
+    try {
+      new PersistentClassCache(shared, 10, MAX_SIZE).close();
+      fail("A directory accessible by other users should be rejected");
+    } catch (IOException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("accessible by other users"));
+    }
+  }
+
+  @Test
+  public void testKeyDependsOnTemplate() {
+    final TemplateClassDefinition<ExampleInner> template =
+        new TemplateClassDefinition<>(ExampleInner.class, ExampleTemplateWithInner.class);
+    final TemplateClassDefinition<ExampleExternalInterface> other =
+        new TemplateClassDefinition<>(ExampleExternalInterface.class, ExampleTemplate.class);
+
+    assertEquals(PersistentClassCache.newKey(template, "code"), PersistentClassCache.newKey(template, "code"));
+    assertNotEquals(PersistentClassCache.newKey(template, "code"), PersistentClassCache.newKey(template, "other"));
+    assertNotEquals(PersistentClassCache.newKey(template, "code"), PersistentClassCache.newKey(other, "code"));
+    // the bytecode of the template is part of the key
+    assertEquals(template.getTemplateHash(),
+        new TemplateClassDefinition<>(ExampleInner.class, ExampleTemplateWithInner.class).getTemplateHash());
+    assertNotEquals(template.getTemplateHash(), other.getTemplateHash());
+  }
+
+  /**
+   * @return a directory to be created by the cache
+   */
+  private Path newDirectory() {
+    return folder.getRoot().toPath().resolve("codegen" + directories++);
+  }
+
+  private static void assertClassesEqual(CompiledClasses expected, CompiledClasses actual) {
+    assertEquals(expected.getClassName(), actual.getClassName());
+    assertEquals(expected.getClasses().length, actual.getClasses().length);
+    for (int i = 0; i < expected.getClasses().length; i++) {
+      assertEquals(expected.getClasses()[i].getName(), actual.getClasses()[i].getName());
+      assertArrayEquals(expected.getClasses()[i].getBytes(), actual.getClasses()[i].getBytes());
+    }
+  }
+}
@@ -229,6 +229,7 @@ public class CommandCreatorTest {
       request,
       attemptObserver,
       plans,
+      null,
       new Pointer<>(prepareId),
       attemptNumber
     );
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.sql.handlers.commands;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+
+import com.dremio.exec.catalog.Catalog;
+import com.dremio.exec.catalog.DremioTable;
+import com.dremio.exec.ops.QueryContext;
+import com.dremio.options.OptionList;
+import com.dremio.sabot.rpc.user.UserSession;
+import com.dremio.service.namespace.NamespaceKey;
+import com.dremio.service.namespace.dataset.proto.DatasetConfig;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for {@link PlanCache}.
+ */
+public class TestPlanCache {
+
+  private static final NamespaceKey DATASET = new NamespaceKey(ImmutableList.of("src", "t"));
+  private static final PlanCache.Key KEY = new PlanCache.Key("SELECT * FROM src.t", "user", null, "");
+
+  private final PreparedPlan plan = mock(PreparedPlan.class);
+  private final Catalog catalog = mock(Catalog.class);
+
+  @Test
+  public void testNormalize() {
+    assertEquals("SELECT a, 'x  y' FROM \"my  table\" WHERE b = 1",
+      PlanCache.normalize("  SELECT a,\n\t'x  y'   FROM \"my  table\"\nWHERE b = 1 \n"));
+  }
+
+  @Test
+  public void testNormalizeComments() {
+    // the line comment ends at the line break, the second query has no FROM clause
+    assertEquals("SELECT a FROM t", PlanCache.normalize("SELECT a -- c\nFROM t"));
+    assertEquals("SELECT a", PlanCache.normalize("SELECT a -- c FROM t"));
+    assertEquals("SELECT a FROM t", PlanCache.normalize("SELECT a /* c\n */FROM t"));
+    assertEquals("SELECT '--', \"/*\" FROM t", PlanCache.normalize("SELECT '--', \"/*\" FROM t"));
+    assertEquals("SELECT /*+ hint */ a FROM t", PlanCache.normalize("SELECT /*+ hint */ a FROM t"));
+  }
+
+  @Test
+  public void testKeysOfComments() {
+    final QueryContext context = mock(QueryContext.class);
+    final UserSession session = mock(UserSession.class);
+    when(context.getNonDefaultOptions()).thenReturn(new OptionList());
+    when(context.getSession()).thenReturn(session);
+    when(context.getQueryUserName()).thenReturn("user");
+
+    assertNotEquals(PlanCache.newKey("SELECT a -- c\nFROM t", context),
+      PlanCache.newKey("SELECT a -- c FROM t", context));
+    assertEquals(PlanCache.newKey("SELECT a -- c\nFROM t", context),
+      PlanCache.newKey("SELECT a\nFROM t -- other comment", context));
+  }
+
+  @Test
+  public void testHit() {
+    final PlanCache cache = new PlanCache(10, 60_000);
+    cache.put(KEY, plan, ImmutableList.of(table("1")));
+    final DremioTable current = table("1");
+    when(catalog.getTable(DATASET)).thenReturn(current);
+
+    assertSame(plan, cache.getIfCurrent(new PlanCache.Key("SELECT * FROM src.t", "user", null, ""), catalog));
+    assertEquals(1, cache.stats().hitCount());
+  }
+
+  @Test
+  public void testMissOnOtherUser() {
+    final PlanCache cache = new PlanCache(10, 60_000);
+    cache.put(KEY, plan, ImmutableList.of(table("1")));
+    final DremioTable current = table("1");
+    when(catalog.getTable(DATASET)).thenReturn(current);
+
+    assertNull(cache.getIfCurrent(new PlanCache.Key("SELECT * FROM src.t", "other", null, ""), catalog));
+  }
+
+  @Test
+  public void testMissOnDatasetChange() {
+    final PlanCache cache = new PlanCache(10, 60_000);
+    cache.put(KEY, plan, ImmutableList.of(table("1")));
+    final DremioTable current = table("2");
+    when(catalog.getTable(DATASET)).thenReturn(current);
+
+    assertNull(cache.getIfCurrent(KEY, catalog));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testNotCachedWithoutVersion() {
+    final PlanCache cache = new PlanCache(10, 60_000);
+    cache.put(KEY, plan, ImmutableList.of(table(null)));
+
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testInvalidate() {
+    final PlanCache cache = new PlanCache(10, 60_000);
+    cache.put(KEY, plan, ImmutableList.of(table("1")));
+
+    cache.invalidate(new NamespaceKey(ImmutableList.of("src", "other")));
+    assertEquals(1, cache.size());
+
+    cache.invalidate(new NamespaceKey(ImmutableList.of("SRC", "T")));
+    assertEquals(0, cache.size());
+  }
+
+  private static DremioTable table(String tag) {
+    final DremioTable table = mock(DremioTable.class);
+    when(table.getPath()).thenReturn(DATASET);
+    when(table.getDatasetConfig()).thenReturn(new DatasetConfig().setTag(tag));
+    return table;
+  }
+}
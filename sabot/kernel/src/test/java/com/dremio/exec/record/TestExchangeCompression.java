@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.record;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.dremio.common.expression.CompleteType;
+import com.dremio.exec.proto.ExecRPC.CompressionCodec;
+import com.dremio.exec.proto.ExecRPC.FragmentRecordBatch;
+import com.dremio.exec.proto.UserBitShared.QueryId;
+import com.dremio.sabot.op.receiver.RawFragmentBatch;
+import com.dremio.test.AllocatorRule;
+import com.dremio.test.DremioTest;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Tests {@link ExchangeCompressor} and {@link ExchangeDecompressor}
+ */
+public class TestExchangeCompression extends DremioTest {
+  private static final int RECORDS = 4096;
+
+  @Rule
+  public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
+  private BufferAllocator allocator;
+  private final long[] randomValues = new long[RECORDS];
+
+  @Before
+  public void setup() {
+    allocator = allocatorRule.newAllocator("test-exchange-compression", 0, Long.MAX_VALUE);
+    final Random random = new Random(42);
+    for (int i = 0; i < RECORDS; i++) {
+      randomValues[i] = random.nextLong();
+    }
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    allocator.close();
+  }
+
+  private VectorContainer newContainer() {
+    final VectorContainer container = new VectorContainer(allocator);
+    final BigIntVector repeated = container.addOrGet(CompleteType.BIGINT.toField("repeated"));
+    final BigIntVector random = container.addOrGet(CompleteType.BIGINT.toField("random"));
+    repeated.allocateNew(RECORDS);
+    random.allocateNew(RECORDS);
+    for (int i = 0; i < RECORDS; i++) {
+      repeated.set(i, i % 3);
+      random.set(i, randomValues[i]);
+    }
+    container.setAllCount(RECORDS);
+    container.buildSchema();
+    return container;
+  }
+
+  /**
+   * Concatenates the buffers of the batch, as received by the receiver, and releases them
+   */
+  private RawFragmentBatch receive(FragmentWritableBatch batch) {
+    final ByteBuf[] buffers = batch.getBuffers();
+    long length = 0;
+    for (ByteBuf buf : buffers) {
+      length += buf.readableBytes();
+    }
+    try (ArrowBuf body = allocator.buffer(length)) {
+      long offset = 0;
+      for (ByteBuf buf : buffers) {
+        final int readable = buf.readableBytes();
+        body.setBytes(offset, buf.nioBuffer());
+        offset += readable;
+        buf.release();
+      }
+      body.writerIndex(length);
+      return new RawFragmentBatch(batch.getHeader(), body, null);
+    }
+  }
+
+  private void checkValues(VectorContainer container) {
+    final BigIntVector repeated = (BigIntVector) container.getValueAccessorById(BigIntVector.class, 0).getValueVector();
+    final BigIntVector random = (BigIntVector) container.getValueAccessorById(BigIntVector.class, 1).getValueVector();
+    assertEquals(RECORDS, container.getRecordCount());
+    for (int i = 0; i < RECORDS; i++) {
+      assertEquals(i % 3, repeated.get(i));
+      assertEquals(randomValues[i], random.get(i));
+    }
+  }
+
+  @Test
+  public void roundTrip() throws Exception {
+    final ExchangeCompressor compressor = new ExchangeCompressor(allocator, 0.9);
+    final ExchangeDecompressor decompressor = new ExchangeDecompressor(allocator);
+    try (VectorContainer container = newContainer()) {
+      final FragmentWritableBatch batch = FragmentWritableBatch.create(QueryId.getDefaultInstance(), 0, 0, 0,
+        container, 0, compressor);
+
+      // validity buffers are too small, only the data buffer of the repeated column is compressed
+      final FragmentRecordBatch header = batch.getHeader();
+      assertEquals(4, header.getBufferCompressionCount());
+      assertEquals(CompressionCodec.NO_COMPRESSION, header.getBufferCompression(0).getCodec());
+      assertEquals(CompressionCodec.LZ4, header.getBufferCompression(1).getCodec());
+      assertEquals(CompressionCodec.NO_COMPRESSION, header.getBufferCompression(2).getCodec());
+      assertEquals(CompressionCodec.NO_COMPRESSION, header.getBufferCompression(3).getCodec());
+      assertTrue(compressor.getCompressedBytes() < compressor.getUncompressedBytes());
+      assertEquals(compressor.getCompressedBytes(), batch.getByteCount());
+
+      container.zeroVectors();
+      try (RawFragmentBatch received = receive(batch);
+           RawFragmentBatch uncompressed = decompressor.decompress(received);
+           ArrowRecordBatchLoader loader = new ArrowRecordBatchLoader(container)) {
+        assertEquals(0, uncompressed.getHeader().getBufferCompressionCount());
+        assertEquals(compressor.getUncompressedBytes(), uncompressed.getByteCount());
+        loader.load(uncompressed);
+        checkValues(container);
+      }
+    }
+  }
+
+  @Test
+  public void incompressibleSkipped() throws Exception {
+    final ExchangeCompressor compressor = new ExchangeCompressor(allocator, 0.9);
+    try (VectorContainer container = newContainer()) {
+      // the random column is sampled once then skipped, the repeated one is compressed in every batch
+      for (int i = 0; i <= ExchangeCompressor.SAMPLE_INTERVAL + 1; i++) {
+        final FragmentWritableBatch batch = FragmentWritableBatch.create(QueryId.getDefaultInstance(), 0, 0, 0,
+          container, 0, compressor);
+        assertEquals(CompressionCodec.LZ4, batch.getHeader().getBufferCompression(1).getCodec());
+        assertEquals(CompressionCodec.NO_COMPRESSION, batch.getHeader().getBufferCompression(3).getCodec());
+        for (ByteBuf buf : batch.getBuffers()) {
+          buf.release();
+        }
+      }
+      checkValues(container);
+    }
+  }
+
+  @Test
+  public void uncompressedBatch() throws Exception {
+    final ExchangeDecompressor decompressor = new ExchangeDecompressor(allocator);
+    try (VectorContainer container = newContainer()) {
+      final FragmentWritableBatch batch = FragmentWritableBatch.create(QueryId.getDefaultInstance(), 0, 0, 0,
+        container, 0);
+      assertEquals(0, batch.getHeader().getBufferCompressionCount());
+
+      container.zeroVectors();
+      try (RawFragmentBatch received = receive(batch);
+           RawFragmentBatch uncompressed = decompressor.decompress(received);
+           ArrowRecordBatchLoader loader = new ArrowRecordBatchLoader(container)) {
+        assertSame(received.getBody(), uncompressed.getBody());
+        loader.load(uncompressed);
+        checkValues(container);
+      }
+    }
+  }
+}
@@ -22,6 +22,7 @@ import java.util.List;
 
 import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.vector.AllocationHelper;
+import org.apache.arrow.vector.BitVector;
 import org.apache.arrow.vector.GenerateSampleData;
 import org.apache.arrow.vector.IntVector;
 import org.apache.arrow.vector.ValueVector;
@@ -36,6 +37,7 @@ import com.dremio.exec.record.WritableBatch;
 import com.google.common.collect.Lists;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.NettyArrowBuf;
 
 public class TestLoad extends ExecTest {
 
@@ -116,4 +118,51 @@ public class TestLoad extends ExecTest {
     batchLoader.clear();
     writableBatch.clear();
   }
+
+  @Test
+  public void testLoadValueVectorFromSeparateBuffers() throws Exception {
+    final ValueVector fixedV = new IntVector("ints", allocator);
+    final ValueVector bitV = new BitVector("bits", allocator);
+    final ValueVector varlenV = new VarCharVector("chars", allocator);
+
+    final List<ValueVector> vectors = Lists.newArrayList(fixedV, bitV, varlenV);
+    final List<List<Object>> expected = Lists.newArrayList();
+    for (final ValueVector v : vectors) {
+      AllocationHelper.allocate(v, 100, 50);
+      GenerateSampleData.generateTestData(v, 100);
+      final List<Object> values = Lists.newArrayList();
+      for (int r = 0; r < 100; r++) {
+        values.add(v.getObject(r));
+      }
+      expected.add(values);
+    }
+
+    final WritableBatch writableBatch = WritableBatch.getBatchNoHV(100, vectors, false);
+    final NettyArrowBuf[] byteBufs = writableBatch.getBuffers();
+    final ArrowBuf[] arrowBufs = new ArrowBuf[byteBufs.length];
+    for (int i = 0; i < byteBufs.length; i++) {
+      arrowBufs[i] = byteBufs[i].arrowBuf();
+    }
+
+    try (final RecordBatchLoader batchLoader = new RecordBatchLoader(allocator)) {
+      final long allocatedBefore = allocator.getAllocatedMemory();
+      batchLoader.load(writableBatch.getDef(), arrowBufs);
+      // the vectors use the given buffers
+      assertEquals(allocatedBefore, allocator.getAllocatedMemory());
+
+      // the loader holds its own references on the buffers
+      writableBatch.clear();
+
+      assertEquals(100, batchLoader.getRecordCount());
+      int column = 0;
+      for (final VectorWrapper<?> v : batchLoader) {
+        final ValueVector vv = v.getValueVector();
+        for (int r = 0; r < batchLoader.getRecordCount(); r++) {
+          assertEquals(expected.get(column).get(r), vv.getObject(r));
+        }
+        column++;
+      }
+      assertEquals(3, column);
+    }
+  }
 }
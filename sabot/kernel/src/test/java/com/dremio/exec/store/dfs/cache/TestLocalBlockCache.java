@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.dfs.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.dremio.exec.store.dfs.cache.LocalBlockCache.BlockKey;
+import com.dremio.io.AsyncByteReader;
+import com.dremio.io.file.Path;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Tests for {@link LocalBlockCache} and {@link CachingAsyncByteReader}
+ */
+public class TestLocalBlockCache {
+
+  private static final int BLOCK_SIZE = 16;
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * In memory reader counting the bytes read
+   */
+  private static final class ByteArrayReader implements AsyncByteReader {
+    private final byte[] data;
+    private final AtomicInteger bytesRead = new AtomicInteger();
+
+    private ByteArrayReader(byte[] data) {
+      this.data = data;
+    }
+
+    @Override
+    public CompletableFuture<Void> readFully(long offset, ByteBuf dst, int dstOffset, int len) {
+      dst.setBytes(dstOffset, data, (int) offset, len);
+      bytesRead.addAndGet(len);
+      return completedFuture;
+    }
+  }
+
+  private LocalBlockCache newCache(long capacity) throws Exception {
+    return newCache(capacity, MoreExecutors.newDirectExecutorService());
+  }
+
+  private LocalBlockCache newCache(long capacity, ExecutorService ioExecutor) throws Exception {
+    return new LocalBlockCache(BLOCK_SIZE, Collections.singletonList(folder.newFolder().toPath()),
+      Collections.singletonList(capacity), 0, ioExecutor);
+  }
+
+  private static byte[] newData(int len) {
+    final byte[] data = new byte[len];
+    for (int i = 0; i < len; i++) {
+      data[i] = (byte) i;
+    }
+    return data;
+  }
+
+  private static byte[] read(AsyncByteReader reader, long offset, int len) throws Exception {
+    final ByteBuf buf = Unpooled.buffer(len);
+    try {
+      reader.readFully(offset, buf, 0, len).get();
+      final byte[] bytes = new byte[len];
+      buf.getBytes(0, bytes);
+      return bytes;
+    } finally {
+      buf.release();
+    }
+  }
+
+  @Test
+  public void testWriteAndRead() throws Exception {
+    try (LocalBlockCache cache = newCache(1024)) {
+      final BlockKey key = new BlockKey("file", 0);
+      final ByteBuf buf = Unpooled.wrappedBuffer(newData(BLOCK_SIZE));
+      final ByteBuf dst = Unpooled.buffer(BLOCK_SIZE);
+
+      assertFalse(cache.read(key, 0, dst, 0, 4));
+      // range [2, 12) of the block
+      cache.write("source", 100, key, 2, buf, 0, 10);
+      assertTrue(cache.contains(key, 4, 8));
+      assertTrue(cache.read(key, 4, dst, 0, 8));
+      // only 10 bytes of the block were cached
+      assertFalse(cache.contains(key, 4, 9));
+      assertFalse(cache.read(key, 4, dst, 0, 9));
+      assertFalse(cache.read(key, 0, dst, 0, 4));
+      assertEquals(2, dst.getByte(0));
+      assertEquals(1, cache.getHitCount());
+      assertEquals(3, cache.getMissCount());
+      assertEquals(10, cache.getUsedBytes());
+      assertEquals(10, cache.getUsedBytes("source"));
+
+      // a range not held by the cached block replaces it
+      cache.write("source", 100, key, 0, buf, 0, 4);
+      assertTrue(cache.read(key, 0, dst, 0, 4));
+      assertFalse(cache.read(key, 4, dst, 0, 8));
+      assertEquals(4, cache.getUsedBytes());
+    }
+  }
+
+  @Test
+  public void testLruEviction() throws Exception {
+    try (LocalBlockCache cache = newCache(3 * BLOCK_SIZE)) {
+      final ByteBuf buf = Unpooled.wrappedBuffer(newData(BLOCK_SIZE));
+      final ByteBuf dst = Unpooled.buffer(BLOCK_SIZE);
+      for (int i = 0; i < 3; i++) {
+        cache.write("source", 100, new BlockKey("file", i), 0, buf, 0, BLOCK_SIZE);
+      }
+      // block 0 becomes the most recently used
+      assertTrue(cache.read(new BlockKey("file", 0), 0, dst, 0, BLOCK_SIZE));
+
+      cache.write("source", 100, new BlockKey("file", 3), 0, buf, 0, BLOCK_SIZE);
+      assertEquals(1, cache.getEvictionCount());
+      assertEquals(3 * BLOCK_SIZE, cache.getUsedBytes());
+      assertTrue(cache.read(new BlockKey("file", 0), 0, dst, 0, BLOCK_SIZE));
+      assertFalse(cache.read(new BlockKey("file", 1), 0, dst, 0, BLOCK_SIZE));
+      assertTrue(cache.read(new BlockKey("file", 3), 0, dst, 0, BLOCK_SIZE));
+    }
+  }
+
+  @Test
+  public void testSourceQuota() throws Exception {
+    try (LocalBlockCache cache = newCache(100 * BLOCK_SIZE)) {
+      final ByteBuf buf = Unpooled.wrappedBuffer(newData(BLOCK_SIZE));
+      // source limited to 10% of the cache
+      for (int i = 0; i < 20; i++) {
+        cache.write("small", 10, new BlockKey("small", i), 0, buf, 0, BLOCK_SIZE);
+        cache.write("large", 100, new BlockKey("large", i), 0, buf, 0, BLOCK_SIZE);
+      }
+      assertEquals(10 * BLOCK_SIZE, cache.getUsedBytes("small"));
+      assertEquals(20 * BLOCK_SIZE, cache.getUsedBytes("large"));
+    }
+  }
+
+  @Test
+  public void testConcurrentReadAndReplace() throws Exception {
+    final java.nio.file.Path dir = folder.newFolder().toPath();
+    try (LocalBlockCache cache = new LocalBlockCache(BLOCK_SIZE, Collections.singletonList(dir),
+      Collections.singletonList(1024L), 0, MoreExecutors.newDirectExecutorService())) {
+      final BlockKey key = new BlockKey("file", 0);
+      // each byte of the block holds its position in the block
+      final ByteBuf buf = Unpooled.wrappedBuffer(newData(BLOCK_SIZE));
+
+      // alternately caches the ranges [0, 12) and [4, 16) of the block, each replacing the other
+      final Thread writer = new Thread(() -> {
+        for (int i = 0; i < 2000; i++) {
+          final int offset = (i % 2) * 4;
+          cache.write("source", 100, key, offset, buf, offset, 12);
+        }
+      });
+      writer.start();
+
+      // [4, 12) is held by both ranges, and must never be read from the file of the other one
+      final ByteBuf dst = Unpooled.buffer(8);
+      final byte[] expected = Arrays.copyOfRange(newData(BLOCK_SIZE), 4, 12);
+      final byte[] bytes = new byte[8];
+      while (writer.isAlive()) {
+        if (cache.read(key, 4, dst, 0, 8)) {
+          dst.getBytes(0, bytes);
+          assertArrayEquals(expected, bytes);
+        }
+      }
+      writer.join();
+
+      // the files of the replaced blocks are deleted
+      try (Stream<java.nio.file.Path> files = Files.list(dir)) {
+        assertEquals(1, files.count());
+      }
+      assertEquals(12, cache.getUsedBytes());
+    }
+  }
+
+  @Test
+  public void testCachingReader() throws Exception {
+    final byte[] data = newData(100);
+    final ByteArrayReader source = new ByteArrayReader(data);
+    final AsyncByteReader.FileKey fileKey = AsyncByteReader.FileKey.of(Path.of("/a/b"), "1",
+      AsyncByteReader.FileKey.FileType.PARQUET);
+
+    try (LocalBlockCache cache = newCache(1024);
+         AsyncByteReader reader = new CachingAsyncByteReader(source, cache, "source", 100, fileKey, null)) {
+      assertArrayEquals(Arrays.copyOfRange(data, 5, 40), read(reader, 5, 35));
+      // only the requested range is read
+      assertEquals(35, source.bytesRead.get());
+
+      // the beginning of the first block wasn't cached
+      assertArrayEquals(Arrays.copyOfRange(data, 0, 40), read(reader, 0, 40));
+      assertEquals(51, source.bytesRead.get());
+      assertArrayEquals(Arrays.copyOfRange(data, 20, 30), read(reader, 20, 10));
+      assertEquals(51, source.bytesRead.get());
+
+      // a new version of the file isn't served from the cache
+      final AsyncByteReader.FileKey newVersion = AsyncByteReader.FileKey.of(Path.of("/a/b"), "2",
+        AsyncByteReader.FileKey.FileType.PARQUET);
+      try (AsyncByteReader newReader = new CachingAsyncByteReader(source, cache, "source", 100, newVersion, null)) {
+        assertArrayEquals(Arrays.copyOfRange(data, 0, 10), read(newReader, 0, 10));
+        assertEquals(61, source.bytesRead.get());
+      }
+    }
+  }
+
+  @Test
+  public void testBusyCacheReadsFromSource() throws Exception {
+    final byte[] data = newData(100);
+    final ByteArrayReader source = new ByteArrayReader(data);
+    final AsyncByteReader.FileKey fileKey = AsyncByteReader.FileKey.of(Path.of("/a/b"), "1",
+      AsyncByteReader.FileKey.FileType.PARQUET);
+    // an I/O executor rejecting all the tasks
+    final ExecutorService ioExecutor = MoreExecutors.newDirectExecutorService();
+    ioExecutor.shutdown();
+
+    try (LocalBlockCache cache = newCache(1024, ioExecutor);
+         AsyncByteReader reader = new CachingAsyncByteReader(source, cache, "source", 100, fileKey, null)) {
+      cache.write("source", 100, new BlockKey("source:/a/b:1", 0), 0, Unpooled.wrappedBuffer(data), 0, BLOCK_SIZE);
+
+      // cached blocks are read from the source, and the blocks read aren't cached
+      assertArrayEquals(Arrays.copyOfRange(data, 0, 40), read(reader, 0, 40));
+      assertEquals(40, source.bytesRead.get());
+      assertEquals(BLOCK_SIZE, cache.getUsedBytes());
+    }
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.easy.json;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.fs.BlockLocation;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.LocalFileSystem;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.dremio.BaseTestQuery;
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.catalog.CatalogServiceImpl;
+import com.dremio.exec.catalog.StoragePluginId;
+import com.dremio.exec.catalog.conf.Property;
+import com.dremio.exec.store.dfs.InternalFileConf;
+import com.dremio.service.namespace.NamespaceKey;
+import com.dremio.service.namespace.source.proto.SourceConfig;
+import com.dremio.service.users.SystemUser;
+import com.google.common.collect.Lists;
+
+/**
+ * Tests the queries over a newline delimited JSON file read in several splits, the file system of the source
+ * dividing it in small blocks.
+ */
+public class TestNewlineDelimitedJsonSplits extends BaseTestQuery {
+
+  private static final String SOURCE = "json_splits";
+  private static final String FILE = "records.json";
+  private static final int BLOCK_SIZE = 16 * 1024;
+  private static final int RECORDS = 20_000;
+
+  @ClassRule
+  public static final TemporaryFolder folder = new TemporaryFolder();
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    final File file = new File(folder.getRoot(), FILE);
+    boolean crossingRecord = false;
+    long offset = 0;
+    try (PrintWriter writer = new PrintWriter(file, StandardCharsets.UTF_8.name())) {
+      for (int id = 1; id <= RECORDS; id++) {
+        // records of varying lengths, so that the blocks end in the middle of them
+        final String record = String.format("{\"id\": %d, \"name\": \"name_%s\"}", id,
+          new String(new char[id % 13]).replace('\0', 'x'));
+        writer.println(record);
+        final long end = offset + record.length() + 1;
+        crossingRecord |= offset / BLOCK_SIZE != (end - 1) / BLOCK_SIZE;
+        offset = end;
+      }
+    }
+    assertTrue(file.length() > 10 * BLOCK_SIZE);
+    assertTrue(crossingRecord);
+
+    addSplittingSource();
+  }
+
+  @AfterClass
+  public static void shutdown() throws Exception {
+    final SourceConfig config = getSabotContext().getNamespaceService(SystemUser.SYSTEM_USERNAME)
+      .getSource(new NamespaceKey(SOURCE));
+    ((CatalogServiceImpl) getSabotContext().getCatalogService()).getSystemUserCatalog().deleteSource(config);
+  }
+
+  @Test
+  public void testEachRecordReadOnce() throws Exception {
+    checkAllRecords(true);
+    try (AutoCloseable ignored = withOption(ExecConstants.SLICE_TARGET_OPTION, 1)) {
+      checkAllRecords(true);
+    }
+  }
+
+  @Test
+  public void testWholeFile() throws Exception {
+    checkAllRecords(false);
+  }
+
+  private static void checkAllRecords(boolean newlineDelimited) throws Exception {
+    testBuilder()
+      .sqlQuery("SELECT count(*) AS cnt, count(DISTINCT id) AS ids, sum(id) AS total " +
+        "FROM table(%s.\"%s\"(type => 'json', newlineDelimited => %s))", SOURCE, FILE, newlineDelimited)
+      .unOrdered()
+      .baselineColumns("cnt", "ids", "total")
+      .baselineValues((long) RECORDS, (long) RECORDS, (long) RECORDS * (RECORDS + 1) / 2)
+      .go();
+  }
+
+  /**
+   * Add a source on the folder of the test file, its file system dividing the files in blocks of
+   * {@link #BLOCK_SIZE} bytes.
+   */
+  private static void addSplittingSource() throws Exception {
+    final CatalogServiceImpl catalogService = (CatalogServiceImpl) getSabotContext().getCatalogService();
+    final StoragePluginId pluginId = catalogService.getManagedSource(TEMP_SCHEMA).getId();
+    final InternalFileConf conf = pluginId.getConnectionConf();
+    conf.path = folder.getRoot().getPath();
+    conf.propertyList = Lists.newArrayList(new Property("fs.file.impl", BlockSplittingFileSystem.class.getName()));
+
+    final SourceConfig config = pluginId.getConfig();
+    config.setId(null);
+    config.setTag(null);
+    config.setConfigOrdinal(null);
+    config.setName(SOURCE);
+    config.setConfig(conf.toBytesString());
+    catalogService.getSystemUserCatalog().createSource(config);
+  }
+
+  /**
+   * Local file system returning the files in blocks of {@link #BLOCK_SIZE} bytes.
+   */
+  public static final class BlockSplittingFileSystem extends LocalFileSystem {
+    @Override
+    public BlockLocation[] getFileBlockLocations(FileStatus file, long start, long len) throws IOException {
+      final BlockLocation[] locations = super.getFileBlockLocations(file, start, len);
+      if (locations.length != 1) {
+        return locations;
+      }
+
+      final BlockLocation location = locations[0];
+      final List<BlockLocation> blocks = new ArrayList<>();
+      final long end = location.getOffset() + location.getLength();
+      for (long offset = location.getOffset(); offset < end; offset += BLOCK_SIZE) {
+        blocks.add(new BlockLocation(location.getNames(), location.getHosts(), offset,
+          Math.min(BLOCK_SIZE, end - offset)));
+      }
+      return blocks.toArray(new BlockLocation[0]);
+    }
+  }
+}
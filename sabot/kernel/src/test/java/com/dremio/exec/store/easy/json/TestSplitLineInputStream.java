@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.easy.json;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.dremio.io.ByteBufferFSInputStream;
+
+/**
+ * Tests for {@link SplitLineInputStream}.
+ */
+public class TestSplitLineInputStream {
+
+  private static final String CONTENT = "{\"a\": 1}\n{\"a\": 22}\n{\"a\": 333}\n{\"a\": 4444}\n";
+
+  @Test
+  public void testWholeFile() throws IOException {
+    assertEquals(CONTENT, readSplit(0, CONTENT.length()));
+    assertEquals(CONTENT, readSplit(0, Long.MAX_VALUE));
+  }
+
+  @Test
+  public void testSplitsReadEachLineOnce() throws IOException {
+    for (int splitSize = 1; splitSize <= CONTENT.length(); splitSize++) {
+      final StringBuilder content = new StringBuilder();
+      for (int start = 0; start < CONTENT.length(); start += splitSize) {
+        content.append(readSplit(start, Math.min(splitSize, CONTENT.length() - start)));
+      }
+      assertEquals("split size " + splitSize, CONTENT, content.toString());
+    }
+  }
+
+  @Test
+  public void testSplitBoundaries() throws IOException {
+    // the split starting in the middle of the first line reads from the second line up to the line crossing its end
+    assertEquals("{\"a\": 22}\n{\"a\": 333}\n", readSplit(3, 20));
+    // a split starting at the beginning of a line leaves it to the previous split
+    assertEquals("{\"a\": 333}\n", readSplit(9, 10));
+    // a split inside a line reads nothing
+    assertEquals("", readSplit(31, 3));
+  }
+
+  @Test
+  public void testSingleByteReads() throws IOException {
+    try (InputStream stream = newStream(3, 20)) {
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      int b;
+      while ((b = stream.read()) != -1) {
+        out.write(b);
+      }
+      assertEquals("{\"a\": 22}\n{\"a\": 333}\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+  }
+
+  private static String readSplit(long start, long length) throws IOException {
+    try (InputStream stream = newStream(start, length)) {
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[7];
+      int read;
+      while ((read = stream.read(buffer, 0, buffer.length)) != -1) {
+        out.write(buffer, 0, read);
+      }
+      return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+  }
+
+  private static InputStream newStream(long start, long length) throws IOException {
+    return new SplitLineInputStream(
+      new ByteBufferFSInputStream(ByteBuffer.wrap(CONTENT.getBytes(StandardCharsets.UTF_8))), start, length);
+  }
+}
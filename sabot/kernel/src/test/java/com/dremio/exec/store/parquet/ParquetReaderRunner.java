@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+
+import com.dremio.common.arrow.DremioArrowSchema;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.expr.fn.FunctionLookupContext;
+import com.dremio.exec.planner.physical.PlannerSettings;
+import com.dremio.exec.record.BatchSchema;
+import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
+import com.dremio.exec.server.NodeDebugContextProvider;
+import com.dremio.exec.server.SabotContext;
+import com.dremio.exec.store.SampleMutator;
+import com.dremio.exec.store.parquet.columnar.ColumnarParquetReaderFactory;
+import com.dremio.io.file.FileAttributes;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+import com.dremio.io.file.PathFilters;
+import com.dremio.options.OptionManager;
+import com.dremio.sabot.exec.context.OpProfileDef;
+import com.dremio.sabot.exec.context.OperatorContextImpl;
+import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.sabot.exec.store.parquet.proto.ParquetProtobuf.ParquetDatasetSplitScanXAttr;
+import com.dremio.sabot.op.scan.ScanOperator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Reads the parquet files of a table written by Dremio with {@link UnifiedParquetReader} and the columnar reader
+ * factory, the way a scan does, with filter conditions given to the reader as if pushed down into the scan.
+ *
+ * The planner doesn't push filter conditions into the parquet scans by itself, so the readers are run directly to
+ * test what they do with them.
+ */
+public final class ParquetReaderRunner implements AutoCloseable {
+  private static final ParquetFilterIface EXACT_FILTER = new ParquetFilterIface() {
+  };
+
+  private final FileSystem fs;
+  private final OperatorContextImpl context;
+
+  /**
+   * @param targetBatchSize the maximum number of rows of each batch
+   */
+  public ParquetReaderRunner(SabotContext sabotContext, FileSystem fs, int targetBatchSize) {
+    this.fs = fs;
+    final OptionManager options = sabotContext.getOptionManager();
+    final FunctionLookupContext functions = options.getOption(PlannerSettings.ENABLE_DECIMAL_V2)
+      ? sabotContext.getDecimalFunctionImplementationRegistry() : sabotContext.getFunctionImplementationRegistry();
+    final BufferAllocator allocator = sabotContext.getAllocator()
+      .newChildAllocator("parquet-reader-runner", 0, Long.MAX_VALUE);
+    final OperatorStats stats = new OperatorStats(new OpProfileDef(0, 0, 0), allocator);
+    this.context = new OperatorContextImpl(sabotContext.getConfig(), null, null, allocator, allocator,
+      sabotContext.getCompiler(), stats, null, null, null, functions, null, options, null,
+      NodeDebugContextProvider.NOOP, targetBatchSize, null, ImmutableList.of(), ImmutableList.of(), null, null);
+  }
+
+  /**
+   * An exact filter condition on a column, applied by the reader.
+   */
+  public static ParquetFilterCondition condition(String column, LogicalExpression expr) {
+    return new ParquetFilterCondition(SchemaPath.getSimplePath(column), EXACT_FILTER, expr, 0);
+  }
+
+  /**
+   * Read all the row groups of the parquet files of a table.
+   *
+   * @param table the directory of the table
+   * @param columns the columns to read
+   * @param conditions the filter conditions
+   * @return the values of the columns of each row returned by the readers, in order
+   */
+  public List<List<Object>> read(Path table, List<String> columns, List<ParquetFilterCondition> conditions)
+    throws Exception {
+    final List<FileAttributes> files = new ArrayList<>();
+    try (DirectoryStream<FileAttributes> stream = fs.list(table, PathFilters.endsWith(".parquet"))) {
+      stream.forEach(files::add);
+    }
+    files.sort((file1, file2) -> file1.getPath().compareTo(file2.getPath()));
+
+    final List<List<Object>> rows = new ArrayList<>();
+    for (FileAttributes file : files) {
+      final int rowGroups = readFooter(file).getBlocks().size();
+      for (int rowGroup = 0; rowGroup < rowGroups; rowGroup++) {
+        readRowGroup(file, rowGroup, columns, conditions, rows);
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * @return the value of a metric of the readers, summed over all the reads
+   */
+  public long getMetric(ScanOperator.Metric metric) {
+    return context.getStats().getLongStat(metric);
+  }
+
+  private void readRowGroup(FileAttributes file, int rowGroup, List<String> columns,
+                            List<ParquetFilterCondition> conditions, List<List<Object>> rows) throws Exception {
+    // the readers trim the footer, each row group is read with its own copy
+    final MutableParquetMetadata footer = new MutableParquetMetadata(readFooter(file));
+    final Schema arrowSchema = DremioArrowSchema.fromMetaData(footer.getFileMetaData().getKeyValueMetaData());
+    final BatchSchema tableSchema = BatchSchema.newBuilder().addFields(arrowSchema.getFields()).build();
+    final List<SchemaPath> paths = columns.stream().map(SchemaPath::getSimplePath).collect(Collectors.toList());
+
+    final ParquetDatasetSplitScanXAttr readEntry = ParquetDatasetSplitScanXAttr.newBuilder()
+      .setPath(file.getPath().toString())
+      .setFileLength(file.size())
+      .setStart(0)
+      .setLength(file.size())
+      .setRowGroupIndex(rowGroup)
+      .setLastModificationTime(file.lastModifiedTime().toMillis())
+      .build();
+    final SchemaDerivationHelper schemaHelper = SchemaDerivationHelper.builder()
+      .readInt96AsTimeStamp(false)
+      .dateCorruptionStatus(ParquetReaderUtility.detectCorruptDates(footer, paths, true))
+      .build();
+    final InputStreamProvider inputStreamProvider = new SingleStreamProvider(fs, file.getPath(), file.size(),
+      file.lastModifiedTime().toMillis(), getMaxFooterLen(), false, footer, context, false);
+
+    try (SampleMutator mutator = new SampleMutator(context.getAllocator());
+         UnifiedParquetReader reader = new UnifiedParquetReader(context, new ColumnarParquetReaderFactory(),
+           tableSchema, ParquetScanProjectedColumns.fromSchemaPaths(paths), ImmutableMap.of(),
+           conditions.isEmpty() ? null : conditions, ParquetFilterCreator.DEFAULT, ParquetDictionaryConvertor.DEFAULT,
+           readEntry, fs, footer, null, schemaHelper, true, false, false, inputStreamProvider, ImmutableList.of())) {
+      // as done by the scan operator before setting up its readers
+      tableSchema.maskAndReorder(paths).materializeVectors(paths, mutator);
+      mutator.getContainer().buildSchema(SelectionVectorMode.NONE);
+      mutator.getAndResetSchemaChanged();
+
+      reader.setup(mutator);
+      while (true) {
+        reader.allocate(mutator.getFieldVectorMap());
+        final int records = reader.next();
+        if (records == 0) {
+          break;
+        }
+        for (int i = 0; i < records; i++) {
+          final Object[] values = new Object[columns.size()];
+          for (int j = 0; j < values.length; j++) {
+            values[j] = mutator.getVector(columns.get(j)).getObject(i);
+          }
+          rows.add(Arrays.asList(values));
+        }
+      }
+    }
+  }
+
+  private ParquetMetadata readFooter(FileAttributes file) throws IOException {
+    return SingletonParquetFooterCache.readFooter(fs, file, ParquetMetadataConverter.NO_FILTER, getMaxFooterLen());
+  }
+
+  private long getMaxFooterLen() {
+    return context.getOptions().getOption(ExecConstants.PARQUET_MAX_FOOTER_LEN_VALIDATOR);
+  }
+
+  @Override
+  public void close() throws Exception {
+    context.close();
+  }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.Test;
+
+import com.dremio.common.expression.FunctionCallFactory;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.expression.ValueExpressions;
+import com.dremio.sabot.op.common.ht2.XXH64;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Tests for {@link ParquetBloomFilter} and the writing and reading of the bloom filters of the parquet files.
+ */
+public class TestParquetBloomFilter {
+
+  private static final MessageType SCHEMA = MessageTypeParser.parseMessageType(
+    "message root { optional int32 id; optional binary name (UTF8); optional double score; }");
+
+  @Test
+  public void testMightContain() {
+    final ParquetBloomFilter filter = ParquetBloomFilter.create(1000, 0.01, 1024 * 1024);
+    for (long i = 0; i < 1000; i++) {
+      filter.insertHash(ParquetBloomFilter.hash(i * 2));
+    }
+
+    int falsePositives = 0;
+    for (long i = 0; i < 1000; i++) {
+      assertTrue(filter.mightContain(ParquetBloomFilter.hash(i * 2)));
+      if (filter.mightContain(ParquetBloomFilter.hash(i * 2 + 1))) {
+        falsePositives++;
+      }
+    }
+    assertTrue("Too many false positives: " + falsePositives, falsePositives < 50);
+  }
+
+  @Test
+  public void testHash() {
+    // published XXH64 values, with seed 0, of the plain encoding of the values as the split block filters hash them
+    assertEquals(0xEF46DB3751D8E999L, ParquetBloomFilter.hash(Binary.fromString("")));
+    assertEquals(0x44BC2CF5AD770999L, ParquetBloomFilter.hash(Binary.fromString("abc")));
+    assertEquals(0xFBCEA83C8A378BF1L,
+      ParquetBloomFilter.hash(Binary.fromString("Nobody inspects the spammish repetition")));
+  }
+
+  @Test
+  public void testHashOfMemory() {
+    final byte[] bytes = "Nobody inspects the spammish repetition".getBytes(StandardCharsets.UTF_8);
+    final long addr = PlatformDependent.allocateMemory(bytes.length);
+    try {
+      PlatformDependent.copyMemory(bytes, 0, addr, bytes.length);
+      for (int offset = 0; offset < bytes.length; offset++) {
+        for (int length = 0; offset + length <= bytes.length; length++) {
+          assertEquals(XXH64.xxHash64(addr + offset, length, 17), XXH64.xxHash64(bytes, offset, length, 17));
+        }
+      }
+    } finally {
+      PlatformDependent.freeMemory(addr);
+    }
+  }
+
+  @Test
+  public void testSerialization() {
+    final ParquetBloomFilter filter = ParquetBloomFilter.create(10, 0.01, 1024 * 1024);
+    filter.insertHash(ParquetBloomFilter.hash(Binary.fromString("abc")));
+
+    final ParquetBloomFilter copy = ParquetBloomFilter.deserialize(filter.serialize());
+    assertTrue(copy.mightContain(ParquetBloomFilter.hash(Binary.fromString("abc"))));
+    assertEquals(filter.serialize(), copy.serialize());
+  }
+
+  @Test
+  public void testNumBytes() {
+    assertEquals(32, ParquetBloomFilter.getNumBytes(1, 0.01, 1024));
+    assertEquals(1024, ParquetBloomFilter.getNumBytes(1_000_000, 0.01, 1024));
+    assertEquals(0, ParquetBloomFilter.getNumBytes(1000, 0.01, 1024 * 1024) % 32);
+  }
+
+  @Test
+  public void testFold() {
+    final ParquetBloomFilter filter = ParquetBloomFilter.createFoldable(1024 * 1024);
+    final ParquetBloomFilter small = ParquetBloomFilter.createFoldable(8192);
+    for (long i = 0; i < 1000; i++) {
+      filter.insertHash(ParquetBloomFilter.hash(i));
+      small.insertHash(ParquetBloomFilter.hash(i));
+    }
+    // the same filter as inserting the hashes in the smaller one
+    final ParquetBloomFilter folded = filter.fold(5000);
+    assertEquals(8192, folded.getNumBytes());
+    assertEquals(small.serialize(), folded.serialize());
+    assertEquals(1024 * 1024, filter.fold(1024 * 1024).getNumBytes());
+  }
+
+  @Test
+  public void testEstimateDistinctValues() {
+    final ParquetBloomFilter filter = ParquetBloomFilter.createFoldable(64 * 1024);
+    assertEquals(0, filter.estimateDistinctValues());
+    for (long i = 0; i < 10_000; i++) {
+      filter.insertHash(ParquetBloomFilter.hash(i));
+      filter.insertHash(ParquetBloomFilter.hash(i));
+    }
+    final long estimate = filter.estimateDistinctValues();
+    assertTrue("Bad estimate: " + estimate, estimate > 9_500 && estimate < 10_500);
+  }
+
+  @Test
+  public void testManyDistinctValues() {
+    // more distinct values than the hashes kept in a set, less than a filter of the max size holds
+    final int[] ids = IntStream.range(0, 5000).toArray();
+    final Map<String, String> metadata = write(64 * 1024, ids);
+    final ParquetBloomFilter filter = ParquetBloomFilter.deserialize(metadata.get("dremio.bloom_filter.id"));
+    assertTrue(filter.getNumBytes() < 64 * 1024);
+    assertTrue(filter.getNumBytes() >= ParquetBloomFilter.getNumBytes(ids.length, 0.01, 64 * 1024));
+    for (int id : ids) {
+      assertTrue(filter.mightContain(ParquetBloomFilter.hash(id)));
+    }
+  }
+
+  @Test
+  public void testTooManyDistinctValues() {
+    final Map<String, String> metadata = write(1024, IntStream.range(0, 100_000).toArray());
+    assertTrue(metadata.isEmpty());
+  }
+
+  @Test
+  public void testEquality() {
+    final BloomFilterEvaluator evaluator = evaluator(1, 2, 3);
+    assertTrue(evaluator.mayMatch(ImmutableList.of(condition(equal("id", ValueExpressions.getInt(2))))));
+    assertFalse(evaluator.mayMatch(ImmutableList.of(condition(equal("id", ValueExpressions.getInt(4))))));
+    // column names are resolved case insensitively
+    assertFalse(evaluator.mayMatch(ImmutableList.of(condition(equal("ID", ValueExpressions.getInt(4))))));
+    assertTrue(evaluator.mayMatch(ImmutableList.of(condition(equal("name", ValueExpressions.getChar("a"))))));
+    assertFalse(evaluator.mayMatch(ImmutableList.of(condition(equal("name", ValueExpressions.getChar("d"))))));
+  }
+
+  @Test
+  public void testInList() {
+    final BloomFilterEvaluator evaluator = evaluator(1, 2, 3);
+    assertTrue(evaluator.mayMatch(ImmutableList.of(condition(FunctionCallFactory.createBooleanOperator("or",
+      equal("id", ValueExpressions.getInt(5)), equal("id", ValueExpressions.getInt(3)))))));
+    assertFalse(evaluator.mayMatch(ImmutableList.of(condition(FunctionCallFactory.createBooleanOperator("or",
+      equal("id", ValueExpressions.getInt(5)), equal("id", ValueExpressions.getInt(6)))))));
+  }
+
+  @Test
+  public void testUnsupportedConditions() {
+    final BloomFilterEvaluator evaluator = evaluator(1, 2, 3);
+    // no bloom filter
+    assertTrue(evaluator.mayMatch(ImmutableList.of(condition(equal("score", ValueExpressions.getFloat8(1.5))))));
+    // literal of another type than the column
+    assertTrue(evaluator.mayMatch(ImmutableList.of(condition(equal("id", ValueExpressions.getChar("4"))))));
+    // other comparisons
+    assertTrue(evaluator.mayMatch(ImmutableList.of(condition(
+      FunctionCallFactory.createExpression("greater_than", SchemaPath.getSimplePath("id"), ValueExpressions.getInt(10))))));
+  }
+
+  private static BloomFilterEvaluator evaluator(int... ids) {
+    final Map<String, String> metadata = write(1024, ids);
+    assertEquals(ImmutableSet.of("dremio.bloom_filter.id", "dremio.bloom_filter.name"), metadata.keySet());
+    assertTrue(BloomFilterEvaluator.hasBloomFilters(metadata));
+    return new BloomFilterEvaluator(SCHEMA, new ParquetColumnDefaultResolver(ImmutableList.of()), metadata);
+  }
+
+  /**
+   * @return the footer metadata of the bloom filters of a file with the given ids
+   */
+  private static Map<String, String> write(int maxBytes, int... ids) {
+    final BloomFilterRecordConsumer consumer = new BloomFilterRecordConsumer(new NoopRecordConsumer(), SCHEMA,
+      ImmutableSet.of("id", "name"), 0.01, maxBytes);
+    for (int id : ids) {
+      consumer.startMessage();
+      consumer.startField("id", 0);
+      consumer.addInteger(id);
+      consumer.endField("id", 0);
+      consumer.startField("name", 1);
+      consumer.addBinary(Binary.fromString(String.valueOf((char) ('a' + id - 1))));
+      consumer.endField("name", 1);
+      consumer.startField("score", 2);
+      consumer.addDouble(id);
+      consumer.endField("score", 2);
+      consumer.endMessage();
+    }
+    return consumer.getMetadata();
+  }
+
+  private static LogicalExpression equal(String column, LogicalExpression literal) {
+    return FunctionCallFactory.createExpression("equal", SchemaPath.getSimplePath(column), literal);
+  }
+
+  private static ParquetFilterCondition condition(LogicalExpression expr) {
+    return new ParquetFilterCondition(SchemaPath.getSimplePath("id"), null, expr, 0);
+  }
+
+  private static final class NoopRecordConsumer extends RecordConsumer {
+    @Override
+    public void startMessage() {
+    }
+
+    @Override
+    public void endMessage() {
+    }
+
+    @Override
+    public void startField(String field, int index) {
+    }
+
+    @Override
+    public void endField(String field, int index) {
+    }
+
+    @Override
+    public void startGroup() {
+    }
+
+    @Override
+    public void endGroup() {
+    }
+
+    @Override
+    public void addInteger(int value) {
+    }
+
+    @Override
+    public void addLong(long value) {
+    }
+
+    @Override
+    public void addBoolean(boolean value) {
+    }
+
+    @Override
+    public void addBinary(Binary value) {
+    }
+
+    @Override
+    public void addFloat(float value) {
+    }
+
+    @Override
+    public void addDouble(double value) {
+    }
+  }
+}
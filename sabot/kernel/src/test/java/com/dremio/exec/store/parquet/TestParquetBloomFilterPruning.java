@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.dremio.BaseTestQuery;
+import com.dremio.common.expression.FunctionCallFactory;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.expression.ValueExpressions;
+import com.dremio.exec.ExecConstants;
+import com.dremio.io.file.Path;
+import com.dremio.sabot.op.scan.ScanOperator;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for the pruning of the row groups of a table written with bloom filters, from the equality conditions of
+ * the scan.
+ */
+public class TestParquetBloomFilterPruning extends BaseTestQuery {
+
+  private static final String TABLE = "bloom_filter_pruning";
+  private static final String L_ORDERKEY = "l_orderkey";
+  private static final String L_COMMENT = "l_comment";
+  private static final List<String> COLUMNS = ImmutableList.of(L_ORDERKEY, "l_partkey", L_COMMENT);
+  private static final int BATCH_SIZE = (int) ExecConstants.TARGET_BATCH_RECORDS_MAX.getDefault().getNumVal();
+
+  private static List<List<Object>> allRows;
+
+  @BeforeClass
+  public static void createTable() throws Exception {
+    // small row groups, each in its own file with its bloom filters
+    test("ALTER SESSION SET \"%s\" = '%s,%s'", ExecConstants.PARQUET_WRITER_BLOOM_FILTER_COLUMNS.getOptionName(),
+      L_ORDERKEY, L_COMMENT);
+    try (AutoCloseable ignored = withOption(ExecConstants.PARQUET_BLOCK_SIZE_VALIDATOR, 64 * 1024)) {
+      test("CREATE TABLE %s.%s AS SELECT %s FROM cp.\"tpch/lineitem.parquet\" WHERE l_orderkey < 20000 " +
+        "ORDER BY l_orderkey", TEMP_SCHEMA, TABLE, String.join(", ", COLUMNS));
+    } finally {
+      test("ALTER SESSION RESET \"%s\"", ExecConstants.PARQUET_WRITER_BLOOM_FILTER_COLUMNS.getOptionName());
+    }
+
+    try (Stream<java.nio.file.Path> files = Files.list(Paths.get(getDfsTestTmpSchemaLocation(), TABLE))) {
+      assertTrue(files.filter(file -> file.toString().endsWith(".parquet")).count() > 1);
+    }
+    allRows = read(ImmutableList.of()).rows;
+  }
+
+  @AfterClass
+  public static void dropTable() throws Exception {
+    test("DROP TABLE %s.%s", TEMP_SCHEMA, TABLE);
+  }
+
+  @Test
+  public void testEquality() throws Exception {
+    checkPruned(L_ORDERKEY, equal(L_ORDERKEY, ValueExpressions.getInt(1000)), row -> (Integer) row.get(0) == 1000);
+  }
+
+  @Test
+  public void testInList() throws Exception {
+    checkPruned(L_ORDERKEY, FunctionCallFactory.createBooleanOperator("or",
+      equal(L_ORDERKEY, ValueExpressions.getInt(1000)), equal(L_ORDERKEY, ValueExpressions.getInt(15000))),
+      row -> (Integer) row.get(0) == 1000 || (Integer) row.get(0) == 15000);
+  }
+
+  @Test
+  public void testStringEquality() throws Exception {
+    final String comment = allRows.get(allRows.size() / 2).get(2).toString();
+    checkPruned(L_COMMENT, equal(L_COMMENT, ValueExpressions.getChar(comment)),
+      row -> row.get(2).toString().equals(comment));
+  }
+
+  @Test
+  public void testMissingValue() throws Exception {
+    final Result result = read(ImmutableList.of(ParquetReaderRunner.condition(L_ORDERKEY,
+      equal(L_ORDERKEY, ValueExpressions.getInt(-1)))));
+    assertTrue(result.rows.isEmpty());
+    assertTrue(result.rowGroupsPruned > 0);
+  }
+
+  /**
+   * Check that a condition prunes row groups, and that the rows read match the condition with and without the
+   * bloom filters.
+   */
+  private static void checkPruned(String column, LogicalExpression expr, Predicate<List<Object>> filter)
+    throws Exception {
+    final List<List<Object>> expected = allRows.stream().filter(filter).collect(Collectors.toList());
+    assertFalse(expected.isEmpty());
+    final List<ParquetFilterCondition> conditions = ImmutableList.of(ParquetReaderRunner.condition(column, expr));
+
+    final Result result = read(conditions);
+    assertEquals(expected, result.rows);
+    assertTrue(result.rowGroupsPruned > 0);
+
+    try (AutoCloseable ignored = withSystemOption(ExecConstants.PARQUET_READER_BLOOM_FILTER, false)) {
+      final Result unpruned = read(conditions);
+      assertEquals(expected, unpruned.rows);
+      assertEquals(0, unpruned.rowGroupsPruned);
+    }
+  }
+
+  private static Result read(List<ParquetFilterCondition> conditions) throws Exception {
+    try (ParquetReaderRunner runner = new ParquetReaderRunner(getSabotContext(), localFs, BATCH_SIZE)) {
+      final List<List<Object>> rows = runner.read(Path.of(getDfsTestTmpSchemaLocation()).resolve(TABLE), COLUMNS,
+        conditions);
+      return new Result(rows, runner.getMetric(ScanOperator.Metric.NUM_ROW_GROUPS_PRUNED));
+    }
+  }
+
+  private static LogicalExpression equal(String column, LogicalExpression literal) {
+    return FunctionCallFactory.createExpression("equal", SchemaPath.getSimplePath(column), literal);
+  }
+
+  private static final class Result {
+    private final List<List<Object>> rows;
+    private final long rowGroupsPruned;
+
+    private Result(List<List<Object>> rows, long rowGroupsPruned) {
+      this.rows = rows;
+      this.rowGroupsPruned = rowGroupsPruned;
+    }
+  }
+}
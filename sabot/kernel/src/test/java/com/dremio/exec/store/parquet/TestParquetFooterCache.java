@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.Test;
+
+import com.dremio.exec.store.parquet.ParquetFooterCache.FooterKey;
+import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.sabot.op.scan.ScanOperator;
+
+/**
+ * Tests for {@link ParquetFooterCache}
+ */
+public class TestParquetFooterCache {
+
+  private static final MessageType SCHEMA = MessageTypeParser.parseMessageType(
+    "message test { required int32 a; optional binary b; }");
+
+  private static ParquetMetadata newFooter(int numRowGroups) {
+    final List<BlockMetaData> blocks = new ArrayList<>();
+    for (int i = 0; i < numRowGroups; i++) {
+      final BlockMetaData block = new BlockMetaData();
+      block.setRowCount(100);
+      blocks.add(block);
+    }
+    return new ParquetMetadata(new FileMetaData(SCHEMA, Collections.emptyMap(), "test"), blocks);
+  }
+
+  @Test
+  public void testHitsAndMisses() throws Exception {
+    final ParquetFooterCache cache = new ParquetFooterCache(1024 * 1024);
+    final OperatorStats stats = mock(OperatorStats.class);
+    final AtomicInteger loads = new AtomicInteger();
+    final ParquetFooterCache.FooterLoader loader = () -> {
+      loads.incrementAndGet();
+      return newFooter(2);
+    };
+
+    final FooterKey key = new FooterKey("file:///", "/a/b.parquet", 1000, 1);
+    assertNotNull(cache.get(key, stats, loader));
+    assertNotNull(cache.get(new FooterKey("file:///", "/a/b.parquet", 1000, 1), stats, loader));
+    assertEquals(1, loads.get());
+    verify(stats).addLongStat(ScanOperator.Metric.NUM_FOOTER_CACHE_MISSES, 1);
+    verify(stats).addLongStat(ScanOperator.Metric.NUM_FOOTER_CACHE_HITS, 1);
+
+    // a new version of the file must not be served the old footer
+    cache.get(new FooterKey("file:///", "/a/b.parquet", 1000, 2), stats, loader);
+    cache.get(new FooterKey("file:///", "/a/b.parquet", 2000, 1), stats, loader);
+    cache.get(new FooterKey("hdfs://namenode/", "/a/b.parquet", 1000, 1), stats, loader);
+    assertEquals(4, loads.get());
+    assertEquals(4, cache.size());
+  }
+
+  @Test
+  public void testCachedFooterIsNotModifiedByReaders() throws Exception {
+    final ParquetFooterCache cache = new ParquetFooterCache(1024 * 1024);
+    final FooterKey key = new FooterKey("file:///", "/a/b.parquet", 1000, 1);
+
+    final MutableParquetMetadata first = new MutableParquetMetadata(cache.get(key, null, () -> newFooter(3)));
+    first.removeRowGroupInformation(0);
+    first.removeUnusedRowGroups(Collections.singleton(2));
+
+    final ParquetMetadata second = cache.get(key, null, () -> {
+      throw new AssertionError("footer should have been cached");
+    });
+    assertEquals(3, second.getBlocks().size());
+    for (BlockMetaData block : second.getBlocks()) {
+      assertNotNull(block);
+    }
+  }
+
+  @Test
+  public void testEviction() throws Exception {
+    final int footerSize = ParquetFooterCache.estimateHeapSize(newFooter(10));
+    // room for a couple of footers only
+    final ParquetFooterCache cache = new ParquetFooterCache(2L * footerSize);
+    final OperatorStats stats = mock(OperatorStats.class);
+
+    for (int i = 0; i < 20; i++) {
+      cache.get(new FooterKey("file:///", "/a/" + i + ".parquet", 1000, 1), stats, () -> newFooter(10));
+    }
+
+    assertTrue("cache should be bounded, size = " + cache.size(), cache.size() <= 2);
+  }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet.columnar;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.apache.arrow.vector.util.JsonStringArrayList;
+import org.apache.arrow.vector.util.JsonStringHashMap;
+import org.apache.arrow.vector.util.Text;
+import org.junit.Test;
+
+import com.dremio.BaseTestQuery;
+import com.dremio.common.expression.FunctionCallFactory;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.expression.ValueExpressions;
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.store.parquet.ParquetFilterCondition;
+import com.dremio.exec.store.parquet.ParquetReaderRunner;
+import com.dremio.io.file.Path;
+import com.dremio.sabot.op.scan.ScanOperator;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for {@link ColumnarParquetReader}, with the complex columns read by it rather than row wise.
+ */
+public class TestColumnarParquetReader extends BaseTestQuery {
+
+  private static final String COMPLEX = "cp.\"store/parquet/complex/complex.parquet\"";
+  private static final String L_ORDERKEY = "l_orderkey";
+  // l_shipdate is read row wise
+  private static final List<String> LINEITEM_COLUMNS =
+    ImmutableList.of(L_ORDERKEY, "l_partkey", "l_comment", "l_shipdate");
+  private static final List<String> COMPLEX_COLUMNS =
+    ImmutableList.of("trans_id", "amount", "marketing_info", "trans_info", "user_info");
+  private static final int DEFAULT_BATCH_SIZE =
+    (int) ExecConstants.TARGET_BATCH_RECORDS_MAX.getDefault().getNumVal();
+
+  @Test
+  public void testComplexColumns() throws Exception {
+    try (AutoCloseable ignored = withOption(ExecConstants.ENABLE_PARQUET_VECTORIZED_COMPLEX_READERS, true)) {
+      runComplexColumns();
+      // batches ending inside lists
+      for (Long batchSize : asList(1L, 2L, 3L)) {
+        try (AutoCloseable op1 = withOption(ExecConstants.TARGET_BATCH_RECORDS_MIN, batchSize);
+             AutoCloseable op2 = withOption(ExecConstants.TARGET_BATCH_RECORDS_MAX, batchSize)) {
+          runComplexColumns();
+        }
+      }
+    }
+  }
+
+  private void runComplexColumns() throws Exception {
+    testBuilder()
+      .sqlQuery("select amount, \"date\", marketing_info, \"time\", trans_id, trans_info, user_info from %s", COMPLEX)
+      .ordered()
+      .jsonBaselineFile("store/parquet/complex/baseline.json")
+      .build()
+      .run();
+  }
+
+  @Test
+  public void testListOfListWithNulls() throws Exception {
+    final JsonStringArrayList<Text> thirdLevelList = new JsonStringArrayList<>();
+    thirdLevelList.add(new Text("a"));
+    thirdLevelList.add(null);
+
+    final JsonStringArrayList<JsonStringArrayList> secondLevelList = new JsonStringArrayList<>();
+    secondLevelList.add(thirdLevelList);
+    secondLevelList.add(null);
+
+    final JsonStringArrayList<JsonStringArrayList> topLevelList = new JsonStringArrayList<>();
+    topLevelList.add(secondLevelList);
+    topLevelList.add(null);
+
+    try (AutoCloseable ignored = withOption(ExecConstants.ENABLE_PARQUET_VECTORIZED_COMPLEX_READERS, true)) {
+      testBuilder()
+        .sqlQuery("SELECT col1 FROM cp.\"/parquet/list_list_null_test.parquet\"")
+        .ordered()
+        .baselineColumns("col1")
+        .baselineValues(topLevelList)
+        .build()
+        .run();
+    }
+  }
+
+  @Test
+  public void testListOfStructWithNulls() throws Exception {
+    final JsonStringArrayList<Text> thirdLevelList = new JsonStringArrayList<>();
+    thirdLevelList.add(new Text("a"));
+    thirdLevelList.add(null);
+
+    final JsonStringHashMap<String, Object> secondLevelStruct = new JsonStringHashMap<>();
+    secondLevelStruct.put("f1", thirdLevelList);
+
+    final JsonStringArrayList<JsonStringHashMap> topLevelList = new JsonStringArrayList<>();
+    topLevelList.add(secondLevelStruct);
+    topLevelList.add(null);
+
+    try (AutoCloseable ignored = withOption(ExecConstants.ENABLE_PARQUET_VECTORIZED_COMPLEX_READERS, true)) {
+      testBuilder()
+        .sqlQuery("SELECT col1 FROM cp.\"/parquet/list_struct_null_test.parquet\"")
+        .ordered()
+        .baselineColumns("col1")
+        .baselineValues(topLevelList)
+        .build()
+        .run();
+    }
+  }
+
+  @Test
+  public void testPagePruning() throws Exception {
+    final String table = "columnar_page_pruning";
+    createLineitemTable(table);
+    try {
+      final List<ParquetFilterCondition> conditions = ImmutableList.of(
+        condition(L_ORDERKEY, "greater_than_or_equal_to", 1000),
+        condition(L_ORDERKEY, "less_than", 1100));
+      final List<List<Object>> expected = readLineitem(table, DEFAULT_BATCH_SIZE, ImmutableList.of()).stream()
+        .filter(row -> (Integer) row.get(0) >= 1000 && (Integer) row.get(0) < 1100)
+        .collect(Collectors.toList());
+      assertFalse(expected.isEmpty());
+
+      try (ParquetReaderRunner runner = newRunner(DEFAULT_BATCH_SIZE)) {
+        assertEquals(expected, runner.read(getTablePath(table), LINEITEM_COLUMNS, conditions));
+        assertTrue(runner.getMetric(ScanOperator.Metric.NUM_PAGES_PRUNED) > 0);
+        assertTrue(runner.getMetric(ScanOperator.Metric.PAGE_BYTES_PRUNED) > 0);
+      }
+
+      // the pages of the columns without filter conditions are also skipped with late materialization
+      try (AutoCloseable op1 = withSystemOption(ExecConstants.PARQUET_READER_PAGE_PRUNING, false);
+           AutoCloseable op2 = withSystemOption(ExecConstants.PARQUET_READER_LATE_MATERIALIZATION, false);
+           ParquetReaderRunner runner = newRunner(DEFAULT_BATCH_SIZE)) {
+        assertEquals(expected, runner.read(getTablePath(table), LINEITEM_COLUMNS, conditions));
+        assertEquals(0, runner.getMetric(ScanOperator.Metric.NUM_PAGES_PRUNED));
+        assertEquals(0, runner.getMetric(ScanOperator.Metric.PAGE_BYTES_PRUNED));
+      }
+    } finally {
+      test("DROP TABLE %s.%s", TEMP_SCHEMA, table);
+    }
+  }
+
+  @Test
+  public void testLateMaterialization() throws Exception {
+    final String table = "columnar_late_materialization";
+    createLineitemTable(table, 4000);
+    try {
+      // a single run of rows, the pages before and after it are skipped with the offset index
+      checkLateMaterialization(table, LINEITEM_COLUMNS, ImmutableList.of(
+        condition(L_ORDERKEY, "greater_than_or_equal_to", 1000),
+        condition(L_ORDERKEY, "less_than", 1100)),
+        row -> (Integer) row.get(0) >= 1000 && (Integer) row.get(0) < 1100);
+      // many short runs of rows in each batch
+      checkLateMaterialization(table, LINEITEM_COLUMNS, ImmutableList.of(
+        condition(L_ORDERKEY, mod(L_ORDERKEY, 10), "less_than", 3)),
+        row -> (Integer) row.get(0) % 10 < 3);
+    } finally {
+      test("DROP TABLE %s.%s", TEMP_SCHEMA, table);
+    }
+  }
+
+  @Test
+  public void testLateMaterializationSkipsPages() throws Exception {
+    final String table = "columnar_late_materialization_pages";
+    createLineitemTable(table, 4000);
+    try (AutoCloseable ignored = withSystemOption(ExecConstants.PARQUET_READER_PAGE_PRUNING, false);
+         ParquetReaderRunner runner = newRunner(DEFAULT_BATCH_SIZE)) {
+      // only the columns without filter conditions skip pages, as the filtered column is fully read
+      final List<List<Object>> rows = runner.read(getTablePath(table), LINEITEM_COLUMNS, ImmutableList.of(
+        condition(L_ORDERKEY, "greater_than_or_equal_to", 1000),
+        condition(L_ORDERKEY, "less_than", 1100)));
+      assertFalse(rows.isEmpty());
+      assertTrue(runner.getMetric(ScanOperator.Metric.NUM_PAGES_PRUNED) > 0);
+    } finally {
+      test("DROP TABLE %s.%s", TEMP_SCHEMA, table);
+    }
+  }
+
+  @Test
+  public void testLateMaterializationOfComplexColumns() throws Exception {
+    final String table = "columnar_late_materialization_complex";
+    test("CREATE TABLE %s.%s AS SELECT %s FROM %s", TEMP_SCHEMA, table, String.join(", ", COMPLEX_COLUMNS), COMPLEX);
+    try (AutoCloseable ignored = withSystemOption(ExecConstants.ENABLE_PARQUET_VECTORIZED_COMPLEX_READERS, true)) {
+      checkLateMaterialization(table, COMPLEX_COLUMNS, ImmutableList.of(
+        condition("trans_id", mod("trans_id", 2), "equal", 0)),
+        row -> ((Number) row.get(0)).longValue() % 2 == 0);
+    } finally {
+      test("DROP TABLE %s.%s", TEMP_SCHEMA, table);
+    }
+  }
+
+  /**
+   * Check the rows read with the filter conditions, with and without late materialization and with batches of the
+   * default size and of 1 to 3 rows, against the rows read without conditions and filtered by the given predicate.
+   */
+  private static void checkLateMaterialization(String table, List<String> columns,
+                                               List<ParquetFilterCondition> conditions,
+                                               Predicate<List<Object>> filter) throws Exception {
+    final List<List<Object>> expected = read(table, columns, DEFAULT_BATCH_SIZE, ImmutableList.of()).stream()
+      .filter(filter)
+      .collect(Collectors.toList());
+    assertFalse(expected.isEmpty());
+
+    for (int batchSize : asList(DEFAULT_BATCH_SIZE, 1, 2, 3)) {
+      assertEquals(expected, read(table, columns, batchSize, conditions));
+      try (AutoCloseable ignored = withSystemOption(ExecConstants.PARQUET_READER_LATE_MATERIALIZATION, false)) {
+        assertEquals(expected, read(table, columns, batchSize, conditions));
+      }
+    }
+  }
+
+  /**
+   * Write a lineitem table sorted on l_orderkey with small pages, so that its files have many pages per column, with
+   * column and offset indexes.
+   */
+  private static void createLineitemTable(String table) throws Exception {
+    createLineitemTable(table, Integer.MAX_VALUE);
+  }
+
+  private static void createLineitemTable(String table, int maxOrderKey) throws Exception {
+    try (AutoCloseable ignored = withOption(ExecConstants.PARQUET_PAGE_SIZE_VALIDATOR, 1024)) {
+      test("CREATE TABLE %s.%s AS SELECT %s FROM cp.\"tpch/lineitem.parquet\" WHERE l_orderkey < %d " +
+        "ORDER BY l_orderkey", TEMP_SCHEMA, table, String.join(", ", LINEITEM_COLUMNS), maxOrderKey);
+    }
+  }
+
+  private static List<List<Object>> readLineitem(String table, int batchSize, List<ParquetFilterCondition> conditions)
+    throws Exception {
+    return read(table, LINEITEM_COLUMNS, batchSize, conditions);
+  }
+
+  private static List<List<Object>> read(String table, List<String> columns, int batchSize,
+                                         List<ParquetFilterCondition> conditions) throws Exception {
+    try (ParquetReaderRunner runner = newRunner(batchSize)) {
+      return runner.read(getTablePath(table), columns, conditions);
+    }
+  }
+
+  private static ParquetReaderRunner newRunner(int batchSize) {
+    return new ParquetReaderRunner(getSabotContext(), localFs, batchSize);
+  }
+
+  private static Path getTablePath(String table) {
+    return Path.of(getDfsTestTmpSchemaLocation()).resolve(table);
+  }
+
+  private static ParquetFilterCondition condition(String column, String function, int value) {
+    return condition(column, SchemaPath.getSimplePath(column), function, value);
+  }
+
+  private static ParquetFilterCondition condition(String column, LogicalExpression operand, String function,
+                                                  int value) {
+    return ParquetReaderRunner.condition(column, FunctionCallFactory.createExpression(function, operand,
+      ValueExpressions.getInt(value)));
+  }
+
+  private static LogicalExpression mod(String column, int divisor) {
+    return FunctionCallFactory.createExpression("mod", SchemaPath.getSimplePath(column),
+      ValueExpressions.getInt(divisor));
+  }
+}
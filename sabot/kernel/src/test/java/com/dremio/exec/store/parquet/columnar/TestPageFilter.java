@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet.columnar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.internal.column.columnindex.ColumnIndex;
+import org.apache.parquet.internal.column.columnindex.ColumnIndexBuilder;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+import org.apache.parquet.internal.column.columnindex.OffsetIndexBuilder;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type.Repetition;
+import org.junit.Test;
+
+import com.dremio.common.expression.FunctionCallFactory;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.expression.ValueExpressions;
+import com.dremio.exec.store.parquet.ParquetFilterCondition;
+import com.dremio.exec.store.parquet.columnar.PageFilter.Predicate;
+import com.dremio.exec.store.parquet.columnar.PageFilter.Range;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for {@link PageFilter}.
+ */
+public class TestPageFilter {
+
+  private static final PrimitiveType INT_TYPE = new PrimitiveType(Repetition.OPTIONAL, PrimitiveTypeName.INT32, "a");
+  private static final long ROW_COUNT = 400;
+
+  // pages of 100 rows with values [0, 99], [100, 199], nulls and [300, 399]
+  private static final ColumnIndex COLUMN_INDEX = columnIndex(new int[][] {{0, 99}, {100, 199}, null, {300, 399}});
+  private static final OffsetIndex OFFSET_INDEX = offsetIndex(0, 100, 200, 300);
+
+  @Test
+  public void testComparisons() {
+    assertEquals(ranges(100, 200), getRowRanges("equal", 150));
+    assertEquals(ImmutableList.of(), getRowRanges("equal", 250));
+    assertEquals(ranges(0, 200), getRowRanges("less_than", 150));
+    assertEquals(ranges(0, 100), getRowRanges("less_than", 100));
+    assertEquals(ranges(0, 200), getRowRanges("less_than_or_equal_to", 100));
+    assertEquals(ranges(300, 400), getRowRanges("greater_than", 199));
+    assertEquals(ranges(100, 200, 300, 400), getRowRanges("greater_than_or_equal_to", 199));
+  }
+
+  @Test
+  public void testLiteralOnTheLeft() {
+    final List<Predicate> predicates = PageFilter.getPredicates(ImmutableList.of(condition(
+      FunctionCallFactory.createExpression("<", ValueExpressions.getInt(150), SchemaPath.getSimplePath("a")))));
+    assertEquals(1, predicates.size());
+    assertEquals(ranges(100, 200, 300, 400),
+      PageFilter.getRowRanges(predicates.get(0), INT_TYPE, COLUMN_INDEX, OFFSET_INDEX, ROW_COUNT));
+  }
+
+  @Test
+  public void testConjunction() {
+    final LogicalExpression expr = FunctionCallFactory.createBooleanOperator("and",
+      FunctionCallFactory.createExpression(">", SchemaPath.getSimplePath("a"), ValueExpressions.getInt(50)),
+      FunctionCallFactory.createExpression("<", SchemaPath.getSimplePath("a"), ValueExpressions.getInt(350)));
+    final List<Predicate> predicates = PageFilter.getPredicates(ImmutableList.of(condition(expr)));
+    assertEquals(2, predicates.size());
+
+    List<Range> ranges = PageFilter.all(ROW_COUNT);
+    for (Predicate predicate : predicates) {
+      ranges = PageFilter.intersect(ranges,
+        PageFilter.getRowRanges(predicate, INT_TYPE, COLUMN_INDEX, OFFSET_INDEX, ROW_COUNT));
+    }
+    assertEquals(ranges(0, 200, 300, 400), ranges);
+  }
+
+  @Test
+  public void testUnsupportedConditions() {
+    // disjunctions and other functions match all the rows
+    final LogicalExpression expr = FunctionCallFactory.createBooleanOperator("or",
+      FunctionCallFactory.createExpression("=", SchemaPath.getSimplePath("a"), ValueExpressions.getInt(1)),
+      FunctionCallFactory.createExpression("=", SchemaPath.getSimplePath("a"), ValueExpressions.getInt(2)));
+    assertEquals(0, PageFilter.getPredicates(ImmutableList.of(condition(expr))).size());
+
+    // literal of another type than the column
+    final List<Predicate> predicates = PageFilter.getPredicates(ImmutableList.of(condition(
+      FunctionCallFactory.createExpression("=", SchemaPath.getSimplePath("a"), ValueExpressions.getChar("1")))));
+    assertNull(PageFilter.getRowRanges(predicates.get(0), INT_TYPE, COLUMN_INDEX, OFFSET_INDEX, ROW_COUNT));
+  }
+
+  @Test
+  public void testIntersect() {
+    assertEquals(ranges(5, 10, 20, 25, 30, 35),
+      PageFilter.intersect(ranges(0, 10, 20, 40), ranges(5, 25, 30, 35)));
+    assertEquals(ImmutableList.of(), PageFilter.intersect(ranges(0, 10), ranges(10, 20)));
+  }
+
+  private static List<Range> getRowRanges(String function, int value) {
+    final List<Predicate> predicates = PageFilter.getPredicates(ImmutableList.of(condition(
+      FunctionCallFactory.createExpression(function, SchemaPath.getSimplePath("a"), ValueExpressions.getInt(value)))));
+    assertEquals(1, predicates.size());
+    return PageFilter.getRowRanges(predicates.get(0), INT_TYPE, COLUMN_INDEX, OFFSET_INDEX, ROW_COUNT);
+  }
+
+  private static ParquetFilterCondition condition(LogicalExpression expr) {
+    return new ParquetFilterCondition(SchemaPath.getSimplePath("a"), null, expr, 0);
+  }
+
+  private static List<Range> ranges(long... bounds) {
+    final ImmutableList.Builder<Range> ranges = ImmutableList.builder();
+    for (int i = 0; i < bounds.length; i += 2) {
+      ranges.add(new Range(bounds[i], bounds[i + 1]));
+    }
+    return ranges.build();
+  }
+
+  private static ColumnIndex columnIndex(int[][] pages) {
+    final ColumnIndexBuilder builder = ColumnIndexBuilder.getBuilder(INT_TYPE, Integer.MAX_VALUE);
+    for (int[] page : pages) {
+      final Statistics<?> stats = Statistics.createStats(INT_TYPE);
+      if (page == null) {
+        stats.incrementNumNulls(100);
+      } else {
+        stats.updateStats(page[0]);
+        stats.updateStats(page[1]);
+      }
+      builder.add(stats);
+    }
+    return builder.build();
+  }
+
+  private static OffsetIndex offsetIndex(long... firstRows) {
+    final OffsetIndexBuilder builder = OffsetIndexBuilder.getBuilder();
+    for (int i = 0; i < firstRows.length; i++) {
+      builder.add(4 + i * 1000, 1000, firstRows[i]);
+    }
+    return builder.build();
+  }
+}
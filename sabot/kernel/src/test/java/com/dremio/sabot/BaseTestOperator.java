@@ -106,6 +106,7 @@ import com.dremio.sabot.exec.context.OpProfileDef;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.context.OperatorContextImpl;
 import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.sabot.exec.context.PhaseSharedState;
 import com.dremio.sabot.exec.fragment.FragmentExecutionContext;
 import com.dremio.sabot.exec.rpc.TunnelProvider;
 import com.dremio.sabot.op.common.spill.SpillServiceOptionsImpl;
@@ -117,6 +118,7 @@ import com.dremio.sabot.op.spi.Operator.MasterState;
 import com.dremio.sabot.op.spi.Operator.OperatorState;
 import com.dremio.sabot.op.spi.SingleInputOperator;
 import com.dremio.sabot.op.spi.SingleInputOperator.State;
+import com.dremio.sabot.threads.sharedres.SharedResourceGroup;
 import com.dremio.service.namespace.NamespaceService;
 import com.dremio.service.namespace.NamespaceServiceImpl;
 import com.dremio.service.scheduler.SchedulerService;
@@ -368,6 +370,15 @@ public class BaseTestOperator extends ExecTest {
 
     public OperatorContextImpl getNewOperatorContext(BufferAllocator child, PhysicalOperator pop, int targetBatchSize,
       EndpointsIndex endpointsIndex) throws Exception {
+      return getNewOperatorContext(child, pop, targetBatchSize, endpointsIndex, null, null);
+    }
+
+    /**
+     * Create an operator context for one of the minor fragments of a phase, sharing state with the other ones.
+     */
+    public OperatorContextImpl getNewOperatorContext(BufferAllocator child, PhysicalOperator pop, int targetBatchSize,
+      EndpointsIndex endpointsIndex, PhaseSharedState phaseSharedState, SharedResourceGroup pipelineResourceGroup)
+      throws Exception {
 
       OperatorStats stats = new OperatorStats(new OpProfileDef(1, 1, 1), child);
       final NamespaceService namespaceService = new NamespaceServiceImpl(testContext.storeProvider);
@@ -402,7 +413,9 @@ public class BaseTestOperator extends ExecTest {
           ImmutableList.of(),
           ImmutableList.of(),
           null,
-          endpointsIndex);
+          endpointsIndex,
+          phaseSharedState,
+          pipelineResourceGroup);
     }
 
     public OperatorContextImpl getNewOperatorContext(BufferAllocator child, PhysicalOperator pop, int targetBatchSize) throws Exception {
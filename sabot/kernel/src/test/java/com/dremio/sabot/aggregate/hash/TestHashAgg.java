@@ -944,4 +944,37 @@ public class TestHashAgg extends BaseTestOperator {
       validateSingle(vanillaConf, HashAggOperator.class, inputData, expected);
     }
   }
+
+  @Test
+  public void partialPassThrough() throws Exception {
+    /* unique keys, so the partial aggregation doesn't reduce the input and the output of the
+     * successive flushes doesn't contain the same group twice
+     */
+    final int numRecords = 10_000;
+    final Fixtures.DataRow[] inputRows = new Fixtures.DataRow[numRecords];
+    final Fixtures.DataRow[] expectedRows = new Fixtures.DataRow[numRecords];
+    for (int i = 0; i < numRecords; i++) {
+      inputRows[i] = tr((long) i, (long) i * 2);
+      expectedRows[i] = tr((long) i, (long) i * 2, 1L);
+    }
+    final Table inputData = t(th("x", "y"), inputRows);
+    final Table expected = t(th("x", "sum", "cnt"), expectedRows).orderInsensitive();
+
+    final List<NamedExpression> dim = Arrays.asList(n("x"));
+    final List<NamedExpression> measure = Arrays.asList(
+      n("sum(y)", "sum"),
+      n("count(y)", "cnt")
+    );
+
+    try (AutoCloseable options1 = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_USE_SPILLING_OPERATOR, true);
+         AutoCloseable options2 = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_ADAPTIVE_MIN_RECORDS, 1);
+         AutoCloseable options3 = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_ADAPTIVE_MIN_REDUCTION, 1.0d)) {
+      for (int i = 0; i <= 2; i++) {
+        try (AutoCloseable options4 = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_NUMPARTITIONS, 1 << i)) {
+          final HashAggregate conf = new HashAggregate(OpProps.prototype(), null, dim, measure, true, true, 1f, true);
+          validateSingle(conf, VectorizedHashAggOperator.class, inputData.toGenerator(allocator), expected, 1000);
+        }
+      }
+    }
+  }
 }
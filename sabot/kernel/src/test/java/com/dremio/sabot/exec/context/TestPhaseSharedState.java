@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.exec.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.OutOfMemoryException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.dremio.test.AllocatorRule;
+import com.dremio.test.DremioTest;
+
+/**
+ * Tests {@link PhaseSharedState}
+ */
+public class TestPhaseSharedState extends DremioTest {
+
+  @Rule
+  public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void setup() {
+    allocator = allocatorRule.newAllocator("test-phase-shared-state", 0, Long.MAX_VALUE);
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    allocator.close();
+  }
+
+  private static final class SharedBuffer implements AutoCloseable {
+    private final ArrowBuf buf;
+    private boolean closed;
+
+    private SharedBuffer(BufferAllocator allocator) {
+      this.buf = allocator.buffer(1024);
+    }
+
+    @Override
+    public void close() {
+      buf.close();
+      closed = true;
+    }
+  }
+
+  @Test
+  public void closedOnLastRelease() throws Exception {
+    try (PhaseSharedState state = new PhaseSharedState(allocator)) {
+      final SharedBuffer first = state.acquire(1, Long.MAX_VALUE, SharedBuffer::new);
+      final SharedBuffer second = state.acquire(1, Long.MAX_VALUE, SharedBuffer::new);
+      final SharedBuffer other = state.acquire(2, Long.MAX_VALUE, SharedBuffer::new);
+      assertSame(first, second);
+      assertNotSame(first, other);
+      assertTrue(allocator.getAllocatedMemory() > 0);
+
+      state.release(1);
+      assertFalse(first.closed);
+      state.release(1);
+      assertTrue(first.closed);
+      assertFalse(other.closed);
+
+      state.release(2);
+      assertTrue(other.closed);
+      assertEquals(0, allocator.getAllocatedMemory());
+    }
+  }
+
+  @Test
+  public void closeReleasesRemaining() throws Exception {
+    final SharedBuffer buffer;
+    try (PhaseSharedState state = new PhaseSharedState(allocator)) {
+      buffer = state.acquire(1, Long.MAX_VALUE, SharedBuffer::new);
+      state.acquire(1, Long.MAX_VALUE, SharedBuffer::new);
+      state.release(1);
+    }
+    assertTrue(buffer.closed);
+    assertEquals(0, allocator.getAllocatedMemory());
+  }
+
+  @Test
+  public void sharedObjectLimitedToOperatorLimit() throws Exception {
+    try (PhaseSharedState state = new PhaseSharedState(allocator)) {
+      state.acquire(1, 2048, SharedBuffer::new);
+      state.release(1);
+      try {
+        state.acquire(2, 512, SharedBuffer::new);
+        fail("The shared object exceeds the limit of the operator");
+      } catch (OutOfMemoryException e) {
+        // expected
+      }
+      assertEquals(0, allocator.getAllocatedMemory());
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void acquireAfterClose() throws Exception {
+    final PhaseSharedState state = new PhaseSharedState(allocator);
+    state.close();
+    state.acquire(1, Long.MAX_VALUE, SharedBuffer::new);
+  }
+}
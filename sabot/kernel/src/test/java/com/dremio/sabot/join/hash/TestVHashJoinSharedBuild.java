@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.join.hash;
+
+import static com.dremio.sabot.Fixtures.t;
+import static com.dremio.sabot.Fixtures.th;
+import static com.dremio.sabot.Fixtures.tr;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.logical.data.JoinCondition;
+import com.dremio.exec.physical.config.HashJoinPOP;
+import com.dremio.exec.planner.fragment.EndpointsIndex;
+import com.dremio.exec.record.RecordBatchData;
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.sabot.BaseTestOperator;
+import com.dremio.sabot.Fixtures.Table;
+import com.dremio.sabot.Generator;
+import com.dremio.sabot.exec.context.OperatorContextImpl;
+import com.dremio.sabot.exec.context.PhaseSharedState;
+import com.dremio.sabot.op.join.vhash.VectorizedHashJoinOperator;
+import com.dremio.sabot.op.spi.DualInputOperator.State;
+import com.dremio.sabot.threads.sharedres.SharedResourceGroup;
+import com.dremio.sabot.threads.sharedres.SharedResourceManager;
+
+/**
+ * Tests the build side of a broadcast hash join shared by the minor fragments of a phase: one fragment builds and
+ * publishes the table, the other ones are blocked until it is published, and probe it.
+ */
+public class TestVHashJoinSharedBuild extends BaseTestOperator {
+
+  private static final HashJoinPOP JOIN = new HashJoinPOP(PROPS, null, null,
+    Arrays.asList(new JoinCondition("EQUALS", f("id1"), f("id2"))), JoinRelType.INNER, true, true, null);
+
+  private static final Table BUILD = t(
+    th("id2", "name2"),
+    tr(1L, "b1"),
+    tr(2L, "b2"),
+    tr(3L, "b3"),
+    tr(4L, "b4")
+  );
+
+  private BufferAllocator phaseAllocator;
+  private PhaseSharedState phaseSharedState;
+
+  @Before
+  public void setupPhase() {
+    phaseAllocator = getTestAllocator().newChildAllocator("phase", 0, Long.MAX_VALUE);
+    testCloseables.add(phaseAllocator);
+    phaseSharedState = new PhaseSharedState(phaseAllocator);
+    testCloseables.add(phaseSharedState);
+  }
+
+  @Test
+  public void testSharedBuild() throws Exception {
+    final Fragment builder = newFragment(t(
+      th("id1", "name1"),
+      tr(1L, "a1"),
+      tr(5L, "a5")
+    ));
+    final Fragment earlyProber = newFragment(t(
+      th("id1", "name1"),
+      tr(2L, "a2"),
+      tr(3L, "a3"),
+      tr(6L, "a6")
+    ));
+    final Fragment lateProber = newFragment(t(
+      th("id1", "name1"),
+      tr(4L, "a4"),
+      tr(4L, "a4bis")
+    ));
+
+    // a prober reaching the end of its build side before the table is published is blocked
+    earlyProber.consumeBuild();
+    assertFalse(earlyProber.resourceGroup.isAvailable());
+    assertEquals(State.CAN_CONSUME_L, earlyProber.operator.getState());
+
+    builder.consumeBuild();
+    assertTrue(earlyProber.resourceGroup.isAvailable());
+
+    // a prober reaching the end of its build side after the table is published is not blocked
+    lateProber.consumeBuild();
+    assertTrue(lateProber.resourceGroup.isAvailable());
+
+    earlyProber.probe(t(
+      th("id2", "name2", "id1", "name1"),
+      tr(2L, "b2", 2L, "a2"),
+      tr(3L, "b3", 3L, "a3")
+    ));
+    builder.probe(t(
+      th("id2", "name2", "id1", "name1"),
+      tr(1L, "b1", 1L, "a1")
+    ));
+    lateProber.probe(t(
+      th("id2", "name2", "id1", "name1"),
+      tr(4L, "b4", 4L, "a4"),
+      tr(4L, "b4", 4L, "a4bis")
+    ));
+
+    // the table is owned by the phase until the last fragment closes
+    builder.close();
+    earlyProber.close();
+    assertTrue(phaseAllocator.getAllocatedMemory() > 0);
+    lateProber.close();
+    assertEquals(0, phaseAllocator.getAllocatedMemory());
+  }
+
+  @Test
+  public void testAbandonedBuild() throws Exception {
+    final Table probe = t(
+      th("id1", "name1"),
+      tr(1L, "a1")
+    );
+    final Fragment builder = newFragment(probe);
+    final Fragment prober = newFragment(probe);
+
+    prober.consumeBuild();
+    assertFalse(prober.resourceGroup.isAvailable());
+
+    // the building fragment fails before publishing the table
+    final int records = builder.build.next(DEFAULT_BATCH);
+    builder.operator.consumeDataRight(records);
+    builder.close();
+
+    // the prober is woken up, and fails instead of waiting for the table
+    assertTrue(prober.resourceGroup.isAvailable());
+    try {
+      prober.operator.consumeDataLeft(prober.probe.next(DEFAULT_BATCH));
+      fail("Probing an abandoned build side should fail");
+    } catch (IllegalStateException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("Fragment building the shared join table failed"));
+    }
+    prober.close();
+    assertEquals(0, phaseAllocator.getAllocatedMemory());
+  }
+
+  private Fragment newFragment(Table probe) throws Exception {
+    final Fragment fragment = new Fragment(probe);
+    testCloseables.add(fragment);
+    return fragment;
+  }
+
+  /**
+   * A minor fragment of the phase, running its own join operator on the broadcast build side and its part of the
+   * probe side.
+   */
+  private final class Fragment implements AutoCloseable {
+    private final SharedResourceGroup resourceGroup;
+    private final OperatorContextImpl context;
+    private final VectorizedHashJoinOperator operator;
+    private final Generator build;
+    private final Generator probe;
+    private final VectorAccessible output;
+    private boolean closed;
+
+    private Fragment(Table probe) throws Exception {
+      this.resourceGroup = SharedResourceManager.newBuilder().addGroup("pipeline").build().getGroup("pipeline");
+      final BufferAllocator allocator = getTestAllocator().newChildAllocator("fragment", 0, Long.MAX_VALUE);
+      // the context closes the allocator
+      this.context = testContext.getNewOperatorContext(allocator, JOIN, DEFAULT_BATCH, new EndpointsIndex(),
+        phaseSharedState, resourceGroup);
+      this.build = BUILD.toGenerator(getTestAllocator());
+      this.probe = probe.toGenerator(getTestAllocator());
+      this.operator = new VectorizedHashJoinOperator(context, JOIN);
+      this.output = operator.setup(this.probe.getOutput(), build.getOutput());
+    }
+
+    private void consumeBuild() throws Exception {
+      int records;
+      while ((records = build.next(DEFAULT_BATCH)) > 0) {
+        operator.consumeDataRight(records);
+      }
+      operator.noMoreToConsumeRight();
+    }
+
+    private void probe(Table expected) throws Exception {
+      final List<RecordBatchData> data = new ArrayList<>();
+      try {
+        outside: while (true) {
+          switch (operator.getState()) {
+          case CAN_CONSUME_L:
+            final int records = probe.next(DEFAULT_BATCH);
+            if (records > 0) {
+              operator.consumeDataLeft(records);
+            } else {
+              operator.noMoreToConsumeLeft();
+            }
+            break;
+          case CAN_PRODUCE:
+            if (operator.outputData() > 0) {
+              data.add(new RecordBatchData(output, getTestAllocator()));
+            }
+            break;
+          case DONE:
+            break outside;
+          default:
+            throw new UnsupportedOperationException("State is: " + operator.getState());
+          }
+        }
+        expected.checkValid(data);
+      } finally {
+        AutoCloseables.close(data);
+      }
+    }
+
+    @Override
+    public void close() throws Exception {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      AutoCloseables.close(operator, context, build, probe);
+    }
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.join.hash;
+
+import java.util.List;
+import java.util.Set;
+
+import org.apache.calcite.rel.core.JoinRelType;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.common.logical.data.JoinCondition;
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.physical.base.OpProps;
+import com.dremio.exec.physical.config.HashJoinPOP;
+import com.dremio.sabot.join.BaseTestJoin;
+import com.dremio.sabot.op.join.vhash.VectorizedSpillingHashJoinOperator;
+
+/**
+ * Runs the join tests with a build side that always spills, with small partitions partitioned again.
+ */
+public class TestVSpillingHashJoin extends BaseTestJoin {
+  private static final OpProps BOUNDED_PROPS = OpProps.prototype(1_000_000, 100_000_000);
+
+  @Before
+  public void alwaysSpill() {
+    testCloseables.add(with(ExecConstants.ENABLE_VECTORIZED_HASHJOIN_SPILL, true));
+    testCloseables.add(with(VectorizedSpillingHashJoinOperator.MEMORY_FRACTION, 0.0d));
+    testCloseables.add(with(VectorizedSpillingHashJoinOperator.NUM_PARTITIONS, 4));
+    testCloseables.add(with(VectorizedSpillingHashJoinOperator.MAX_RECURSION_DEPTH, 2));
+  }
+
+  @Override
+  protected JoinInfo getJoinInfo(List<JoinCondition> conditions, JoinRelType type, Set<Integer> buildProjected, Set<Integer> probeProjected) {
+    return new JoinInfo(VectorizedSpillingHashJoinOperator.class, new HashJoinPOP(BOUNDED_PROPS, null, null, conditions, type, true, null));
+  }
+
+  @Test
+  public void manyColumns() throws Exception {
+    baseManyColumns();
+  }
+}
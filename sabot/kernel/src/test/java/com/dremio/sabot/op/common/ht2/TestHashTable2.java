@@ -38,6 +38,8 @@ import com.dremio.test.AllocatorRule;
 import com.dremio.test.DremioTest;
 import com.koloboke.collect.hash.HashConfig;
 
+import io.netty.util.internal.PlatformDependent;
+
 public class TestHashTable2 extends DremioTest {
 
   private int MAX_VALUES_PER_BATCH = 0;
@@ -466,4 +468,76 @@ public class TestHashTable2 extends DremioTest {
       }
     }
   }
+
+  @Test
+  public void testBatchedAddAndFind() throws Exception {
+    final int records = 3000;
+    final Random random = new Random(0xBA7C4L);
+    final Integer[] col1Arr = new Integer[records];
+    final String[] col2Arr = new String[records];
+    for (int i = 0; i < records; i++) {
+      col1Arr[i] = random.nextInt(500);
+      col2Arr[i] = random.nextInt(10) == 0 ? null : Integer.toString(random.nextInt(3));
+    }
+
+    try (final BufferAllocator allocator = allocatorRule.newAllocator("test-hash-table-2", 0, Long.MAX_VALUE);
+         final VectorContainer c = new VectorContainer()) {
+      IntVector col1 = new IntVector("col1", allocator);
+      TestIntPivot.populate(col1, col1Arr);
+      c.add(col1);
+      VarCharVector col2 = new VarCharVector("col2", allocator);
+      TestVarBinaryPivot.populate(col2, col2Arr);
+      c.add(col2);
+      c.setAllCount(records);
+      final PivotDef pivot = PivotBuilder.getBlockDefinition(
+        new FieldVectorPair(col1, col1),
+        new FieldVectorPair(col2, col2)
+      );
+      try (
+        final FixedBlockVector fbv = new FixedBlockVector(allocator, pivot.getBlockWidth());
+        final VariableBlockVector var = new VariableBlockVector(allocator, pivot.getVariableCount());) {
+
+        Pivots.pivot(pivot, records, fbv, var);
+
+        /* small initial size, so that the table is rehashed while adding the batch */
+        try (LBlockHashTable expectedTable = new LBlockHashTable(HashConfig.getDefault(), pivot, allocator, 16, 10, false, ResizeListener.NO_OP, 1024);
+             LBlockHashTable batchTable = new LBlockHashTable(HashConfig.getDefault(), pivot, allocator, 16, 10, false, ResizeListener.NO_OP, 1024);
+             SimpleBigIntVector hashValues = new SimpleBigIntVector("hashvalues", allocator);
+             IntVector ordinals = new IntVector("ordinals", allocator)) {
+          final long keyFixedVectorAddr = fbv.getMemoryAddress();
+          final long keyVarVectorAddr = var.getMemoryAddress();
+
+          hashValues.allocateNew(records);
+          final BlockChunk blockChunk = new BlockChunk(keyFixedVectorAddr, keyVarVectorAddr, false,
+            pivot.getBlockWidth(), records, hashValues.getBufferAddress(), 0);
+          HashComputation.computeHash(blockChunk);
+          ordinals.allocateNew(records);
+
+          final int[] expectedOrdinals = new int[records];
+          for (int keyIndex = 0; keyIndex < records; keyIndex++) {
+            expectedOrdinals[keyIndex] = expectedTable.add(keyFixedVectorAddr, keyVarVectorAddr, keyIndex, (int) hashValues.get(keyIndex));
+          }
+
+          batchTable.addBatch(keyFixedVectorAddr, keyVarVectorAddr, hashValues.getBufferAddress(), records, ordinals.getDataBufferAddress());
+          assertEquals("Size mismatch", expectedTable.size(), batchTable.size());
+          for (int keyIndex = 0; keyIndex < records; keyIndex++) {
+            assertEquals("ordinal mismatch for record " + keyIndex, expectedOrdinals[keyIndex], PlatformDependent.getInt(ordinals.getDataBufferAddress() + keyIndex * LBlockHashTable.ORDINAL_SIZE));
+          }
+
+          batchTable.findBatch(keyFixedVectorAddr, keyVarVectorAddr, hashValues.getBufferAddress(), records, ordinals.getDataBufferAddress());
+          for (int keyIndex = 0; keyIndex < records; keyIndex++) {
+            assertEquals("ordinal mismatch for record " + keyIndex, expectedOrdinals[keyIndex], PlatformDependent.getInt(ordinals.getDataBufferAddress() + keyIndex * LBlockHashTable.ORDINAL_SIZE));
+          }
+
+          /* keys that were never added are not found */
+          try (LBlockHashTable emptyTable = new LBlockHashTable(HashConfig.getDefault(), pivot, allocator, 16, 10, false, ResizeListener.NO_OP, 1024)) {
+            emptyTable.findBatch(keyFixedVectorAddr, keyVarVectorAddr, hashValues.getBufferAddress(), records, ordinals.getDataBufferAddress());
+            for (int keyIndex = 0; keyIndex < records; keyIndex++) {
+              assertEquals("unexpected match for record " + keyIndex, -1, PlatformDependent.getInt(ordinals.getDataBufferAddress() + keyIndex * LBlockHashTable.ORDINAL_SIZE));
+            }
+          }
+        }
+      }
+    }
+  }
 }
@@ -134,7 +134,7 @@ public class TestMemoryRun extends BaseTestOperator {
         }
       };
 
-      Mockito.doAnswer(spillAnswer).when(diskRunManager).startMicroSpilling(Mockito.any(VectorContainer.class));
+      Mockito.doAnswer(spillAnswer).when(diskRunManager).startMicroSpilling(Mockito.any(VectorContainer.class), Mockito.any(BufferAllocator.class));
 
       memoryRun.startMicroSpilling(diskRunManager);
     }
@@ -193,6 +193,42 @@ public class TestSortOp extends BaseTestOperator {
     }
   }
 
+  @Test
+  public void testQuickSorterSpillSortWithAsyncIO() throws Exception {
+    try (AutoCloseable option = with(ExecConstants.EXTERNAL_SORT_ENABLE_SPLAY_SORT, false);
+         AutoCloseable asyncIO = with(ExecConstants.EXTERNAL_SORT_ASYNC_IO, true)) {
+      ExternalSort sort = new ExternalSort(PROPS.cloneWithNewReserve(1_000_000), null, singletonList(ordering(ID.getName(), ASCENDING, FIRST)), false);
+      sort.getProps().setMemLimit(2_000_000); // this can't go below sort's initialAllocation (20K)
+      Fixtures.Table table = generator.getExpectedSortedTable();
+      validateSingle(sort, ExternalSortOperator.class, generator, table, 1000);
+    }
+  }
+
+  @Test
+  public void testMicroSpillBatchesWithAsyncIO() throws Exception {
+    try (AutoCloseable option = with(ExecConstants.EXTERNAL_SORT_ENABLE_MICRO_SPILL, true);
+         AutoCloseable asyncIO = with(ExecConstants.EXTERNAL_SORT_ASYNC_IO, true)) {
+      ExternalSort sort = new ExternalSort(PROPS.cloneWithNewReserve(1_000_000), null, singletonList(ordering(ID.getName(), ASCENDING, FIRST)), false);
+      sort.getProps().setMemLimit(2_000_000); // this can't go below sort's initialAllocation (20K)
+
+      final int numRows = 20_000;
+      final int targetBatchSize = 1000;
+      final CustomGenerator localGen = new CustomGenerator(numRows, getTestAllocator());
+      Fixtures.Table table = localGen.getExpectedSortedTable();
+      OperatorStats stats = validateSingle(sort, ExternalSortOperator.class, localGen, table, targetBatchSize);
+
+      final long batchesSpilled = stats.getLongStat(ExternalSortOperator.Metric.BATCHES_SPILLED);
+      final long spillFiles = stats.getLongStat(ExternalSortOperator.Metric.SPILL_COUNT);
+      final long ioBytesWritten = stats.getLongStat(ExternalSortOperator.Metric.IO_BYTES_WRITTEN);
+      final long asyncWriteWaitTime = stats.getLongStat(ExternalSortOperator.Metric.ASYNC_WRITE_WAIT_NANOS);
+
+      assertEquals(batchesSpilled, 20 /*numRows/targetBatchSize*/);
+      assertEquals(spillFiles, 2);
+      assertTrue(ioBytesWritten > 0);
+      assertTrue(asyncWriteWaitTime > 0);
+    }
+  }
+
   @Test
   public void testMicroSpillBatches() throws Exception {
     try (AutoCloseable option = with(ExecConstants.EXTERNAL_SORT_ENABLE_MICRO_SPILL, true)) {
@@ -28,6 +28,7 @@ import org.junit.Test;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.physical.config.BroadcastSender;
 import com.dremio.exec.planner.fragment.EndpointsIndex;
 import com.dremio.exec.proto.CoordExecRPC.MinorFragmentIndexEndpoint;
@@ -88,6 +89,13 @@ public class TestBroadcastSender extends BaseTestOperator {
     }
   }
 
+  @Test
+  public void checkMemoryLeakWithCompression() throws Exception {
+    try (AutoCloseable with = with(ExecConstants.EXCHANGE_COMPRESSION, true)) {
+      checkMemoryLeak();
+    }
+  }
+
   public BatchSchema getSchema() {
     SchemaBuilder builder = BatchSchema.newBuilder()
       .addField(new Field("n_nationKey", true, MinorType.BIGINT.getType(), null))
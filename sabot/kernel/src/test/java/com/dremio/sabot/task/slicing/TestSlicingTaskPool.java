@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.task.slicing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.dremio.sabot.task.AsyncTask;
+import com.dremio.sabot.task.AsyncTaskWrapper;
+import com.dremio.sabot.task.SchedulingGroup;
+import com.dremio.sabot.task.Task.State;
+import com.dremio.sabot.task.TaskDescriptor;
+import com.dremio.sabot.task.slicing.WeightedRunQueue.TaskEntity;
+import com.dremio.sabot.threads.AvailabilityCallback;
+import com.dremio.sabot.threads.sharedres.SharedResourceType;
+import com.google.common.collect.Iterables;
+
+/**
+ * Tests for {@link SlicingTaskPool} and {@link WeightedRunQueue}
+ */
+public class TestSlicingTaskPool {
+
+  /**
+   * Simple task that is runnable for a fixed number of runs, and optionally blocks once half way through
+   */
+  private static class CountingTask implements AsyncTask {
+    private final int numRuns;
+    private final boolean blockOnce;
+    private final AtomicInteger runs = new AtomicInteger();
+    private volatile State state = State.RUNNABLE;
+    private volatile AvailabilityCallback callback;
+    private boolean blocked;
+
+    CountingTask(int numRuns, boolean blockOnce) {
+      this.numRuns = numRuns;
+      this.blockOnce = blockOnce;
+    }
+
+    @Override
+    public void run() {
+      final int count = runs.incrementAndGet();
+      if (count >= numRuns) {
+        state = State.DONE;
+      } else if (blockOnce && !blocked && count == numRuns / 2) {
+        blocked = true;
+        state = State.BLOCKED_ON_UPSTREAM;
+      }
+    }
+
+    @Override
+    public void refreshState() {
+      state = State.RUNNABLE;
+    }
+
+    @Override
+    public State getState() {
+      return state;
+    }
+
+    @Override
+    public SharedResourceType getFirstBlockedResource() {
+      return null;
+    }
+
+    @Override
+    public void updateSleepDuration(long duration) {
+    }
+
+    @Override
+    public void updateBlockedOnDownstreamDuration(long duration) {
+    }
+
+    @Override
+    public void updateBlockedOnUpstreamDuration(long duration) {
+    }
+
+    @Override
+    public void addBlockedOnSharedResourceDuration(SharedResourceType resource, long duration) {
+    }
+
+    @Override
+    public void setWakeupCallback(AvailabilityCallback callback) {
+      this.callback = callback;
+    }
+
+    @Override
+    public void setTaskDescriptor(TaskDescriptor descriptor) {
+    }
+  }
+
+  private static AsyncTaskWrapper newTask(SchedulingGroup<AsyncTaskWrapper> group, AsyncTask task,
+                                          AutoCloseable cleaner) {
+    return new AsyncTaskWrapper(group, task, cleaner, Integer.MAX_VALUE);
+  }
+
+  @Test
+  public void testTasksRunToCompletion() throws Exception {
+    final int numTasks = 50;
+    final CountDownLatch done = new CountDownLatch(numTasks);
+    final CountingTask[] tasks = new CountingTask[numTasks];
+
+    try (SlicingTaskPool pool = new SlicingTaskPool(2, TimeUnit.MILLISECONDS.toNanos(1))) {
+      final SchedulingGroup<AsyncTaskWrapper> group = pool.getGroupManager().newGroup(100);
+      for (int i = 0; i < numTasks; i++) {
+        tasks[i] = new CountingTask(100, false);
+        pool.execute(newTask(group, tasks[i], done::countDown));
+      }
+
+      assertTrue("tasks didn't finish in time", done.await(60, TimeUnit.SECONDS));
+      assertTrue(pool.areAllThreadsAlive());
+      assertEquals(2, Iterables.size(pool.getSlicingThreads()));
+    }
+
+    for (CountingTask task : tasks) {
+      assertEquals(100, task.runs.get());
+    }
+  }
+
+  @Test
+  public void testBlockedTaskIsRescheduled() throws Exception {
+    final CountDownLatch done = new CountDownLatch(1);
+    final CountingTask task = new CountingTask(10, true);
+
+    try (SlicingTaskPool pool = new SlicingTaskPool(1, TimeUnit.MILLISECONDS.toNanos(10))) {
+      final SchedulingGroup<AsyncTaskWrapper> group = pool.getGroupManager().newGroup(100);
+      pool.execute(newTask(group, task, done::countDown));
+
+      // wait for the task to block and register its wake up callback
+      final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(60);
+      while (task.callback == null && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      assertNotNull("task never blocked", task.callback);
+      assertEquals(State.BLOCKED_ON_UPSTREAM, task.getState());
+      assertEquals(5, task.runs.get());
+
+      task.callback.nowAvailable();
+      assertTrue("task didn't finish in time", done.await(60, TimeUnit.SECONDS));
+    }
+
+    assertEquals(10, task.runs.get());
+  }
+
+  @Test
+  public void testFailingTaskIsCleanedUp() throws Exception {
+    final CountDownLatch cleaned = new CountDownLatch(2);
+    final CountDownLatch done = new CountDownLatch(1);
+    final CountingTask failing = new CountingTask(Integer.MAX_VALUE, false) {
+      @Override
+      public void run() {
+        throw new IllegalStateException("task failure");
+      }
+    };
+    // the failure of a cleaner doesn't stop the thread either
+    final AutoCloseable failingCleaner = () -> {
+      cleaned.countDown();
+      throw new IllegalStateException("cleaner failure");
+    };
+
+    try (SlicingTaskPool pool = new SlicingTaskPool(1, TimeUnit.MILLISECONDS.toNanos(10))) {
+      final SchedulingGroup<AsyncTaskWrapper> group = pool.getGroupManager().newGroup(100);
+      pool.execute(newTask(group, failing, cleaned::countDown));
+      pool.execute(newTask(group, failing, failingCleaner));
+      assertTrue("failed tasks weren't cleaned up", cleaned.await(60, TimeUnit.SECONDS));
+
+      // the thread keeps running the other tasks
+      pool.execute(newTask(group, new CountingTask(10, false), done::countDown));
+      assertTrue("task didn't finish in time", done.await(60, TimeUnit.SECONDS));
+      assertTrue(pool.areAllThreadsAlive());
+    }
+  }
+
+  @Test
+  public void testGroupWeights() throws Exception {
+    final WeightedRunQueue runQueue = new WeightedRunQueue();
+    final SchedulingGroup<AsyncTaskWrapper> heavy = runQueue.newGroup(300);
+    final SchedulingGroup<AsyncTaskWrapper> light = runQueue.newGroup(100);
+
+    final AsyncTaskWrapper heavyTask = newTask(heavy, new CountingTask(Integer.MAX_VALUE, false), () -> {});
+    final AsyncTaskWrapper lightTask = newTask(light, new CountingTask(Integer.MAX_VALUE, false), () -> {});
+    heavy.addTask(heavyTask, SlicingTaskPool.DEFAULT_TASK_WEIGHT);
+    light.addTask(lightTask, SlicingTaskPool.DEFAULT_TASK_WEIGHT);
+
+    int heavyCount = 0;
+    int lightCount = 0;
+    for (int i = 0; i < 400; i++) {
+      final TaskEntity entity = runQueue.poll(1, TimeUnit.SECONDS);
+      assertNotNull(entity);
+      if (entity.getTask() == heavyTask) {
+        heavyCount++;
+      } else {
+        lightCount++;
+      }
+      runQueue.yielded(entity, TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    // cpu time should be shared proportionally to the group weights
+    assertEquals(300, heavyCount, 5);
+    assertEquals(100, lightCount, 5);
+  }
+
+  @Test
+  public void testNestedGroupsAndBlockedTasks() throws Exception {
+    final WeightedRunQueue runQueue = new WeightedRunQueue();
+    final SchedulingGroup<AsyncTaskWrapper> parent = runQueue.newGroup(100);
+    final SchedulingGroup<AsyncTaskWrapper> child = parent.addGroup(100);
+
+    final AsyncTaskWrapper task = newTask(child, new CountingTask(Integer.MAX_VALUE, false), () -> {});
+    child.addTask(task, SlicingTaskPool.DEFAULT_TASK_WEIGHT);
+    assertEquals(1, runQueue.getNumRunnable());
+
+    final TaskEntity entity = runQueue.poll(1, TimeUnit.SECONDS);
+    assertNotNull(entity);
+    runQueue.blocked(entity, TimeUnit.MILLISECONDS.toNanos(1));
+
+    // nothing runnable while the only task is blocked
+    assertNull(runQueue.poll(10, TimeUnit.MILLISECONDS));
+    assertEquals(1, runQueue.getNumTasks());
+
+    entity.reEnqueue();
+    assertEquals(entity, runQueue.poll(1, TimeUnit.SECONDS));
+    runQueue.done(entity, TimeUnit.MILLISECONDS.toNanos(1));
+    assertEquals(0, runQueue.getNumTasks());
+    assertEquals(0, runQueue.getNumRunnable());
+  }
+}
@@ -135,6 +135,22 @@ public class TypeHelper extends BasicTypeHelper {
     helper.get().loadFromValidityAndDataBuffers(metadata, dataBuffer, validityBuffer);
   }
 
+  /**
+   * Load a fixed or variable width vector from its separate buffers, without copying them.
+   *
+   * @return false if the vector can't be loaded from separate buffers
+   */
+  public static boolean loadFromBuffers(ValueVector v, SerializedField metadata, ArrowBuf[] buffers) {
+    if (v instanceof BaseFixedWidthVector && buffers.length == 2) {
+      new FixedWidthVectorHelper<>((BaseFixedWidthVector) v).loadFromBuffers(metadata, buffers);
+      return true;
+    } else if (v instanceof BaseVariableWidthVector && buffers.length == 3) {
+      new VariableWidthVectorHelper<>((BaseVariableWidthVector) v).loadFromBuffers(metadata, buffers);
+      return true;
+    }
+    return false;
+  }
+
   public static void loadData(ValueVector v, SerializedField metadata, ArrowBuf buffer) {
     Optional<ValueVectorHelper> helper = getHelper(v);
 
@@ -22,6 +22,8 @@ import java.util.Map;
 import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.AllocationHelper;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BaseVariableWidthVector;
 import org.apache.arrow.vector.ValueVector;
 import org.apache.arrow.vector.types.SerializedFieldHelper;
 import org.apache.arrow.vector.types.pojo.Field;
@@ -86,6 +88,29 @@ public class RecordBatchLoader implements VectorAccessible, Iterable<VectorWrapp
       logger.trace("Load, ThreadID: {}\n{}", Thread.currentThread().getId(), new StackTrace());
     }
 
+    return load(def, new SingleBufferFieldLoader(buf));
+  }
+
+  /**
+   * Load a record batch from the separate buffers of its vectors, as returned by {@link WritableBatch#getBuffers()}.
+   * The buffers of fixed and variable width vectors are used as is, the buffers of other vectors are copied.
+   *
+   * @param def
+   *          The definition for the record batch.
+   * @param buffers
+   *          The buffers that hold the data associated with the record batch.
+   * @return Whether the schema changed since the previous load.
+   */
+  public boolean load(RecordBatchDef def, ArrowBuf[] buffers) {
+    if (logger.isTraceEnabled()) {
+      logger.trace("Loading record batch with def {} and {} buffers", def, buffers.length);
+      logger.trace("Load, ThreadID: {}\n{}", Thread.currentThread().getId(), new StackTrace());
+    }
+
+    return load(def, new SeparateBuffersFieldLoader(buffers));
+  }
+
+  private boolean load(RecordBatchDef def, FieldLoader fieldLoader) {
     final BatchSchema initialSchema = schema;
     container.zeroVectors();
     valueCount = def.getRecordCount();
@@ -105,7 +130,6 @@ public class RecordBatchLoader implements VectorAccessible, Iterable<VectorWrapp
     final VectorContainer newVectors = new VectorContainer();
     try {
       final List<SerializedField> fields = def.getFieldList();
-      int bufOffset = 0;
       for(final SerializedField field : fields) {
         final Field fieldDef = SerializedFieldHelper.create(field);
         ValueVector vector = oldFields.remove(fieldDef.getName());
@@ -125,10 +149,10 @@ public class RecordBatchLoader implements VectorAccessible, Iterable<VectorWrapp
         // Load the vector.
         if (field.getValueCount() == 0) {
           AllocationHelper.allocate(vector, 0, 0, 0);
+          fieldLoader.skip(field);
         } else {
-          TypeHelper.load(vector, field, buf.slice(bufOffset, field.getBufferLength()));
+          fieldLoader.load(vector, field);
         }
-        bufOffset += field.getBufferLength();
         newVectors.add(vector);
       }
 
@@ -165,6 +189,142 @@ public class RecordBatchLoader implements VectorAccessible, Iterable<VectorWrapp
     return schemaChanged;
   }
 
+  /**
+   * Loads a vector from the data of the batch
+   */
+  private interface FieldLoader {
+    void load(ValueVector vector, SerializedField field);
+
+    void skip(SerializedField field);
+  }
+
+  /**
+   * Slices the vectors from the single buffer of the batch
+   */
+  private static final class SingleBufferFieldLoader implements FieldLoader {
+    private final ArrowBuf buf;
+    private int bufOffset;
+
+    private SingleBufferFieldLoader(ArrowBuf buf) {
+      this.buf = buf;
+    }
+
+    @Override
+    public void load(ValueVector vector, SerializedField field) {
+      TypeHelper.load(vector, field, buf.slice(bufOffset, field.getBufferLength()));
+      bufOffset += field.getBufferLength();
+    }
+
+    @Override
+    public void skip(SerializedField field) {
+      bufOffset += field.getBufferLength();
+    }
+  }
+
+  /**
+   * Loads the fixed and variable width vectors from their buffers when the buffers of the batch match the ones
+   * of the vector, and copies the buffers of the other vectors into a single buffer.
+   */
+  private final class SeparateBuffersFieldLoader implements FieldLoader {
+    private final ArrowBuf[] buffers;
+    // next buffer to read, and offset of the next byte to read in that buffer
+    private int bufferIndex;
+    private long bufferOffset;
+
+    private SeparateBuffersFieldLoader(ArrowBuf[] buffers) {
+      this.buffers = buffers;
+    }
+
+    @Override
+    public void load(ValueVector vector, SerializedField field) {
+      final int startIndex = bufferIndex;
+      final long startOffset = bufferOffset;
+      final ArrowBuf[] fieldBuffers = nextBuffers(getBufferLengths(vector, field));
+      if (fieldBuffers != null && TypeHelper.loadFromBuffers(vector, field, fieldBuffers)) {
+        return;
+      }
+
+      bufferIndex = startIndex;
+      bufferOffset = startOffset;
+      try (ArrowBuf buf = allocator.buffer(field.getBufferLength())) {
+        copyNextBytes(buf, field.getBufferLength());
+        TypeHelper.load(vector, field, buf);
+      }
+    }
+
+    @Override
+    public void skip(SerializedField field) {
+      long skipped = 0;
+      while (skipped < field.getBufferLength()) {
+        Preconditions.checkState(bufferIndex < buffers.length, "Not enough buffers to load the batch");
+        final long toSkip = Math.min(buffers[bufferIndex].readableBytes() - bufferOffset,
+          field.getBufferLength() - skipped);
+        skipped += toSkip;
+        advance(toSkip);
+      }
+    }
+
+    /**
+     * @return the next buffers if they have the given lengths, null otherwise
+     */
+    private ArrowBuf[] nextBuffers(long[] lengths) {
+      if (lengths == null || bufferOffset != 0) {
+        return null;
+      }
+
+      final ArrowBuf[] fieldBuffers = new ArrowBuf[lengths.length];
+      for (int i = 0; i < lengths.length; i++) {
+        // empty buffers don't hold any data
+        while (lengths[i] > 0 && bufferIndex < buffers.length && buffers[bufferIndex].readableBytes() == 0) {
+          bufferIndex++;
+        }
+        if (bufferIndex == buffers.length
+          || buffers[bufferIndex].readerIndex() != 0
+          || buffers[bufferIndex].readableBytes() != lengths[i]) {
+          return null;
+        }
+        fieldBuffers[i] = buffers[bufferIndex++];
+      }
+      return fieldBuffers;
+    }
+
+    private void copyNextBytes(ArrowBuf target, long length) {
+      long copied = 0;
+      while (copied < length) {
+        Preconditions.checkState(bufferIndex < buffers.length, "Not enough buffers to load the batch");
+        final ArrowBuf buf = buffers[bufferIndex];
+        final long toCopy = Math.min(buf.readableBytes() - bufferOffset, length - copied);
+        target.setBytes(copied, buf, buf.readerIndex() + bufferOffset, toCopy);
+        copied += toCopy;
+        advance(toCopy);
+      }
+      target.writerIndex(length);
+    }
+
+    private void advance(long length) {
+      bufferOffset += length;
+      if (bufferOffset == buffers[bufferIndex].readableBytes()) {
+        bufferIndex++;
+        bufferOffset = 0;
+      }
+    }
+  }
+
+  /**
+   * @return the lengths of the buffers of a fixed or variable width vector, null for other vectors
+   */
+  private static long[] getBufferLengths(ValueVector vector, SerializedField field) {
+    final SerializedField bitsField = field.getChild(0);
+    if (vector instanceof BaseFixedWidthVector) {
+      return new long[] { bitsField.getBufferLength(), field.getChild(1).getBufferLength() };
+    } else if (vector instanceof BaseVariableWidthVector) {
+      final SerializedField valuesField = field.getChild(1);
+      final long offsetsLength = valuesField.getChild(0).getBufferLength();
+      return new long[] { bitsField.getBufferLength(), offsetsLength, valuesField.getBufferLength() - offsetsLength };
+    }
+    return null;
+  }
+
   @Override
   public TypedFieldId getValueVectorId(BasePath path) {
     return container.getValueVectorId(path);
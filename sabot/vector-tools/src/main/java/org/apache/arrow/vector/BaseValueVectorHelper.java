@@ -119,6 +119,38 @@ public abstract class BaseValueVectorHelper<T extends FieldVector> implements Va
     countSetter.accept(metadata.getValueCount());
   }
 
+  /**
+   * Load a fixed or variable width vector from its separate buffers, in the order returned by
+   * {@code getBuffers()}: validity and data buffers for fixed width vectors, validity, offset and data buffers
+   * for variable width vectors. The buffers are not copied, the vector takes its own reference on each of them.
+   */
+  public void loadFromBuffers(SerializedField metadata, ArrowBuf[] buffers) {
+    if (mode == Mode.OTHER) {
+      throw new UnsupportedOperationException("this loader is only supported for fixed and variable width vectors");
+    }
+
+    /* clear the current buffers (if any) */
+    vector.clear();
+    /* get the metadata children */
+    final SerializedField bitsField = metadata.getChild(0);
+    final SerializedField valuesField = metadata.getChild(1);
+    /* load inner validity buffer */
+    loadValidityBuffer(bitsField, buffers[0]);
+    if (checkFixedOrVariable()) {
+      /* load inner value buffer */
+      loadDataAndPossiblyOffsetBuffer(valuesField, buffers[1]);
+    } else {
+      /* load inner offset and value buffers */
+      loadOffsetAndDataBuffers(valuesField, buffers[1], buffers[2]);
+      variableVector.setLastSet(metadata.getValueCount() - 1);
+    }
+    countSetter.accept(metadata.getValueCount());
+  }
+
+  protected void loadOffsetAndDataBuffers(SerializedField metadata, ArrowBuf offsetBuffer, ArrowBuf dataBuffer) {
+    throw new UnsupportedOperationException("this loader is not supported for fixed width vectors");
+  }
+
   private void loadValidityBuffer(SerializedField metadata, ArrowBuf buffer) {
     final int valueCount = metadata.getValueCount();
     final int actualLength = metadata.getBufferLength();
@@ -75,4 +75,22 @@ public class VariableWidthVectorHelper<T extends BaseVariableWidthVector> extend
     vector.valueBuffer.writerIndex(dataLength);
   }
 
+  @Override
+  protected void loadOffsetAndDataBuffers(SerializedField metadata, ArrowBuf offsetBuffer, ArrowBuf dataBuffer) {
+    final SerializedField offsetField = metadata.getChild(0);
+    final int offsetLength = offsetField.getBufferLength();
+    final long dataLength = metadata.getBufferLength() - offsetLength;
+    assert offsetLength == offsetField.getValueCount() * 4 :
+      String.format("Expected to load %d bytes but actually loaded %d bytes in offset buffer",
+      offsetField.getValueCount() * 4, offsetLength);
+
+    vector.offsetBuffer = offsetBuffer.slice(0, offsetLength);
+    vector.offsetBuffer.getReferenceManager().retain();
+    vector.offsetBuffer.writerIndex(offsetLength);
+
+    vector.valueBuffer = dataBuffer.slice(0, dataLength);
+    vector.valueBuffer.getReferenceManager().retain();
+    vector.valueBuffer.writerIndex(dataLength);
+  }
+
 }
@@ -15,6 +15,13 @@
  */
 package com.dremio.service.flight;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 import javax.inject.Provider;
 
 import org.apache.arrow.flight.Action;
@@ -22,40 +29,75 @@ import org.apache.arrow.flight.ActionType;
 import org.apache.arrow.flight.CallStatus;
 import org.apache.arrow.flight.Criteria;
 import org.apache.arrow.flight.FlightDescriptor;
+import org.apache.arrow.flight.FlightEndpoint;
 import org.apache.arrow.flight.FlightInfo;
 import org.apache.arrow.flight.FlightProducer;
+import org.apache.arrow.flight.FlightRuntimeException;
 import org.apache.arrow.flight.FlightStream;
 import org.apache.arrow.flight.Location;
 import org.apache.arrow.flight.PutResult;
 import org.apache.arrow.flight.Result;
 import org.apache.arrow.flight.Ticket;
+import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
 
+import com.dremio.exec.store.dfs.FileSystemPlugin;
+import com.dremio.exec.store.easy.arrow.ArrowFileFormat.ArrowFileMetadata;
 import com.dremio.exec.work.protector.UserWorker;
 import com.dremio.options.OptionManager;
 import com.dremio.sabot.rpc.user.UserSession;
+import com.dremio.service.flight.TicketContent.PutResultContent;
+import com.dremio.service.flight.TicketContent.ResultFile;
+import com.dremio.service.flight.TicketContent.ResultFilesTicket;
+import com.dremio.service.flight.impl.FlightIngestionManager;
 import com.dremio.service.flight.impl.FlightPreparedStatement;
 import com.dremio.service.flight.impl.FlightWorkManager;
 import com.dremio.service.flight.impl.FlightWorkManager.RunQueryResponseHandlerFactory;
+import com.dremio.service.flight.impl.ResultFilesResponseHandler;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.protobuf.InvalidProtocolBufferException;
 
 /**
  * A FlightProducer implementation which exposes Dremio's catalog and produces results from SQL queries.
  */
 public class DremioFlightProducer implements FlightProducer {
+  public static final ActionType GET_EXECUTOR_TOKEN = new ActionType("GetExecutorToken",
+    "Returns the token with which to authenticate to the executors serving the query results.");
+
   private final FlightWorkManager flightWorkManager;
   private final Location location;
   private final DremioFlightSessionsManager sessionsManager;
+  private final Provider<OptionManager> optionManagerProvider;
   private final BufferAllocator allocator;
+  private final Function<String, Location> executorLocations;
+  private final FlightIngestionManager ingestionManager;
+  // null if the query results cannot be served by the executors
+  private final ExecutorTicketSigner executorTicketSigner;
 
   public DremioFlightProducer(Location location, DremioFlightSessionsManager sessionsManager,
                               Provider<UserWorker> workerProvider, Provider<OptionManager> optionManagerProvider,
                               BufferAllocator allocator, RunQueryResponseHandlerFactory runQueryResponseHandlerFactory) {
+    this(location, sessionsManager, workerProvider, optionManagerProvider, allocator, runQueryResponseHandlerFactory,
+      address -> location, null, null);
+  }
+
+  public DremioFlightProducer(Location location, DremioFlightSessionsManager sessionsManager,
+                              Provider<UserWorker> workerProvider, Provider<OptionManager> optionManagerProvider,
+                              BufferAllocator allocator, RunQueryResponseHandlerFactory runQueryResponseHandlerFactory,
+                              Function<String, Location> executorLocations,
+                              Supplier<FileSystemPlugin<?>> jobResultsPluginSupplier,
+                              ExecutorTicketSigner executorTicketSigner) {
     this.location = location;
     this.sessionsManager = sessionsManager;
+    this.optionManagerProvider = optionManagerProvider;
     this.allocator = allocator;
+    this.executorLocations = executorLocations;
+    this.executorTicketSigner = executorTicketSigner;
 
     flightWorkManager = new FlightWorkManager(workerProvider, optionManagerProvider, runQueryResponseHandlerFactory);
+    ingestionManager = jobResultsPluginSupplier == null
+      ? null
+      : new FlightIngestionManager(flightWorkManager, jobResultsPluginSupplier, allocator);
   }
 
   @Override
@@ -82,21 +124,113 @@ public class DremioFlightProducer implements FlightProducer {
     final UserSession session = sessionsManager.getUserSession(callContext.peerIdentity());
     final FlightPreparedStatement flightPreparedStatement = flightWorkManager
       .createPreparedStatement(flightDescriptor, callContext::isCancelled, session);
-    return flightPreparedStatement.getFlightInfo(location);
+    if (executorTicketSigner == null
+      || !optionManagerProvider.get().getOption(DremioFlightServiceOptions.ENABLE_PARALLEL_ENDPOINTS)) {
+      return flightPreparedStatement.getFlightInfo(location);
+    }
+
+    // Run the query to completion, and let the client retrieve the results from the executors which stored them.
+    final ResultFilesResponseHandler responseHandler = flightWorkManager.runQueryToResultFiles(
+      flightPreparedStatement.getTicket(), callContext::isCancelled, allocator, session);
+    final List<ResultFile> resultFiles = responseHandler.get();
+    return new FlightInfo(flightPreparedStatement.getSchema(), flightDescriptor,
+      toEndpoints(resultFiles, executorLocations, executorTicketSigner, session.getCredentials().getUserName()),
+      getRecordCount(resultFiles), -1);
+  }
+
+  /**
+   * Group the result files by the executor which wrote them, with one endpoint per executor.
+   *
+   * @param resultFiles       The result files.
+   * @param executorLocations The Flight location of an executor, given its address.
+   * @param signer            Signs the tickets.
+   * @param user              The user who ran the query, the only one allowed to use the tickets.
+   * @return The endpoints.
+   */
+  @VisibleForTesting
+  static List<FlightEndpoint> toEndpoints(List<ResultFile> resultFiles, Function<String, Location> executorLocations,
+                                          ExecutorTicketSigner signer, String user) {
+    final Map<String, ResultFilesTicket.Builder> ticketsByAddress = new LinkedHashMap<>();
+    for (ResultFile resultFile : resultFiles) {
+      final String address = parseMetadata(resultFile).getScreenNodeEndpoint().getAddress();
+      ticketsByAddress.computeIfAbsent(address, k -> ResultFilesTicket.newBuilder()).addFile(resultFile);
+    }
+
+    final List<FlightEndpoint> endpoints = new ArrayList<>(ticketsByAddress.size());
+    ticketsByAddress.forEach((address, ticket) ->
+      endpoints.add(new FlightEndpoint(new Ticket(signer.signTicket(ticket.build(), user)),
+        executorLocations.apply(address))));
+    return endpoints;
+  }
+
+  private static long getRecordCount(List<ResultFile> resultFiles) {
+    long recordCount = 0;
+    for (ResultFile resultFile : resultFiles) {
+      recordCount += parseMetadata(resultFile).getRecordCount();
+    }
+    return recordCount;
+  }
+
+  private static ArrowFileMetadata parseMetadata(ResultFile resultFile) {
+    try {
+      return ArrowFileMetadata.parseFrom(resultFile.getMetadata());
+    } catch (InvalidProtocolBufferException ex) {
+      throw CallStatus.INTERNAL.withCause(ex).withDescription("Invalid result file metadata").toRuntimeException();
+    }
   }
 
   @Override
   public Runnable acceptPut(CallContext callContext, FlightStream flightStream, StreamListener<PutResult> streamListener) {
-    throw CallStatus.UNIMPLEMENTED.withDescription("acceptPut is unimplemented").toRuntimeException();
+    if (ingestionManager == null) {
+      throw CallStatus.UNIMPLEMENTED.withDescription("acceptPut is unimplemented").toRuntimeException();
+    }
+    final FlightDescriptor descriptor = flightStream.getDescriptor();
+    if (descriptor.isCommand() || descriptor.getPath().isEmpty()) {
+      throw CallStatus.INVALID_ARGUMENT
+        .withDescription("FlightDescriptor type Path with the path of the table is required.")
+        .toRuntimeException();
+    }
+
+    final UserSession session = sessionsManager.getUserSession(callContext.peerIdentity());
+    return () -> {
+      try {
+        final long recordCount =
+          ingestionManager.ingest(descriptor.getPath(), flightStream, callContext::isCancelled, session);
+        final byte[] content = PutResultContent.newBuilder().setRecordCount(recordCount).build().toByteArray();
+        // the put result owns the buffer
+        final ArrowBuf metadata = allocator.buffer(content.length);
+        metadata.writeBytes(content);
+        streamListener.onNext(PutResult.metadata(metadata));
+        streamListener.onCompleted();
+      } catch (FlightRuntimeException ex) {
+        streamListener.onError(ex);
+      } catch (Exception ex) {
+        streamListener.onError(CallStatus.INTERNAL
+          .withCause(ex)
+          .withDescription(ex.getMessage())
+          .toRuntimeException());
+      }
+    };
   }
 
   @Override
   public void doAction(CallContext callContext, Action action, StreamListener<Result> streamListener) {
-    throw CallStatus.UNIMPLEMENTED.withDescription("doAction is unimplemented").toRuntimeException();
+    if (executorTicketSigner == null || !GET_EXECUTOR_TOKEN.getType().equals(action.getType())) {
+      throw CallStatus.UNIMPLEMENTED.withDescription("doAction is unimplemented").toRuntimeException();
+    }
+
+    // The token with which the user authenticates to the executors to retrieve the results of their queries.
+    final UserSession session = sessionsManager.getUserSession(callContext.peerIdentity());
+    streamListener.onNext(new Result(executorTicketSigner.signToken(session.getCredentials().getUserName())));
+    streamListener.onCompleted();
   }
 
   @Override
   public void listActions(CallContext callContext, StreamListener<ActionType> streamListener) {
-    throw CallStatus.UNIMPLEMENTED.withDescription("listActions is unimplemented").toRuntimeException();
+    if (executorTicketSigner == null) {
+      throw CallStatus.UNIMPLEMENTED.withDescription("listActions is unimplemented").toRuntimeException();
+    }
+    streamListener.onNext(GET_EXECUTOR_TOKEN);
+    streamListener.onCompleted();
   }
 }
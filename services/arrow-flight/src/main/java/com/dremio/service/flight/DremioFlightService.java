@@ -48,6 +48,7 @@ import com.dremio.exec.work.protector.UserWorker;
 import com.dremio.options.OptionManager;
 import com.dremio.service.Service;
 import com.dremio.service.flight.auth.DremioFlightServerAuthValidator;
+import com.dremio.service.flight.impl.FlightWorkManager;
 import com.dremio.service.flight.impl.FlightWorkManager.RunQueryResponseHandlerFactory;
 import com.dremio.service.tokens.TokenManager;
 import com.dremio.service.users.UserService;
@@ -126,12 +127,17 @@ public class DremioFlightService implements Service {
     // Get the wildcard address which is usually 0.0.0.0.
     final String wildcardAddress = new InetSocketAddress(port).getHostName();
     final Location location = getLocation(wildcardAddress, port);
+    // Executors serving query results listen on the same port across the cluster.
+    final int executorPort = config.getInt(DremioConfig.FLIGHT_EXECUTOR_PORT_INT);
 
     FlightServer.Builder builder = FlightServer.builder()
       .location(location)
       .allocator(allocator)
       .producer(new DremioFlightProducer(location, dremioFlightSessionsManager, userWorkerProvider,
-        optionManagerProvider, allocator, runQueryResponseHandlerFactory))
+        optionManagerProvider, allocator, runQueryResponseHandlerFactory,
+        address -> getLocation(address, executorPort),
+        () -> sabotContextProvider.get().getCatalogService().getSource(FlightWorkManager.JOB_RESULTS_STORE_NAME),
+        ExecutorTicketSigner.fromConfig(config)))
       .authHandler(new BasicServerAuthHandler(validator));
 
     if (config.getBoolean(FLIGHT_SSL_ENABLED)) {
@@ -209,7 +215,7 @@ public class DremioFlightService implements Service {
    * @return  The SSL configuration. This is returned to make the SSLConfig accessible by
    * unit tests while avoiding storing the SSLConfig on the service.
    */
-  private void addTlsProperties(FlightServer.Builder builder, SSLConfig sslConfig) {
+  static void addTlsProperties(FlightServer.Builder builder, SSLConfig sslConfig) {
     try {
       final KeyStore keyStore = KeyStore.getInstance(sslConfig.getKeyStoreType());
       try (final InputStream keyStoreStream = Files.newInputStream(Paths.get(sslConfig.getKeyStorePath()))) {
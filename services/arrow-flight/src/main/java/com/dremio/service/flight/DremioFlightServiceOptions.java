@@ -26,4 +26,7 @@ public interface DremioFlightServiceOptions {
 
   // allows users enable/disable backpressure handling
   TypeValidators.BooleanValidator ENABLE_BACKPRESSURE_HANDLING = new TypeValidators.BooleanValidator("flight.backpressure.handling.enable", false);
+
+  // allows users to retrieve query results in parallel from the executors which wrote them
+  TypeValidators.BooleanValidator ENABLE_PARALLEL_ENDPOINTS = new TypeValidators.BooleanValidator("flight.parallel_endpoints.enable", false);
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.flight;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.arrow.flight.CallStatus;
+import org.apache.arrow.flight.FlightRuntimeException;
+import org.apache.arrow.flight.NoOpFlightProducer;
+import org.apache.arrow.flight.Ticket;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.exec.record.BatchSchema;
+import com.dremio.exec.record.RecordBatchHolder;
+import com.dremio.exec.store.dfs.FileSystemPlugin;
+import com.dremio.exec.store.easy.arrow.ArrowFileFormat;
+import com.dremio.exec.store.easy.arrow.ArrowFileFormat.ArrowRecordBatchSummary;
+import com.dremio.exec.store.easy.arrow.ArrowFileReader;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+import com.dremio.service.flight.TicketContent.ResultFile;
+import com.dremio.service.flight.TicketContent.ResultFilesTicket;
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * A FlightProducer implementation which streams the query results an executor stored in the job results store.
+ * The tickets are produced and signed by the coordinator's {@link DremioFlightProducer}, and only the user who ran
+ * the query can read its results.
+ */
+public class ExecutorFlightProducer extends NoOpFlightProducer {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ExecutorFlightProducer.class);
+
+  private final Supplier<FileSystemPlugin<?>> resultsPluginSupplier;
+  private final BufferAllocator allocator;
+  private final ExecutorTicketSigner signer;
+
+  public ExecutorFlightProducer(Supplier<FileSystemPlugin<?>> resultsPluginSupplier, BufferAllocator allocator,
+                                ExecutorTicketSigner signer) {
+    this.resultsPluginSupplier = resultsPluginSupplier;
+    this.allocator = allocator;
+    this.signer = signer;
+  }
+
+  @Override
+  public void getStream(CallContext callContext, Ticket ticket, ServerStreamListener listener) {
+    final ResultFilesTicket resultFilesTicket;
+    try {
+      resultFilesTicket = signer.verifyTicket(ticket.getBytes(), callContext.peerIdentity());
+    } catch (FlightRuntimeException ex) {
+      listener.error(ex);
+      throw ex;
+    }
+
+    final FileSystemPlugin<?> plugin = resultsPluginSupplier.get();
+    final Path root = Path.withoutSchemeAndAuthority(plugin.getConfig().getPath());
+    VectorSchemaRoot vectorSchemaRoot = null;
+    try {
+      for (ResultFile resultFile : resultFilesTicket.getFileList()) {
+        final Path path = checkPath(root, resultFile.getPath());
+        final ArrowFileFormat.ArrowFileMetadata metadata = ArrowFileFormat.ArrowFileMetadata.parseFrom(resultFile.getMetadata())
+          .toBuilder()
+          .setPath(path.getName())
+          .build();
+
+        if (vectorSchemaRoot == null) {
+          final BatchSchema schema = BatchSchema.newBuilder()
+            .addSerializedFields(metadata.getFooter().getFieldList())
+            .build();
+          vectorSchemaRoot = VectorSchemaRoot.create(schema, allocator);
+          listener.start(vectorSchemaRoot);
+        }
+
+        if (!streamFile(plugin.getSystemUserFS(), path.getParent(), metadata, vectorSchemaRoot, listener)) {
+          // the client cancelled the call
+          return;
+        }
+      }
+      listener.completed();
+    } catch (Exception ex) {
+      logger.debug("Unable to stream result files.", ex);
+      listener.error(CallStatus.INTERNAL
+        .withCause(ex)
+        .withDescription(ex.getMessage())
+        .toRuntimeException());
+    } finally {
+      try {
+        AutoCloseables.close(vectorSchemaRoot);
+      } catch (Exception ex) {
+        logger.warn("Failure while closing the vectors.", ex);
+      }
+    }
+  }
+
+  /**
+   * Send the record batches of a result file, one at a time.
+   *
+   * @return false if the client cancelled the call
+   */
+  private boolean streamFile(FileSystem fs, Path directory, ArrowFileFormat.ArrowFileMetadata metadata,
+                             VectorSchemaRoot vectorSchemaRoot, ServerStreamListener listener) throws Exception {
+    try (ArrowFileReader reader = new ArrowFileReader(fs, directory, ArrowFileReader.toBean(metadata), allocator)) {
+      long start = 0;
+      for (ArrowRecordBatchSummary batch : metadata.getFooter().getBatchList()) {
+        final int recordCount = batch.getRecordCount();
+        if (recordCount == 0) {
+          continue;
+        }
+
+        final List<RecordBatchHolder> holders = reader.read(start, recordCount);
+        try {
+          for (RecordBatchHolder holder : holders) {
+            final List<ValueVector> vectors = holder.getData().getVectors();
+            for (int i = 0; i < vectors.size(); i++) {
+              vectors.get(i).makeTransferPair(vectorSchemaRoot.getVector(i)).transfer();
+            }
+            vectorSchemaRoot.setRowCount(holder.size());
+            if (!waitUntilReady(listener)) {
+              return false;
+            }
+            listener.putNext();
+            vectorSchemaRoot.clear();
+          }
+        } finally {
+          AutoCloseables.close(holders);
+        }
+        start += recordCount;
+      }
+    }
+    return true;
+  }
+
+  private static boolean waitUntilReady(ServerStreamListener listener) throws InterruptedException {
+    while (!listener.isReady()) {
+      if (listener.isCancelled()) {
+        return false;
+      }
+      TimeUnit.MILLISECONDS.sleep(1);
+    }
+    return !listener.isCancelled();
+  }
+
+  /**
+   * Only the files of the job results store can be read.
+   *
+   * @param root The root directory of the job results store.
+   * @param file The path of the file.
+   * @return The path of the file, without scheme and authority.
+   */
+  @VisibleForTesting
+  static Path checkPath(Path root, String file) throws IOException {
+    final Path path = Path.withoutSchemeAndAuthority(Path.of(Path.of(file).toURI().normalize()));
+    if (!path.isAbsolute() || !path.toString().startsWith(root.toString() + Path.SEPARATOR)) {
+      throw new IOException(String.format("File %s is not a query result.", file));
+    }
+    return path;
+  }
+}
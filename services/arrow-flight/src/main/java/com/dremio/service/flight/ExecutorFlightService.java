@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.flight;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.security.GeneralSecurityException;
+
+import javax.inject.Provider;
+
+import org.apache.arrow.flight.FlightServer;
+import org.apache.arrow.flight.Location;
+import org.apache.arrow.memory.BufferAllocator;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.config.DremioConfig;
+import com.dremio.exec.rpc.ssl.SSLConfigurator;
+import com.dremio.exec.server.SabotContext;
+import com.dremio.service.Service;
+import com.dremio.service.flight.auth.ExecutorFlightAuthHandler;
+import com.dremio.service.flight.impl.FlightWorkManager;
+import com.dremio.ssl.SSLConfig;
+import com.google.common.base.Preconditions;
+
+/**
+ * Service which manages the Flight endpoint of an executor, from which clients retrieve the query results the
+ * executor stored.
+ *
+ * The clients authenticate with a token handed out by the coordinator to its authenticated users. The tickets
+ * list the result files to read, and are signed by the coordinator for the user who ran the query. The tokens
+ * and the tickets are signed with the secret shared by the nodes of the cluster.
+ */
+public class ExecutorFlightService implements Service {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ExecutorFlightService.class);
+
+  private final Provider<DremioConfig> configProvider;
+  private final Provider<BufferAllocator> bufferAllocator;
+  private final Provider<SabotContext> sabotContextProvider;
+
+  private volatile FlightServer server;
+  private BufferAllocator allocator;
+
+  public ExecutorFlightService(Provider<DremioConfig> configProvider,
+                               Provider<BufferAllocator> bufferAllocator,
+                               Provider<SabotContext> sabotContextProvider) {
+    this.configProvider = configProvider;
+    this.bufferAllocator = bufferAllocator;
+    this.sabotContextProvider = sabotContextProvider;
+  }
+
+  @Override
+  public void start() throws Exception {
+    Preconditions.checkArgument(server == null, "Executor Flight Service should not be started more than once.");
+    logger.info("Starting Executor Flight Service");
+
+    allocator = bufferAllocator.get().newChildAllocator("executor-flight-service-allocator", 0, Long.MAX_VALUE);
+
+    final DremioConfig config = configProvider.get();
+    final ExecutorTicketSigner signer = ExecutorTicketSigner.fromConfig(config);
+    Preconditions.checkState(signer != null, "%s is required to serve query results from the executors.",
+      DremioConfig.FLIGHT_EXECUTOR_SECRET_STRING);
+    final int port = config.getInt(DremioConfig.FLIGHT_EXECUTOR_PORT_INT);
+    final boolean sslEnabled = config.getBoolean(DremioFlightService.FLIGHT_SSL_ENABLED);
+    // Get the wildcard address which is usually 0.0.0.0.
+    final String wildcardAddress = new InetSocketAddress(port).getHostName();
+    final Location location = sslEnabled
+      ? Location.forGrpcTls(wildcardAddress, port)
+      : Location.forGrpcInsecure(wildcardAddress, port);
+
+    final FlightServer.Builder builder = FlightServer.builder()
+      .location(location)
+      .allocator(allocator)
+      .producer(new ExecutorFlightProducer(
+        () -> sabotContextProvider.get().getCatalogService().getSource(FlightWorkManager.JOB_RESULTS_STORE_NAME),
+        allocator, signer))
+      .authHandler(new ExecutorFlightAuthHandler(signer));
+
+    if (sslEnabled) {
+      DremioFlightService.addTlsProperties(builder, getSSLConfig(config));
+    }
+
+    server = builder.build();
+    server.start();
+
+    logger.info("Started Executor Flight Service at {} on port {}.", config.getThisNode(), port);
+  }
+
+  @Override
+  public void close() throws Exception {
+    logger.info("Stopping Executor Flight Service");
+    AutoCloseables.close(server, allocator);
+    logger.info("Stopped Executor Flight Service");
+  }
+
+  private static SSLConfig getSSLConfig(DremioConfig config) {
+    final SSLConfigurator sslConfigurator =
+      new SSLConfigurator(config, DremioFlightService.FLIGHT_SSL_PREFIX, "flight");
+    try {
+      return sslConfigurator.getSSLConfig(true,
+        config.getThisNode(), InetAddress.getLocalHost().getCanonicalHostName()).get();
+    } catch (GeneralSecurityException | IOException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.flight;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.arrow.flight.CallStatus;
+
+import com.dremio.config.DremioConfig;
+import com.dremio.service.flight.TicketContent.ExecutorToken;
+import com.dremio.service.flight.TicketContent.ResultFilesTicket;
+import com.dremio.service.flight.TicketContent.SignedMessage;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+/**
+ * Signs the tickets of the query results stored on the executors, and the tokens with which the clients
+ * authenticate to the executors, with the secret shared by the nodes of the cluster.
+ *
+ * The coordinator signs them for the authenticated user who ran the query, and the executors verify them,
+ * so that an executor only serves the results of a query to the user who ran it.
+ */
+public class ExecutorTicketSigner {
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final long TICKET_VALIDITY_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+  private final SecretKeySpec key;
+  private final Clock clock;
+
+  @VisibleForTesting
+  ExecutorTicketSigner(String secret, Clock clock) {
+    Preconditions.checkArgument(!Strings.isNullOrEmpty(secret), "A secret is required to sign the tickets.");
+    this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    this.clock = clock;
+  }
+
+  /**
+   * Creates the signer from the secret configured in dremio.conf.
+   *
+   * @return the signer, or null if no secret is configured
+   */
+  public static ExecutorTicketSigner fromConfig(DremioConfig config) {
+    final String secret = config.getString(DremioConfig.FLIGHT_EXECUTOR_SECRET_STRING);
+    return Strings.isNullOrEmpty(secret) ? null : new ExecutorTicketSigner(secret, Clock.systemUTC());
+  }
+
+  /**
+   * Signs a ticket for the given user.
+   */
+  public byte[] signTicket(ResultFilesTicket ticket, String user) {
+    return sign(ticket.toBuilder()
+      .setUser(user)
+      .setExpirationMillis(clock.millis() + TICKET_VALIDITY_MILLIS)
+      .build()
+      .toByteString());
+  }
+
+  /**
+   * Verifies a ticket and its user.
+   *
+   * @param ticket the signed ticket
+   * @param user the user reading the results
+   * @return the ticket
+   */
+  public ResultFilesTicket verifyTicket(byte[] ticket, String user) {
+    final ResultFilesTicket resultFilesTicket;
+    try {
+      resultFilesTicket = ResultFilesTicket.parseFrom(verify(ticket)
+        .orElseThrow(() -> CallStatus.UNAUTHENTICATED.withDescription("Invalid ticket").toRuntimeException()));
+    } catch (InvalidProtocolBufferException ex) {
+      throw CallStatus.INVALID_ARGUMENT.withCause(ex).withDescription("Invalid ticket").toRuntimeException();
+    }
+
+    if (resultFilesTicket.getExpirationMillis() < clock.millis()) {
+      throw CallStatus.UNAUTHENTICATED.withDescription("Expired ticket").toRuntimeException();
+    }
+    if (!resultFilesTicket.getUser().equals(user)) {
+      throw CallStatus.UNAUTHORIZED.withDescription("Ticket of another user").toRuntimeException();
+    }
+    return resultFilesTicket;
+  }
+
+  /**
+   * Signs a token authenticating the given user to the executors.
+   */
+  public byte[] signToken(String user) {
+    return sign(ExecutorToken.newBuilder()
+      .setUser(user)
+      .setExpirationMillis(clock.millis() + TICKET_VALIDITY_MILLIS)
+      .build()
+      .toByteString());
+  }
+
+  /**
+   * Verifies a token.
+   *
+   * @return the user authenticated by the token, or empty if the token is invalid or expired
+   */
+  public Optional<String> verifyToken(byte[] token) {
+    try {
+      final Optional<ByteString> message = verify(token);
+      if (!message.isPresent()) {
+        return Optional.empty();
+      }
+      final ExecutorToken executorToken = ExecutorToken.parseFrom(message.get());
+      if (executorToken.getExpirationMillis() < clock.millis() || executorToken.getUser().isEmpty()) {
+        return Optional.empty();
+      }
+      return Optional.of(executorToken.getUser());
+    } catch (InvalidProtocolBufferException ex) {
+      return Optional.empty();
+    }
+  }
+
+  private byte[] sign(ByteString message) {
+    return SignedMessage.newBuilder()
+      .setMessage(message)
+      .setSignature(ByteString.copyFrom(hmac(message)))
+      .build()
+      .toByteArray();
+  }
+
+  /**
+   * @return the signed message, or empty if the signature doesn't match
+   */
+  private Optional<ByteString> verify(byte[] bytes) {
+    final SignedMessage signedMessage;
+    try {
+      signedMessage = SignedMessage.parseFrom(bytes);
+    } catch (InvalidProtocolBufferException ex) {
+      return Optional.empty();
+    }
+    // constant time comparison, to not leak the signature
+    if (!MessageDigest.isEqual(hmac(signedMessage.getMessage()), signedMessage.getSignature().toByteArray())) {
+      return Optional.empty();
+    }
+    return Optional.of(signedMessage.getMessage());
+  }
+
+  private byte[] hmac(ByteString message) {
+    try {
+      final Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(key);
+      return mac.doFinal(message.toByteArray());
+    } catch (GeneralSecurityException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.flight.auth;
+
+import java.util.Iterator;
+import java.util.Optional;
+
+import org.apache.arrow.flight.CallStatus;
+import org.apache.arrow.flight.auth.ServerAuthHandler;
+
+import com.dremio.service.flight.ExecutorTicketSigner;
+
+/**
+ * Authenticates the clients of the Flight endpoint of an executor with the tokens handed out by the coordinator
+ * to its authenticated users. The token sent during the handshake is used as the session token.
+ */
+public class ExecutorFlightAuthHandler implements ServerAuthHandler {
+  private final ExecutorTicketSigner signer;
+
+  public ExecutorFlightAuthHandler(ExecutorTicketSigner signer) {
+    this.signer = signer;
+  }
+
+  @Override
+  public Optional<String> isValid(byte[] token) {
+    return token == null ? Optional.empty() : signer.verifyToken(token);
+  }
+
+  @Override
+  public boolean authenticate(ServerAuthSender outgoing, Iterator<byte[]> incoming) {
+    final byte[] token = incoming.hasNext() ? incoming.next() : null;
+    if (!isValid(token).isPresent()) {
+      outgoing.onError(CallStatus.UNAUTHENTICATED.withDescription("Invalid executor token").toRuntimeException());
+      return false;
+    }
+    outgoing.send(token);
+    return true;
+  }
+}
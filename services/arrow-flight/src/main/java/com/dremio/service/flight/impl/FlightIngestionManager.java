@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.flight.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.arrow.flight.CallStatus;
+import org.apache.arrow.flight.FlightStream;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.VectorSchemaRoot;
+
+import com.dremio.common.utils.PathUtils;
+import com.dremio.exec.store.dfs.FileSystemPlugin;
+import com.dremio.exec.store.easy.arrow.ArrowFormatPluginConfig;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+import com.dremio.sabot.rpc.user.UserSession;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Ingests the record batches streamed by Flight clients into Iceberg tables.
+ *
+ * The batches of each put are staged in the job results store, and then inserted into the table with an
+ * INSERT INTO statement, which writes and commits the data files like any other insert. Puts of a user to the
+ * same table, with the same schema, which complete while an insert is running are committed together by the
+ * next insert, as a single snapshot.
+ *
+ * The state of the puts into a table is dropped once no put was made to it for a while.
+ */
+public class FlightIngestionManager {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(FlightIngestionManager.class);
+
+  private static final String STAGING_PREFIX = "flight_put_";
+  private static final long INGESTION_EXPIRATION_MINUTES = 10;
+
+  private final FlightWorkManager flightWorkManager;
+  private final Supplier<FileSystemPlugin<?>> stagingPluginSupplier;
+  private final BufferAllocator allocator;
+  private final LoadingCache<TableKey, TableIngestion> ingestions = CacheBuilder.newBuilder()
+    .expireAfterAccess(INGESTION_EXPIRATION_MINUTES, TimeUnit.MINUTES)
+    .build(new CacheLoader<TableKey, TableIngestion>() {
+      @Override
+      public TableIngestion load(TableKey key) {
+        return new TableIngestion(key.tablePath);
+      }
+    });
+
+  public FlightIngestionManager(FlightWorkManager flightWorkManager,
+                                Supplier<FileSystemPlugin<?>> stagingPluginSupplier,
+                                BufferAllocator allocator) {
+    this.flightWorkManager = flightWorkManager;
+    this.stagingPluginSupplier = stagingPluginSupplier;
+    this.allocator = allocator;
+  }
+
+  /**
+   * Insert the record batches of the given stream into a table, and wait until they are committed.
+   *
+   * @param tablePath          The path of the table.
+   * @param flightStream       The stream of record batches.
+   * @param isRequestCancelled A supplier to evaluate if the client cancelled the request.
+   * @param userSession        The session for the user which made the request.
+   * @return The number of records inserted.
+   */
+  public long ingest(List<String> tablePath, FlightStream flightStream, Supplier<Boolean> isRequestCancelled,
+                     UserSession userSession) throws Exception {
+    final FileSystemPlugin<?> plugin = stagingPluginSupplier.get();
+    final FileSystem fs = plugin.getSystemUserFS();
+    final String stagingName = STAGING_PREFIX + UUID.randomUUID().toString().replace('-', '_');
+    final Path stagingDir = plugin.getConfig().getPath().resolve(stagingName);
+
+    fs.mkdirs(stagingDir);
+    try {
+      final long recordCount;
+      final Path file = stagingDir.resolve("0_0." + new ArrowFormatPluginConfig().outputExtension);
+      try (StagedArrowFileWriter writer = new StagedArrowFileWriter(fs, file, allocator)) {
+        final VectorSchemaRoot root = flightStream.getRoot();
+        while (flightStream.next()) {
+          if (isRequestCancelled.get()) {
+            throw CallStatus.CANCELLED.withDescription("Call cancelled by client application.").toRuntimeException();
+          }
+          writer.write(root);
+        }
+        recordCount = writer.getRecordCount();
+      }
+
+      if (recordCount > 0) {
+        commit(tablePath, flightStream.getSchema().toJson(),
+          ImmutableList.of(FlightWorkManager.JOB_RESULTS_STORE_NAME, stagingName), userSession);
+      }
+      return recordCount;
+    } finally {
+      try {
+        fs.delete(stagingDir, true);
+      } catch (Exception ex) {
+        logger.warn("Unable to delete staged Flight put {}.", stagingDir, ex);
+      }
+    }
+  }
+
+  /**
+   * Insert a staged table into a table, together with the other puts of the user to the table with the same schema,
+   * and wait until it is committed.
+   */
+  @VisibleForTesting
+  void commit(List<String> tablePath, String schema, List<String> stagedTable, UserSession userSession)
+    throws InterruptedException {
+    ingestions.getUnchecked(new TableKey(userSession.getCredentials().getUserName(), tablePath, schema))
+      .commit(stagedTable, userSession);
+  }
+
+  @VisibleForTesting
+  static String toInsertSql(List<String> tablePath, List<List<String>> stagedTables) {
+    final StringBuilder sql = new StringBuilder("INSERT INTO ").append(PathUtils.constructFullPath(tablePath));
+    for (int i = 0; i < stagedTables.size(); i++) {
+      sql.append(i == 0 ? " " : " UNION ALL ")
+        .append("SELECT * FROM ")
+        .append(PathUtils.constructFullPath(stagedTables.get(i)));
+    }
+    return sql.toString();
+  }
+
+  /**
+   * The puts into a table: a put either commits the pending puts, or waits for the running insert to
+   * commit it.
+   */
+  private final class TableIngestion {
+    private final List<String> tablePath;
+    private final List<PendingPut> pending = new ArrayList<>();
+    private boolean committing;
+
+    private TableIngestion(List<String> tablePath) {
+      this.tablePath = tablePath;
+    }
+
+    void commit(List<String> stagedTable, UserSession userSession) throws InterruptedException {
+      final PendingPut put = new PendingPut(stagedTable);
+      final List<PendingPut> group;
+      synchronized (this) {
+        pending.add(put);
+        boolean interrupted = false;
+        try {
+          while (committing && !put.done) {
+            try {
+              wait();
+            } catch (InterruptedException ex) {
+              if (!put.grouped) {
+                pending.remove(put);
+                throw ex;
+              }
+              // the running insert reads the staged table of the put, which must be kept until it completes
+              interrupted = true;
+            }
+          }
+        } finally {
+          if (interrupted) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        if (put.done) {
+          put.throwIfFailed();
+          return;
+        }
+        group = new ArrayList<>(pending);
+        pending.clear();
+        for (PendingPut groupPut : group) {
+          groupPut.grouped = true;
+        }
+        committing = true;
+      }
+
+      Throwable failure = null;
+      try {
+        final List<List<String>> stagedTables = new ArrayList<>(group.size());
+        for (PendingPut groupPut : group) {
+          stagedTables.add(groupPut.stagedTable);
+        }
+        // the insert is not cancelled with the call of this put, nor on interruption, as it commits the other
+        // puts of the group
+        flightWorkManager.runInsert(toInsertSql(tablePath, stagedTables), () -> false, userSession)
+          .getUninterruptibly();
+      } catch (Throwable ex) {
+        // fail all the puts of the group, including on errors, else they would be reported as committed
+        failure = ex;
+        throw ex;
+      } finally {
+        synchronized (this) {
+          for (PendingPut groupPut : group) {
+            groupPut.done = true;
+            groupPut.failure = failure;
+          }
+          committing = false;
+          notifyAll();
+        }
+      }
+      put.throwIfFailed();
+    }
+  }
+
+  private static final class PendingPut {
+    private final List<String> stagedTable;
+    // taken into the group of a running insert
+    private boolean grouped;
+    private boolean done;
+    private Throwable failure;
+
+    private PendingPut(List<String> stagedTable) {
+      this.stagedTable = stagedTable;
+    }
+
+    private void throwIfFailed() {
+      if (failure != null) {
+        Throwables.throwIfUnchecked(failure);
+        throw CallStatus.INTERNAL.withCause(failure).withDescription(failure.getMessage()).toRuntimeException();
+      }
+    }
+  }
+
+  /**
+   * The puts of a user to a table with a schema, which can be committed together.
+   */
+  private static final class TableKey {
+    private final String user;
+    private final List<String> tablePath;
+    private final String schema;
+
+    private TableKey(String user, List<String> tablePath, String schema) {
+      this.user = user;
+      this.tablePath = ImmutableList.copyOf(tablePath);
+      this.schema = schema;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof TableKey)) {
+        return false;
+      }
+      final TableKey that = (TableKey) o;
+      return user.equals(that.user) && tablePath.equals(that.tablePath) && schema.equals(that.schema);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(user, tablePath, schema);
+    }
+  }
+}
@@ -54,17 +54,25 @@ public class FlightPreparedStatement {
     final UserProtos.CreatePreparedStatementArrowResp createPreparedStatementResp = responseHandler.get();
     final Schema schema = buildSchema(createPreparedStatementResp.getPreparedStatement().getArrowSchema());
 
-    final PreparedStatementTicket preparedStatementTicketContent = PreparedStatementTicket.newBuilder()
-      .setQuery(query)
-      .setHandle(createPreparedStatementResp.getPreparedStatement().getServerHandle())
-      .build();
-
-    final Ticket ticket = new Ticket(preparedStatementTicketContent.toByteArray());
+    final Ticket ticket = new Ticket(getTicket().toByteArray());
 
     final FlightEndpoint flightEndpoint = new FlightEndpoint(ticket, location);
     return new FlightInfo(schema, flightDescriptor, ImmutableList.of(flightEndpoint), -1, -1);
   }
 
+  /**
+   * Returns the ticket content which identifies the PreparedStatement.
+   *
+   * @return The PreparedStatementTicket.
+   */
+  public PreparedStatementTicket getTicket() {
+    final UserProtos.CreatePreparedStatementArrowResp createPreparedStatementResp = responseHandler.get();
+    return PreparedStatementTicket.newBuilder()
+      .setQuery(query)
+      .setHandle(createPreparedStatementResp.getPreparedStatement().getServerHandle())
+      .build();
+  }
+
   /**
    * Returns the schema.
    *
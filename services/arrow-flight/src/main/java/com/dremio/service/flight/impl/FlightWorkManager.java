@@ -26,6 +26,8 @@ import org.apache.arrow.flight.FlightProducer;
 import org.apache.arrow.memory.BufferAllocator;
 
 import com.dremio.common.utils.protos.ExternalIdHelper;
+import com.dremio.exec.planner.physical.PlannerSettings;
+import com.dremio.exec.planner.physical.PlannerSettings.StoreQueryResultsPolicy;
 import com.dremio.exec.proto.UserBitShared;
 import com.dremio.exec.proto.UserProtos;
 import com.dremio.exec.work.foreman.TerminationListenerRegistry;
@@ -33,6 +35,7 @@ import com.dremio.exec.work.protector.UserRequest;
 import com.dremio.exec.work.protector.UserResponseHandler;
 import com.dremio.exec.work.protector.UserWorker;
 import com.dremio.options.OptionManager;
+import com.dremio.options.OptionValue;
 import com.dremio.sabot.rpc.user.UserSession;
 import com.dremio.service.flight.DremioFlightServiceOptions;
 import com.dremio.service.flight.TicketContent;
@@ -46,6 +49,9 @@ import com.google.common.annotations.VisibleForTesting;
  */
 public class FlightWorkManager {
 
+  // The job results store, whose content is cleaned up with the jobs.
+  public static final String JOB_RESULTS_STORE_NAME = "__jobResultsStore";
+
   private final Provider<UserWorker> workerProvider;
   private final Provider<OptionManager> optionManagerProvider;
   private final RunQueryResponseHandlerFactory runQueryResponseHandlerFactory;
@@ -109,6 +115,69 @@ public class FlightWorkManager {
     workerProvider.get().submitWork(runExternalId, userSession, responseHandler, userRequest, TerminationListenerRegistry.NOOP);
   }
 
+  /**
+   * Submits a RUN_QUERY job which stores its results in the job results store, and returns the handler which
+   * collects the result files written by the executors.
+   *
+   * @param ticket             The ticket holding the query to execute.
+   * @param isRequestCancelled A supplier to evaluate if the client cancelled the request.
+   * @param allocator          The allocator used to read the list of result files.
+   * @param userSession        The session for the user which made the request.
+   * @return A ResultFilesResponseHandler which consumes the result of the job.
+   */
+  public ResultFilesResponseHandler runQueryToResultFiles(TicketContent.PreparedStatementTicket ticket,
+                                                          Supplier<Boolean> isRequestCancelled,
+                                                          BufferAllocator allocator, UserSession userSession) {
+    final UserBitShared.ExternalId runExternalId = ExternalIdHelper.generateExternalId();
+    // The prepared statement handle is not used, as its cached plan does not store the query results.
+    final UserRequest userRequest = newSqlRequest(ticket.getQuery());
+
+    final ResultFilesResponseHandler responseHandler =
+      new ResultFilesResponseHandler(runExternalId, userSession, workerProvider, isRequestCancelled, allocator);
+
+    workerProvider.get().submitWork(runExternalId, userSession, responseHandler, userRequest,
+      TerminationListenerRegistry.NOOP, FlightWorkManager::storeQueryResults);
+    return responseHandler;
+  }
+
+  /**
+   * Submits a RUN_QUERY job for the given INSERT INTO statement, and returns the handler which waits for the
+   * completion of the job.
+   *
+   * @param sql                The INSERT INTO statement.
+   * @param isRequestCancelled A supplier to evaluate if the client cancelled the request.
+   * @param userSession        The session for the user which made the request.
+   * @return An InsertResponseHandler which consumes the result of the job.
+   */
+  public InsertResponseHandler runInsert(String sql, Supplier<Boolean> isRequestCancelled, UserSession userSession) {
+    final UserBitShared.ExternalId runExternalId = ExternalIdHelper.generateExternalId();
+    final InsertResponseHandler responseHandler =
+      new InsertResponseHandler(runExternalId, userSession, workerProvider, isRequestCancelled);
+
+    workerProvider.get().submitWork(runExternalId, userSession, responseHandler, newSqlRequest(sql),
+      TerminationListenerRegistry.NOOP);
+    return responseHandler;
+  }
+
+  private static UserRequest newSqlRequest(String sql) {
+    return new UserRequest(UserProtos.RpcType.RUN_QUERY,
+      UserProtos.RunQuery.newBuilder()
+        .setType(UserBitShared.QueryType.SQL)
+        .setPriority(UserProtos.QueryPriority.newBuilder()
+          .setWorkloadType(UserBitShared.WorkloadType.FLIGHT)
+          .setWorkloadClass(UserBitShared.WorkloadClass.GENERAL))
+        .setSource(UserProtos.SubmissionSource.FLIGHT)
+        .setPlan(sql)
+        .build());
+  }
+
+  private static void storeQueryResults(OptionManager optionManager) {
+    optionManager.setOption(OptionValue.createString(OptionValue.OptionType.QUERY,
+      PlannerSettings.STORE_QUERY_RESULTS.getOptionName(), StoreQueryResultsPolicy.PATH_AND_ATTEMPT_ID.name()));
+    optionManager.setOption(OptionValue.createString(OptionValue.OptionType.QUERY,
+      PlannerSettings.QUERY_RESULTS_STORE_TABLE.getOptionName(), JOB_RESULTS_STORE_NAME));
+  }
+
   @VisibleForTesting
   static String getQuery(FlightDescriptor descriptor) {
     if (!descriptor.isCommand()) {
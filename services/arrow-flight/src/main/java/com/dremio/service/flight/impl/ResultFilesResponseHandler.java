@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.flight.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javax.inject.Provider;
+
+import org.apache.arrow.flight.CallStatus;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+
+import com.dremio.common.utils.protos.QueryWritableBatch;
+import com.dremio.exec.proto.GeneralRPCProtos;
+import com.dremio.exec.proto.UserBitShared;
+import com.dremio.exec.record.RecordBatchLoader;
+import com.dremio.exec.record.VectorWrapper;
+import com.dremio.exec.rpc.RpcOutcomeListener;
+import com.dremio.exec.work.protector.UserResult;
+import com.dremio.exec.work.protector.UserWorker;
+import com.dremio.exec.work.user.LocalUserUtil;
+import com.dremio.sabot.rpc.user.QueryDataBatch;
+import com.dremio.sabot.rpc.user.UserSession;
+import com.dremio.service.flight.TicketContent.ResultFile;
+import com.dremio.service.flight.error.mapping.DremioFlightErrorMapper;
+import com.dremio.service.flight.protector.CancellableUserResponseHandler;
+import com.google.protobuf.ByteString;
+
+/**
+ * The UserResponseHandler that consumes the output of a query whose results are stored in the job results store,
+ * that is the list of the result files written by the executors.
+ */
+public class ResultFilesResponseHandler extends CancellableUserResponseHandler<List<ResultFile>> {
+
+  static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ResultFilesResponseHandler.class);
+
+  // indices of the Path and Metadata columns of RecordWriter.SCHEMA
+  private static final int PATH_COLUMN_INDEX = 2;
+  private static final int METADATA_COLUMN_INDEX = 3;
+
+  private final BufferAllocator allocator;
+  private final List<ResultFile> resultFiles = Collections.synchronizedList(new ArrayList<>());
+
+  public ResultFilesResponseHandler(UserBitShared.ExternalId runExternalId,
+                                    UserSession userSession,
+                                    Provider<UserWorker> workerProvider,
+                                    Supplier<Boolean> isRequestCancelled,
+                                    BufferAllocator allocator) {
+    super(runExternalId, userSession, workerProvider, isRequestCancelled);
+    this.allocator = allocator;
+  }
+
+  @Override
+  public void sendData(RpcOutcomeListener<GeneralRPCProtos.Ack> outcomeListener, QueryWritableBatch result) {
+    try (QueryDataBatch dataBatch = LocalUserUtil.acquireData(allocator, outcomeListener, result);
+         RecordBatchLoader loader = new RecordBatchLoader(allocator)) {
+      loader.load(dataBatch.getHeader().getDef(), dataBatch.getData());
+
+      final List<ValueVector> vectors = new ArrayList<>();
+      for (VectorWrapper<?> wrapper : loader) {
+        vectors.add(wrapper.getValueVector());
+      }
+      if (vectors.size() <= METADATA_COLUMN_INDEX
+        || !(vectors.get(PATH_COLUMN_INDEX) instanceof VarCharVector)
+        || !(vectors.get(METADATA_COLUMN_INDEX) instanceof VarBinaryVector)) {
+        throw new IllegalStateException("Query output does not list result files.");
+      }
+
+      final VarCharVector pathVector = (VarCharVector) vectors.get(PATH_COLUMN_INDEX);
+      final VarBinaryVector metadataVector = (VarBinaryVector) vectors.get(METADATA_COLUMN_INDEX);
+      for (int i = 0; i < loader.getRecordCount(); i++) {
+        resultFiles.add(ResultFile.newBuilder()
+          .setPath(pathVector.getObject(i).toString())
+          .setMetadata(ByteString.copyFrom(metadataVector.getObject(i)))
+          .build());
+      }
+    } catch (Exception ex) {
+      cancelJob();
+      getCompletableFuture().completeExceptionally(
+        CallStatus.INTERNAL
+          .withCause(ex)
+          .withDescription("Internal Error: Unable to read the query result files.")
+          .toRuntimeException());
+    }
+  }
+
+  @Override
+  public void completed(UserResult result) {
+    switch (result.getState()) {
+      case COMPLETED:
+        getCompletableFuture().complete(new ArrayList<>(resultFiles));
+        break;
+      case FAILED:
+        getCompletableFuture().completeExceptionally(
+          DremioFlightErrorMapper.toFlightRuntimeException(result.getException()));
+        break;
+      case CANCELED:
+        final Exception canceledException = result.getException();
+        getCompletableFuture().completeExceptionally(
+          CallStatus.CANCELLED
+            .withCause(canceledException)
+            .withDescription(canceledException.getMessage())
+            .toRuntimeException());
+        break;
+
+      case STARTING:
+      case RUNNING:
+      case NO_LONGER_USED_1:
+      case ENQUEUED:
+      default:
+        getCompletableFuture().completeExceptionally(
+          CallStatus.INTERNAL
+            .withCause(new IllegalStateException())
+            .withDescription("Internal Error: Invalid query state.")
+            .toRuntimeException());
+        break;
+    }
+  }
+}
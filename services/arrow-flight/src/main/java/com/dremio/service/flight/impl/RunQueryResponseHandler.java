@@ -15,6 +15,7 @@
  */
 package com.dremio.service.flight.impl;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
@@ -113,24 +114,19 @@ public abstract class RunQueryResponseHandler implements UserResponseHandler {
 
     final ByteBuf[] buffers = result.getBuffers();
 
-    /**
-     * RecordBatchLoader cannot reassemble ValueVectors for types which propagate more than one NettyArrowBuffer
-     * (such as DataBuffers [1] and OffsetBuffers [2]) in calls to UserResponseHandler#sendData.
-     * Because of this limitation, when {@link com.dremio.service.flight.impl.RunQueryResponseHandler#sendData}
-     * receives more than 1 buffer instance, it must consolidate all buffers into a single buffer before
-     * calling RecordBatchReader before returning data to the user.
-     *
-     * TODO: https://dremio.atlassian.net/browse/DX-25624
-     * This task is to improve RecordBatchLoader or find some other way to handle more than one buffer
-     * instance being provided for any given ValueVector, and then update this.
-     *
-     * [1] https://github.com/apache/arrow/blob/7b2d68570b4336308c52081a0349675e488caf11/java/vector/src/main/java/org/apache/arrow/vector/ValueVector.java#L197
-     * [2] https://github.com/apache/arrow/blob/7b2d68570b4336308c52081a0349675e488caf11/java/vector/src/main/java/org/apache/arrow/vector/ValueVector.java#L204
-     */
     if (null == buffers || buffers.length == 0) {
       loadEmptyBuffer(def, result.getByteCount());
     } else if (buffers.length > 1) {
-      loadFromCopyOfEntireResult(result, def);
+      /**
+       * The buffers of the batch are the separate buffers of its vectors. When they are all NettyArrowBufs,
+       * the vectors are loaded from the underlying Arrow buffers without copying them. Other implementations
+       * require copying the data into a single Arrow buffer first.
+       */
+      if (Arrays.stream(buffers).allMatch(b -> b instanceof NettyArrowBuf)) {
+        loadDirectlyFromNettyArrowBufs(def, buffers);
+      } else {
+        loadFromCopyOfEntireResult(result, def);
+      }
     } else {
       final ByteBuf byteBuf = buffers[0];
       /**
@@ -188,6 +184,21 @@ public abstract class RunQueryResponseHandler implements UserResponseHandler {
     }
   }
 
+  @VisibleForTesting
+  void loadDirectlyFromNettyArrowBufs(RecordBatchDef def, ByteBuf[] byteBufs) {
+    try {
+      final ArrowBuf[] arrowBufs = new ArrowBuf[byteBufs.length];
+      for (int i = 0; i < byteBufs.length; i++) {
+        arrowBufs[i] = ((NettyArrowBuf) byteBufs[i]).arrowBuf();
+      }
+      recordBatchLoader.load(def, arrowBufs);
+    } finally {
+      for (ByteBuf byteBuf : byteBufs) {
+        byteBuf.release();
+      }
+    }
+  }
+
   /**
    * Calls clientListener.putNext() when the client is ready, and handles error cases from these
    * interactions.
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.flight.impl;
+
+import static com.dremio.exec.store.easy.arrow.ArrowFormatPlugin.MAGIC_STRING;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+
+import com.dremio.exec.cache.VectorAccessibleSerializable;
+import com.dremio.exec.expr.TypeHelper;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.exec.record.VectorWrapper;
+import com.dremio.exec.record.WritableBatch;
+import com.dremio.exec.store.easy.arrow.ArrowFileFormat.ArrowFileFooter;
+import com.dremio.exec.store.easy.arrow.ArrowFileFormat.ArrowRecordBatchSummary;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+
+/**
+ * Writes the record batches received from a Flight client into a file of Dremio's Arrow format, so that they
+ * can be queried. See ArrowRecordWriter for the file layout.
+ */
+class StagedArrowFileWriter implements AutoCloseable {
+  private final VectorContainer container;
+  private final BufferAllocator allocator;
+  private final ArrowFileFooter.Builder footerBuilder = ArrowFileFooter.newBuilder();
+  private final DataOutputStream outputStream;
+
+  private long recordCount;
+  private boolean closed;
+
+  StagedArrowFileWriter(FileSystem fs, Path file, BufferAllocator allocator) throws IOException {
+    this.allocator = allocator;
+    this.container = new VectorContainer(allocator);
+    this.outputStream = new DataOutputStream(fs.create(file));
+    outputStream.write(MAGIC_STRING.getBytes());
+  }
+
+  /**
+   * Write the current batch of the given root. The vectors of the root are transferred, and are empty afterwards.
+   */
+  void write(VectorSchemaRoot root) throws IOException {
+    VectorContainer.transferFromRoot(root, container, allocator);
+    try {
+      if (footerBuilder.getFieldCount() == 0) {
+        for (VectorWrapper<? extends ValueVector> vw : container) {
+          footerBuilder.addField(TypeHelper.getMetadata(vw.getValueVector()));
+        }
+      }
+
+      final int batchRecordCount = container.getRecordCount();
+      final long startOffset = outputStream.size();
+      final WritableBatch writableBatch = WritableBatch.getBatchNoHVWrap(batchRecordCount, container, false /* isSv2 */);
+      new VectorAccessibleSerializable(writableBatch, null /*allocator*/).writeToStream(outputStream);
+
+      footerBuilder.addBatch(ArrowRecordBatchSummary.newBuilder()
+        .setOffset(startOffset)
+        .setRecordCount(batchRecordCount));
+      recordCount += batchRecordCount;
+    } finally {
+      container.clear();
+    }
+  }
+
+  long getRecordCount() {
+    return recordCount;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      final long footerStartOffset = outputStream.size();
+      footerBuilder.build().writeDelimitedTo(outputStream);
+      outputStream.writeLong(footerStartOffset);
+      outputStream.write(MAGIC_STRING.getBytes());
+    } finally {
+      outputStream.close();
+      container.close();
+    }
+  }
+}
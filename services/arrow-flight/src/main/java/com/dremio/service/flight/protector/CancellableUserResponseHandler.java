@@ -57,6 +57,39 @@ public abstract class CancellableUserResponseHandler<T> implements UserResponseH
   }
 
   public T get() {
+    try {
+      return await();
+    } catch (InterruptedException e) {
+      handleClientCancel(e);
+      throw CallStatus.INTERNAL
+        .withCause(UserException.parseError(e).buildSilently())
+        .withDescription(e.getLocalizedMessage())
+        .toRuntimeException();
+    }
+  }
+
+  /**
+   * Like {@link #get()}, but keeps waiting for the response when the thread is interrupted. The interruption is
+   * restored once the response is received.
+   */
+  public T getUninterruptibly() {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          return await();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private T await() throws InterruptedException {
     while (true) {
       try {
         return future.get(100, TimeUnit.MILLISECONDS);
@@ -73,12 +106,6 @@ public abstract class CancellableUserResponseHandler<T> implements UserResponseH
             .withDescription(cause.getLocalizedMessage())
             .toRuntimeException();
         }
-      } catch (InterruptedException e) {
-        handleClientCancel(e);
-        throw CallStatus.INTERNAL
-          .withCause(UserException.parseError(e).buildSilently())
-          .withDescription(e.getLocalizedMessage())
-          .toRuntimeException();
       } catch (TimeoutException e) {
         handleClientCancel(e);
         // Fallthrough to continue.
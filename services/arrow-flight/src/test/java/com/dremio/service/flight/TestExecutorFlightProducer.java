@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.flight;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.arrow.flight.FlightEndpoint;
+import org.apache.arrow.flight.FlightProducer;
+import org.apache.arrow.flight.FlightRuntimeException;
+import org.apache.arrow.flight.FlightStatusCode;
+import org.apache.arrow.flight.Location;
+import org.apache.arrow.flight.Ticket;
+import org.apache.arrow.memory.BufferAllocator;
+import org.junit.Test;
+
+import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
+import com.dremio.exec.store.dfs.FileSystemPlugin;
+import com.dremio.exec.store.easy.arrow.ArrowFileFormat.ArrowFileMetadata;
+import com.dremio.io.file.Path;
+import com.dremio.service.flight.TicketContent.ExecutorToken;
+import com.dremio.service.flight.TicketContent.ResultFile;
+import com.dremio.service.flight.TicketContent.ResultFilesTicket;
+import com.dremio.service.flight.TicketContent.SignedMessage;
+import com.dremio.service.flight.auth.ExecutorFlightAuthHandler;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+/**
+ * Tests for the retrieval of query results from the executors.
+ */
+public class TestExecutorFlightProducer {
+
+  private final Path root = Path.of("/results");
+  private final MutableClock clock = new MutableClock();
+  private final ExecutorTicketSigner signer = new ExecutorTicketSigner("secret", clock);
+
+  @Test
+  public void testEndpointPerExecutor() throws Exception {
+    final List<ResultFile> resultFiles = ImmutableList.of(
+      resultFile("/results/attempt/0_0_0.dremarrow1", "executor1"),
+      resultFile("/results/attempt/1_0_0.dremarrow1", "executor2"),
+      resultFile("/results/attempt/1_1_0.dremarrow1", "executor1"));
+
+    final List<FlightEndpoint> endpoints = DremioFlightProducer.toEndpoints(resultFiles,
+      address -> Location.forGrpcInsecure(address, 32011), signer, "user");
+
+    assertEquals(2, endpoints.size());
+    assertEquals(Location.forGrpcInsecure("executor1", 32011), endpoints.get(0).getLocations().get(0));
+    assertEquals(ImmutableList.of(resultFiles.get(0), resultFiles.get(2)),
+      signer.verifyTicket(endpoints.get(0).getTicket().getBytes(), "user").getFileList());
+    assertEquals(Location.forGrpcInsecure("executor2", 32011), endpoints.get(1).getLocations().get(0));
+    assertEquals(ImmutableList.of(resultFiles.get(1)),
+      signer.verifyTicket(endpoints.get(1).getTicket().getBytes(), "user").getFileList());
+  }
+
+  @Test
+  public void testForgedTicketIsRejected() {
+    final ResultFilesTicket ticket = ResultFilesTicket.newBuilder()
+      .addFile(resultFile("/results/attempt/0_0_0.dremarrow1", "executor1"))
+      .setUser("user")
+      .setExpirationMillis(Long.MAX_VALUE)
+      .build();
+    // unsigned ticket
+    assertStreamRejected(ticket.toByteArray(), "user", FlightStatusCode.UNAUTHENTICATED);
+    // ticket signed with another secret
+    assertStreamRejected(new ExecutorTicketSigner("other", clock).signTicket(ticket, "user"), "user",
+      FlightStatusCode.UNAUTHENTICATED);
+    // tampered ticket
+    final SignedMessage signed = parseSigned(signer.signTicket(ticket, "user"));
+    final byte[] tampered = signed.toBuilder()
+      .setMessage(ResultFilesTicket.newBuilder(ticket)
+        .setFile(0, ResultFile.newBuilder(ticket.getFile(0)).setPath("/results/other/0_0_0.dremarrow1"))
+        .build()
+        .toByteString())
+      .build()
+      .toByteArray();
+    assertStreamRejected(tampered, "user", FlightStatusCode.UNAUTHENTICATED);
+  }
+
+  @Test
+  public void testTicketOfAnotherUserIsRejected() {
+    final byte[] ticket = signer.signTicket(ResultFilesTicket.newBuilder()
+      .addFile(resultFile("/results/attempt/0_0_0.dremarrow1", "executor1"))
+      .build(), "user");
+    assertStreamRejected(ticket, "other", FlightStatusCode.UNAUTHORIZED);
+  }
+
+  @Test
+  public void testExpiredTicketIsRejected() {
+    final byte[] ticket = signer.signTicket(ResultFilesTicket.newBuilder()
+      .addFile(resultFile("/results/attempt/0_0_0.dremarrow1", "executor1"))
+      .build(), "user");
+    clock.advance(TimeUnit.DAYS.toMillis(1));
+    assertStreamRejected(ticket, "user", FlightStatusCode.UNAUTHENTICATED);
+  }
+
+  @Test
+  public void testExecutorToken() {
+    final ExecutorFlightAuthHandler authHandler = new ExecutorFlightAuthHandler(signer);
+    final byte[] token = signer.signToken("user");
+    assertEquals(Optional.of("user"), authHandler.isValid(token));
+    assertEquals(Optional.empty(), authHandler.isValid(new ExecutorTicketSigner("other", clock).signToken("user")));
+    assertEquals(Optional.empty(), authHandler.isValid(ExecutorToken.newBuilder()
+      .setUser("user")
+      .setExpirationMillis(Long.MAX_VALUE)
+      .build()
+      .toByteArray()));
+    assertEquals(Optional.empty(), authHandler.isValid(null));
+
+    clock.advance(TimeUnit.DAYS.toMillis(1));
+    assertEquals(Optional.empty(), authHandler.isValid(token));
+  }
+
+  private void assertStreamRejected(byte[] ticket, String user, FlightStatusCode code) {
+    @SuppressWarnings("unchecked")
+    final Supplier<FileSystemPlugin<?>> resultsPlugin = mock(Supplier.class);
+    final ExecutorFlightProducer producer = new ExecutorFlightProducer(resultsPlugin, mock(BufferAllocator.class),
+      signer);
+    final FlightProducer.CallContext callContext = mock(FlightProducer.CallContext.class);
+    when(callContext.peerIdentity()).thenReturn(user);
+    final FlightProducer.ServerStreamListener listener = mock(FlightProducer.ServerStreamListener.class);
+
+    try {
+      producer.getStream(callContext, new Ticket(ticket), listener);
+      fail("The ticket should be rejected");
+    } catch (FlightRuntimeException ex) {
+      assertEquals(code, ex.status().code());
+    }
+    verify(listener).error(any(FlightRuntimeException.class));
+    verify(listener, never()).start(any());
+    // no file is read
+    verifyZeroInteractions(resultsPlugin);
+  }
+
+  private static SignedMessage parseSigned(byte[] bytes) {
+    try {
+      return SignedMessage.parseFrom(bytes);
+    } catch (InvalidProtocolBufferException ex) {
+      throw new AssertionError(ex);
+    }
+  }
+
+  @Test
+  public void testResultFilePath() throws Exception {
+    assertEquals(Path.of("/results/attempt/0_0_0.dremarrow1"),
+      ExecutorFlightProducer.checkPath(root, "pdfs:///results/attempt/0_0_0.dremarrow1"));
+    assertEquals(Path.of("/results/attempt/0_0_0.dremarrow1"),
+      ExecutorFlightProducer.checkPath(root, "/results/attempt/0_0_0.dremarrow1"));
+  }
+
+  @Test(expected = IOException.class)
+  public void testFileOutsideOfResultsStore() throws Exception {
+    ExecutorFlightProducer.checkPath(root, "/etc/passwd");
+  }
+
+  @Test(expected = IOException.class)
+  public void testRelativePathOutsideOfResultsStore() throws Exception {
+    ExecutorFlightProducer.checkPath(root, "/results/../etc/passwd");
+  }
+
+  @Test(expected = IOException.class)
+  public void testSiblingOfResultsStore() throws Exception {
+    ExecutorFlightProducer.checkPath(root, "/results2/attempt/0_0_0.dremarrow1");
+  }
+
+  /**
+   * Clock which only moves forward when told to.
+   */
+  private static final class MutableClock extends Clock {
+    private long millis = 1_000_000L;
+
+    private void advance(long delta) {
+      millis += delta;
+    }
+
+    @Override
+    public long millis() {
+      return millis;
+    }
+
+    @Override
+    public Instant instant() {
+      return Instant.ofEpochMilli(millis);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  private static ResultFile resultFile(String path, String address) {
+    final ArrowFileMetadata metadata = ArrowFileMetadata.newBuilder()
+      .setPath(Path.of(path).getName())
+      .setRecordCount(10)
+      .setScreenNodeEndpoint(NodeEndpoint.newBuilder().setAddress(address))
+      .build();
+    return ResultFile.newBuilder()
+      .setPath(path)
+      .setMetadata(metadata.toByteString())
+      .build();
+  }
+}
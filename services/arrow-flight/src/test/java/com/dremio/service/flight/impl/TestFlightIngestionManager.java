@@ -0,0 +1,368 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.flight.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.arrow.flight.CallStatus;
+import org.apache.arrow.flight.FlightRuntimeException;
+import org.apache.arrow.flight.FlightStatusCode;
+import org.apache.arrow.flight.FlightStream;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.hadoop.conf.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.dremio.exec.hadoop.HadoopFileSystem;
+import com.dremio.exec.proto.UserBitShared;
+import com.dremio.exec.store.dfs.FileSystemConf;
+import com.dremio.exec.store.dfs.FileSystemPlugin;
+import com.dremio.io.file.Path;
+import com.dremio.sabot.rpc.user.UserSession;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for FlightIngestionManager.
+ */
+public class TestFlightIngestionManager {
+  private static final List<String> TABLE = ImmutableList.of("dfs", "t");
+  private static final String SCHEMA = "schema";
+  private static final UserSession USER_SESSION = UserSession.Builder.newBuilder()
+    .withCredentials(UserBitShared.UserCredentials.newBuilder().setUserName("user").build())
+    .build();
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private final List<String> inserts = Collections.synchronizedList(new ArrayList<>());
+  private final List<VectorSchemaRoot> roots = new ArrayList<>();
+  private final Map<String, Thread> putThreads = new ConcurrentHashMap<>();
+  private final FlightWorkManager flightWorkManager = mock(FlightWorkManager.class);
+  private BufferAllocator allocator;
+  private FlightIngestionManager ingestionManager;
+
+  @Before
+  public void setup() throws Exception {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    final FileSystemConf<?, ?> conf = mock(FileSystemConf.class);
+    when(conf.getPath()).thenReturn(Path.of(folder.getRoot().getAbsolutePath()));
+    final FileSystemPlugin<?> plugin = mock(FileSystemPlugin.class);
+    doReturn(conf).when(plugin).getConfig();
+    when(plugin.getSystemUserFS()).thenReturn(HadoopFileSystem.getLocal(new Configuration()));
+    ingestionManager = new FlightIngestionManager(flightWorkManager, () -> plugin, allocator);
+  }
+
+  @After
+  public void tearDown() {
+    roots.forEach(VectorSchemaRoot::close);
+    allocator.close();
+  }
+
+  @Test
+  public void testInsertSingleStagedTable() {
+    assertEquals("INSERT INTO dfs.\"my table\" SELECT * FROM \"__jobResultsStore\".flight_put_1",
+      FlightIngestionManager.toInsertSql(ImmutableList.of("dfs", "my table"),
+        ImmutableList.of(ImmutableList.of("__jobResultsStore", "flight_put_1"))));
+  }
+
+  @Test
+  public void testInsertGroupOfStagedTables() {
+    assertEquals("INSERT INTO dfs.t SELECT * FROM \"__jobResultsStore\".flight_put_1"
+        + " UNION ALL SELECT * FROM \"__jobResultsStore\".flight_put_2",
+      FlightIngestionManager.toInsertSql(ImmutableList.of("dfs", "t"),
+        ImmutableList.of(
+          ImmutableList.of("__jobResultsStore", "flight_put_1"),
+          ImmutableList.of("__jobResultsStore", "flight_put_2"))));
+  }
+
+  @Test
+  public void testPutsWaitingForAnInsertAreCommittedTogether() throws Exception {
+    final CountDownLatch firstInsertStarted = new CountDownLatch(1);
+    final CountDownLatch releaseFirstInsert = new CountDownLatch(1);
+    mockInserts(sql -> {
+      if (inserts.size() == 1) {
+        firstInsertStarted.countDown();
+        await(releaseFirstInsert);
+      }
+      return null;
+    });
+
+    final FutureTask<Void> put1 = startPut("flight_put_1");
+    assertTrue(firstInsertStarted.await(10, TimeUnit.SECONDS));
+    final FutureTask<Void> put2 = startPut("flight_put_2");
+    final FutureTask<Void> put3 = startPut("flight_put_3");
+    awaitPending(2);
+
+    releaseFirstInsert.countDown();
+    put1.get(10, TimeUnit.SECONDS);
+    put2.get(10, TimeUnit.SECONDS);
+    put3.get(10, TimeUnit.SECONDS);
+
+    assertEquals(2, inserts.size());
+    assertEquals(toInsertSql("flight_put_1"), inserts.get(0));
+    // the puts waiting for the first insert are committed by a single insert, in any order
+    assertTrue(inserts.get(1), inserts.get(1).equals(toInsertSql("flight_put_2", "flight_put_3"))
+      || inserts.get(1).equals(toInsertSql("flight_put_3", "flight_put_2")));
+  }
+
+  @Test
+  public void testFailedInsertFailsAllPutsOfTheGroup() throws Exception {
+    final CountDownLatch firstInsertStarted = new CountDownLatch(1);
+    final CountDownLatch releaseFirstInsert = new CountDownLatch(1);
+    final Error failure = new OutOfMemoryError("insert failure");
+    mockInserts(sql -> {
+      if (inserts.size() == 1) {
+        firstInsertStarted.countDown();
+        await(releaseFirstInsert);
+        return null;
+      }
+      throw failure;
+    });
+
+    final FutureTask<Void> put1 = startPut("flight_put_1");
+    assertTrue(firstInsertStarted.await(10, TimeUnit.SECONDS));
+    final FutureTask<Void> put2 = startPut("flight_put_2");
+    final FutureTask<Void> put3 = startPut("flight_put_3");
+    awaitPending(2);
+
+    releaseFirstInsert.countDown();
+    put1.get(10, TimeUnit.SECONDS);
+    // the put which ran the insert and the put committed by it both fail
+    assertSame(failure, getFailure(put2));
+    assertSame(failure, getFailure(put3));
+    assertEquals(2, inserts.size());
+
+    // the next put is committed on its own
+    mockInserts(sql -> null);
+    ingestionManager.commit(TABLE, SCHEMA, ImmutableList.of("__jobResultsStore", "flight_put_4"), USER_SESSION);
+    assertEquals(toInsertSql("flight_put_4"), inserts.get(2));
+  }
+
+  @Test
+  public void testGroupedPutIsNotInterrupted() throws Exception {
+    final CountDownLatch firstInsertStarted = new CountDownLatch(1);
+    final CountDownLatch releaseFirstInsert = new CountDownLatch(1);
+    final CountDownLatch secondInsertStarted = new CountDownLatch(1);
+    final CountDownLatch releaseSecondInsert = new CountDownLatch(1);
+    final List<String> committers = Collections.synchronizedList(new ArrayList<>());
+    mockInserts(sql -> {
+      committers.add(Thread.currentThread().getName());
+      if (inserts.size() == 1) {
+        firstInsertStarted.countDown();
+        await(releaseFirstInsert);
+      } else {
+        secondInsertStarted.countDown();
+        await(releaseSecondInsert);
+      }
+      return null;
+    });
+
+    final FutureTask<Void> put1 = startPut("flight_put_1");
+    assertTrue(firstInsertStarted.await(10, TimeUnit.SECONDS));
+    final FutureTask<Boolean> put2 = startInterruptiblePut("flight_put_2");
+    final FutureTask<Boolean> put3 = startInterruptiblePut("flight_put_3");
+    awaitPending(2);
+    releaseFirstInsert.countDown();
+    put1.get(10, TimeUnit.SECONDS);
+
+    // the put committed by the insert of the other one is interrupted while the insert runs
+    assertTrue(secondInsertStarted.await(10, TimeUnit.SECONDS));
+    final String waiter = committers.get(1).equals("flight_put_2") ? "flight_put_3" : "flight_put_2";
+    awaitPending(1);
+    putThreads.get(waiter).interrupt();
+    Thread.sleep(100);
+    final FutureTask<Boolean> waiterPut = waiter.equals("flight_put_2") ? put2 : put3;
+    assertFalse(waiterPut.isDone());
+
+    releaseSecondInsert.countDown();
+    // committed, with the interruption restored
+    assertTrue(waiterPut.get(10, TimeUnit.SECONDS));
+    assertFalse((waiter.equals("flight_put_2") ? put3 : put2).get(10, TimeUnit.SECONDS));
+    assertEquals(2, inserts.size());
+  }
+
+  @Test
+  public void testStagedFilesAreDeleted() throws Exception {
+    final List<Boolean> stagedFilesExist = new ArrayList<>();
+    mockInserts(sql -> {
+      stagedFilesExist.add(folder.getRoot().listFiles().length == 1);
+      return null;
+    });
+
+    assertEquals(1, ingestionManager.ingest(TABLE, newFlightStream(), () -> false, USER_SESSION));
+    assertEquals(ImmutableList.of(true), stagedFilesExist);
+    assertStagingEmpty();
+  }
+
+  @Test
+  public void testStagedFilesAreDeletedOnFailure() throws Exception {
+    mockInserts(sql -> {
+      throw CallStatus.INTERNAL.withDescription("insert failure").toRuntimeException();
+    });
+
+    try {
+      ingestionManager.ingest(TABLE, newFlightStream(), () -> false, USER_SESSION);
+      fail("The put should fail");
+    } catch (FlightRuntimeException ex) {
+      assertEquals("insert failure", ex.getMessage());
+    }
+    assertStagingEmpty();
+
+    // cancelled while staging
+    try {
+      ingestionManager.ingest(TABLE, newFlightStream(), () -> true, USER_SESSION);
+      fail("The put should be cancelled");
+    } catch (FlightRuntimeException ex) {
+      assertEquals(FlightStatusCode.CANCELLED, ex.status().code());
+    }
+    assertEquals(1, inserts.size());
+    assertStagingEmpty();
+  }
+
+  /**
+   * Mock the inserts, which return the result of the given function, or throw its exception.
+   */
+  private void mockInserts(Function<String, Void> insert) {
+    doAnswer(invocation -> {
+      final String sql = invocation.getArgumentAt(0, String.class);
+      inserts.add(sql);
+      final InsertResponseHandler handler = mock(InsertResponseHandler.class);
+      when(handler.getUninterruptibly()).thenAnswer(get -> insert.apply(sql));
+      return handler;
+    }).when(flightWorkManager).runInsert(anyString(), any(), any());
+  }
+
+  private FutureTask<Void> startPut(String stagedTable) {
+    return startPut(stagedTable, new FutureTask<>(() -> {
+      ingestionManager.commit(TABLE, SCHEMA, ImmutableList.of("__jobResultsStore", stagedTable), USER_SESSION);
+      return null;
+    }));
+  }
+
+  private <T> FutureTask<T> startPut(String stagedTable, FutureTask<T> put) {
+    final Thread thread = new Thread(put, stagedTable);
+    putThreads.put(stagedTable, thread);
+    thread.setDaemon(true);
+    thread.start();
+    return put;
+  }
+
+  /**
+   * Start a put, whose result is whether its thread is interrupted once committed.
+   */
+  private FutureTask<Boolean> startInterruptiblePut(String stagedTable) {
+    return startPut(stagedTable, new FutureTask<>(() -> {
+      ingestionManager.commit(TABLE, SCHEMA, ImmutableList.of("__jobResultsStore", stagedTable), USER_SESSION);
+      return Thread.currentThread().isInterrupted();
+    }));
+  }
+
+  /**
+   * Wait until the given number of put threads wait for the running insert.
+   */
+  private static void awaitPending(int count) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+    while (true) {
+      int waiting = 0;
+      for (Thread thread : Thread.getAllStackTraces().keySet()) {
+        if (thread.getName().startsWith("flight_put_") && thread.getState() == Thread.State.WAITING) {
+          waiting++;
+        }
+      }
+      if (waiting >= count) {
+        return;
+      }
+      assertTrue("The puts are not waiting", System.currentTimeMillis() < deadline);
+      Thread.sleep(10);
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new AssertionError(ex);
+    }
+  }
+
+  private static Throwable getFailure(FutureTask<Void> put) throws Exception {
+    try {
+      put.get(10, TimeUnit.SECONDS);
+      throw new AssertionError("The put should fail");
+    } catch (ExecutionException ex) {
+      return ex.getCause();
+    }
+  }
+
+  private static String toInsertSql(String... stagedTables) {
+    final List<List<String>> tables = new ArrayList<>();
+    for (String stagedTable : stagedTables) {
+      tables.add(ImmutableList.of("__jobResultsStore", stagedTable));
+    }
+    return FlightIngestionManager.toInsertSql(TABLE, tables);
+  }
+
+  private FlightStream newFlightStream() {
+    final IntVector vector = new IntVector("a", allocator);
+    vector.allocateNew(1);
+    vector.set(0, 1);
+    vector.setValueCount(1);
+    final VectorSchemaRoot root = new VectorSchemaRoot(ImmutableList.of(vector));
+    root.setRowCount(1);
+    roots.add(root);
+
+    final FlightStream flightStream = mock(FlightStream.class);
+    when(flightStream.getRoot()).thenReturn(root);
+    when(flightStream.getSchema()).thenReturn(root.getSchema());
+    when(flightStream.next()).thenReturn(true, false);
+    return flightStream;
+  }
+
+  private void assertStagingEmpty() {
+    final File[] files = folder.getRoot().listFiles();
+    assertFalse(files == null);
+    assertEquals(0, files.length);
+  }
+}
@@ -18,6 +18,7 @@ package com.dremio.datastore;
 import static com.dremio.common.perf.Timer.time;
 
 import java.util.List;
+import java.util.Map;
 
 import com.dremio.common.perf.Timer.TimedBlock;
 import com.dremio.datastore.SearchTypes.SearchQuery;
@@ -78,6 +79,13 @@ abstract class CoreBaseTimedStore<K, V> implements CoreKVStore<K, V> {
     }
   }
 
+  @Override
+  public void putAll(Map<KVStoreTuple<K>, KVStoreTuple<V>> documents) {
+    try (TimedBlock b = time(name + ".putAll")) {
+      kvStore.putAll(documents);
+    }
+  }
+
   @Override
   public boolean contains(KVStoreTuple<K> key, ContainsOption... options) {
     try (TimedBlock b = time(name + ".contains")) {
@@ -92,6 +100,13 @@ abstract class CoreBaseTimedStore<K, V> implements CoreKVStore<K, V> {
     }
   }
 
+  @Override
+  public void deleteAll(List<KVStoreTuple<K>> keys) {
+    try (TimedBlock b = time(name + ".deleteAll")) {
+      kvStore.deleteAll(keys);
+    }
+  }
+
   @Override
   public Iterable<Document<KVStoreTuple<K>, KVStoreTuple<V>>> get(List<KVStoreTuple<K>> keys, GetOption... options) {
     try (TimedBlock b = time(name + ".get(List)")) {
@@ -16,7 +16,9 @@
 package com.dremio.datastore;
 
 import java.util.ConcurrentModificationException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.dremio.datastore.api.Document;
 import com.dremio.datastore.api.FindByRange;
@@ -89,6 +91,15 @@ public class CoreKVStoreImpl<KEY, VALUE> implements CoreKVStore<KEY, VALUE> {
     return fromDocument(result);
   }
 
+  @Override
+  public void putAll(Map<KVStoreTuple<KEY>, KVStoreTuple<VALUE>> documents) {
+    final Map<byte[], byte[]> convertedDocuments = new LinkedHashMap<>();
+    for (Map.Entry<KVStoreTuple<KEY>, KVStoreTuple<VALUE>> entry : documents.entrySet()) {
+      convertedDocuments.put(entry.getKey().getSerializedBytes(), entry.getValue().getSerializedBytes());
+    }
+    rawStore.putAll(convertedDocuments);
+  }
+
   @Override
   public boolean contains(KVStoreTuple<KEY> key, ContainsOption... options) {
     return rawStore.contains(key.getSerializedBytes(), options);
@@ -109,6 +120,11 @@ public class CoreKVStoreImpl<KEY, VALUE> implements CoreKVStore<KEY, VALUE> {
     }
   }
 
+  @Override
+  public void deleteAll(List<KVStoreTuple<KEY>> keys) {
+    rawStore.deleteAll(Lists.transform(keys, keyToBytes));
+  }
+
   @Override
   public Iterable<Document<KVStoreTuple<KEY>, KVStoreTuple<VALUE>>> find(FindByRange<KVStoreTuple<KEY>> find, FindOption... options) {
     final ImmutableFindByRange.Builder<byte[]> rangeBuilder = new ImmutableFindByRange.Builder<>();
@@ -20,7 +20,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.List;
+import java.util.Map;
 
+import com.dremio.datastore.RemoteDataStoreProtobuf.BulkDeleteRequest;
+import com.dremio.datastore.RemoteDataStoreProtobuf.BulkPutEntry;
+import com.dremio.datastore.RemoteDataStoreProtobuf.BulkPutRequest;
 import com.dremio.datastore.RemoteDataStoreProtobuf.ContainsRequest;
 import com.dremio.datastore.RemoteDataStoreProtobuf.ContainsResponse;
 import com.dremio.datastore.RemoteDataStoreProtobuf.DeleteRequest;
@@ -250,6 +254,40 @@ public class DatastoreRpcClient {
     }
   }
 
+  /**
+   * Bulk put method to store the provided entries to the store in a single request. Entries are stored without
+   * versioning.
+   *
+   * @param storeId the store ID.
+   * @param entries the key-value store entries to be stored.
+   * @throws RpcException when RPC related errors are encountered.
+   */
+  public void putAll(String storeId, Map<ByteString, ByteString> entries) throws RpcException {
+    final BulkPutRequest.Builder builder = BulkPutRequest.newBuilder();
+    builder.setStoreId(storeId);
+    for (Map.Entry<ByteString, ByteString> entry : entries.entrySet()) {
+      builder.addEntries(BulkPutEntry.newBuilder()
+        .setKey(entry.getKey())
+        .setValue(entry.getValue()));
+    }
+    rpcService.getBulkPutEndpoint().send(builder.build());
+  }
+
+  /**
+   * Bulk delete method to remove the key-value store entries corresponding to the provided keys from the store in
+   * a single request. Keys without entries are ignored.
+   *
+   * @param storeId the store ID.
+   * @param keys the keys of the key-value store entries to remove.
+   * @throws RpcException when RPC related errors are encountered.
+   */
+  public void deleteAll(String storeId, List<ByteString> keys) throws RpcException {
+    final BulkDeleteRequest.Builder builder = BulkDeleteRequest.newBuilder();
+    builder.setStoreId(storeId);
+    builder.addAllKeys(keys);
+    rpcService.getBulkDeleteEndpoint().send(builder.build());
+  }
+
   /**
    * Find method to retrieve documents satisfying provided search conditions.
    *
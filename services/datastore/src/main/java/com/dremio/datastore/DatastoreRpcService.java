@@ -20,6 +20,10 @@ import javax.inject.Provider;
 import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
 
+import com.dremio.datastore.RemoteDataStoreProtobuf.BulkDeleteRequest;
+import com.dremio.datastore.RemoteDataStoreProtobuf.BulkDeleteResponse;
+import com.dremio.datastore.RemoteDataStoreProtobuf.BulkPutRequest;
+import com.dremio.datastore.RemoteDataStoreProtobuf.BulkPutResponse;
 import com.dremio.datastore.RemoteDataStoreProtobuf.ContainsRequest;
 import com.dremio.datastore.RemoteDataStoreProtobuf.ContainsResponse;
 import com.dremio.datastore.RemoteDataStoreProtobuf.DeleteRequest;
@@ -58,6 +62,8 @@ public class DatastoreRpcService {
   private static final int TYPE_PUT = 6;
   private static final int TYPE_DELETE = 7;
   private static final int TYPE_GET_STORE = 10;
+  private static final int TYPE_BULK_PUT = 11;
+  private static final int TYPE_BULK_DELETE = 12;
 
   private final Provider<NodeEndpoint> master;
 
@@ -69,6 +75,8 @@ public class DatastoreRpcService {
   private SendEndpointCreator<PutRequest, PutResponse> putEndpointCreator;
   private SendEndpointCreator<DeleteRequest, DeleteResponse> deleteEndpointCreator;
   private SendEndpointCreator<GetStoreRequest, GetStoreResponse> getStoreEndpointCreator;
+  private SendEndpointCreator<BulkPutRequest, BulkPutResponse> bulkPutEndpointCreator;
+  private SendEndpointCreator<BulkDeleteRequest, BulkDeleteResponse> bulkDeleteEndpointCreator;
 
   public DatastoreRpcService(Provider<NodeEndpoint> masterNode,
                              FabricService fabricService, BufferAllocator allocator,
@@ -142,6 +150,22 @@ public class DatastoreRpcService {
         }
       });
 
+    bulkPutEndpointCreator = builder.register(TYPE_BULK_PUT,
+      new AbstractReceiveHandler<BulkPutRequest, BulkPutResponse>(BulkPutRequest.getDefaultInstance(), BulkPutResponse.getDefaultInstance()) {
+        @Override
+        public SentResponseMessage<BulkPutResponse> handle(BulkPutRequest request, ArrowBuf dBody) throws RpcException {
+          return new SentResponseMessage<>(handler.bulkPut(request));
+        }
+      });
+
+    bulkDeleteEndpointCreator = builder.register(TYPE_BULK_DELETE,
+      new AbstractReceiveHandler<BulkDeleteRequest, BulkDeleteResponse>(BulkDeleteRequest.getDefaultInstance(), BulkDeleteResponse.getDefaultInstance()) {
+        @Override
+        public SentResponseMessage<BulkDeleteResponse> handle(BulkDeleteRequest request, ArrowBuf dBody) throws RpcException {
+          return new SentResponseMessage<>(handler.bulkDelete(request));
+        }
+      });
+
     builder.register(fabricService);
   }
 
@@ -186,4 +210,12 @@ public class DatastoreRpcService {
     return newEndpoint(getStoreEndpointCreator);
   }
 
+  public SendEndpoint<BulkPutRequest, BulkPutResponse> getBulkPutEndpoint() throws RpcException {
+    return newEndpoint(bulkPutEndpointCreator);
+  }
+
+  public SendEndpoint<BulkDeleteRequest, BulkDeleteResponse> getBulkDeleteEndpoint() throws RpcException {
+    return newEndpoint(bulkDeleteEndpointCreator);
+  }
+
 }
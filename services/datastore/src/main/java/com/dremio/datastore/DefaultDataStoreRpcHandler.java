@@ -15,6 +15,10 @@
  */
 package com.dremio.datastore;
 
+import com.dremio.datastore.RemoteDataStoreProtobuf.BulkDeleteRequest;
+import com.dremio.datastore.RemoteDataStoreProtobuf.BulkDeleteResponse;
+import com.dremio.datastore.RemoteDataStoreProtobuf.BulkPutRequest;
+import com.dremio.datastore.RemoteDataStoreProtobuf.BulkPutResponse;
 import com.dremio.datastore.RemoteDataStoreProtobuf.ContainsRequest;
 import com.dremio.datastore.RemoteDataStoreProtobuf.ContainsResponse;
 import com.dremio.datastore.RemoteDataStoreProtobuf.DeleteRequest;
@@ -74,4 +78,12 @@ public class DefaultDataStoreRpcHandler {
   public GetStoreResponse getStore(GetStoreRequest request) {
     throw new UnsupportedOperationException("Remote datastore operations are not supported on this host " + hostName);
   }
+
+  public BulkPutResponse bulkPut(BulkPutRequest request) {
+    throw new UnsupportedOperationException("Remote datastore operations are not supported on this host " + hostName);
+  }
+
+  public BulkDeleteResponse bulkDelete(BulkDeleteRequest request) {
+    throw new UnsupportedOperationException("Remote datastore operations are not supported on this host " + hostName);
+  }
 }
@@ -16,8 +16,15 @@
 package com.dremio.datastore;
 
 import java.util.ConcurrentModificationException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import com.dremio.datastore.RemoteDataStoreProtobuf.BulkDeleteRequest;
+import com.dremio.datastore.RemoteDataStoreProtobuf.BulkDeleteResponse;
+import com.dremio.datastore.RemoteDataStoreProtobuf.BulkPutEntry;
+import com.dremio.datastore.RemoteDataStoreProtobuf.BulkPutRequest;
+import com.dremio.datastore.RemoteDataStoreProtobuf.BulkPutResponse;
 import com.dremio.datastore.RemoteDataStoreProtobuf.ContainsRequest;
 import com.dremio.datastore.RemoteDataStoreProtobuf.ContainsResponse;
 import com.dremio.datastore.RemoteDataStoreProtobuf.DeleteRequest;
@@ -167,6 +174,31 @@ public class LocalDataStoreRpcHandler extends DefaultDataStoreRpcHandler {
     return DeleteResponse.getDefaultInstance();
   }
 
+  @Override
+  public BulkPutResponse bulkPut(BulkPutRequest request) {
+    final CoreKVStore store = coreStoreProvider.getStore(request.getStoreId());
+    final Map<KVStoreTuple<?>, KVStoreTuple<?>> documents = new LinkedHashMap<>();
+    for (BulkPutEntry entry : request.getEntriesList()) {
+      documents.put(store.newKey().setSerializedBytes(entry.getKey().toByteArray()),
+        store.newValue().setSerializedBytes(entry.getValue().toByteArray()));
+    }
+    store.putAll(documents);
+    return BulkPutResponse.getDefaultInstance();
+  }
+
+  @Override
+  public BulkDeleteResponse bulkDelete(BulkDeleteRequest request) {
+    final CoreKVStore store = coreStoreProvider.getStore(request.getStoreId());
+    final List<KVStoreTuple<?>> keys = Lists.transform(request.getKeysList(), new Function<ByteString, KVStoreTuple<?>>() {
+      @Override
+      public KVStoreTuple<?> apply(ByteString input) {
+        return store.newKey().setSerializedBytes(input.toByteArray());
+      }
+    });
+    store.deleteAll(keys);
+    return BulkDeleteResponse.getDefaultInstance();
+  }
+
   @Override
   public GetStoreResponse getStore(GetStoreRequest request) {
     String storeId = coreStoreProvider.getStoreID(request.getName());
@@ -17,6 +17,7 @@ package com.dremio.datastore;
 
 import static java.lang.String.format;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -57,7 +58,9 @@ public class RemoteKVStore <K, V> implements KVStore<K, V> {
     CHECK_AND_DELETE,
     DELETE_VERSION,
     FIND_BY_RANGE,
-    FIND_ALL
+    FIND_ALL,
+    BULK_PUT,
+    BULK_DELETE
   }
 
   private final String storeId;
@@ -195,6 +198,32 @@ public class RemoteKVStore <K, V> implements KVStore<K, V> {
     }
   }
 
+  @Override
+  public void putAll(Map<K, V> documents) {
+    try (TimerContext timer = time(Stats.BULK_PUT)) {
+      final Map<ByteString, ByteString> entries = new LinkedHashMap<>();
+      for (Map.Entry<K, V> entry : documents.entrySet()) {
+        entries.put(convertKey(entry.getKey()), convertValue(entry.getValue()));
+      }
+      client.putAll(storeId, entries);
+    } catch (RpcException e) {
+      throw new DatastoreException(format("Failed to put multiple values in store id: %s", getStoreId()), e);
+    }
+  }
+
+  @Override
+  public void deleteAll(List<K> keys) {
+    try (TimerContext timer = time(Stats.BULK_DELETE)) {
+      final List<ByteString> keyLists = Lists.newArrayList();
+      for (K key : keys) {
+        keyLists.add(convertKey(key));
+      }
+      client.deleteAll(storeId, keyLists);
+    } catch (RpcException e) {
+      throw new DatastoreException(format("Failed to delete multiple values from store id: %s", getStoreId()), e);
+    }
+  }
+
   @Override
   public Iterable<Document<K, V>> find(FindByRange<K> find, FindOption... options) {
     final RemoteDataStoreProtobuf.FindRequest.Builder request = RemoteDataStoreProtobuf.FindRequest.newBuilder()
@@ -27,8 +27,10 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -45,12 +47,15 @@ import org.rocksdb.FlushOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
 import org.xerial.snappy.SnappyInputStream;
 import org.xerial.snappy.SnappyOutputStream;
 
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.DeferredException;
 import com.dremio.common.concurrent.AutoCloseableLock;
+import com.dremio.common.util.Closeable;
 import com.dremio.datastore.api.Document;
 import com.dremio.datastore.api.FindByRange;
 import com.dremio.datastore.api.ImmutableDocument;
@@ -303,18 +308,36 @@ class RocksDBStore implements ByteStore {
 
   }
 
-  private AutoCloseableLock sharedLock(byte[] key) {
+  private int stripe(byte[] key) {
     Preconditions.checkNotNull(key);
     final int hash = Arrays.hashCode(key);
-    AutoCloseableLock lock = sharedLocks[Math.abs(hash % parallel)];
+    return Math.abs(hash % parallel);
+  }
+
+  private AutoCloseableLock sharedLock(byte[] key) {
+    AutoCloseableLock lock = sharedLocks[stripe(key)];
     lock.open();
     return lock;
   }
 
+  /**
+   * Acquire the shared locks of all the stripes of the given keys, always in the same order.
+   */
+  private Closeable sharedLocks(List<byte[]> keys) {
+    final int[] stripes = keys.stream().mapToInt(this::stripe).distinct().sorted().toArray();
+    final List<AutoCloseableLock> locks = new ArrayList<>(stripes.length);
+    for (int stripe : stripes) {
+      locks.add(sharedLocks[stripe].open());
+    }
+    return () -> {
+      for (int i = locks.size() - 1; i >= 0; i--) {
+        locks.get(i).close();
+      }
+    };
+  }
+
   private AutoCloseableLock exclusiveLock(byte[] key) {
-    Preconditions.checkNotNull(key);
-    final int hash = Arrays.hashCode(key);
-    AutoCloseableLock lock = exclusiveLocks[Math.abs(hash % parallel)];
+    AutoCloseableLock lock = exclusiveLocks[stripe(key)];
     lock.open();
     return lock;
   }
@@ -483,11 +506,101 @@ class RocksDBStore implements ByteStore {
 
   @Override
   public Iterable<Document<byte[], byte[]>> get(List<byte[]> keys, GetOption... options) {
-    final List<Document<byte[], byte[]>> results = new ArrayList<>();
-    for (byte[] key : keys) {
-      results.add(get(key, options));
+    if (keys.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    // the values returned by multiGet are keyed by identity, keep the same key arrays
+    final List<byte[]> keyList = new ArrayList<>(keys);
+    try (Closeable ac = sharedLocks(keyList)) {
+      throwIfClosed();
+      final Map<byte[], byte[]> valuesOrPtrs = db.multiGet(Collections.nCopies(keyList.size(), handle), keyList);
+      final List<Document<byte[], byte[]>> results = new ArrayList<>(keyList.size());
+      for (byte[] key : keyList) {
+        final RocksEntry result = resolvePtrOrValue(valuesOrPtrs.get(key));
+        if (result == null) {
+          results.add(null);
+          continue;
+        }
+        final byte[] value = result.getData();
+        results.add(toDocument(key, value, toTag(result.getMeta(), value)));
+      }
+      return results;
+    } catch (RocksDBException | BlobNotFoundException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public void putAll(Map<byte[], byte[]> documents) {
+    if (documents.isEmpty()) {
+      return;
+    }
+
+    final List<byte[]> keys = new ArrayList<>(documents.keySet());
+    final List<BlobHolder> blobs = new ArrayList<>(keys.size());
+    try (Closeable ac = sharedLocks(keys)) {
+      throwIfClosed();
+
+      final Map<byte[], byte[]> oldValuesOrPtrs = db.multiGet(Collections.nCopies(keys.size(), handle), keys);
+      try (WriteBatch batch = new WriteBatch();
+           WriteOptions writeOptions = new WriteOptions()) {
+        for (Map.Entry<byte[], byte[]> entry : documents.entrySet()) {
+          final byte[] newValue = entry.getValue();
+          if (newValue == null) {
+            throw new NullPointerException("null values are not allowed in kvstore");
+          }
+          final BlobHolder blob = metaManager.filterPut(newValue, ByteStore.generateTagFromBytes(newValue));
+          blobs.add(blob);
+          batch.put(handle, entry.getKey(), blob.ptrOrValue());
+        }
+        db.write(writeOptions, batch);
+      }
+
+      for (byte[] oldValueOrPtr : oldValuesOrPtrs.values()) {
+        metaManager.deleteTranslation(meta(oldValueOrPtr));
+      }
+      for (BlobHolder blob : blobs) {
+        blob.commit();
+      }
+    } catch (RocksDBException | IOException e) {
+      throw new RuntimeException(e);
+    } finally {
+      // uncommitted blobs are deleted
+      for (BlobHolder blob : blobs) {
+        blob.close();
+      }
+    }
+  }
+
+  @Override
+  public void deleteAll(List<byte[]> keys) {
+    if (keys.isEmpty()) {
+      return;
+    }
+
+    final List<byte[]> keyList = new ArrayList<>(keys);
+    try (Closeable ac = sharedLocks(keyList)) {
+      throwIfClosed();
+
+      final Map<byte[], byte[]> oldValuesOrPtrs = db.multiGet(Collections.nCopies(keyList.size(), handle), keyList);
+      if (oldValuesOrPtrs.isEmpty()) {
+        return;
+      }
+      try (WriteBatch batch = new WriteBatch();
+           WriteOptions writeOptions = new WriteOptions()) {
+        for (byte[] key : oldValuesOrPtrs.keySet()) {
+          batch.delete(handle, key);
+        }
+        db.write(writeOptions, batch);
+      }
+
+      for (byte[] oldValueOrPtr : oldValuesOrPtrs.values()) {
+        metaManager.deleteTranslation(meta(oldValueOrPtr));
+      }
+    } catch (RocksDBException e) {
+      throw new RuntimeException(e);
     }
-    return results;
   }
 
   @Override
@@ -16,6 +16,7 @@
 package com.dremio.datastore;
 
 import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 
 import com.dremio.common.tracing.TracingUtils;
@@ -101,6 +102,16 @@ class TracingKVStore<K, V> implements KVStore<K, V> {
     trace("delete", () -> delegate.delete(key, options));
   }
 
+  @Override
+  public void putAll(Map<K, V> documents) {
+    trace("putAll", () -> delegate.putAll(documents));
+  }
+
+  @Override
+  public void deleteAll(List<K> keys) {
+    trace("deleteAll", () -> delegate.deleteAll(keys));
+  }
+
   @Override
   public KVAdmin getAdmin() {
     return trace("getAdmin", delegate::getAdmin);
@@ -84,6 +84,16 @@ public class LegacyKVStoreAdapter<K, V> implements LegacyKVStore<K, V> {
     }
   }
 
+  @Override
+  public void putAll(Map<K, V> documents) {
+    if (versionExtractor != null) {
+      // versioned values are checked and updated one by one
+      LegacyKVStore.super.putAll(documents);
+    } else {
+      underlyingStore.putAll(documents);
+    }
+  }
+
   @Override
   public boolean contains(K key) {
     return underlyingStore.contains(key);
@@ -94,6 +104,11 @@ public class LegacyKVStoreAdapter<K, V> implements LegacyKVStore<K, V> {
     underlyingStore.delete(key);
   }
 
+  @Override
+  public void deleteAll(List<K> keys) {
+    underlyingStore.deleteAll(keys);
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public Iterable<Map.Entry<K, V>> find(LegacyFindByRange<K> find) {
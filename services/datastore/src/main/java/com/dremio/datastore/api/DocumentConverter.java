@@ -15,6 +15,11 @@
  */
 package com.dremio.datastore.api;
 
+import java.util.Collections;
+import java.util.List;
+
+import com.dremio.datastore.SearchTypes.SearchFieldSorting;
+
 /**
  * Converter that converts a value into a indexable document.
  *
@@ -31,5 +36,15 @@ public interface DocumentConverter<K, V> {
    * @param record the value of the document.
    */
   void convert(DocumentWriter writer, K key, V record);
+
+  /**
+   * Sort commonly used to search the documents, if any. The fields of this sort are loaded by the index
+   * each time its searcher is reopened, before the searcher is used.
+   *
+   * @return the sort, empty if searchers are not warmed.
+   */
+  default List<SearchFieldSorting> getWarmingSort() {
+    return Collections.emptyList();
+  }
 }
 
@@ -16,6 +16,7 @@
 package com.dremio.datastore.api;
 
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -117,6 +118,20 @@ public interface KVStore<K, V> {
    */
   Document<K, V> put(K key, V value, PutOption ... options);
 
+  /**
+   * Saves documents to the KV Store, replacing the values of the keys that already exist. This is equivalent
+   * to calling {@link #put(Object, Object, PutOption...)} without any option for each entry, but stores that
+   * support it write all the documents at once.
+   *
+   * @param documents the keys and values to save.
+   * @throws com.dremio.datastore.DatastoreException when one or more runtime failures are encountered.
+   */
+  default void putAll(Map<K, V> documents) {
+    for (Map.Entry<K, V> entry : documents.entrySet()) {
+      put(entry.getKey(), entry.getValue());
+    }
+  }
+
   /**
    * Removes a document with the provided key value.
    *
@@ -129,6 +144,20 @@ public interface KVStore<K, V> {
    */
   void delete(K key, DeleteOption ... options);
 
+  /**
+   * Removes the documents with the provided keys. This is equivalent to calling
+   * {@link #delete(Object, DeleteOption...)} without any option for each key, but stores that support it delete
+   * all the documents at once.
+   *
+   * @param keys the keys of the documents to be removed from the KV Store.
+   * @throws com.dremio.datastore.DatastoreException when one or more runtime failures are encountered.
+   */
+  default void deleteAll(List<K> keys) {
+    for (K key : keys) {
+      delete(key);
+    }
+  }
+
   /**
    * Checks if the KV Store contains a document corresponding to the provided key.
    *
@@ -61,6 +61,19 @@ public interface LegacyKVStore<K, V> {
    */
   void put(K key, V v);
 
+  /**
+   * Save the provided values under their keys, as {@link #put(Object, Object)} would do for
+   * each entry. Possibly more efficient than looping over the entries in application code
+   * depending on the underlying storage system.
+   *
+   * @param documents the keys and the values to save, values can not be null.
+   */
+  default void putAll(Map<K, V> documents) {
+    for (Map.Entry<K, V> entry : documents.entrySet()) {
+      put(entry.getKey(), entry.getValue());
+    }
+  }
+
   /**
    * Indicate if the store contains an entry associated with the key. Return {@code true}
    * if such a key exist, {@code false} otherwise.
@@ -78,6 +91,18 @@ public interface LegacyKVStore<K, V> {
    */
   void delete(K key);
 
+  /**
+   * Remove the keys, and the associated values from the store. Keys which don't exist
+   * are ignored.
+   *
+   * @param keys the keys to remove.
+   */
+  default void deleteAll(List<K> keys) {
+    for (K key : keys) {
+      delete(key);
+    }
+  }
+
 
   /**
    * Return a iterable of keys & values for any key within the provided Range
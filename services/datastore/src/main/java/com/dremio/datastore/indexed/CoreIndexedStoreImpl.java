@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.lucene.document.Document;
@@ -75,6 +76,9 @@ public class CoreIndexedStoreImpl<K, V> implements CoreIndexedStore<K, V> {
     this.converter = converter;
     this.index = index;
     this.indexesViaPutOption = indexesViaPutOption;
+    if (converter != null && !converter.getWarmingSort().isEmpty()) {
+      index.setWarmingSort(toLuceneSort(converter.getWarmingSort()));
+    }
   }
 
   public static final IndexKey ID_KEY = IndexKey.newBuilder(CoreIndexedStore.ID_FIELD_NAME, CoreIndexedStore.ID_FIELD_NAME, String.class)
@@ -234,6 +238,19 @@ public class CoreIndexedStoreImpl<K, V> implements CoreIndexedStore<K, V> {
     return doc;
   }
 
+  @Override
+  public void putAll(Map<KVStoreTuple<K>, KVStoreTuple<V>> documents) {
+    if (indexesViaPutOption) {
+      // the index fields are only provided through the options of single puts
+      throw new UnsupportedOperationException("Bulk put is not supported by store " + name);
+    }
+
+    base.putAll(documents);
+    for (Map.Entry<KVStoreTuple<K>, KVStoreTuple<V>> entry : documents.entrySet()) {
+      index(entry.getKey(), entry.getValue());
+    }
+  }
+
   private void index(KVStoreTuple<K> key, PutOption... options) {
     for (PutOption option : options) {
       switch (option.getPutOptionInfo().getType()) {
@@ -334,6 +351,14 @@ public class CoreIndexedStoreImpl<K, V> implements CoreIndexedStore<K, V> {
     index.deleteDocuments(keyAsTerm(key));
   }
 
+  @Override
+  public void deleteAll(List<KVStoreTuple<K>> keys) {
+    base.deleteAll(keys);
+    for (KVStoreTuple<K> key : keys) {
+      index.deleteDocuments(keyAsTerm(key));
+    }
+  }
+
   @Override
   public Iterable<com.dremio.datastore.api.Document<KVStoreTuple<K>, KVStoreTuple<V>>> get(List<KVStoreTuple<K>> keys, GetOption... options) {
     final Iterable<com.dremio.datastore.api.Document<KVStoreTuple<K>, KVStoreTuple<V>>> documents = base.get(keys, options);
@@ -30,14 +30,19 @@ import org.apache.lucene.analysis.core.KeywordAnalyzer;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.ConcurrentMergeScheduler;
 import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.IndexableField;
 import org.apache.lucene.index.LiveIndexWriterConfig;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ReferenceManager;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
 import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.TopDocs;
@@ -51,6 +56,9 @@ import com.dremio.datastore.CoreIndexedStore;
 import com.dremio.datastore.WarningTimer;
 import com.dremio.datastore.indexed.CommitWrapper.CommitCloser;
 import com.dremio.telemetry.api.metrics.Metrics;
+import com.dremio.telemetry.api.metrics.Metrics.ResetType;
+import com.dremio.telemetry.api.metrics.Timer;
+import com.dremio.telemetry.api.metrics.Timer.TimerContext;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
@@ -102,6 +110,32 @@ public class LuceneSearchIndex implements AutoCloseable {
    */
   public static final String OVERRIDE_SPINS_PROPERTY = "dremio.lucene.override_spins";
 
+  /**
+   * Property name for enabling near-real-time searches
+   *
+   * When enabled, searchers are reopened in the background, and searches only wait for the changes previously made
+   * to the index by the same thread. Changes made by other threads are visible after at most the max staleness.
+   *
+   * Default is false: searches reopen the searcher synchronously when the index changed
+   */
+  public static final String NRT_ENABLED_PROPERTY = "dremio.lucene.nrt.enabled";
+
+  /**
+   * Property name for the max time (in millis) before changes are visible to searches in near-real-time mode,
+   * when no search waits for them
+   *
+   * Default is 1s
+   */
+  public static final String NRT_MAX_STALE_MILLIS_PROPERTY = "dremio.lucene.nrt.max_stale_millis";
+
+  /**
+   * Property name for the min time (in millis) between two reopens of the searcher in near-real-time mode,
+   * when searches wait for changes
+   *
+   * Default is 25ms
+   */
+  public static final String NRT_MIN_STALE_MILLIS_PROPERTY = "dremio.lucene.nrt.min_stale_millis";
+
 
   private static final String METRIC_PREFIX = "kvstore.lucene";
 
@@ -125,6 +159,10 @@ public class LuceneSearchIndex implements AutoCloseable {
   // The searcher is saved in the cache for at least these many milli seconds after the last access.
   private static final int SEARCHER_CACHE_TTL_MILLIS = 3600 * 1000;
 
+  private static final boolean NRT_ENABLED = Boolean.getBoolean(NRT_ENABLED_PROPERTY);
+  private static final long NRT_MAX_STALE_MILLIS = Long.getLong(NRT_MAX_STALE_MILLIS_PROPERTY, 1_000);
+  private static final long NRT_MIN_STALE_MILLIS = Long.getLong(NRT_MIN_STALE_MILLIS_PROPERTY, 25);
+
   /**
    * Starts a thread that will commit the writer every 60s (by default), if any exception is thrown during commit it will
    * be recorded and calling throwExceptionIfAny() will throw it back
@@ -205,6 +243,48 @@ public class LuceneSearchIndex implements AutoCloseable {
     }
   }
 
+  /**
+   * Creates the searchers, and warms them by sorting all the documents with the sort commonly used
+   * to search the index, so that the first searches after a reopen don't pay for loading its fields
+   */
+  private final class WarmingSearcherFactory extends SearcherFactory {
+    @Override
+    public IndexSearcher newSearcher(IndexReader reader, IndexReader previousReader) throws IOException {
+      final IndexSearcher searcher = super.newSearcher(reader, previousReader);
+      final Sort sort = warmingSort;
+      if (sort != null) {
+        try (WarningTimer watch = new WarningTimer("LuceneSearchIndex warming", 1000)) {
+          searcher.search(new MatchAllDocsQuery(), 1, sort);
+        } catch (RuntimeException e) {
+          // the searcher is still usable
+          logger.warn("Failed to warm searcher of index {}", name, e);
+        }
+      }
+      return searcher;
+    }
+  }
+
+  /**
+   * Records the time taken by each refresh of the searcher
+   */
+  private final class RefreshTimer implements ReferenceManager.RefreshListener {
+    // refreshes are never concurrent
+    private TimerContext context;
+
+    @Override
+    public void beforeRefresh() {
+      context = refreshTimer.start();
+    }
+
+    @Override
+    public void afterRefresh(boolean didRefresh) {
+      if (context != null) {
+        context.close();
+        context = null;
+      }
+    }
+  }
+
   private final CommitterThread committerThread;
   private final CommitWrapper commitWrapper;
 
@@ -214,6 +294,15 @@ public class LuceneSearchIndex implements AutoCloseable {
   private final String name;
   private final String liveRecordsMetricName;
   private final String deletedRecordsMetricsName;
+  private final String refreshMetricName;
+  private final Timer refreshTimer;
+
+  // null if near-real-time searches are disabled
+  private final ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+  // generation of the last change made to the index by each thread
+  private final ThreadLocal<Long> lastGeneration = ThreadLocal.withInitial(() -> -1L);
+
+  private volatile Sort warmingSort;
 
   private volatile boolean reindexing = false;
 
@@ -241,10 +330,25 @@ public class LuceneSearchIndex implements AutoCloseable {
       final boolean inMemory,
       final CommitWrapper commitWrapper,
       final int searcherCacheTTLMillis
+  ) {
+    this(localStorageDir, name, inMemory, commitWrapper, searcherCacheTTLMillis, NRT_ENABLED);
+  }
+
+  @VisibleForTesting
+  LuceneSearchIndex(
+      final File localStorageDir,
+      final String name,
+      final boolean inMemory,
+      final CommitWrapper commitWrapper,
+      final int searcherCacheTTLMillis,
+      final boolean nrtEnabled
   ) {
     this.name = name;
     this.commitWrapper = commitWrapper;
 
+    refreshMetricName = Metrics.join(METRIC_PREFIX, name, "refresh");
+    refreshTimer = Metrics.newTimer(refreshMetricName, ResetType.PERIODIC_15M);
+
     final ConcurrentMergeScheduler cms = new ConcurrentMergeScheduler();
     String overrideSpins = System.getProperty(OVERRIDE_SPINS_PROPERTY);
     if (overrideSpins != null) {
@@ -277,7 +381,19 @@ public class LuceneSearchIndex implements AutoCloseable {
 
       writer = new IndexWriter(directory, writerConfig);
       commit();
-      searcherManager = new SearcherManager(writer, true, true, null);
+      // only the searchers reopened in the background are warmed, so that a search doesn't pay for warming its own
+      searcherManager = new SearcherManager(writer, true, true, nrtEnabled ? new WarmingSearcherFactory() : null);
+      searcherManager.addListener(new RefreshTimer());
+
+      if (nrtEnabled) {
+        reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager,
+          NRT_MAX_STALE_MILLIS / 1000.0, NRT_MIN_STALE_MILLIS / 1000.0);
+        reopenThread.setName(format("LuceneSearchIndex:reopener %s", name));
+        reopenThread.setDaemon(true);
+        reopenThread.start();
+      } else {
+        reopenThread = null;
+      }
 
       committerThread = new CommitterThread();
     } catch(IOException ex){
@@ -296,6 +412,12 @@ public class LuceneSearchIndex implements AutoCloseable {
   }
 
   private void checkIfChanged() {
+    if (reopenThread != null) {
+      // the searcher is reopened in the background, only wait for the changes of this thread
+      waitForGeneration(lastGeneration.get());
+      return;
+    }
+
     try{
       if (!searcherManager.isSearcherCurrent()) {
         searcherManager.maybeRefreshBlocking();
@@ -305,6 +427,42 @@ public class LuceneSearchIndex implements AutoCloseable {
     }
   }
 
+  private long updated(long generation) {
+    lastGeneration.set(generation);
+    return generation;
+  }
+
+  /**
+   * Wait until the searches see the change of the given generation.
+   *
+   * @param generation generation returned by the method that changed the index
+   */
+  public void waitForGeneration(long generation) {
+    if (generation < 0) {
+      return;
+    }
+    if (reopenThread == null) {
+      checkIfChanged();
+      return;
+    }
+
+    try {
+      reopenThread.waitForGeneration(generation);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw Throwables.propagate(e);
+    }
+  }
+
+  /**
+   * Set the sort used to warm the new searchers. Only used if near-real-time searches are enabled.
+   *
+   * @param sort sort commonly used to search the index, or null to not warm the searchers
+   */
+  public void setWarmingSort(Sort sort) {
+    this.warmingSort = sort;
+  }
+
   private void commit() throws IOException {
     try (CommitCloser committer = commitWrapper.open(name)) {
       writer.commit();
@@ -315,31 +473,42 @@ public class LuceneSearchIndex implements AutoCloseable {
     }
   }
 
-  public void add(Document document) {
+  /**
+   * @return generation of the change
+   */
+  public long add(Document document) {
     committerThread.throwExceptionIfAny();
     Preconditions.checkNotNull(document.getField(CoreIndexedStore.ID_FIELD_NAME));
     try{
-      writer.addDocument(document);
+      return updated(writer.addDocument(document));
     } catch(IOException ex) {
       throw Throwables.propagate(ex);
     }
   }
 
-  public void addMany(Document... documents) {
+  /**
+   * @return generation of the last change
+   */
+  public long addMany(Document... documents) {
     committerThread.throwExceptionIfAny();
     try{
+      long generation = -1;
       for(Document d : documents){
-        writer.addDocument(d);
+        generation = writer.addDocument(d);
       }
+      return updated(generation);
     } catch(IOException ex) {
       throw Throwables.propagate(ex);
     }
   }
 
-  public void update(Term term, Document document) {
+  /**
+   * @return generation of the change
+   */
+  public long update(Term term, Document document) {
     committerThread.throwExceptionIfAny();
     try {
-      writer.updateDocument(term, document);
+      return updated(writer.updateDocument(term, document));
     } catch(IOException ex) {
       throw Throwables.propagate(ex);
     }
@@ -504,8 +673,12 @@ public class LuceneSearchIndex implements AutoCloseable {
   @Override
   public void close() throws IOException {
     committerThread.close();
+    if (reopenThread != null) {
+      reopenThread.close();
+    }
     Metrics.unregister(deletedRecordsMetricsName);
     Metrics.unregister(liveRecordsMetricName);
+    Metrics.unregister(refreshMetricName);
     // commit will fail if writer is closed
     if (writer.isOpen()) {
       // flush first
@@ -533,10 +706,13 @@ public class LuceneSearchIndex implements AutoCloseable {
     }
   }
 
-  public void deleteDocuments(Term key) {
+  /**
+   * @return generation of the change
+   */
+  public long deleteDocuments(Term key) {
     committerThread.throwExceptionIfAny();
     try {
-      writer.deleteDocuments(key);
+      return updated(writer.deleteDocuments(key));
     } catch (IOException ex) {
       throw Throwables.propagate(ex);
     }
@@ -545,7 +721,7 @@ public class LuceneSearchIndex implements AutoCloseable {
   public void delete() {
     committerThread.throwExceptionIfAny();
     try {
-      writer.deleteAll();
+      updated(writer.deleteAll());
       commit();
       // Forcing refresh of index so that open files are freed and deleted from disk
       checkIfChanged();
@@ -661,7 +837,7 @@ public class LuceneSearchIndex implements AutoCloseable {
   @VisibleForTesting
   public void deleteEverything() throws IOException{
     committerThread.throwExceptionIfAny();
-    writer.deleteAll();
+    updated(writer.deleteAll());
     commit();
   }
 }
@@ -28,6 +28,8 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -318,6 +320,42 @@ public abstract class AbstractTestKVStore<K, V> {
     assertNull(kvStore.get(key));
   }
 
+  @Test
+  public void testPutAll() {
+    final K key = gen.newKey();
+    final K newKey = gen.newKey();
+    final V value = gen.newVal();
+    final V newValue = gen.newVal();
+
+    kvStore.put(key, value);
+    final Map<K, V> documents = new LinkedHashMap<>();
+    documents.put(key, newValue);
+    documents.put(newKey, value);
+    kvStore.putAll(documents);
+
+    final Document<K, V> doc1 = kvStore.get(key);
+    gen.assertValueEquals(newValue, doc1.getValue());
+    assertFalse(TAG_ASSERT_FAILURE_MSG, Strings.isNullOrEmpty(doc1.getTag()));
+    final Document<K, V> doc2 = kvStore.get(newKey);
+    gen.assertValueEquals(value, doc2.getValue());
+    assertFalse(TAG_ASSERT_FAILURE_MSG, Strings.isNullOrEmpty(doc2.getTag()));
+  }
+
+  @Test
+  public void testDeleteAll() {
+    final DocumentDataset<K, V> data =  generateDataAndPopulateKVStore(SAMPLING_SIZE / 2);
+    final K missingKey = gen.newKey();
+
+    final List<K> keys = new ArrayList<>(data.getKeys().subList(1, data.getKeys().size()));
+    keys.add(missingKey);
+    kvStore.deleteAll(keys);
+
+    final Iterable<Document<K, V>> result = kvStore.get(data.getKeys());
+    assertEquals(data.getKeys().size(), Iterables.size(result));
+    gen.assertValueEquals(data.getDocument(0).getValue(), Iterables.get(result, 0).getValue());
+    assertTrue(StreamSupport.stream(Iterables.skip(result, 1).spliterator(), false).allMatch(Objects::isNull));
+  }
+
   @Test
   public void testFindByExclusiveStartEndRange() {
     ignoreIfFindNotSupported();
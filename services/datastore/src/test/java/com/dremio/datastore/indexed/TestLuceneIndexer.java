@@ -24,6 +24,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
@@ -365,6 +366,45 @@ public class TestLuceneIndexer {
     }
   }
 
+  @Test
+  public void testNearRealTimeSearch() throws Exception {
+    try (LuceneSearchIndex index = new LuceneSearchIndex(null, "nrt", true, CommitWrapper.NO_OP, 500, true)) {
+      index.setWarmingSort(new Sort(new SortField("version", SortField.Type.STRING)));
+      final Query query = new TermQuery(new Term("user", "u1"));
+
+      // changes made by the searching thread are visible
+      for (int i = 0; i < 10; ++i) {
+        final Document doc = new Document();
+        doc.add(
+          new StringField(CoreIndexedStore.ID_FIELD_NAME, new BytesRef(Integer.toString(i).getBytes()), Store.YES));
+        doc.add(new StringField("user", "u1", Field.Store.YES));
+        doc.add(new SortedDocValuesField("version", new BytesRef("v" + i)));
+        index.add(doc);
+      }
+      assertEquals(10, index.count(query));
+
+      // changes made by another thread are visible once waiting for their generation
+      final AtomicLong generation = new AtomicLong();
+      final Thread writer = new Thread(() -> {
+        final Document doc = new Document();
+        doc.add(new StringField(CoreIndexedStore.ID_FIELD_NAME, new BytesRef("10".getBytes()), Store.YES));
+        doc.add(new StringField("user", "u1", Field.Store.YES));
+        doc.add(new SortedDocValuesField("version", new BytesRef("v10")));
+        generation.set(index.add(doc));
+      });
+      writer.start();
+      writer.join();
+      index.waitForGeneration(generation.get());
+      assertEquals(11, index.count(query));
+
+      final LuceneSearchIndex.SearchHandle searchHandle = index.createSearchHandle();
+      final List<Doc> docs = index.search(searchHandle, query, 1000,
+        new Sort(new SortField("version", SortField.Type.STRING)), 0);
+      assertEquals(11, docs.size());
+      searchHandle.close();
+    }
+  }
+
   @Test
   public void testIndexClose() throws Exception {
     try (LuceneSearchIndex index = new LuceneSearchIndex(folder.getRoot(), "close", false, CommitWrapper.NO_OP)) {
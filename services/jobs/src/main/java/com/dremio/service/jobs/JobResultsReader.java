@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobs;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.exec.record.RecordBatchHolder;
+import com.dremio.exec.store.easy.arrow.ArrowFileMetadata;
+import com.dremio.exec.store.easy.arrow.ArrowFileReader;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+
+/**
+ * Reads pages of the results of a job. The result files are opened when first read, and stay open until the
+ * reader is closed.<br>
+ * <br>
+ * Multi-thread safe
+ */
+class JobResultsReader implements AutoCloseable {
+  private final FileSystem dfs;
+  private final Path jobOutputDir;
+  private final List<ArrowFileMetadata> resultMetadata;
+  private final BufferAllocator allocator;
+  // for each result file, number of records up to the end of the file
+  private final long[] cumulativeRecordCounts;
+  private final ArrowFileReader[] fileReaders;
+
+  private boolean closed;
+
+  JobResultsReader(FileSystem dfs, Path jobOutputDir, List<ArrowFileMetadata> resultMetadata,
+                   BufferAllocator allocator) {
+    this.dfs = dfs;
+    this.jobOutputDir = jobOutputDir;
+    this.resultMetadata = new ArrayList<>(resultMetadata);
+    this.allocator = allocator;
+    this.cumulativeRecordCounts = new long[resultMetadata.size()];
+    this.fileReaders = new ArrowFileReader[resultMetadata.size()];
+
+    long runningCount = 0;
+    for (int i = 0; i < resultMetadata.size(); i++) {
+      runningCount += resultMetadata.get(i).getRecordCount();
+      cumulativeRecordCounts[i] = runningCount;
+    }
+  }
+
+  /**
+   * @return true if this reader reads the given results
+   */
+  boolean isFor(Path jobOutputDir, List<ArrowFileMetadata> resultMetadata) {
+    // results are only appended
+    return this.jobOutputDir.equals(jobOutputDir) && this.resultMetadata.size() == resultMetadata.size();
+  }
+
+  /**
+   * Read the record batches containing the records in the given range. If the range is empty or invalid, a
+   * batch without records is returned for the schema.
+   *
+   * @param offset index of the first record to read
+   * @param limit maximum number of records to read
+   * @return the batches, or null if the reader is closed
+   */
+  synchronized List<RecordBatchHolder> read(long offset, long limit) throws IOException {
+    if (closed) {
+      return null;
+    }
+
+    int fileIndex = firstFileEndingAfter(offset);
+    if (fileIndex == resultMetadata.size()) {
+      // when the query returns no results at all or the requested range is invalid, return an empty record batch
+      // for metadata purposes.
+      return getFileReader(0).read(0, 0);
+    }
+
+    final List<RecordBatchHolder> batches = new ArrayList<>();
+    // the starting record index in the first file
+    long fileOffset = offset - (fileIndex == 0 ? 0 : cumulativeRecordCounts[fileIndex - 1]);
+    long remaining = limit;
+    do {
+      // Min of remaining records in file or remaining records in total to read.
+      final long fileLimit = Math.min(resultMetadata.get(fileIndex).getRecordCount() - fileOffset, remaining);
+      batches.addAll(getFileReader(fileIndex).read(fileOffset, fileLimit));
+      remaining -= fileLimit;
+      fileOffset = 0;
+      fileIndex++;
+    } while (remaining > 0 && fileIndex < resultMetadata.size());
+    return batches;
+  }
+
+  private ArrowFileReader getFileReader(int fileIndex) {
+    if (fileReaders[fileIndex] == null) {
+      fileReaders[fileIndex] = new ArrowFileReader(dfs, jobOutputDir, resultMetadata.get(fileIndex), allocator);
+    }
+    return fileReaders[fileIndex];
+  }
+
+  /**
+   * @return index of the first file whose cumulative record count is greater than the given index, or the
+   * number of files if there is none
+   */
+  private int firstFileEndingAfter(long index) {
+    int low = 0;
+    int high = cumulativeRecordCounts.length;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (cumulativeRecordCounts[mid] > index) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low;
+  }
+
+  @Override
+  public synchronized void close() throws Exception {
+    closed = true;
+    AutoCloseables.close(fileReaders);
+  }
+}
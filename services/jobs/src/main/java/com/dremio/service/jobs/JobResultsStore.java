@@ -23,6 +23,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.arrow.memory.BufferAllocator;
 
@@ -34,7 +35,6 @@ import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
 import com.dremio.exec.record.RecordBatchHolder;
 import com.dremio.exec.store.JobResultsStoreConfig;
 import com.dremio.exec.store.easy.arrow.ArrowFileMetadata;
-import com.dremio.exec.store.easy.arrow.ArrowFileReader;
 import com.dremio.io.file.FileSystem;
 import com.dremio.io.file.Path;
 import com.dremio.service.Service;
@@ -44,8 +44,10 @@ import com.dremio.service.job.proto.JobInfo;
 import com.dremio.service.job.proto.JobResult;
 import com.dremio.service.job.proto.JobState;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
 import com.google.common.collect.Iterables;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 /**
@@ -55,11 +57,27 @@ import com.google.common.collect.Sets;
 public class JobResultsStore implements Service {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(JobResultsStore.class);
 
+  private static final int READER_CACHE_SIZE = Integer.getInteger("dremio.jobs.results.reader_cache.size", 100);
+  private static final long READER_CACHE_EXPIRATION_MINUTES =
+      Long.getLong("dremio.jobs.results.reader_cache.expiration_minutes", 5);
+
   private final String storageName;
   private final Path jobStoreLocation;
   private final FileSystem dfs;
   private final BufferAllocator allocator;
   private final LegacyIndexedStore<JobId, JobResult> store;
+  // readers of the results of the recently read jobs, keeping the result files open between pages
+  private final Cache<JobId, JobResultsReader> readers = CacheBuilder.newBuilder()
+      .maximumSize(READER_CACHE_SIZE)
+      .expireAfterAccess(READER_CACHE_EXPIRATION_MINUTES, TimeUnit.MINUTES)
+      .removalListener((RemovalListener<JobId, JobResultsReader>) notification -> {
+        try {
+          notification.getValue().close();
+        } catch (Exception e) {
+          logger.warn("Could not close results reader for job {}", notification.getKey().getId(), e);
+        }
+      })
+      .build();
 
   public JobResultsStore(
       final JobResultsStoreConfig resultsStoreConfig,
@@ -94,6 +112,7 @@ public class JobResultsStore implements Service {
   }
 
   public boolean cleanup(JobId jobId) {
+    readers.invalidate(jobId);
     final Path jobOutputDir = getJobOutputDir(jobId);
     try {
       if (doesQueryResultsDirExists(jobOutputDir, jobId)) {
@@ -161,60 +180,7 @@ public class JobResultsStore implements Service {
             .build(logger);
       }
 
-      final List<ArrowFileMetadata> resultFilesToRead = Lists.newArrayList();
-      int runningFileRecordCount = 0;
-      int remainingRecords = limit;
-      for(ArrowFileMetadata fileMetadata : resultMetadata) {
-        if (offset < runningFileRecordCount + fileMetadata.getRecordCount()) {
-          resultFilesToRead.add(fileMetadata);
-
-          // offset within current file to read records
-          long fileOffset = 0; // fileOffset will be 0 from second file to be read for records.
-          if (resultFilesToRead.size() == 1) {
-            // update the given offset to start from the current file
-            offset -= runningFileRecordCount;
-            fileOffset = offset; // fileOffset will be "offset" for the first file to be read for records.
-          }
-
-          // Find how many records to read from current file.
-          // Min of remaining records in file or remaining records in total to read.
-          long fileLimit = Math.min(fileMetadata.getRecordCount() - fileOffset, remainingRecords);
-          remainingRecords -= fileLimit;
-
-          // stop including files if there are no remainingRecords to be included.
-          if (remainingRecords <=0) {
-            break;
-          }
-        }
-
-        runningFileRecordCount += fileMetadata.getRecordCount();
-      }
-
-      final List<RecordBatchHolder> batchHolders = Lists.newArrayList();
-      if (resultFilesToRead.isEmpty()) {
-        // when the query returns no results at all or the requested range is invalid, return an empty record batch
-        // for metadata purposes.
-        batchHolders.addAll(getQueryResults(jobOutputDir, resultMetadata.get(0), allocator, 0, 0));
-
-      } else {
-        runningFileRecordCount = 0;
-        int remaining = limit;
-        for(ArrowFileMetadata file : resultFilesToRead) {
-
-          // Find the starting record index in file
-          final long fileOffset = Math.max(0, offset - runningFileRecordCount);
-
-          // Find how many records to read from file.
-          // Min of remaining records in file or remaining records in total to read.
-          final long fileLimit = Math.min(file.getRecordCount() - fileOffset, remaining);
-
-          batchHolders.addAll(getQueryResults(jobOutputDir, file, allocator, fileOffset, fileLimit));
-          remaining -= fileLimit;
-
-          runningFileRecordCount += file.getRecordCount();
-        }
-      }
-
+      final List<RecordBatchHolder> batchHolders = getQueryResults(jobId, jobOutputDir, resultMetadata, offset, limit);
       return new RecordBatches(batchHolders);
     } catch(IOException ex){
       throw UserException.dataReadError(ex)
@@ -223,13 +189,35 @@ public class JobResultsStore implements Service {
     }
   }
 
-  protected List<RecordBatchHolder> getQueryResults(Path jobOutputDir,
-                                                    ArrowFileMetadata arrowFileMetadata,
-                                                    BufferAllocator allocator,
-                                                    long fileOffset,
-                                                    long fileLimit) throws IOException {
-    try(ArrowFileReader fileReader = new ArrowFileReader(dfs, jobOutputDir, arrowFileMetadata, allocator)) {
-      return fileReader.read(fileOffset, fileLimit);
+  @VisibleForTesting
+  JobResultsReader getCachedReader(JobId jobId) {
+    return readers.getIfPresent(jobId);
+  }
+
+  protected List<RecordBatchHolder> getQueryResults(JobId jobId,
+                                                    Path jobOutputDir,
+                                                    List<ArrowFileMetadata> resultMetadata,
+                                                    long offset,
+                                                    long limit) throws IOException {
+    JobResultsReader reader = readers.getIfPresent(jobId);
+    if (reader == null || !reader.isFor(jobOutputDir, resultMetadata)) {
+      reader = new JobResultsReader(dfs, jobOutputDir, resultMetadata, allocator);
+      // replacing a stale reader closes it
+      readers.put(jobId, reader);
+    }
+
+    final List<RecordBatchHolder> batchHolders = reader.read(offset, limit);
+    if (batchHolders != null) {
+      return batchHolders;
+    }
+
+    // the reader was evicted and closed concurrently, read without caching
+    try (JobResultsReader uncachedReader = new JobResultsReader(dfs, jobOutputDir, resultMetadata, allocator)) {
+      return uncachedReader.read(offset, limit);
+    } catch (IOException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IOException(e);
     }
   }
 
@@ -300,6 +288,7 @@ public class JobResultsStore implements Service {
 
   @Override
   public void close() throws Exception {
+    readers.invalidateAll();
   }
 
   protected Set<NodeEndpoint> getNodeEndpoints(JobId jobId) {
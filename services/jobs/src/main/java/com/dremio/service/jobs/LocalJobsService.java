@@ -52,6 +52,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -466,6 +467,7 @@ public class LocalJobsService implements Service, JobResultInfoProvider {
       .collect(Collectors.toSet());
     final Set<CoordinationProtos.NodeEndpoint> coordEndpoints = new HashSet<>(coordinators);
 
+    final Map<JobId, JobResult> failedJobs = new LinkedHashMap<>();
     for (final Entry<JobId, JobResult> entry : apparentlyAbandoned) {
       final JobResult jobResult = entry.getValue();
       final List<JobAttempt> attempts = jobResult.getAttemptsList();
@@ -487,10 +489,11 @@ public class LocalJobsService implements Service, JobResultInfoProvider {
           attempts.remove(numAttempts - 1);
           attempts.add(newLastAttempt);
           jobResult.setCompleted(true); // mark the job as completed
-          jobStore.put(entry.getKey(), entry.getValue());
+          failedJobs.put(entry.getKey(), entry.getValue());
         }
       }
     }
+    jobStore.putAll(failedJobs);
   }
 
   @Override
@@ -1089,6 +1092,12 @@ public class LocalJobsService implements Service, JobResultInfoProvider {
 
   private static class JobConverter implements DocumentConverter<JobId, JobResult> {
 
+    @Override
+    public List<SearchFieldSorting> getWarmingSort() {
+      // jobs are listed by start time by default
+      return DEFAULT_SORTER;
+    }
+
     @Override
     public void convert(DocumentWriter writer, JobId key, JobResult job) {
       final Set<NamespaceKey> allDatasets = new HashSet<>();
@@ -2446,9 +2455,9 @@ public class LocalJobsService implements Service, JobResultInfoProvider {
             .setCondition(JobsServiceUtil.getApparentlyAbandonedQuery())).spliterator(), false)
             .collect(Collectors.toSet());
 
+        final List<JobId> notRunningJobIds = new ArrayList<>();
         for (final Entry<JobId, JobResult> entry : apparentlyAbandoned) {
-          JobResult jobResult = entry.getValue();
-          JobAttempt lastAttempt = getJobAttemptIfNotFinalState(jobResult);
+          JobAttempt lastAttempt = getJobAttemptIfNotFinalState(entry.getValue());
           if (lastAttempt != null) {
             boolean isLocalJob = lastAttempt.getEndpoint().equals(identity);
             boolean isJobInProgress = true;
@@ -2457,28 +2466,38 @@ public class LocalJobsService implements Service, JobResultInfoProvider {
             }
 
             if (!isJobInProgress) {
-              //Before updating the job to FAILED state check if the job status in store is not final state.
-              //This is required because between the time apparentlyAbandoned jobs are retrieved and the time the job
-              //is verified to be not running in runningJobs, the job status might have got changed.
-              jobResult = store.get(lastAttempt.getInfo().getJobId());
-              if (jobResult != null) {
-                lastAttempt = getJobAttemptIfNotFinalState(jobResult);
-                if (lastAttempt != null) {
-                  logger.info("Failing abandoned job {}", lastAttempt.getInfo().getJobId().getId());
-                  final JobAttempt newLastAttempt = lastAttempt.setState(JobState.FAILED)
-                    .setInfo(lastAttempt.getInfo().setFinishTime(System.currentTimeMillis())
-                    .setFailureInfo("Query failed due to kvstore or network errors. Details and profile information for this job may be partial or missing."));
-                  final List<JobAttempt> attempts = jobResult.getAttemptsList();
-                  final int numAttempts = attempts.size();
-                  attempts.remove(numAttempts - 1);
-                  attempts.add(newLastAttempt);
-                  jobResult.setCompleted(true); // mark the job as completed
-                  store.put(entry.getKey(), jobResult);
-                }
-              }
+              notRunningJobIds.add(entry.getKey());
+            }
+          }
+        }
+        if (notRunningJobIds.isEmpty()) {
+          return;
+        }
+
+        //Before updating the jobs to FAILED state check if the job status in store is not final state.
+        //This is required because between the time apparentlyAbandoned jobs are retrieved and the time the jobs
+        //are verified to be not running in runningJobs, the job status might have got changed.
+        final List<JobResult> jobResults = store.get(notRunningJobIds);
+        final Map<JobId, JobResult> failedJobs = new LinkedHashMap<>();
+        for (int i = 0; i < notRunningJobIds.size(); i++) {
+          final JobResult jobResult = jobResults.get(i);
+          if (jobResult != null) {
+            final JobAttempt lastAttempt = getJobAttemptIfNotFinalState(jobResult);
+            if (lastAttempt != null) {
+              logger.info("Failing abandoned job {}", lastAttempt.getInfo().getJobId().getId());
+              final JobAttempt newLastAttempt = lastAttempt.setState(JobState.FAILED)
+                .setInfo(lastAttempt.getInfo().setFinishTime(System.currentTimeMillis())
+                .setFailureInfo("Query failed due to kvstore or network errors. Details and profile information for this job may be partial or missing."));
+              final List<JobAttempt> attempts = jobResult.getAttemptsList();
+              final int numAttempts = attempts.size();
+              attempts.remove(numAttempts - 1);
+              attempts.add(newLastAttempt);
+              jobResult.setCompleted(true); // mark the job as completed
+              failedJobs.put(notRunningJobIds.get(i), jobResult);
             }
           }
         }
+        store.putAll(failedJobs);
       } catch (Exception e) {
         logger.error("Error while setting FAILED state for any abandoned jobs that may be present. Will attempt in next invocation", e);
       }
@@ -18,6 +18,8 @@ package com.dremio.service.jobs;
 import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.notNull;
@@ -53,6 +55,7 @@ import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
+import com.dremio.datastore.api.LegacyIndexedStore;
 import com.dremio.exec.hadoop.HadoopFileSystem;
 import com.dremio.exec.physical.base.OpProps;
 import com.dremio.exec.proto.ExecProtos.FragmentHandle;
@@ -61,6 +64,7 @@ import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
 import com.dremio.exec.record.RecordBatchHolder;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.exec.record.VectorWrapper;
+import com.dremio.exec.store.JobResultsStoreConfig;
 import com.dremio.exec.store.RecordWriter.OutputEntryListener;
 import com.dremio.exec.store.RecordWriter.WriteStatsListener;
 import com.dremio.exec.store.dfs.FileSystemPlugin;
@@ -72,6 +76,8 @@ import com.dremio.exec.store.easy.arrow.ArrowFileReader;
 import com.dremio.exec.store.easy.arrow.ArrowFormatPluginConfig;
 import com.dremio.exec.store.easy.arrow.ArrowRecordWriter;
 import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.service.job.proto.JobId;
+import com.dremio.service.job.proto.JobResult;
 import com.dremio.test.AllocatorRule;
 import com.dremio.test.DremioTest;
 import com.google.common.collect.Iterators;
@@ -343,6 +349,134 @@ public class TestArrowFileReader extends DremioTest {
     }
   }
 
+  @Test
+  public void readingEachRecordOfMultiBatchFile() throws Exception {
+    List<VectorContainer> containers = Lists.newArrayList();
+    try (final BufferAllocator allocator = allocatorRule.newAllocator("test-arrow-file-reader", 0, Long.MAX_VALUE)) {
+      for (int i = 0; i < 4; i++) {
+        containers.add(createBatch(5, testBitVector(allocator), testVarCharVector(allocator)));
+      }
+
+      Path basePath = new Path(dateGenFolder.getRoot().getPath());
+      ArrowFileMetadata metadata = writeArrowFile(containers.toArray(new VectorContainer[4]));
+      try (ArrowFileReader reader = new ArrowFileReader(HadoopFileSystem.getLocal(FS_CONF),
+          com.dremio.io.file.Path.of(basePath.toUri()), metadata, allocator)) {
+        // the batch of each record is found whatever the previous reads
+        for (int i : new int[] {0, 19, 4, 5, 14, 10, 9, 15, 3}) {
+          List<RecordBatchHolder> batchHolders = getRecords(reader, i, 1, allocator);
+          assertEquals(1, batchHolders.size());
+          verifyBatchHolder(batchHolders.get(0), i % 5, i % 5 + 1);
+          VectorContainer batchContainer = batchHolders.get(0).getData().getContainer();
+          assertEquals(TEST_VARCHAR_VALUES.subList(i % 5, i % 5 + 1), getVarCharValues(batchContainer, i % 5, i % 5 + 1));
+          releaseBatches(batchHolders);
+        }
+      }
+    } finally {
+      for (VectorContainer container : containers) {
+        container.clear();
+      }
+    }
+  }
+
+  @Test
+  public void readingAfterClose() throws Exception {
+    VectorContainer batchData = null;
+    try (final BufferAllocator allocator = allocatorRule.newAllocator("test-arrow-file-reader", 0, Long.MAX_VALUE)) {
+      Path basePath = new Path(dateGenFolder.getRoot().getPath());
+      batchData = createBatch(5, testBitVector(allocator), testVarCharVector(allocator));
+      ArrowFileMetadata metadata = writeArrowFile(batchData);
+
+      ArrowFileReader reader = new ArrowFileReader(HadoopFileSystem.getLocal(FS_CONF),
+          com.dremio.io.file.Path.of(basePath.toUri()), metadata, allocator);
+      List<RecordBatchHolder> batchHolders = getRecords(reader, 0, 5, allocator);
+      // closing the reader releases the file, not the batches read
+      reader.close();
+      assertEquals(TEST_VARCHAR_VALUES, getVarCharValues(batchHolders.get(0).getData().getContainer(), 0, 5));
+      releaseBatches(batchHolders);
+
+      // the file is opened again by the next read
+      batchHolders = getRecords(reader, 1, 2, allocator);
+      verifyBatchHolder(batchHolders.get(0), 1, 3);
+      releaseBatches(batchHolders);
+      reader.close();
+    } finally {
+      if (batchData != null) {
+        batchData.clear();
+      }
+    }
+  }
+
+  @Test
+  public void readingMultiFileResults() throws Exception {
+    try (final BufferAllocator allocator = allocatorRule.newAllocator("test-arrow-file-reader", 0, Long.MAX_VALUE)) {
+      final List<ArrowFileMetadata> metadata = writeResultFiles(allocator, 3);
+      final com.dremio.io.file.Path jobOutputDir =
+          com.dremio.io.file.Path.of(new Path(dateGenFolder.getRoot().getPath()).toUri());
+
+      try (JobResultsReader reader = new JobResultsReader(HadoopFileSystem.getLocal(FS_CONF), jobOutputDir, metadata,
+          allocator)) {
+        // the file of each record is found whatever the previous reads
+        for (int i : new int[] {0, 14, 4, 5, 9, 10, 3}) {
+          List<RecordBatchHolder> batchHolders = reader.read(i, 1);
+          assertEquals(1, batchHolders.size());
+          verifyBatchHolder(batchHolders.get(0), i % 5, i % 5 + 1);
+          releaseBatches(batchHolders);
+        }
+
+        // a range spanning all the files
+        List<RecordBatchHolder> batchHolders = reader.read(3, 10);
+        assertEquals(3, batchHolders.size());
+        verifyBatchHolder(batchHolders.get(0), 3, 5);
+        verifyBatchHolder(batchHolders.get(1), 0, 5);
+        verifyBatchHolder(batchHolders.get(2), 0, 3);
+        releaseBatches(batchHolders);
+
+        // a range past the results returns an empty batch
+        batchHolders = reader.read(15, 1);
+        assertEquals(1, batchHolders.size());
+        assertEquals(0, batchHolders.get(0).size());
+        releaseBatches(batchHolders);
+      }
+    }
+  }
+
+  @Test
+  public void evictedResultsReaderIsClosed() throws Exception {
+    try (final BufferAllocator allocator = allocatorRule.newAllocator("test-arrow-file-reader", 0, Long.MAX_VALUE)) {
+      final List<ArrowFileMetadata> metadata = writeResultFiles(allocator, 2);
+      final com.dremio.io.file.Path jobOutputDir =
+          com.dremio.io.file.Path.of(new Path(dateGenFolder.getRoot().getPath()).toUri());
+      @SuppressWarnings("unchecked")
+      final LegacyIndexedStore<JobId, JobResult> store = mock(LegacyIndexedStore.class);
+      final JobResultsStore resultsStore = new JobResultsStore(
+          new JobResultsStoreConfig("results", jobOutputDir, HadoopFileSystem.getLocal(FS_CONF)), store, allocator) {
+        @Override
+        protected boolean doesQueryResultsDirExists(com.dremio.io.file.Path jobOutputDir, JobId jobId) {
+          return false;
+        }
+      };
+      final JobId jobId = new JobId("job");
+
+      // the reader is kept open between the reads of the results
+      releaseBatches(resultsStore.getQueryResults(jobId, jobOutputDir, metadata, 0, 7));
+      final JobResultsReader reader = resultsStore.getCachedReader(jobId);
+      assertNotNull(reader);
+      releaseBatches(resultsStore.getQueryResults(jobId, jobOutputDir, metadata, 7, 3));
+      assertSame(reader, resultsStore.getCachedReader(jobId));
+
+      // cleaning up the job evicts and closes its reader, with its mapped files
+      resultsStore.cleanup(jobId);
+      assertNull(resultsStore.getCachedReader(jobId));
+      assertNull(reader.read(0, 1));
+
+      // the results can still be read
+      final List<RecordBatchHolder> batchHolders = resultsStore.getQueryResults(jobId, jobOutputDir, metadata, 5, 2);
+      verifyBatchHolder(batchHolders.get(0), 0, 2);
+      releaseBatches(batchHolders);
+      resultsStore.close();
+    }
+  }
+
   @Test
   public void writeAndReadEmptyListVectors() throws Exception {
     try (final BufferAllocator allocator = allocatorRule.newAllocator("test-arrow-file-reader", 0, Long.MAX_VALUE);
@@ -507,10 +641,25 @@ public class TestArrowFileReader extends DremioTest {
     return Mockito.mock(OperatorContext.class);
   }
 
+  /** Helper method that writes result files of a single batch with 5 records and returns their metadata */
+  private List<ArrowFileMetadata> writeResultFiles(BufferAllocator allocator, int numFiles) throws Exception {
+    final List<ArrowFileMetadata> metadata = new ArrayList<>();
+    for (int i = 0; i < numFiles; i++) {
+      try (VectorContainer batchData = createBatch(5, testBitVector(allocator), testVarCharVector(allocator))) {
+        metadata.add(writeArrowFile(i, batchData));
+      }
+    }
+    return metadata;
+  }
+
   /** Helper method that write the given batches to a file with given name and returns the file metadata */
   private ArrowFileMetadata writeArrowFile(VectorContainer... batches) throws Exception {
+    return writeArrowFile(234234, batches);
+  }
+
+  private ArrowFileMetadata writeArrowFile(int minorFragmentId, VectorContainer... batches) throws Exception {
     OperatorContext opContext = getOperatorContext();
-    when(opContext.getFragmentHandle()).thenReturn(FragmentHandle.newBuilder().setMajorFragmentId(2323).setMinorFragmentId(234234).build());
+    when(opContext.getFragmentHandle()).thenReturn(FragmentHandle.newBuilder().setMajorFragmentId(2323).setMinorFragmentId(minorFragmentId).build());
 
     final EasyWriter writerConf = mock(EasyWriter.class);
     when(writerConf.getLocation()).thenReturn(dateGenFolder.getRoot().toString());
@@ -43,6 +43,7 @@ import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
@@ -110,6 +111,9 @@ public class NamespaceServiceImpl implements NamespaceService {
   public static final String PARTITION_CHUNKS = "metadata-dataset-splits";
   public static final String MULTI_SPLITS = "metadata-multi-splits";
 
+  // number of partition chunks (and multi-splits) of a dataset written to the K/V store at once.
+  private static final int PARTITION_CHUNK_WRITE_BATCH_SIZE = 1000;
+
   private final LegacyIndexedStore<String, NameSpaceContainer> namespace;
   private final LegacyIndexedStore<PartitionChunkId, PartitionChunk> partitionChunkStore;
   private final LegacyKVStore<PartitionChunkId, MultiSplit> multiSplitStore;
@@ -502,6 +506,8 @@ public class NamespaceServiceImpl implements NamespaceService {
     private long accumulatedRecordCount;
     private List<DatasetSplit> accumulatedSplits;
     private int totalNumSplits;
+    private final Map<PartitionChunkId, PartitionChunk> pendingPartitionChunks = new LinkedHashMap<>();
+    private final Map<PartitionChunkId, MultiSplit> pendingMultiSplits = new LinkedHashMap<>();
 
     DatasetMetadataSaverImpl(NamespaceKey datasetPath, EntityId datasetId, long nextDatasetVersion, SplitCompression splitCompression, long maxSinglePartitionChunks) {
       this.datasetPath = datasetPath;
@@ -562,16 +568,33 @@ public class NamespaceServiceImpl implements NamespaceService {
         partitionChunkWithSingleSplitCount++;
       }
       PartitionChunkId chunkId = PartitionChunkId.of(datasetId, nextDatasetVersion, splitKey);
-      NamespaceServiceImpl.this.partitionChunkStore.put(chunkId, builder.build());
+      pendingPartitionChunks.put(chunkId, builder.build());
       createdPartitionChunks.add(chunkId);
-      // Intentionally creating any potential multi-splits after creating the partition chunk.
-      // This makes orphan cleaning simpler, as we can key only on the existing partitionChunk(s), and remove
-      // any matching multi-splits
       if (accumulatedSplits.size() > 1 || !singleSplitPartitionAllowed) {
-        NamespaceServiceImpl.this.multiSplitStore.put(chunkId, createMultiSplitFromAccumulated(splitKey));
+        pendingMultiSplits.put(chunkId, createMultiSplitFromAccumulated(splitKey));
       }
       totalNumSplits += accumulatedSplits.size();
       resetSplitAccumulation();
+      if (pendingPartitionChunks.size() >= PARTITION_CHUNK_WRITE_BATCH_SIZE) {
+        flushPartitionChunks();
+      }
+    }
+
+    /**
+     * Write the pending partition chunks and multi-splits to the K/V store.
+     */
+    private void flushPartitionChunks() {
+      // Intentionally creating any potential multi-splits after creating the partition chunks.
+      // This makes orphan cleaning simpler, as we can key only on the existing partitionChunk(s), and remove
+      // any matching multi-splits
+      if (!pendingPartitionChunks.isEmpty()) {
+        NamespaceServiceImpl.this.partitionChunkStore.putAll(pendingPartitionChunks);
+        pendingPartitionChunks.clear();
+      }
+      if (!pendingMultiSplits.isEmpty()) {
+        NamespaceServiceImpl.this.multiSplitStore.putAll(pendingMultiSplits);
+        pendingMultiSplits.clear();
+      }
     }
 
     private OutputStream wrapIfNeeded(OutputStream o) throws IOException {
@@ -631,6 +654,7 @@ public class NamespaceServiceImpl implements NamespaceService {
         }
         savePartitionChunk(chunk);
       }
+      flushPartitionChunks();
       return recordCountFromSplits;
     }
 
@@ -738,13 +762,13 @@ public class NamespaceServiceImpl implements NamespaceService {
     }
 
     final long nextSplitVersion = System.currentTimeMillis();
-    final List<PartitionChunkId> splitIds = Lists.newArrayList();
+    final Map<PartitionChunkId, PartitionChunk> newSplits = new LinkedHashMap<>();
     // only if splits have changed update splits version and retry read definition on concurrent modification.
     for (PartitionChunk split : splits) {
-      final PartitionChunkId splitId = PartitionChunkId.of(dataset, split, nextSplitVersion);
-      partitionChunkStore.put(splitId, split);
-      splitIds.add(splitId);
+      newSplits.put(PartitionChunkId.of(dataset, split, nextSplitVersion), split);
     }
+    partitionChunkStore.putAll(newSplits);
+    final List<PartitionChunkId> splitIds = Lists.newArrayList(newSplits.keySet());
     dataset.getReadDefinition().setSplitVersion(nextSplitVersion);
     while (true) {
       try {
@@ -775,10 +799,9 @@ public class NamespaceServiceImpl implements NamespaceService {
 
   @Override
   public void deleteSplits(Iterable<PartitionChunkId> splits) {
-    for (PartitionChunkId split: splits) {
-      partitionChunkStore.delete(split);
-      multiSplitStore.delete(split);
-    }
+    final List<PartitionChunkId> splitIds = Lists.newArrayList(splits);
+    partitionChunkStore.deleteAll(splitIds);
+    multiSplitStore.deleteAll(splitIds);
   }
 
   @Override